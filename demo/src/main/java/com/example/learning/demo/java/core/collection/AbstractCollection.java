@@ -1,6 +1,9 @@
 package com.example.learning.demo.java.core.collection;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.function.Predicate;
 
 /**
  * 这个类提供了一个 <tt>Collection</tt> 接口的骨架实现，以减少实现此接口所需的工作量。
@@ -65,24 +68,34 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      *
      * <p>
      * 此实现遍历集合中的元素，逐一检查它们是否与指定元素相等。
+     * 元素通过 {@link Iterator#nextBatch} 成批取出，以减少每个元素的虚调用次数。
      *
      * @throws ClassCastException   {@inheritDoc}
      * @throws NullPointerException {@inheritDoc}
      */
     public boolean contains(Object o) {
         Iterator<E> it = iterator();
+        Object[] batch = new Object[Math.max(1, Math.min(size(), BATCH_SIZE))];
+        int n;
         if (o == null) {
-            while (it.hasNext())
-                if (it.next() == null)
-                    return true;
+            while ((n = it.nextBatch(batch, 0, batch.length)) > 0)
+                for (int i = 0; i < n; i++)
+                    if (batch[i] == null)
+                        return true;
         } else {
-            while (it.hasNext())
-                if (o.equals(it.next()))
-                    return true;
+            while ((n = it.nextBatch(batch, 0, batch.length)) > 0)
+                for (int i = 0; i < n; i++)
+                    if (o.equals(batch[i]))
+                        return true;
         }
         return false;
     }
 
+    /**
+     * {@link #contains(Object)} 每次通过 {@link Iterator#nextBatch} 取出的元素个数上限。
+     */
+    private static final int BATCH_SIZE = 64;
+
     /**
      * {@inheritDoc}
      *
@@ -106,14 +119,22 @@ public abstract class AbstractCollection<E> implements Collection<E> {
         // 估算数组大小；准备好看到更多或更少的元素
         Object[] r = new Object[size()];
         Iterator<E> it = iterator();
-        for (int i = 0; i < r.length; i++) {
-            if (!it.hasNext()) // 元素比预期少
-                return Arrays.copyOf(r, i);
-            r[i] = it.next();
-        }
+        int i = fill(r, it);
+        if (i < r.length) // 元素比预期少
+            return Arrays.copyOf(r, i);
         return it.hasNext() ? finishToArray(r, it) : r;
     }
 
+    /**
+     * 通过 {@link Iterator#nextBatch} 尽可能填满 {@code r}，返回写入的元素个数。
+     */
+    private static int fill(Object[] r, Iterator<?> it) {
+        int i = 0, n;
+        while (i < r.length && (n = it.nextBatch(r, i, r.length - i)) > 0)
+            i += n;
+        return i;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -145,21 +166,19 @@ public abstract class AbstractCollection<E> implements Collection<E> {
                         .newInstance(a.getClass().getComponentType(), size);
         Iterator<E> it = iterator();
 
-        for (int i = 0; i < r.length; i++) {
-            if (!it.hasNext()) { // 元素比预期少
-                if (a == r) {
-                    r[i] = null; // null 结束
-                } else if (a.length < i) {
-                    return Arrays.copyOf(r, i);
-                } else {
-                    System.arraycopy(r, 0, a, 0, i);
-                    if (a.length > i) {
-                        a[i] = null;
-                    }
+        int i = fill(r, it);
+        if (i < r.length) { // 元素比预期少
+            if (a == r) {
+                r[i] = null; // null 结束
+            } else if (a.length < i) {
+                return Arrays.copyOf(r, i);
+            } else {
+                System.arraycopy(r, 0, a, 0, i);
+                if (a.length > i) {
+                    a[i] = null;
                 }
-                return a;
             }
-            r[i] = (T) it.next();
+            return a;
         }
         // 元素比预期多
         return it.hasNext() ? finishToArray(r, it) : r;
@@ -175,7 +194,7 @@ public abstract class AbstractCollection<E> implements Collection<E> {
 
     /**
      * 当迭代器返回的元素比预期多时，重新分配用于存储元素的数组，
-     * 并从迭代器继续填充。
+     * 并通过 {@link Iterator#nextBatch} 从迭代器继续成批填充。
      *
      * @param r  已包含之前存储的元素的数组
      * @param it 进行中的迭代器
@@ -193,7 +212,7 @@ public abstract class AbstractCollection<E> implements Collection<E> {
                     newCap = hugeCapacity(cap + 1);
                 r = Arrays.copyOf(r, newCap);
             }
-            r[i++] = (T) it.next();
+            i += it.nextBatch(r, i, r.length - i);
         }
         // 修剪多分配的部分
         return (i == r.length) ? r : Arrays.copyOf(r, i);
@@ -257,4 +276,244 @@ public abstract class AbstractCollection<E> implements Collection<E> {
         }
         return false;
     }
+
+    // 批量操作
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现遍历指定的集合，依次检查迭代器返回的每个元素是否包含在此集合中。
+     * 如果全部包含则返回 <tt>true</tt>，否则返回 <tt>false</tt>。
+     *
+     * <p>
+     * 当指定集合的大小超过 {@link #HASH_INDEX_THRESHOLD} 时，此实现通过 {@link #membership membership(this)}
+     * 检查成员关系：如果此集合不是 {@link java.util.Set} 且大小也超过该阈值，就先为此集合建立一个临时的哈希索引，
+     * 把逐个调用 {@link #contains(Object)} 的 O(n·m) 代价降为 O(n + m)；否则仍然使用此集合的 <tt>contains</tt>。
+     * 指定集合不超过该阈值时，直接逐个调用 <tt>contains</tt>。
+     *
+     * <p>
+     * 如果指定集合是 {@link RoaringBitmap}：此集合也是位图时直接逐块比较（{@link RoaringBitmap#contains(RoaringBitmap)}），
+     * 不对成员装箱；否则当位图的成员数多于此集合的元素个数时，此集合不可能包含全部成员，立即返回 <tt>false</tt>。
+     *
+     * @throws ClassCastException   {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     * @see #contains(Object)
+     */
+    public boolean containsAll(java.util.Collection<?> c) {
+        if (c instanceof RoaringBitmap) {
+            RoaringBitmap bits = (RoaringBitmap) c;
+            if (this instanceof RoaringBitmap)
+                return ((RoaringBitmap) this).contains(bits);
+            if (bits.getCardinality() > size())
+                return false;
+        }
+        if (c.size() > HASH_INDEX_THRESHOLD) {
+            Predicate<Object> member = membership(this);
+            for (Object e : c)
+                if (!member.test(e))
+                    return false;
+            return true;
+        }
+        for (Object e : c)
+            if (!contains(e))
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现等价于 {@link #containsAll(java.util.Collection)}。
+     */
+    public boolean containsAll(Collection<?> c) {
+        return containsAll((java.util.Collection<?>) c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现遍历指定的集合，并将迭代器返回的每个对象依次添加到此集合中。
+     *
+     * <p>
+     * 注意，除非重写了 <tt>add</tt>，否则此实现会抛出 <tt>UnsupportedOperationException</tt>
+     * （假设指定的集合非空）。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @throws IllegalStateException         {@inheritDoc}
+     *
+     * @see #add(Object)
+     */
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        boolean modified = false;
+        for (E e : c)
+            if (add(e))
+                modified = true;
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现等价于 {@link #addAll(java.util.Collection)}。
+     */
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll((java.util.Collection<? extends E>) c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现通过 {@link #removeIf} 移除此集合中所有包含在指定集合中的元素。
+     * 如果指定集合的大小超过 {@link #HASH_INDEX_THRESHOLD} 且它不是 {@link java.util.Set}，
+     * 会先为它建立一个临时的哈希索引，使每次成员检查为 O(1) 而不是 O(m)。
+     * 数组支持的子类（例如 {@link ArrayList}）重写了 <tt>removeIf</tt>，可以一次压缩完成；
+     * 其他集合则回退到 <tt>Iterator.remove</tt>。
+     *
+     * <p>
+     * 注意，如果 <tt>iterator</tt> 方法返回的迭代器没有实现 <tt>remove</tt> 方法（且未重写 <tt>removeIf</tt>），
+     * 且此集合包含一个或多个与指定集合共有的元素，则此实现会抛出 <tt>UnsupportedOperationException</tt>。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     *
+     * @see #remove(Object)
+     * @see #contains(Object)
+     */
+    public boolean removeAll(java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        if (isEmpty() || c.isEmpty())
+            return false;
+        return removeIf(membership(c));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现等价于 {@link #removeAll(java.util.Collection)}。
+     */
+    public boolean removeAll(Collection<?> c) {
+        return removeAll((java.util.Collection<?>) c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现通过 {@link #removeIf} 移除此集合中所有不包含在指定集合中的元素。
+     * 成员检查的加速方式与 {@link #removeAll(java.util.Collection)} 相同。如果此集合和指定集合都是
+     * {@link RoaringBitmap}，则就地逐块求交集（{@link RoaringBitmap#and(RoaringBitmap)}），不经过迭代器。
+     *
+     * <p>
+     * 注意，如果 <tt>iterator</tt> 方法返回的迭代器没有实现 <tt>remove</tt> 方法（且未重写 <tt>removeIf</tt>），
+     * 且此集合包含一个或多个不在指定集合中的元素，则此实现会抛出 <tt>UnsupportedOperationException</tt>。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     *
+     * @see #remove(Object)
+     * @see #contains(Object)
+     */
+    public boolean retainAll(java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        if (isEmpty())
+            return false;
+        if (c instanceof RoaringBitmap && this instanceof RoaringBitmap) {
+            RoaringBitmap self = (RoaringBitmap) this;
+            long before = self.getCardinality();
+            self.and((RoaringBitmap) c);
+            return self.getCardinality() != before;
+        }
+        return removeIf(membership(c).negate());
+    }
+
+    /**
+     * 批量操作对参数建立临时哈希索引的大小阈值。不超过此大小的集合直接用它自身的
+     * <tt>contains</tt> 做线性查找，因为建立索引本身的开销（分配和哈希）在小集合上得不偿失。
+     */
+    static final int HASH_INDEX_THRESHOLD = 32;
+
+    /**
+     * 返回判断元素是否属于 <tt>c</tt> 的谓词。
+     *
+     * <p>
+     * 如果 <tt>c</tt> 已经是 {@link java.util.Set}（其 <tt>contains</tt> 通常是哈希或树查找，
+     * 且可能使用与 <tt>equals</tt> 不同的相等语义，例如比较器或引用相等），或者 <tt>c</tt> 足够小，
+     * 则直接使用 <tt>c.contains</tt>；否则把 <tt>c</tt> 复制到一个临时的 {@link HashSet} 中。
+     * 临时索引依赖元素的 <tt>hashCode</tt> 与 <tt>equals</tt> 一致，这是 {@link Object#hashCode()} 的通用约定。
+     *
+     * @param c 要检查成员关系的集合
+     * @return 成员关系谓词
+     */
+    static Predicate<Object> membership(java.util.Collection<?> c) {
+        if (c instanceof java.util.Set || c.size() <= HASH_INDEX_THRESHOLD)
+            return c::contains;
+        return new HashSet<Object>(c)::contains;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现等价于 {@link #retainAll(java.util.Collection)}。
+     */
+    public boolean retainAll(Collection<?> c) {
+        return retainAll((java.util.Collection<?>) c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现遍历此集合，使用 <tt>Iterator.remove</tt> 操作移除每个元素。
+     * 大多数实现可能会选择重写此方法以提高效率。
+     *
+     * <p>
+     * 注意，如果此集合的 <tt>iterator</tt> 方法返回的迭代器没有实现 <tt>remove</tt> 方法，
+     * 且此集合非空，则此实现会抛出 <tt>UnsupportedOperationException</tt>。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    public void clear() {
+        Iterator<E> it = iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // 字符串转换
+
+    /**
+     * 返回此集合的字符串表示形式。字符串表示由集合元素的列表组成，元素顺序与迭代器返回的顺序相同，
+     * 并用方括号（<tt>"[]"</tt>）括起来。相邻元素之间用字符 <tt>", "</tt>（逗号和空格）分隔。
+     * 元素通过 {@link String#valueOf(Object)} 转换为字符串。
+     *
+     * @return 此集合的字符串表示形式
+     */
+    public String toString() {
+        Iterator<E> it = iterator();
+        if (!it.hasNext())
+            return "[]";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (;;) {
+            E e = it.next();
+            sb.append(e == this ? "(this Collection)" : e);
+            if (!it.hasNext())
+                return sb.append(']').toString();
+            sb.append(',').append(' ');
+        }
+    }
 }
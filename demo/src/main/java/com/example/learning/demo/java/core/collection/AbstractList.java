@@ -0,0 +1,809 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * 这个类提供了一个 {@link List} 接口的骨架实现，以减少实现由“随机访问”数据存储（例如数组）
+ * 支持的接口所需的工作量。
+ * <p>
+ *
+ * 要实现一个不可修改的列表，程序员只需扩展此类并提供 {@link #get(int)} 和 {@link List#size() size()}
+ * 方法的实现。
+ * <p>
+ *
+ * 要实现一个可修改的列表，程序员还必须重写 {@link #set(int, Object) set(int, E)} 方法（否则会抛出
+ * {@code UnsupportedOperationException}）。如果列表是可变大小的，程序员还必须重写
+ * {@link #add(int, Object) add(int, E)} 和 {@link #remove(int)} 方法。
+ * <p>
+ *
+ * 与其他抽象集合实现不同，程序员<i>不必</i>提供迭代器实现；迭代器和列表迭代器由此类在
+ * “随机访问”方法 {@link #get(int)}、{@link #set(int, Object) set(int, E)}、
+ * {@link #add(int, Object) add(int, E)} 和 {@link #remove(int)} 之上实现。
+ * <p>
+ *
+ * 这个类中每个非抽象方法的文档详细描述了它的实现。每个方法都可以被重写，如果实现的列表允许更加高效的实现。
+ *
+ * @param <E> 此列表中元素的类型
+ *
+ * @author Josh Bloch
+ * @author Neal Gafter
+ * @see ArrayList
+ * @since 1.2
+ */
+public abstract class AbstractList<E> extends AbstractCollection<E> implements List<E> {
+    /**
+     * 唯一的构造器。（由子类构造器调用，通常是隐式的。）
+     */
+    protected AbstractList() {
+    }
+
+    /**
+     * 将指定元素追加到此列表的末尾（可选操作）。
+     *
+     * <p>
+     * 此实现调用 {@code add(size(), e)}。
+     *
+     * <p>
+     * 注意，除非重写了 {@link #add(int, Object) add(int, E)}，否则此实现会抛出
+     * {@code UnsupportedOperationException}。
+     *
+     * @param e 要追加到此列表的元素
+     * @return {@code true}（由 {@link Collection#add} 指定）
+     * @throws UnsupportedOperationException 如果此列表不支持 {@code add} 操作
+     * @throws ClassCastException            如果指定元素的类不允许将其添加到此列表中
+     * @throws NullPointerException          如果指定元素为 null 而此列表不允许 null 元素
+     * @throws IllegalArgumentException      如果此元素的某些属性不允许将其添加到此列表中
+     */
+    public boolean add(E e) {
+        add(size(), e);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public abstract E get(int index);
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现总是抛出一个 {@code UnsupportedOperationException}。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @throws IndexOutOfBoundsException     {@inheritDoc}
+     */
+    public E set(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现总是抛出一个 {@code UnsupportedOperationException}。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @throws IndexOutOfBoundsException     {@inheritDoc}
+     */
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现总是抛出一个 {@code UnsupportedOperationException}。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws IndexOutOfBoundsException     {@inheritDoc}
+     */
+    public E remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    // 查询操作
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现首先获取一个列表迭代器（通过 {@code listIterator()}），然后遍历列表，直到找到指定元素或到达列表末尾。
+     *
+     * @throws ClassCastException   {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public int indexOf(Object o) {
+        ListIterator<E> it = listIterator();
+        if (o == null) {
+            while (it.hasNext())
+                if (it.next() == null)
+                    return it.previousIndex();
+        } else {
+            while (it.hasNext())
+                if (o.equals(it.next()))
+                    return it.previousIndex();
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现首先获取一个指向列表末尾的列表迭代器（通过 {@code listIterator(size())}），
+     * 然后向前遍历列表，直到找到指定元素或到达列表开头。
+     *
+     * @throws ClassCastException   {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public int lastIndexOf(Object o) {
+        ListIterator<E> it = listIterator(size());
+        if (o == null) {
+            while (it.hasPrevious())
+                if (it.previous() == null)
+                    return it.nextIndex();
+        } else {
+            while (it.hasPrevious())
+                if (o.equals(it.previous()))
+                    return it.nextIndex();
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现随机访问列表时比 {@link Collection#contains} 的迭代器实现更快：直接委托给 {@link #indexOf}。
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    // 批量操作
+
+    /**
+     * 从此列表中移除所有元素（可选操作）。此调用返回后列表将为空。
+     *
+     * <p>
+     * 此实现调用 {@code removeRange(0, size())}。
+     *
+     * @throws UnsupportedOperationException 如果此列表不支持 {@code clear} 操作
+     */
+    public void clear() {
+        removeRange(0, size());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现获取指定集合的迭代器，遍历它，使用 {@code add(int, E)} 将迭代器返回的元素依次插入到此列表的合适位置。
+     * 许多实现会重写此方法以提高效率。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @throws IndexOutOfBoundsException     {@inheritDoc}
+     */
+    public boolean addAll(int index, Collection<? extends E> c) {
+        rangeCheckForAdd(index);
+        boolean modified = false;
+        for (E e : c) {
+            add(index++, e);
+            modified = true;
+        }
+        return modified;
+    }
+
+    // 迭代器
+
+    /**
+     * 返回一个以正确顺序遍历此列表中元素的迭代器。
+     *
+     * <p>
+     * 此实现返回一个迭代器接口的简单实现，依赖于列表的 {@code size()}、{@code get(int)} 和
+     * {@code remove(int)} 方法。
+     *
+     * <p>
+     * 注意，除非重写了列表的 {@code remove(int)} 方法，否则此方法返回的迭代器的 {@code remove}
+     * 方法会抛出 {@link UnsupportedOperationException}。
+     *
+     * <p>
+     * 此实现可以在面对并发修改时抛出运行时异常，如 (protected) {@link #modCount} 字段的规范所述。
+     *
+     * @return 一个以正确顺序遍历此列表中元素的迭代器
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回 {@code listIterator(0)}。
+     *
+     * @see #listIterator(int)
+     */
+    public ListIterator<E> listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回 {@code ListIterator} 接口的一个简单实现，它扩展了 {@code iterator()} 方法返回的
+     * {@code Iterator} 接口的实现。该 {@code ListIterator} 实现依赖于列表的 {@code get(int)}、
+     * {@code set(int, E)}、{@code add(int, E)} 和 {@code remove(int)} 方法。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public ListIterator<E> listIterator(final int index) {
+        rangeCheckForAdd(index);
+
+        return new ListItr(index);
+    }
+
+    private class Itr implements Iterator<E> {
+        /**
+         * 后续调用 next 返回的元素的索引。
+         */
+        int cursor = 0;
+
+        /**
+         * 最近一次调用 next 或 previous 返回的元素的索引。如果该元素被 remove 删除，则重置为 -1。
+         */
+        int lastRet = -1;
+
+        /**
+         * 迭代器认为底层列表应有的 modCount 值。如果违反此期望，迭代器就检测到了并发修改。
+         */
+        int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor != size();
+        }
+
+        public E next() {
+            checkForComodification();
+            try {
+                int i = cursor;
+                E next = get(i);
+                lastRet = i;
+                cursor = i + 1;
+                return next;
+            } catch (IndexOutOfBoundsException e) {
+                checkForComodification();
+                throw new NoSuchElementException();
+            }
+        }
+
+        /**
+         * 按索引连续调用 {@code get}，省去每个元素的 {@code hasNext} 调用。
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            checkForComodification();
+            int i = cursor;
+            int n = Math.min(max, size() - i);
+            if (n <= 0)
+                return 0;
+            try {
+                for (int k = 0; k < n; k++)
+                    dst[off + k] = get(i + k);
+            } catch (IndexOutOfBoundsException e) {
+                checkForComodification();
+                throw new NoSuchElementException();
+            }
+            cursor = i + n;
+            lastRet = cursor - 1;
+            return n;
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            checkForComodification();
+
+            try {
+                AbstractList.this.remove(lastRet);
+                if (lastRet < cursor)
+                    cursor--;
+                lastRet = -1;
+                expectedModCount = modCount;
+            } catch (IndexOutOfBoundsException e) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    private class ListItr extends Itr implements ListIterator<E> {
+        ListItr(int index) {
+            cursor = index;
+        }
+
+        public boolean hasPrevious() {
+            return cursor != 0;
+        }
+
+        public E previous() {
+            checkForComodification();
+            try {
+                int i = cursor - 1;
+                E previous = get(i);
+                lastRet = cursor = i;
+                return previous;
+            } catch (IndexOutOfBoundsException e) {
+                checkForComodification();
+                throw new NoSuchElementException();
+            }
+        }
+
+        public int nextIndex() {
+            return cursor;
+        }
+
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        public void set(E e) {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            checkForComodification();
+
+            try {
+                AbstractList.this.set(lastRet, e);
+                expectedModCount = modCount;
+            } catch (IndexOutOfBoundsException ex) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public void add(E e) {
+            checkForComodification();
+
+            try {
+                int i = cursor;
+                AbstractList.this.add(i, e);
+                lastRet = -1;
+                cursor = i + 1;
+                expectedModCount = modCount;
+            } catch (IndexOutOfBoundsException ex) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回一个继承自 {@code AbstractList} 的子列表。子列表在私有字段中保存其在底层列表中的偏移量、
+     * 子列表的大小（可以在其生命周期内改变）以及底层列表预期的 {@code modCount} 值。
+     * 如果底层列表实现了 {@code RandomAccess}，则子列表也会实现 {@code RandomAccess}。
+     *
+     * @throws IndexOutOfBoundsException 如果端点索引值越界
+     *                                   {@code (fromIndex < 0 || toIndex > size)}
+     * @throws IllegalArgumentException  如果端点索引顺序错误 {@code (fromIndex > toIndex)}
+     */
+    public List<E> subList(int fromIndex, int toIndex) {
+        subListRangeCheck(fromIndex, toIndex, size());
+        return (this instanceof RandomAccess ? new RandomAccessSubList<>(this, fromIndex, toIndex)
+                : new SubList<>(this, fromIndex, toIndex));
+    }
+
+    static void subListRangeCheck(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+        if (toIndex > size)
+            throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IllegalArgumentException("fromIndex(" + fromIndex +
+                    ") > toIndex(" + toIndex + ")");
+    }
+
+    // 比较和哈希
+
+    /**
+     * 比较指定对象与此列表是否相等。当且仅当指定对象也是一个列表，两个列表大小相同，
+     * 并且两个列表中所有对应位置的元素都<i>相等</i>时，返回 {@code true}。
+     *
+     * <p>
+     * 此实现首先检查指定对象是否为此列表。如果是，返回 {@code true}；如果不是，检查指定对象是否为列表。
+     * 如果不是，返回 {@code false}；如果是，同时遍历两个列表，比较对应的元素对。
+     *
+     * @param o 要与此列表比较是否相等的对象
+     * @return 如果指定对象与此列表相等，则返回 {@code true}
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof List))
+            return false;
+
+        ListIterator<E> e1 = listIterator();
+        ListIterator<?> e2 = ((List<?>) o).listIterator();
+        while (e1.hasNext() && e2.hasNext()) {
+            E o1 = e1.next();
+            Object o2 = e2.next();
+            if (!(o1 == null ? o2 == null : o1.equals(o2)))
+                return false;
+        }
+        return !(e1.hasNext() || e2.hasNext());
+    }
+
+    /**
+     * 返回此列表的哈希码值。
+     *
+     * <p>
+     * 此实现使用与 {@code java.util.List#hashCode} 方法文档中定义列表哈希函数完全相同的代码。
+     *
+     * @return 此列表的哈希码值
+     */
+    public int hashCode() {
+        int hashCode = 1;
+        for (E e : this)
+            hashCode = 31 * hashCode + (e == null ? 0 : e.hashCode());
+        return hashCode;
+    }
+
+    /**
+     * 从此列表中移除索引在 {@code fromIndex}（包含）和 {@code toIndex}（不包含）之间的所有元素。
+     * 将所有后续元素左移（减小它们的索引）。如果 {@code toIndex==fromIndex}，此操作无效。
+     *
+     * <p>
+     * 此方法由此列表及其子列表的 {@code clear} 操作调用。重写此方法以利用列表实现的内部结构，
+     * 可以<i>显著</i>提高此列表及其子列表上 {@code clear} 操作的性能。
+     *
+     * <p>
+     * 此实现获取一个位于 {@code fromIndex} 之前的列表迭代器，重复调用 {@code ListIterator.next}
+     * 然后调用 {@code ListIterator.remove}，直到整个范围都被移除。
+     * <b>注意：如果 {@code ListIterator.remove} 需要线性时间，则此实现需要二次方时间。</b>
+     *
+     * @param fromIndex 要移除的第一个元素的索引
+     * @param toIndex   要移除的最后一个元素之后的索引
+     */
+    protected void removeRange(int fromIndex, int toIndex) {
+        ListIterator<E> it = listIterator(fromIndex);
+        for (int i = 0, n = toIndex - fromIndex; i < n; i++) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * 此列表被<i>结构性修改</i>的次数。结构性修改是指改变列表大小，或以其他方式扰乱列表，
+     * 使得正在进行的迭代可能产生错误结果的修改。
+     *
+     * <p>
+     * 此字段由 {@code iterator} 和 {@code listIterator} 方法返回的迭代器和列表迭代器实现使用。
+     * 如果此字段的值意外改变，迭代器（或列表迭代器）将在响应 {@code next}、{@code remove}、
+     * {@code previous}、{@code set} 或 {@code add} 操作时抛出 {@code ConcurrentModificationException}。
+     * 这提供了<i>快速失败</i>行为，而不是在迭代期间面对并发修改时的不确定行为。
+     */
+    protected transient int modCount = 0;
+
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size();
+    }
+
+    /**
+     * 随机访问列表的索引区间 {@link Spliterator}。
+     *
+     * <p>
+     * 与 {@link java.util.Spliterators#spliterator(java.util.Collection, int)} 基于迭代器、
+     * 拆分时要把一批元素复制到数组中的实现不同，此实现只记录 {@code [index, fence)} 区间：
+     * {@link #trySplit()} 以 O(1) 的代价对半拆分区间，并且拆分出的每一半都能报告精确大小
+     * （{@code SIZED | SUBSIZED}）。在第一次遍历、拆分或查询大小时才绑定 {@code fence}（延迟绑定）。
+     */
+    static final class RandomAccessSpliterator<E> implements Spliterator<E> {
+
+        private final List<E> list;
+        private int index; // 当前索引，advance/split 时修改
+        private int fence; // 初始化前为 -1；之后为最后一个索引 + 1
+
+        // 如果列表是 AbstractList，则用于快速失败检查
+        private final AbstractList<E> alist;
+        private int expectedModCount; // fence 绑定时初始化
+
+        RandomAccessSpliterator(List<E> list) {
+            assert list instanceof RandomAccess;
+
+            this.list = list;
+            this.index = 0;
+            this.fence = -1;
+
+            this.alist = list instanceof AbstractList ? (AbstractList<E>) list : null;
+            this.expectedModCount = alist != null ? alist.modCount : 0;
+        }
+
+        /** 从父 Spliterator 创建子 Spliterator */
+        private RandomAccessSpliterator(RandomAccessSpliterator<E> parent,
+                int origin, int fence) {
+            this.list = parent.list;
+            this.index = origin;
+            this.fence = fence;
+
+            this.alist = parent.alist;
+            this.expectedModCount = parent.expectedModCount;
+        }
+
+        private int getFence() { // 第一次使用时初始化 fence
+            int hi;
+            List<E> lst = list;
+            if ((hi = fence) < 0) {
+                if (alist != null) {
+                    expectedModCount = alist.modCount;
+                }
+                hi = fence = lst.size();
+            }
+            return hi;
+        }
+
+        public Spliterator<E> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : // 将区间对半分开，除非太小
+                    new RandomAccessSpliterator<>(this, lo, index = mid);
+        }
+
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                action.accept(get(list, i));
+                checkAbstractListModCount(alist, expectedModCount);
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            List<E> lst = list;
+            int hi = getFence();
+            int i = index;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept(get(lst, i));
+            }
+            checkAbstractListModCount(alist, expectedModCount);
+        }
+
+        public long estimateSize() {
+            return (long) (getFence() - index);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private static <E> E get(List<E> list, int i) {
+            try {
+                return list.get(i);
+            } catch (IndexOutOfBoundsException ex) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        static void checkAbstractListModCount(AbstractList<?> alist, int expectedModCount) {
+            if (alist != null && alist.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * 基于 {@code get}/{@code set}/{@code add}/{@code remove} 实现的子列表视图。
+     */
+    private static class SubList<E> extends AbstractList<E> {
+        private final AbstractList<E> l;
+        private final int offset;
+        private int size;
+
+        SubList(AbstractList<E> list, int fromIndex, int toIndex) {
+            l = list;
+            offset = fromIndex;
+            size = toIndex - fromIndex;
+            this.modCount = l.modCount;
+        }
+
+        public E set(int index, E element) {
+            rangeCheck(index);
+            checkForComodification();
+            return l.set(index + offset, element);
+        }
+
+        public E get(int index) {
+            rangeCheck(index);
+            checkForComodification();
+            return l.get(index + offset);
+        }
+
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        public void add(int index, E element) {
+            rangeCheckForAdd(index);
+            checkForComodification();
+            l.add(index + offset, element);
+            this.modCount = l.modCount;
+            size++;
+        }
+
+        public E remove(int index) {
+            rangeCheck(index);
+            checkForComodification();
+            E result = l.remove(index + offset);
+            this.modCount = l.modCount;
+            size--;
+            return result;
+        }
+
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkForComodification();
+            l.removeRange(fromIndex + offset, toIndex + offset);
+            this.modCount = l.modCount;
+            size -= (toIndex - fromIndex);
+        }
+
+        public boolean addAll(Collection<? extends E> c) {
+            return addAll(size, c);
+        }
+
+        public boolean addAll(int index, Collection<? extends E> c) {
+            rangeCheckForAdd(index);
+            int cSize = c.size();
+            if (cSize == 0)
+                return false;
+
+            checkForComodification();
+            l.addAll(offset + index, c);
+            this.modCount = l.modCount;
+            size += cSize;
+            return true;
+        }
+
+        public List<E> subList(int fromIndex, int toIndex) {
+            subListRangeCheck(fromIndex, toIndex, size);
+            return new SubList<>(this, fromIndex, toIndex);
+        }
+
+        private void rangeCheck(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        private void rangeCheckForAdd(int index) {
+            if (index < 0 || index > size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        private void checkForComodification() {
+            if (this.modCount != l.modCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    private static class RandomAccessSubList<E> extends SubList<E> implements RandomAccess {
+        RandomAccessSubList(AbstractList<E> list, int fromIndex, int toIndex) {
+            super(list, fromIndex, toIndex);
+        }
+
+        public List<E> subList(int fromIndex, int toIndex) {
+            subListRangeCheck(fromIndex, toIndex, size());
+            return new RandomAccessSubList<>(this, fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * 由另一个对象支持的列表视图所用的列表迭代器：包装视图自身的列表迭代器，每次操作前检查支持对象的修改计数。
+     * 视图的结构修改都会写入支持对象，但直接对支持对象的修改不会反映在视图自身的 {@code modCount} 中，
+     * 只检查后者的迭代器就不是快速失败的。
+     */
+    static final class BackedListItr<E> implements Iterator<E>, ListIterator<E> {
+        private final ListIterator<E> it;
+        private final IntSupplier backingModCount;
+        private int expectedModCount;
+
+        /**
+         * @param it              视图自身的列表迭代器
+         * @param backingModCount 返回支持对象当前的 {@code modCount}
+         */
+        BackedListItr(ListIterator<E> it, IntSupplier backingModCount) {
+            this.it = it;
+            this.backingModCount = backingModCount;
+            this.expectedModCount = backingModCount.getAsInt();
+        }
+
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        public E next() {
+            checkForComodification();
+            return it.next();
+        }
+
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            checkForComodification();
+            return it instanceof Iterator ? ((Iterator<E>) it).nextBatch(dst, off, max)
+                    : Iterator.super.nextBatch(dst, off, max);
+        }
+
+        public boolean hasPrevious() {
+            return it.hasPrevious();
+        }
+
+        public E previous() {
+            checkForComodification();
+            return it.previous();
+        }
+
+        public int nextIndex() {
+            return it.nextIndex();
+        }
+
+        public int previousIndex() {
+            return it.previousIndex();
+        }
+
+        public void remove() {
+            checkForComodification();
+            it.remove();
+            expectedModCount = backingModCount.getAsInt();
+        }
+
+        public void set(E e) {
+            checkForComodification();
+            it.set(e);
+            expectedModCount = backingModCount.getAsInt();
+        }
+
+        public void add(E e) {
+            checkForComodification();
+            it.add(e);
+            expectedModCount = backingModCount.getAsInt();
+        }
+
+        private void checkForComodification() {
+            if (backingModCount.getAsInt() != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+}
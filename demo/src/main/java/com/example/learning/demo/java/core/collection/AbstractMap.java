@@ -0,0 +1,416 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.AbstractSet;
+import java.util.Set;
+
+/**
+ * 此类提供 <tt>Map</tt> 接口的骨架实现，以最大限度地减少实现此接口所需的工作。
+ *
+ * <p>
+ * 要实现不可修改的映射，程序员只需扩展此类并提供 <tt>entrySet</tt> 方法的实现即可，该方法将返回映射的映射关系 set 视图。
+ * 通常，返回的 set 将依次在 <tt>AbstractSet</tt> 上实现。此 set 不支持 <tt>add</tt> 或 <tt>remove</tt>
+ * 方法，其迭代器也不支持 <tt>remove</tt> 方法。
+ *
+ * <p>
+ * 要实现可修改的映射，程序员必须另外重写此类的 <tt>put</tt> 方法（否则将抛出
+ * <tt>UnsupportedOperationException</tt>），<tt>entrySet().iterator()</tt> 返回的迭代器也必须另外实现其
+ * <tt>remove</tt> 方法。
+ *
+ * <p>
+ * 此类中每个非抽象方法的文档详细描述了其实现。如果要实现的映射允许更有效的实现，则可以重写所有这些方法。
+ *
+ * <p>
+ * 注意：此类的实现只通过 <tt>entrySet</tt> 的迭代器访问映射项，并且不会在下一次调用 <tt>next</tt>
+ * 之后继续使用已返回的映射项，因此子类的迭代器可以复用同一个映射项对象。
+ *
+ * @param <K> 此映射所维护的键的类型
+ * @param <V> 映射值的类型
+ *
+ * @author Josh Bloch
+ * @author Neal Gafter
+ * @see Map
+ * @see Collection
+ * @since 1.2
+ */
+public abstract class AbstractMap<K, V> implements Map<K, V> {
+    /**
+     * 唯一的构造器。（由子类构造器调用，通常是隐式的。）
+     */
+    protected AbstractMap() {
+    }
+
+    // 查询操作
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回 <tt>entrySet().size()</tt>。
+     */
+    public int size() {
+        return entrySet().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回 <tt>size() == 0</tt>。
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现在 <tt>entrySet()</tt> 上进行迭代，以搜索带有指定值的项。
+     * 注意，此实现需要的时间与映射的大小呈线性关系。
+     */
+    public boolean containsValue(Object value) {
+        java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+        if (value == null) {
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                if (e.getValue() == null)
+                    return true;
+            }
+        } else {
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                if (value.equals(e.getValue()))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现在 <tt>entrySet()</tt> 上进行迭代，以搜索带有指定键的项。
+     * 注意，此实现需要的时间与映射的大小呈线性关系；许多实现将重写此方法。
+     */
+    public boolean containsKey(Object key) {
+        java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+        if (key == null) {
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                if (e.getKey() == null)
+                    return true;
+            }
+        } else {
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                if (key.equals(e.getKey()))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现在 <tt>entrySet()</tt> 上进行迭代，以搜索带有指定键的项。如果找到这样的项，则返回该项的值；
+     * 否则返回 <tt>null</tt>。注意，此实现需要的时间与映射的大小呈线性关系；许多实现将重写此方法。
+     */
+    public V get(Object key) {
+        java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+        if (key == null) {
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                if (e.getKey() == null)
+                    return e.getValue();
+            }
+        } else {
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                if (key.equals(e.getKey()))
+                    return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    // 修改操作
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现总是抛出 <tt>UnsupportedOperationException</tt>。
+     */
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现在 <tt>entrySet()</tt> 上进行迭代，以搜索带有指定键的项。如果找到这样的项，
+     * 则先读出它的值，再使用迭代器的 <tt>remove</tt> 操作将其从映射中移除，然后返回读出的值。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    public V remove(Object key) {
+        java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+        while (i.hasNext()) {
+            Entry<K, V> e = i.next();
+            Object k = e.getKey();
+            if (key == null ? k == null : key.equals(k)) {
+                V oldValue = e.getValue();
+                i.remove();
+                return oldValue;
+            }
+        }
+        return null;
+    }
+
+    // 批量操作
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现在指定映射的 <tt>entrySet()</tt> 上进行迭代，并对迭代返回的每一项调用一次此映射的 <tt>put</tt> 操作。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    public void putAll(java.util.Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> e : m.entrySet())
+            put(e.getKey(), e.getValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现调用 <tt>entrySet().clear()</tt>。
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    public void clear() {
+        entrySet().clear();
+    }
+
+    // 视图
+
+    /**
+     * 首次请求视图时初始化，视图是无状态的，所以只需创建一个。
+     */
+    transient Set<K> keySet;
+    transient java.util.Collection<V> values;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回一个 <tt>AbstractSet</tt> 的子类，其迭代器包装 <tt>entrySet()</tt> 的迭代器，
+     * <tt>size</tt> 和 <tt>contains</tt> 分别委托给此映射的 <tt>size</tt> 和 <tt>containsKey</tt>。
+     * 该 set 在第一次调用此方法时创建，之后的调用返回同一个 set。
+     */
+    public Set<K> keySet() {
+        Set<K> ks = keySet;
+        if (ks == null) {
+            ks = new AbstractSet<K>() {
+                public java.util.Iterator<K> iterator() {
+                    return new Iterator<K>() {
+                        private final java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+
+                        public boolean hasNext() {
+                            return i.hasNext();
+                        }
+
+                        public K next() {
+                            return i.next().getKey();
+                        }
+
+                        public void remove() {
+                            i.remove();
+                        }
+                    };
+                }
+
+                public int size() {
+                    return AbstractMap.this.size();
+                }
+
+                public boolean isEmpty() {
+                    return AbstractMap.this.isEmpty();
+                }
+
+                public void clear() {
+                    AbstractMap.this.clear();
+                }
+
+                public boolean contains(Object k) {
+                    return AbstractMap.this.containsKey(k);
+                }
+            };
+            keySet = ks;
+        }
+        return ks;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 此实现返回一个 {@link AbstractCollection} 的子类，其迭代器包装 <tt>entrySet()</tt> 的迭代器，
+     * <tt>size</tt> 和 <tt>contains</tt> 分别委托给此映射的 <tt>size</tt> 和 <tt>containsValue</tt>。
+     * 该集合在第一次调用此方法时创建，之后的调用返回同一个集合。
+     */
+    public java.util.Collection<V> values() {
+        java.util.Collection<V> vals = values;
+        if (vals == null) {
+            vals = new AbstractCollection<V>() {
+                public Iterator<V> iterator() {
+                    return new Iterator<V>() {
+                        private final java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+
+                        public boolean hasNext() {
+                            return i.hasNext();
+                        }
+
+                        public V next() {
+                            return i.next().getValue();
+                        }
+
+                        public void remove() {
+                            i.remove();
+                        }
+                    };
+                }
+
+                public int size() {
+                    return AbstractMap.this.size();
+                }
+
+                public boolean isEmpty() {
+                    return AbstractMap.this.isEmpty();
+                }
+
+                public void clear() {
+                    AbstractMap.this.clear();
+                }
+
+                public boolean contains(Object v) {
+                    return AbstractMap.this.containsValue(v);
+                }
+            };
+            values = vals;
+        }
+        return vals;
+    }
+
+    public abstract Set<Entry<K, V>> entrySet();
+
+    // 比较和哈希
+
+    /**
+     * 比较指定对象与此映射是否相等。如果给定对象也是一个映射，并且这两个映射表示相同的映射关系，则返回 <tt>true</tt>。
+     *
+     * <p>
+     * 此实现首先检查指定的对象是否为此映射；如果是，则返回 <tt>true</tt>。然后检查指定的对象是否是一个大小与此映射相等的映射；
+     * 如果不是，则返回 <tt>false</tt>。如果是，则迭代此映射的 <tt>entrySet</tt> 集合，并检查指定的映射是否包含此映射所包含的每个映射关系。
+     *
+     * @param o 要与此映射进行相等性比较的对象
+     * @return 如果指定的对象等于此映射，则返回 <tt>true</tt>
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+
+        if (!(o instanceof java.util.Map))
+            return false;
+        java.util.Map<?, ?> m = (java.util.Map<?, ?>) o;
+        if (m.size() != size())
+            return false;
+
+        try {
+            java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+            while (i.hasNext()) {
+                Entry<K, V> e = i.next();
+                K key = e.getKey();
+                V value = e.getValue();
+                if (value == null) {
+                    if (!(m.get(key) == null && m.containsKey(key)))
+                        return false;
+                } else {
+                    if (!value.equals(m.get(key)))
+                        return false;
+                }
+            }
+        } catch (ClassCastException unused) {
+            return false;
+        } catch (NullPointerException unused) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * 返回此映射的哈希码值。映射的哈希码定义为映射的 <tt>entrySet()</tt> 视图中每个项的哈希码之和。
+     *
+     * <p>
+     * 此实现迭代 <tt>entrySet()</tt>，对每个项按 {@link java.util.Map.Entry#hashCode()} 的定义
+     * 计算 <tt>(key==null ? 0 : key.hashCode()) ^ (value==null ? 0 : value.hashCode())</tt> 并相加。
+     *
+     * @return 此映射的哈希码值
+     */
+    public int hashCode() {
+        int h = 0;
+        java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+        while (i.hasNext()) {
+            Entry<K, V> e = i.next();
+            h += (e.getKey() == null ? 0 : e.getKey().hashCode())
+                    ^ (e.getValue() == null ? 0 : e.getValue().hashCode());
+        }
+        return h;
+    }
+
+    /**
+     * 返回此映射的字符串表示形式。该字符串表示形式由键-值映射关系列表组成，按照该映射 <tt>entrySet</tt>
+     * 视图的迭代器返回的顺序排列，并用括号 (<tt>"{}"</tt>) 括起来。相邻的映射关系用字符 <tt>", "</tt>（逗号加空格）分隔。
+     * 每个键-值映射关系以键的形式后跟一个等号 (<tt>"="</tt>) 再后跟关联的值的形式呈现。
+     *
+     * @return 此映射的字符串表示形式
+     */
+    public String toString() {
+        java.util.Iterator<Entry<K, V>> i = entrySet().iterator();
+        if (!i.hasNext())
+            return "{}";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (;;) {
+            Entry<K, V> e = i.next();
+            K key = e.getKey();
+            V value = e.getValue();
+            sb.append(key == this ? "(this Map)" : key);
+            sb.append('=');
+            sb.append(value == this ? "(this Map)" : value);
+            if (!i.hasNext())
+                return sb.append('}').toString();
+            sb.append(',').append(' ');
+        }
+    }
+
+    /**
+     * 返回此 <tt>AbstractMap</tt> 实例的浅表副本：不复制键和值本身。
+     *
+     * @return 此映射的浅表副本
+     */
+    protected Object clone() throws CloneNotSupportedException {
+        AbstractMap<?, ?> result = (AbstractMap<?, ?>) super.clone();
+        result.keySet = null;
+        result.values = null;
+        return result;
+    }
+}
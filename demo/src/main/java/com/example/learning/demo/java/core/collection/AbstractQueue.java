@@ -0,0 +1,115 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 此类提供某些 {@link Queue} 操作的骨架实现。此类中的实现适用于基本实现<em>不</em>允许包含 <tt>null</tt>
+ * 元素时。<tt>add</tt>、<tt>remove</tt> 和 <tt>element</tt> 方法分别基于 <tt>offer</tt>、<tt>poll</tt> 和
+ * <tt>peek</tt> 方法，但是它们通过抛出异常而不是返回 <tt>false</tt> 或 <tt>null</tt> 来指示失败。
+ *
+ * <p>
+ * 扩展此类的 <tt>Queue</tt> 实现至少必须定义一个不允许插入 <tt>null</tt> 元素的 {@link Queue#offer} 方法，
+ * 以及 {@link Queue#peek}、{@link Queue#poll}、{@link Collection#size} 和 {@link Collection#iterator} 方法。
+ * 通常还要重写其他方法。如果无法满足这些要求，那么可以转而考虑为 {@link AbstractCollection} 创建子类。
+ *
+ * @param <E> 此集合中保存的元素的类型
+ *
+ * @author Doug Lea
+ * @since 1.5
+ */
+public abstract class AbstractQueue<E> extends AbstractCollection<E> implements Queue<E> {
+    /**
+     * 子类使用的构造器。
+     */
+    protected AbstractQueue() {
+    }
+
+    /**
+     * 如果可以在不违反容量限制的情况下立即将指定的元素插入此队列，则在成功时返回 <tt>true</tt>，如果当前没有可用空间，则抛出
+     * <tt>IllegalStateException</tt>。
+     *
+     * <p>
+     * 如果 <tt>offer</tt> 成功，则此实现返回 <tt>true</tt>，否则抛出 <tt>IllegalStateException</tt>。
+     *
+     * @param e 要添加的元素
+     * @return <tt>true</tt>（根据 {@link java.util.Collection#add} 的规定）
+     * @throws IllegalStateException 如果由于容量的限制此时不能添加该元素
+     * @throws NullPointerException  如果指定的元素为 null
+     */
+    public boolean add(E e) {
+        if (offer(e))
+            return true;
+        else
+            throw new IllegalStateException("Queue full");
+    }
+
+    /**
+     * 获取并移除此队列的头。此方法与 {@link #poll poll} 唯一的不同在于：此队列为空时将抛出一个异常。
+     *
+     * <p>
+     * 除非队列为空，否则此实现返回 <tt>poll</tt> 的结果。
+     *
+     * @return 队列的头
+     * @throws NoSuchElementException 如果此队列为空
+     */
+    public E remove() {
+        E x = poll();
+        if (x != null)
+            return x;
+        else
+            throw new NoSuchElementException();
+    }
+
+    /**
+     * 获取但不移除此队列的头。此方法与 {@link #peek peek} 唯一的不同在于：此队列为空时将抛出一个异常。
+     *
+     * <p>
+     * 除非队列为空，否则此实现返回 <tt>peek</tt> 的结果。
+     *
+     * @return 队列的头
+     * @throws NoSuchElementException 如果此队列为空
+     */
+    public E element() {
+        E x = peek();
+        if (x != null)
+            return x;
+        else
+            throw new NoSuchElementException();
+    }
+
+    /**
+     * 移除此队列中的所有元素。此调用返回后，队列将为空。
+     *
+     * <p>
+     * 此实现重复调用 {@link #poll poll}，直到它返回 <tt>null</tt> 为止。
+     */
+    public void clear() {
+        while (poll() != null)
+            ;
+    }
+
+    /**
+     * 将指定 collection 中的所有元素都添加到此队列中。如果试图将某一队列 addAll 到该队列本身中，则会导致
+     * <tt>IllegalArgumentException</tt>。
+     *
+     * <p>
+     * 此实现在指定的 collection 上进行迭代，并依次将迭代器返回的每一个元素添加到此队列中。
+     *
+     * @param c 包含要添加到此队列中的元素的 collection
+     * @return 如果调用的结果改变了此队列，则返回 <tt>true</tt>
+     * @throws NullPointerException     如果指定 collection 或其所包含的任何元素为 null
+     * @throws IllegalArgumentException 如果指定 collection 是此队列
+     * @throws IllegalStateException    如果由于插入的限制，不是所有的元素都能添加
+     */
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        boolean modified = false;
+        for (E e : c)
+            if (add(e))
+                modified = true;
+        return modified;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.learning.demo.java.core.collection;
+
+/**
+ * 此类提供 {@link Set} 接口的骨架实现，从而最大限度地减少了实现此接口所需的工作。
+ *
+ * <p>
+ * 通过扩展此类来实现一个 set 的过程与通过扩展 AbstractCollection 来实现 Collection 的过程是相同的，
+ * 除了此类的子类中的所有方法和构造器都必须服从 <tt>Set</tt> 接口所强加的额外限制（例如，add 方法必须不允许将一个对象的多个实例添加到一个
+ * set 中）。
+ *
+ * <p>
+ * 注意，此类并没有重写 <tt>AbstractCollection</tt> 类中的任何实现。它仅仅添加了 <tt>equals</tt> 和
+ * <tt>hashCode</tt> 的实现。
+ *
+ * @param <E> 此 set 所维护元素的类型
+ *
+ * @author Josh Bloch
+ * @author Neal Gafter
+ * @see Collection
+ * @see AbstractCollection
+ * @see Set
+ * @since 1.2
+ */
+public abstract class AbstractSet<E> extends AbstractCollection<E> implements Set<E> {
+    /**
+     * 唯一的构造器。（由子类构造器调用，通常是隐式的。）
+     */
+    protected AbstractSet() {
+    }
+
+    // 比较和哈希
+
+    /**
+     * 比较指定对象与此 set 的相等性。如果给定对象也是一个 set，两个 set 的大小相同，并且给定 set 的每个成员都包含在此
+     * set 中，则返回 <tt>true</tt>。这确保 <tt>equals</tt> 方法可在不同的 <tt>Set</tt> 接口实现间正常工作。
+     *
+     * <p>
+     * 此实现首先检查指定的对象是否为此 set；如果是，则返回 <tt>true</tt>。然后，它将检查指定的对象是否是一个大小与此
+     * set 的大小相等的 set；如果不是，则返回 false。如果是，则返回 <tt>containsAll((Collection) o)</tt>。
+     *
+     * @param o 要与此 set 进行相等性比较的对象
+     * @return 如果指定的对象等于此 set，则返回 <tt>true</tt>
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+
+        if (!(o instanceof java.util.Set))
+            return false;
+        java.util.Collection<?> c = (java.util.Collection<?>) o;
+        if (c.size() != size())
+            return false;
+        try {
+            return containsAll(c);
+        } catch (ClassCastException unused) {
+            return false;
+        } catch (NullPointerException unused) {
+            return false;
+        }
+    }
+
+    /**
+     * 返回此 set 的哈希码值。一个 set 的哈希码定义为此 set 中所有元素的哈希码和，其中 null 元素的哈希码定义为零。
+     * 这就确保对于任意两个 set <tt>s1</tt> 和 <tt>s2</tt> 而言，<tt>s1.equals(s2)</tt> 就意味着
+     * <tt>s1.hashCode()==s2.hashCode()</tt>，正如 {@link Object#hashCode} 的常规协定所要求的。
+     *
+     * <p>
+     * 此实现迭代 set，对 set 中的每个元素调用 <tt>hashCode</tt> 方法，并将结果相加。
+     *
+     * @return 此 set 的哈希码值
+     * @see Object#equals(Object)
+     * @see Set#equals(Object)
+     */
+    public int hashCode() {
+        int h = 0;
+        Iterator<E> i = iterator();
+        while (i.hasNext()) {
+            E obj = i.next();
+            if (obj != null)
+                h += obj.hashCode();
+        }
+        return h;
+    }
+}
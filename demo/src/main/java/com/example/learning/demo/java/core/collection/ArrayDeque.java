@@ -0,0 +1,753 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * {@link Deque} 接口的大小可变数组的实现。数组双端队列没有容量限制，它们可根据需要增加以支持使用。
+ * 它们不是线程安全的；在没有外部同步时，它们不支持多个线程的并发访问。禁止 null 元素。
+ * 此类很可能在用作堆栈时快于 {@link java.util.Stack}，在用作队列时快于 {@link java.util.LinkedList}。
+ *
+ * <p>
+ * 元素保存在一个长度为 2 的幂的环形数组中，<tt>head</tt> 和 <tt>tail</tt> 通过与 <tt>length - 1</tt>
+ * 按位与来回绕，不需要取模，也不为每个元素分配节点。数组满时容量加倍。
+ *
+ * <p>
+ * 大多数 <tt>ArrayDeque</tt> 操作以摊销的固定时间运行。异常包括 {@link #remove(Object) remove}、
+ * {@link #removeFirstOccurrence removeFirstOccurrence}、{@link #removeLastOccurrence removeLastOccurrence}、
+ * {@link #contains contains}、{@link #iterator iterator.remove()} 以及批量操作，它们均以线性时间运行。
+ * {@link #drainTo(java.util.Collection, int) drainTo} 逐个把元素交给目标集合，但只在最后一次性清理数组段并移动
+ * <tt>head</tt>。
+ *
+ * <p>
+ * 此类的 <tt>iterator</tt> 方法返回的迭代器是<i>快速失败</i>的：如果在创建迭代器后的任意时间通过除迭代器本身的
+ * <tt>remove</tt> 方法之外的任何其他方式修改了双端队列，则迭代器通常将抛出 {@link ConcurrentModificationException}。
+ *
+ * @param <E> 此集合中保存的元素的类型
+ *
+ * @author Josh Bloch
+ * @author Doug Lea
+ * @see Deque
+ * @since 1.6
+ */
+public class ArrayDeque<E> extends AbstractCollection<E> implements Deque<E>, Cloneable {
+    /**
+     * 存储双端队列元素的数组。双端队列的容量就是此数组的长度，它总是 2 的幂。
+     * 不属于双端队列元素的数组槽位总是为 null。数组中总是至少有一个 null 槽位（位于 tail）。
+     */
+    transient Object[] elements;
+
+    /**
+     * 双端队列头部元素的索引（即 <tt>remove()</tt> 或 <tt>pop()</tt> 将移除的元素）；
+     * 如果双端队列为空，则为等于 tail 的任意数字。
+     */
+    transient int head;
+
+    /**
+     * 下一个元素将添加到双端队列尾部的索引（通过 <tt>addLast(E)</tt>、<tt>add(E)</tt> 或 <tt>push(E)</tt>）。
+     */
+    transient int tail;
+
+    /**
+     * 新创建的双端队列的最小容量，必须是 2 的幂。
+     */
+    private static final int MIN_INITIAL_CAPACITY = 8;
+
+    // ****** 数组分配和调整大小的工具 ******
+
+    private static int calculateSize(int numElements) {
+        int initialCapacity = MIN_INITIAL_CAPACITY;
+        // 找到能容纳这么多元素的 2 的幂，最后还需要一个空槽
+        if (numElements >= initialCapacity) {
+            initialCapacity = numElements;
+            initialCapacity |= (initialCapacity >>> 1);
+            initialCapacity |= (initialCapacity >>> 2);
+            initialCapacity |= (initialCapacity >>> 4);
+            initialCapacity |= (initialCapacity >>> 8);
+            initialCapacity |= (initialCapacity >>> 16);
+            initialCapacity++;
+
+            if (initialCapacity < 0) // 太多元素，只能退到 2^30 个
+                initialCapacity >>>= 1;
+        }
+        return initialCapacity;
+    }
+
+    private void allocateElements(int numElements) {
+        elements = new Object[calculateSize(numElements)];
+    }
+
+    /**
+     * 容量加倍。只在满时调用，即 head 和 tail 重叠时。
+     */
+    private void doubleCapacity() {
+        int p = head;
+        int n = elements.length;
+        int r = n - p; // p 右侧的元素个数
+        int newCapacity = n << 1;
+        if (newCapacity < 0)
+            throw new IllegalStateException("Sorry, deque too big");
+        Object[] a = new Object[newCapacity];
+        System.arraycopy(elements, p, a, 0, r);
+        System.arraycopy(elements, 0, a, r, p);
+        elements = a;
+        head = 0;
+        tail = n;
+    }
+
+    /**
+     * 按从头到尾的顺序，把元素复制到指定数组中（假定数组足够大）。
+     */
+    private <T> T[] copyElements(T[] a) {
+        if (head < tail) {
+            System.arraycopy(elements, head, a, 0, size());
+        } else if (head > tail) {
+            int headPortionLen = elements.length - head;
+            System.arraycopy(elements, head, a, 0, headPortionLen);
+            System.arraycopy(elements, 0, a, headPortionLen, tail);
+        }
+        return a;
+    }
+
+    /**
+     * 构造一个初始容量能够容纳 16 个元素的空数组双端队列。
+     */
+    public ArrayDeque() {
+        elements = new Object[16];
+    }
+
+    /**
+     * 构造一个初始容量能够容纳指定数量的元素的空数组双端队列。
+     *
+     * @param numElements 双端队列初始容量的范围下限
+     */
+    public ArrayDeque(int numElements) {
+        allocateElements(numElements);
+    }
+
+    /**
+     * 构造一个包含指定 collection 的元素的双端队列，这些元素按 collection 的迭代器返回的顺序排列。
+     *
+     * @param c 要将其元素放入双端队列的 collection
+     * @throws NullPointerException 如果指定 collection 为 null
+     */
+    public ArrayDeque(java.util.Collection<? extends E> c) {
+        allocateElements(c.size());
+        addAll(c);
+    }
+
+    // 主要的插入和提取方法是 addFirst、addLast、pollFirst、pollLast，其他方法都根据它们定义。
+
+    /**
+     * 将指定元素插入此双端队列的开头。
+     *
+     * @param e 要添加的元素
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public void addFirst(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        elements[head = (head - 1) & (elements.length - 1)] = e;
+        if (head == tail)
+            doubleCapacity();
+    }
+
+    /**
+     * 将指定元素插入此双端队列的末尾。
+     *
+     * <p>
+     * 此方法等效于 {@link #add}。
+     *
+     * @param e 要添加的元素
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public void addLast(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        elements[tail] = e;
+        if ((tail = (tail + 1) & (elements.length - 1)) == head)
+            doubleCapacity();
+    }
+
+    /**
+     * 将指定的元素插入此双端队列的开头。
+     *
+     * @param e 要添加的元素
+     * @return <tt>true</tt>（根据 {@link Deque#offerFirst} 的规定）
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean offerFirst(E e) {
+        addFirst(e);
+        return true;
+    }
+
+    /**
+     * 将指定的元素插入此双端队列的末尾。
+     *
+     * @param e 要添加的元素
+     * @return <tt>true</tt>（根据 {@link Deque#offerLast} 的规定）
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean offerLast(E e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E removeFirst() {
+        E x = pollFirst();
+        if (x == null)
+            throw new NoSuchElementException();
+        return x;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E removeLast() {
+        E x = pollLast();
+        if (x == null)
+            throw new NoSuchElementException();
+        return x;
+    }
+
+    public E pollFirst() {
+        int h = head;
+        @SuppressWarnings("unchecked")
+        E result = (E) elements[h];
+        // 如果双端队列为空，元素为 null
+        if (result == null)
+            return null;
+        elements[h] = null; // 必须清空槽位
+        head = (h + 1) & (elements.length - 1);
+        return result;
+    }
+
+    public E pollLast() {
+        int t = (tail - 1) & (elements.length - 1);
+        @SuppressWarnings("unchecked")
+        E result = (E) elements[t];
+        if (result == null)
+            return null;
+        elements[t] = null;
+        tail = t;
+        return result;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E getFirst() {
+        @SuppressWarnings("unchecked")
+        E result = (E) elements[head];
+        if (result == null)
+            throw new NoSuchElementException();
+        return result;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E getLast() {
+        @SuppressWarnings("unchecked")
+        E result = (E) elements[(tail - 1) & (elements.length - 1)];
+        if (result == null)
+            throw new NoSuchElementException();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peekFirst() {
+        // 如果双端队列为空，elements[head] 为 null
+        return (E) elements[head];
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peekLast() {
+        return (E) elements[(tail - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * 移除此双端队列中第一次出现的指定元素（当从头部到尾部遍历双端队列时）。如果此双端队列不包含该元素，则不作更改。
+     *
+     * @param o 要从此双端队列移除的元素（如果存在）
+     * @return 如果双端队列包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean removeFirstOccurrence(Object o) {
+        if (o == null)
+            return false;
+        int mask = elements.length - 1;
+        int i = head;
+        Object x;
+        while ((x = elements[i]) != null) {
+            if (o.equals(x)) {
+                delete(i);
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 移除此双端队列中最后一次出现的指定元素（当从头部到尾部遍历双端队列时）。如果此双端队列不包含该元素，则不作更改。
+     *
+     * @param o 要从此双端队列移除的元素（如果存在）
+     * @return 如果双端队列包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean removeLastOccurrence(Object o) {
+        if (o == null)
+            return false;
+        int mask = elements.length - 1;
+        int i = (tail - 1) & mask;
+        Object x;
+        while ((x = elements[i]) != null) {
+            if (o.equals(x)) {
+                delete(i);
+                return true;
+            }
+            i = (i - 1) & mask;
+        }
+        return false;
+    }
+
+    // *** Queue 方法 ***
+
+    /**
+     * 将指定元素插入此双端队列的末尾。
+     *
+     * <p>
+     * 此方法等效于 {@link #addLast}。
+     *
+     * @param e 要添加的元素
+     * @return <tt>true</tt>（根据 {@link java.util.Collection#add} 的规定）
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean add(E e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * 将指定元素插入此双端队列的末尾。
+     *
+     * <p>
+     * 此方法等效于 {@link #offerLast}。
+     *
+     * @param e 要添加的元素
+     * @return <tt>true</tt>（根据 {@link Queue#offer} 的规定）
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean offer(E e) {
+        return offerLast(e);
+    }
+
+    /**
+     * 获取并移除此双端队列所表示的队列的头。此方法与 {@link #poll poll} 的不同之处在于：如果此双端队列为空，它将抛出一个异常。
+     *
+     * <p>
+     * 此方法等效于 {@link #removeFirst}。
+     *
+     * @return 此双端队列所表示的队列的头
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E remove() {
+        return removeFirst();
+    }
+
+    /**
+     * 获取并移除此双端队列所表示的队列的头（换句话说，此双端队列的第一个元素）；如果此双端队列为空，则返回 <tt>null</tt>。
+     *
+     * <p>
+     * 此方法等效于 {@link #pollFirst}。
+     *
+     * @return 此双端队列所表示的队列的头；如果此双端队列为空，则返回 <tt>null</tt>
+     */
+    public E poll() {
+        return pollFirst();
+    }
+
+    /**
+     * 获取，但不移除此双端队列所表示的队列的头。此方法与 {@link #peek peek} 方法的不同之处在于：如果此双端队列为空，它将抛出一个异常。
+     *
+     * <p>
+     * 此方法等效于 {@link #getFirst}。
+     *
+     * @return 此双端队列所表示的队列的头
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E element() {
+        return getFirst();
+    }
+
+    /**
+     * 获取，但不移除此双端队列所表示的队列的头；如果此双端队列为空，则返回 <tt>null</tt>。
+     *
+     * <p>
+     * 此方法等效于 {@link #peekFirst}。
+     *
+     * @return 此双端队列所表示的队列的头；如果此双端队列为空，则返回 <tt>null</tt>
+     */
+    public E peek() {
+        return peekFirst();
+    }
+
+    /**
+     * 从头部开始移除最多 <tt>maxElements</tt> 个元素，并按顺序添加到给定集合中。
+     *
+     * <p>
+     * 元素直接从环形数组中读出（最多两个连续段），全部交付后再用 {@link Arrays#fill} 清空这些槽位并一次性移动
+     * <tt>head</tt>。如果向 <tt>c</tt> 添加元素时抛出异常，已交付的元素仍会从此双端队列中移除。
+     *
+     * @throws NullPointerException     如果指定的集合为 null
+     * @throws IllegalArgumentException 如果指定的集合就是此双端队列
+     */
+    public int drainTo(java.util.Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = Math.min(size(), maxElements);
+        if (n <= 0)
+            return 0;
+        final Object[] es = elements;
+        final int mask = es.length - 1;
+        final int h = head;
+        int i = 0;
+        try {
+            for (; i < n; i++) {
+                @SuppressWarnings("unchecked")
+                E e = (E) es[(h + i) & mask];
+                c.add(e);
+            }
+        } finally {
+            if (i > 0) {
+                int end = h + i;
+                if (end <= es.length) {
+                    Arrays.fill(es, h, end, null);
+                } else {
+                    Arrays.fill(es, h, es.length, null);
+                    Arrays.fill(es, 0, end & mask, null);
+                }
+                head = end & mask;
+            }
+        }
+        return n;
+    }
+
+    // *** 堆栈方法 ***
+
+    /**
+     * 将元素推入此双端队列所表示的堆栈。换句话说，将元素插入此双端队列的开头。
+     *
+     * <p>
+     * 此方法等效于 {@link #addFirst}。
+     *
+     * @param e 要推入的元素
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public void push(E e) {
+        addFirst(e);
+    }
+
+    /**
+     * 从此双端队列所表示的堆栈中弹出一个元素。换句话说，移除并返回此双端队列第一个元素。
+     *
+     * <p>
+     * 此方法等效于 {@link #removeFirst()}。
+     *
+     * @return 此双端队列开头的元素（它是此双端队列所表示的堆栈的顶部）
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public E pop() {
+        return removeFirst();
+    }
+
+    /**
+     * 移除元素数组中指定位置的元素，根据需要调整 head 和 tail。这可能导致数组中的元素向后或向前移动。
+     *
+     * <p>
+     * 此方法称为 delete 而不是 remove，以强调它的语义与 {@link List#remove(int)} 的语义不同。
+     *
+     * @return 如果元素向后移动（即 tail 改变），则返回 true
+     */
+    private boolean delete(int i) {
+        final Object[] elements = this.elements;
+        final int mask = elements.length - 1;
+        final int h = head;
+        final int t = tail;
+        final int front = (i - h) & mask;
+        final int back = (t - i) & mask;
+
+        // 不变式：head <= i < tail mod circularity
+        if (front >= ((t - h) & mask))
+            throw new ConcurrentModificationException();
+
+        // 优化为移动最少的元素
+        if (front < back) {
+            if (h <= i) {
+                System.arraycopy(elements, h, elements, h + 1, front);
+            } else { // 回绕
+                System.arraycopy(elements, 0, elements, 1, i);
+                elements[0] = elements[mask];
+                System.arraycopy(elements, h, elements, h + 1, mask - h);
+            }
+            elements[h] = null;
+            head = (h + 1) & mask;
+            return false;
+        } else {
+            if (i < t) { // 复制 null 尾部
+                System.arraycopy(elements, i + 1, elements, i, back);
+                tail = t - 1;
+            } else { // 回绕
+                System.arraycopy(elements, i + 1, elements, i, mask - i);
+                elements[mask] = elements[0];
+                System.arraycopy(elements, 1, elements, 0, t);
+                tail = (t - 1) & mask;
+            }
+            return true;
+        }
+    }
+
+    // *** Collection 方法 ***
+
+    /**
+     * 返回此双端队列中的元素数。
+     *
+     * @return 此双端队列中的元素数
+     */
+    public int size() {
+        return (tail - head) & (elements.length - 1);
+    }
+
+    /**
+     * 如果此双端队列未包含任何元素，则返回 <tt>true</tt>。
+     *
+     * @return 如果此双端队列未包含任何元素，则返回 <tt>true</tt>
+     */
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * 返回在此双端队列的元素上进行迭代的迭代器。元素的顺序为从第一个（头）到最后一个（尾），这与元素出列（通过连续调用
+     * {@link #remove} 或弹出（通过连续调用 {@link #pop}）的顺序相同。
+     *
+     * @return 在此双端队列中的元素上进行迭代的迭代器
+     */
+    public Iterator<E> iterator() {
+        return new DeqIterator();
+    }
+
+    public Iterator<E> descendingIterator() {
+        return new DescendingIterator();
+    }
+
+    private class DeqIterator implements Iterator<E> {
+        /**
+         * 后续调用 next 要返回的元素的索引。
+         */
+        private int cursor = head;
+
+        /**
+         * 构造时记录的 tail（在 remove 中也会更新），用于停止迭代和检查并发修改。
+         */
+        private int fence = tail;
+
+        /**
+         * 最近一次调用 next 返回的元素的索引。如果元素被调用 remove 删除，则重置为 -1。
+         */
+        private int lastRet = -1;
+
+        public boolean hasNext() {
+            return cursor != fence;
+        }
+
+        public E next() {
+            if (cursor == fence)
+                throw new NoSuchElementException();
+            @SuppressWarnings("unchecked")
+            E result = (E) elements[cursor];
+            // 此检查不会捕获所有可能的并发修改，但足以捕获那些破坏遍历的修改
+            if (tail != fence || result == null)
+                throw new ConcurrentModificationException();
+            lastRet = cursor;
+            cursor = (cursor + 1) & (elements.length - 1);
+            return result;
+        }
+
+        /**
+         * 直接从环形数组复制，至多两次 {@link System#arraycopy}。
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            final Object[] es = elements;
+            final int mask = es.length - 1;
+            final int c = cursor;
+            if (tail != fence)
+                throw new ConcurrentModificationException();
+            int n = Math.min(max, (fence - c) & mask);
+            if (n <= 0)
+                return 0;
+            int first = Math.min(n, es.length - c);
+            System.arraycopy(es, c, dst, off, first);
+            if (n > first)
+                System.arraycopy(es, 0, dst, off + first, n - first);
+            cursor = (c + n) & mask;
+            lastRet = (cursor - 1) & mask;
+            return n;
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            if (delete(lastRet)) { // 如果向左移动，撤消 next() 中的增量
+                cursor = (cursor - 1) & (elements.length - 1);
+                fence = tail;
+            }
+            lastRet = -1;
+        }
+    }
+
+    private class DescendingIterator implements Iterator<E> {
+        /*
+         * 此类几乎是 DeqIterator 的镜像，只是用 tail 代替 head 作为初始游标，用 head 代替 tail 作为围栏。
+         */
+        private int cursor = tail;
+        private int fence = head;
+        private int lastRet = -1;
+
+        public boolean hasNext() {
+            return cursor != fence;
+        }
+
+        public E next() {
+            if (cursor == fence)
+                throw new NoSuchElementException();
+            cursor = (cursor - 1) & (elements.length - 1);
+            @SuppressWarnings("unchecked")
+            E result = (E) elements[cursor];
+            if (head != fence || result == null)
+                throw new ConcurrentModificationException();
+            lastRet = cursor;
+            return result;
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            if (!delete(lastRet)) {
+                cursor = (cursor + 1) & (elements.length - 1);
+                fence = head;
+            }
+            lastRet = -1;
+        }
+    }
+
+    /**
+     * 如果此双端队列包含指定元素，则返回 <tt>true</tt>。更正式地说，当且仅当此双端队列至少包含一个满足
+     * <tt>o.equals(e)</tt> 的元素 <tt>e</tt> 时，返回 <tt>true</tt>。
+     *
+     * @param o 要检查此双端队列是否包含的对象
+     * @return 如果此双端队列包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean contains(Object o) {
+        if (o == null)
+            return false;
+        int mask = elements.length - 1;
+        int i = head;
+        Object x;
+        while ((x = elements[i]) != null) {
+            if (o.equals(x))
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 从此双端队列中移除指定元素的单个实例。
+     *
+     * <p>
+     * 此方法等效于 {@link #removeFirstOccurrence(Object)}。
+     *
+     * @param o 要从此双端队列中移除的元素（如果存在）
+     * @return 如果此双端队列包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+
+    /**
+     * 从此双端队列中移除所有元素。在此调用返回之后，该双端队列将为空。
+     */
+    public void clear() {
+        int h = head;
+        int t = tail;
+        if (h != t) { // 清除所有单元
+            head = tail = 0;
+            int i = h;
+            int mask = elements.length - 1;
+            do {
+                elements[i] = null;
+                i = (i + 1) & mask;
+            } while (i != t);
+        }
+    }
+
+    /**
+     * 返回一个以恰当顺序包含此双端队列所有元素的数组（从第一个元素到最后一个元素）。
+     *
+     * @return 包含此双端队列所有元素的数组
+     */
+    public Object[] toArray() {
+        return copyElements(new Object[size()]);
+    }
+
+    /**
+     * 返回一个以恰当顺序包含此双端队列所有元素的数组（从第一个元素到最后一个元素）；返回数组的运行时类型是指定数组的运行时类型。
+     *
+     * @param a 存储此双端队列元素的数组（如果它足够大）；否则，为此目的分配一个具有相同运行时类型的新数组
+     * @return 包含此双端队列所有元素的数组
+     * @throws ArrayStoreException  如果指定数组的运行时类型不是此双端队列中每个元素的运行时类型的超类型
+     * @throws NullPointerException 如果指定的数组为 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        int size = size();
+        if (a.length < size)
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        copyElements(a);
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    // *** Object 方法 ***
+
+    /**
+     * 返回此双端队列的副本。
+     *
+     * @return 此双端队列的副本
+     */
+    public ArrayDeque<E> clone() {
+        try {
+            @SuppressWarnings("unchecked")
+            ArrayDeque<E> result = (ArrayDeque<E>) super.clone();
+            result.elements = Arrays.copyOf(elements, elements.length);
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
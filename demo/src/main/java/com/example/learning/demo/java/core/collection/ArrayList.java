@@ -0,0 +1,1026 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * {@link List} 接口的可变大小数组实现。实现了所有可选的列表操作，并允许包括 <tt>null</tt> 在内的所有元素。
+ * 除了实现 <tt>List</tt> 接口之外，此类还提供了操作内部用于存储列表的数组大小的方法。
+ *
+ * <p>
+ * <tt>size</tt>、<tt>isEmpty</tt>、<tt>get</tt>、<tt>set</tt>、<tt>iterator</tt> 和 <tt>listIterator</tt>
+ * 操作以常数时间运行。<tt>add</tt> 操作以<i>均摊常数时间</i>运行，即添加 n 个元素需要 O(n) 时间。
+ * 其他所有操作都以线性时间运行（粗略地说）。
+ *
+ * <p>
+ * 与基于 {@link AbstractList} 的默认实现不同，此类的 <tt>contains</tt>、<tt>indexOf</tt>、
+ * <tt>toArray</tt>、<tt>forEach</tt>、<tt>removeIf</tt> 和 <tt>replaceAll</tt>
+ * 都直接在底层数组上操作，不经过 <tt>Iterator</tt> 的 <tt>hasNext</tt>/<tt>next</tt> 虚调用。
+ *
+ * <p>
+ * 每个 <tt>ArrayList</tt> 实例都有一个<i>容量</i>。容量是用于存储列表元素的数组的大小，
+ * 它总是至少与列表大小一样大。随着元素被添加到 ArrayList，其容量会自动增长（每次扩容为原来的 1.5 倍）。
+ * 在添加大量元素之前，应用程序可以使用 <tt>ensureCapacity</tt> 操作增加 <tt>ArrayList</tt> 实例的容量，
+ * 这可以减少增量重新分配的次数。
+ *
+ * <p>
+ * <strong>注意，此实现不是同步的。</strong>
+ * 此类的 <tt>iterator</tt> 和 <tt>listIterator</tt> 方法返回的迭代器是<i>快速失败</i>的。
+ *
+ * @param <E> 此列表中元素的类型
+ *
+ * @author Josh Bloch
+ * @author Neal Gafter
+ * @see Collection
+ * @see List
+ * @see java.util.ArrayList
+ * @since 1.2
+ */
+public class ArrayList<E> extends AbstractList<E> implements List<E>, RandomAccess, Cloneable {
+    /**
+     * 默认初始容量。
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * 用于空实例的共享空数组实例。
+     */
+    private static final Object[] EMPTY_ELEMENTDATA = {};
+
+    /**
+     * 用于默认大小空实例的共享空数组实例。与 EMPTY_ELEMENTDATA 区分开来，以便知道添加第一个元素时应该扩容多少。
+     */
+    private static final Object[] DEFAULTCAPACITY_EMPTY_ELEMENTDATA = {};
+
+    /**
+     * 存储 ArrayList 元素的数组缓冲区。ArrayList 的容量就是此数组缓冲区的长度。
+     * 任何 elementData == DEFAULTCAPACITY_EMPTY_ELEMENTDATA 的空 ArrayList 在添加第一个元素时
+     * 将被扩展到 DEFAULT_CAPACITY。
+     */
+    transient Object[] elementData; // 非私有以简化嵌套类访问
+
+    /**
+     * ArrayList 的大小（它包含的元素数量）。
+     */
+    private int size;
+
+    /**
+     * 构造一个具有指定初始容量的空列表。
+     *
+     * @param initialCapacity 列表的初始容量
+     * @throws IllegalArgumentException 如果指定的初始容量为负数
+     */
+    public ArrayList(int initialCapacity) {
+        if (initialCapacity > 0) {
+            this.elementData = new Object[initialCapacity];
+        } else if (initialCapacity == 0) {
+            this.elementData = EMPTY_ELEMENTDATA;
+        } else {
+            throw new IllegalArgumentException("Illegal Capacity: " +
+                    initialCapacity);
+        }
+    }
+
+    /**
+     * 构造一个初始容量为 10 的空列表。
+     */
+    public ArrayList() {
+        this.elementData = DEFAULTCAPACITY_EMPTY_ELEMENTDATA;
+    }
+
+    /**
+     * 构造一个包含指定集合元素的列表，元素顺序与集合迭代器返回的顺序相同。
+     *
+     * @param c 其元素将被放入此列表的集合
+     * @throws NullPointerException 如果指定的集合为 null
+     */
+    public ArrayList(java.util.Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        if ((size = a.length) != 0) {
+            // c.toArray 可能（不正确地）不返回 Object[]
+            if (a.getClass() == Object[].class) {
+                elementData = a;
+            } else {
+                elementData = Arrays.copyOf(a, size, Object[].class);
+            }
+        } else {
+            elementData = EMPTY_ELEMENTDATA;
+        }
+    }
+
+    /**
+     * 将此 <tt>ArrayList</tt> 实例的容量修剪为列表的当前大小。应用程序可以使用此操作来最小化
+     * <tt>ArrayList</tt> 实例的存储空间。
+     */
+    public void trimToSize() {
+        modCount++;
+        if (size < elementData.length) {
+            elementData = (size == 0)
+                    ? EMPTY_ELEMENTDATA
+                    : Arrays.copyOf(elementData, size);
+        }
+    }
+
+    /**
+     * 如有必要，增加此 <tt>ArrayList</tt> 实例的容量，以确保它至少可以容纳最小容量参数指定的元素数量。
+     *
+     * @param minCapacity 所需的最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        int minExpand = (elementData != DEFAULTCAPACITY_EMPTY_ELEMENTDATA)
+                // 任何大小，如果不是默认的空数组
+                ? 0
+                // 默认空数组的大小已经被认为是默认容量
+                : DEFAULT_CAPACITY;
+
+        if (minCapacity > minExpand) {
+            ensureExplicitCapacity(minCapacity);
+        }
+    }
+
+    private void ensureCapacityInternal(int minCapacity) {
+        if (elementData == DEFAULTCAPACITY_EMPTY_ELEMENTDATA) {
+            minCapacity = Math.max(DEFAULT_CAPACITY, minCapacity);
+        }
+
+        ensureExplicitCapacity(minCapacity);
+    }
+
+    private void ensureExplicitCapacity(int minCapacity) {
+        modCount++;
+
+        // 考虑溢出的代码
+        if (minCapacity - elementData.length > 0)
+            grow(minCapacity);
+    }
+
+    /**
+     * 数组分配的最大大小。
+     * 一些虚拟机会在数组中保留一些头部字节。
+     * 尝试分配更大的数组可能会导致
+     * OutOfMemoryError: Requested array size exceeds VM limit
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 增加容量以确保它至少可以容纳最小容量参数指定的元素数量。新容量为旧容量的 1.5 倍，
+     * 使连续 <tt>add</tt> 的均摊成本为常数。
+     *
+     * @param minCapacity 所需的最小容量
+     */
+    private void grow(int minCapacity) {
+        // 考虑溢出的代码
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity - minCapacity < 0)
+            newCapacity = minCapacity;
+        if (newCapacity - MAX_ARRAY_SIZE > 0)
+            newCapacity = hugeCapacity(minCapacity);
+        // minCapacity 通常接近 size，所以这是一个优势：
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    private static int hugeCapacity(int minCapacity) {
+        if (minCapacity < 0) // 溢出
+            throw new OutOfMemoryError();
+        return (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+    }
+
+    /**
+     * 返回此列表中的元素数量。
+     *
+     * @return 此列表中的元素数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 如果此列表不包含任何元素，则返回 <tt>true</tt>。
+     *
+     * @return 如果此列表不包含任何元素，则返回 <tt>true</tt>
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 如果此列表包含指定元素，则返回 <tt>true</tt>。直接扫描底层数组，不创建迭代器。
+     *
+     * @param o 要检测其是否存在于此列表中的元素
+     * @return 如果此列表包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * 返回指定元素在此列表中第一次出现的索引；如果此列表不包含该元素，则返回 -1。
+     */
+    public int indexOf(Object o) {
+        final Object[] es = elementData;
+        final int size = this.size;
+        if (o == null) {
+            for (int i = 0; i < size; i++)
+                if (es[i] == null)
+                    return i;
+        } else {
+            for (int i = 0; i < size; i++)
+                if (o.equals(es[i]))
+                    return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 返回指定元素在此列表中最后一次出现的索引；如果此列表不包含该元素，则返回 -1。
+     */
+    public int lastIndexOf(Object o) {
+        final Object[] es = elementData;
+        if (o == null) {
+            for (int i = size - 1; i >= 0; i--)
+                if (es[i] == null)
+                    return i;
+        } else {
+            for (int i = size - 1; i >= 0; i--)
+                if (o.equals(es[i]))
+                    return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 返回此 <tt>ArrayList</tt> 实例的浅拷贝。（元素本身不会被复制。）
+     *
+     * @return 此 <tt>ArrayList</tt> 实例的克隆
+     */
+    public Object clone() {
+        try {
+            @SuppressWarnings("unchecked")
+            ArrayList<E> v = (ArrayList<E>) super.clone();
+            v.elementData = Arrays.copyOf(elementData, size);
+            v.modCount = 0;
+            return v;
+        } catch (CloneNotSupportedException e) {
+            // 这不应该发生，因为我们是 Cloneable 的
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * 以正确的顺序（从第一个到最后一个元素）返回包含此列表中所有元素的数组。
+     * 直接复制底层数组，不经过迭代器。
+     *
+     * @return 以正确顺序包含此列表中所有元素的数组
+     */
+    public Object[] toArray() {
+        return Arrays.copyOf(elementData, size);
+    }
+
+    /**
+     * 以正确的顺序返回包含此列表中所有元素的数组；返回数组的运行时类型是指定数组的运行时类型。
+     *
+     * @param a 要存储列表元素的数组（如果它足够大）；否则，为此目的分配一个相同运行时类型的新数组
+     * @return 包含列表元素的数组
+     * @throws ArrayStoreException  如果指定数组的运行时类型不是此列表中每个元素的运行时类型的超类型
+     * @throws NullPointerException 如果指定的数组为 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size)
+            // 创建一个 a 的运行时类型的新数组，但内容是我的：
+            return (T[]) Arrays.copyOf(elementData, size, a.getClass());
+        System.arraycopy(elementData, 0, a, 0, size);
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+    // 位置访问操作
+
+    @SuppressWarnings("unchecked")
+    E elementData(int index) {
+        return (E) elementData[index];
+    }
+
+    /**
+     * 返回此列表中指定位置的元素。
+     *
+     * @param index 要返回的元素的索引
+     * @return 此列表中指定位置的元素
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E get(int index) {
+        rangeCheck(index);
+
+        return elementData(index);
+    }
+
+    /**
+     * 用指定元素替换此列表中指定位置的元素。
+     *
+     * @param index   要替换的元素的索引
+     * @param element 要存储在指定位置的元素
+     * @return 之前在指定位置的元素
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E set(int index, E element) {
+        rangeCheck(index);
+
+        E oldValue = elementData(index);
+        elementData[index] = element;
+        return oldValue;
+    }
+
+    /**
+     * 将指定元素追加到此列表的末尾。
+     *
+     * @param e 要追加到此列表的元素
+     * @return <tt>true</tt>（由 {@link Collection#add} 指定）
+     */
+    public boolean add(E e) {
+        ensureCapacityInternal(size + 1); // 增加 modCount！！
+        elementData[size++] = e;
+        return true;
+    }
+
+    /**
+     * 将指定元素插入此列表中的指定位置。将当前位于该位置的元素（如果有）和任何后续元素右移（索引加一）。
+     *
+     * @param index   要插入指定元素的索引
+     * @param element 要插入的元素
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public void add(int index, E element) {
+        rangeCheckForAdd(index);
+
+        ensureCapacityInternal(size + 1); // 增加 modCount！！
+        System.arraycopy(elementData, index, elementData, index + 1,
+                size - index);
+        elementData[index] = element;
+        size++;
+    }
+
+    /**
+     * 移除此列表中指定位置的元素。将任何后续元素左移（索引减一）。
+     *
+     * @param index 要移除的元素的索引
+     * @return 从列表中移除的元素
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E remove(int index) {
+        rangeCheck(index);
+
+        modCount++;
+        E oldValue = elementData(index);
+
+        fastRemove(index);
+
+        return oldValue;
+    }
+
+    /**
+     * 如果指定元素存在，则从此列表中移除它的第一次出现。
+     *
+     * @param o 要从此列表中移除的元素（如果存在）
+     * @return 如果此列表包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0)
+            return false;
+        modCount++;
+        fastRemove(index);
+        return true;
+    }
+
+    /*
+     * 跳过边界检查且不返回被移除值的私有移除方法。
+     */
+    private void fastRemove(int index) {
+        int numMoved = size - index - 1;
+        if (numMoved > 0)
+            System.arraycopy(elementData, index + 1, elementData, index,
+                    numMoved);
+        elementData[--size] = null; // 清除以让 GC 完成它的工作
+    }
+
+    /**
+     * 从此列表中移除所有元素。此调用返回后列表将为空。
+     */
+    public void clear() {
+        modCount++;
+
+        // 清除以让 GC 完成它的工作
+        final Object[] es = elementData;
+        for (int i = 0; i < size; i++)
+            es[i] = null;
+
+        size = 0;
+    }
+
+    /**
+     * 按照指定集合的迭代器返回的顺序，将指定集合中的所有元素追加到此列表的末尾。
+     *
+     * @param c 包含要添加到此列表的元素的集合
+     * @return 如果此列表因调用而发生更改，则返回 <tt>true</tt>
+     * @throws NullPointerException 如果指定的集合为 null
+     */
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        int numNew = a.length;
+        ensureCapacityInternal(size + numNew); // 增加 modCount
+        System.arraycopy(a, 0, elementData, size, numNew);
+        size += numNew;
+        return numNew != 0;
+    }
+
+    /**
+     * 从指定位置开始，将指定集合中的所有元素插入此列表。
+     *
+     * @param index 插入指定集合中第一个元素的索引
+     * @param c     包含要添加到此列表的元素的集合
+     * @return 如果此列表因调用而发生更改，则返回 <tt>true</tt>
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws NullPointerException      如果指定的集合为 null
+     */
+    public boolean addAll(int index, Collection<? extends E> c) {
+        rangeCheckForAdd(index);
+
+        Object[] a = c.toArray();
+        int numNew = a.length;
+        ensureCapacityInternal(size + numNew); // 增加 modCount
+
+        int numMoved = size - index;
+        if (numMoved > 0)
+            System.arraycopy(elementData, index, elementData, index + numNew,
+                    numMoved);
+
+        System.arraycopy(a, 0, elementData, index, numNew);
+        size += numNew;
+        return numNew != 0;
+    }
+
+    /**
+     * 从此列表中移除索引在 {@code fromIndex}（包含）和 {@code toIndex}（不包含）之间的所有元素。
+     * 只需一次 <tt>System.arraycopy</tt> 即可完成。
+     */
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        int numMoved = size - toIndex;
+        System.arraycopy(elementData, toIndex, elementData, fromIndex,
+                numMoved);
+
+        // 清除以让 GC 完成它的工作
+        int newSize = size - (toIndex - fromIndex);
+        for (int i = newSize; i < size; i++) {
+            elementData[i] = null;
+        }
+        size = newSize;
+    }
+
+    /**
+     * 检查给定索引是否在范围内。不检查索引是否为负：它总是在数组访问之前使用，
+     * 如果索引为负，数组访问会抛出 ArrayIndexOutOfBoundsException。
+     */
+    private void rangeCheck(int index) {
+        if (index >= size)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    /**
+     * add 和 addAll 使用的 rangeCheck 版本。
+     */
+    private void rangeCheckForAdd(int index) {
+        if (index > size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+
+    /**
+     * 返回此列表中元素的列表迭代器（按正确顺序），从列表中的指定位置开始。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public ListIterator<E> listIterator(int index) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index);
+        return new ListItr(index);
+    }
+
+    /**
+     * 返回此列表中元素的列表迭代器（按正确顺序）。
+     *
+     * @see #listIterator(int)
+     */
+    public ListIterator<E> listIterator() {
+        return new ListItr(0);
+    }
+
+    /**
+     * 以正确的顺序返回此列表中元素的迭代器。迭代器直接读取底层数组。
+     *
+     * @return 以正确顺序遍历此列表中元素的迭代器
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * AbstractList.Itr 的优化版本
+     */
+    private class Itr implements Iterator<E> {
+        int cursor; // 要返回的下一个元素的索引
+        int lastRet = -1; // 返回的最后一个元素的索引；如果没有则为 -1
+        int expectedModCount = modCount;
+
+        Itr() {
+        }
+
+        public boolean hasNext() {
+            return cursor != size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            int i = cursor;
+            if (i >= size)
+                throw new NoSuchElementException();
+            Object[] elementData = ArrayList.this.elementData;
+            if (i >= elementData.length)
+                throw new ConcurrentModificationException();
+            cursor = i + 1;
+            return (E) elementData[lastRet = i];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            checkForComodification();
+
+            try {
+                ArrayList.this.remove(lastRet);
+                cursor = lastRet;
+                lastRet = -1;
+                expectedModCount = modCount;
+            } catch (IndexOutOfBoundsException ex) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * 直接把底层数组中的一段连续元素复制到 {@code dst} 中。
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            checkForComodification();
+            int i = cursor;
+            int n = Math.min(max, size - i);
+            if (n <= 0)
+                return 0;
+            Object[] elementData = ArrayList.this.elementData;
+            if (i + n > elementData.length)
+                throw new ConcurrentModificationException();
+            System.arraycopy(elementData, i, dst, off, n);
+            cursor = i + n;
+            lastRet = cursor - 1;
+            return n;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> consumer) {
+            Objects.requireNonNull(consumer);
+            final int size = ArrayList.this.size;
+            int i = cursor;
+            if (i >= size) {
+                return;
+            }
+            final Object[] elementData = ArrayList.this.elementData;
+            if (i >= elementData.length) {
+                throw new ConcurrentModificationException();
+            }
+            while (i != size && modCount == expectedModCount) {
+                consumer.accept((E) elementData[i++]);
+            }
+            // 在迭代结束时更新一次以减少堆写入流量
+            cursor = i;
+            lastRet = i - 1;
+            checkForComodification();
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * AbstractList.ListItr 的优化版本
+     */
+    private class ListItr extends Itr implements ListIterator<E> {
+        ListItr(int index) {
+            super();
+            cursor = index;
+        }
+
+        public boolean hasPrevious() {
+            return cursor != 0;
+        }
+
+        public int nextIndex() {
+            return cursor;
+        }
+
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            int i = cursor - 1;
+            if (i < 0)
+                throw new NoSuchElementException();
+            Object[] elementData = ArrayList.this.elementData;
+            if (i >= elementData.length)
+                throw new ConcurrentModificationException();
+            cursor = i;
+            return (E) elementData[lastRet = i];
+        }
+
+        public void set(E e) {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            checkForComodification();
+
+            try {
+                ArrayList.this.set(lastRet, e);
+            } catch (IndexOutOfBoundsException ex) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public void add(E e) {
+            checkForComodification();
+
+            try {
+                int i = cursor;
+                ArrayList.this.add(i, e);
+                cursor = i + 1;
+                lastRet = -1;
+                expectedModCount = modCount;
+            } catch (IndexOutOfBoundsException ex) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * 直接遍历底层数组，对每个元素执行给定操作。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final Object[] elementData = this.elementData;
+        final int size = this.size;
+        for (int i = 0; modCount == expectedModCount && i < size; i++) {
+            action.accept((E) elementData[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * 元素个数达到此值时，{@link #removeIf(Predicate, boolean)} 的并行模式才会真正并行标记；
+     * 更小的列表拆分任务的开销大于收益，仍然顺序标记。
+     */
+    static final int PARALLEL_MARK_THRESHOLD = 1 << 16;
+
+    /**
+     * 移除满足给定谓词的所有元素。
+     *
+     * <p>
+     * 与 {@link Collection#removeIf} 的默认实现（每次匹配调用一次 <tt>Iterator.remove</tt>，
+     * 每次都要移动尾部元素，整体为 O(n²)）不同，此实现分两个阶段，整体为 O(n)：
+     * <ol>
+     * <li>标记阶段：对每个元素调用一次谓词，把需要移除的元素的位置记录在一个位图中；</li>
+     * <li>压缩阶段：按位图把幸存元素一次性前移，并清除尾部引用。</li>
+     * </ol>
+     * 在标记阶段结束之前列表不会被修改，因此如果谓词在中途抛出异常，列表保持调用前的状态不变。
+     *
+     * @param filter 对要移除的元素返回 {@code true} 的谓词
+     * @return 如果有任何元素被移除，则返回 {@code true}
+     * @throws NullPointerException 如果指定的过滤器为 null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        return removeIf(filter, false);
+    }
+
+    /**
+     * 移除满足给定谓词的所有元素，可以选择并行执行标记阶段。
+     *
+     * <p>
+     * 当 <tt>parallel</tt> 为 {@code true} 且列表元素个数不小于 {@link #PARALLEL_MARK_THRESHOLD} 时，
+     * 标记阶段会在公共 {@link java.util.concurrent.ForkJoinPool} 上并行执行：每个任务负责若干个完整的
+     * 64 位字，只写自己的字，因此无需同步。此时谓词会被多个线程同时调用，必须是无状态且线程安全的，
+     * 调用顺序也不再确定。压缩阶段始终是顺序执行的单次遍历。
+     *
+     * <p>
+     * 无论是否并行，谓词抛出的异常都会在修改列表之前传播给调用者。
+     *
+     * @param filter   对要移除的元素返回 {@code true} 的谓词
+     * @param parallel 是否并行执行标记阶段
+     * @return 如果有任何元素被移除，则返回 {@code true}
+     * @throws NullPointerException 如果指定的过滤器为 null
+     */
+    public boolean removeIf(Predicate<? super E> filter, boolean parallel) {
+        Objects.requireNonNull(filter);
+        final int expectedModCount = modCount;
+        final Object[] es = elementData;
+        final int end = size;
+        final long[] deathRow;
+        int beg;
+        if (parallel && end >= PARALLEL_MARK_THRESHOLD) {
+            beg = 0;
+            deathRow = markParallel(filter, es, end);
+            if (deathRow == null) {
+                checkForComodification(expectedModCount);
+                return false;
+            }
+        } else {
+            // 跳过前缀中不需要移除的元素，常见情况下可以完全避免分配位图
+            for (beg = 0; beg < end && !filter.test(elementAt(es, beg)); beg++)
+                ;
+            if (beg == end) {
+                checkForComodification(expectedModCount);
+                return false;
+            }
+            deathRow = nBits(end - beg);
+            deathRow[0] = 1L; // 设置 beg 对应的位
+            for (int i = beg + 1; i < end; i++)
+                if (filter.test(elementAt(es, i)))
+                    setBit(deathRow, i - beg);
+        }
+        checkForComodification(expectedModCount);
+
+        // 压缩阶段：谓词已全部调用完毕，从这里开始才修改列表
+        modCount++;
+        int w = beg;
+        for (int i = beg; i < end; i++)
+            if (isClear(deathRow, i - beg))
+                es[w++] = es[i];
+        // 清除以让 GC 完成它的工作
+        for (int i = w; i < end; i++)
+            es[i] = null;
+        size = w;
+        return true;
+    }
+
+    /**
+     * 并行标记阶段：返回需要移除的元素的位图，如果没有元素需要移除则返回 null。
+     */
+    private static <E> long[] markParallel(Predicate<? super E> filter, Object[] es, int end) {
+        final long[] deathRow = nBits(end);
+        boolean any = IntStream.range(0, deathRow.length).parallel().map(w -> {
+            long word = 0L;
+            for (int i = w << 6, hi = Math.min(i + 64, end), b = 0; i < hi; i++, b++)
+                if (filter.test(ArrayList.<E>elementAt(es, i)))
+                    word |= 1L << b;
+            deathRow[w] = word;
+            return word != 0L ? 1 : 0;
+        }).sum() != 0;
+        return any ? deathRow : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> E elementAt(Object[] es, int index) {
+        return (E) es[index];
+    }
+
+    // 位图辅助方法，供本类及基本类型列表的 removeIf 使用
+    static long[] nBits(int n) {
+        return new long[((n - 1) >> 6) + 1];
+    }
+
+    static void setBit(long[] bits, int i) {
+        bits[i >> 6] |= 1L << i;
+    }
+
+    static boolean isClear(long[] bits, int i) {
+        return (bits[i >> 6] & (1L << i)) == 0;
+    }
+
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * 默认的并行排序阈值，见 {@link #setParallelSortThreshold(int)}。
+     */
+    public static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+    /**
+     * 元素个数达到此值时 {@link #sort(Comparator)} 使用并行排序。
+     */
+    private int parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
+
+    /**
+     * 设置 {@link #sort(Comparator)} 改用 {@link Arrays#parallelSort(Object[], int, int, Comparator)}
+     * 的元素个数阈值。传入 {@link Integer#MAX_VALUE} 可以完全禁用并行排序。
+     *
+     * @param threshold 并行排序阈值
+     * @throws IllegalArgumentException 如果阈值小于 1
+     */
+    public void setParallelSortThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Illegal threshold: " + threshold);
+        this.parallelSortThreshold = threshold;
+    }
+
+    /**
+     * 根据指定的比较器对此列表进行排序。
+     *
+     * <p>
+     * {@link List#sort} 的默认实现先用 <tt>toArray()</tt> 复制一份数组，排序后再通过
+     * <tt>ListIterator.set</tt> 逐个写回，既多占用一整个数组，又要付出 O(n) 次虚调用。
+     * 此实现直接对底层数组的 {@code [0, size)} 区间原地排序：
+     * <ul>
+     * <li>元素个数小于并行排序阈值时，使用 {@link Arrays#sort(Object[], int, int, Comparator)}（TimSort）；</li>
+     * <li>否则使用 {@link Arrays#parallelSort(Object[], int, int, Comparator)}，在公共
+     * {@link java.util.concurrent.ForkJoinPool} 上做并行归并排序。</li>
+     * </ul>
+     * 两种方式都是稳定排序。
+     *
+     * @param c 用于比较列表元素的比较器；为 {@code null} 时使用元素的自然顺序
+     * @throws ClassCastException              如果列表包含不能相互比较的元素
+     * @throws ConcurrentModificationException 如果排序期间列表被修改
+     * @see #setParallelSortThreshold(int)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        final E[] es = (E[]) elementData;
+        if (size >= parallelSortThreshold) {
+            Arrays.parallelSort(es, 0, size, c);
+        } else {
+            Arrays.sort(es, 0, size, c);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
+    /**
+     * 用对每个元素应用给定运算符的结果替换该元素，直接写回底层数组。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        final int expectedModCount = modCount;
+        final Object[] es = elementData;
+        final int size = this.size;
+        for (int i = 0; modCount == expectedModCount && i < size; i++) {
+            es[i] = operator.apply((E) es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
+    /**
+     * 在此列表的元素上创建一个<em>延迟绑定</em>且<em>快速失败</em>的 {@link Spliterator}。
+     *
+     * <p>
+     * 该 {@code Spliterator} 报告 {@link Spliterator#SIZED}、{@link Spliterator#SUBSIZED} 和
+     * {@link Spliterator#ORDERED}。拆分时以 O(1) 的代价对半拆分索引区间，
+     * {@code forEachRemaining} 直接遍历底层数组，不经过 {@code get} 的边界检查。
+     *
+     * @return 此列表元素上的 {@code Spliterator}
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ArrayListSpliterator<>(this, 0, -1, 0);
+    }
+
+    /** 基于索引的对半拆分、延迟初始化的 Spliterator */
+    static final class ArrayListSpliterator<E> implements Spliterator<E> {
+
+        /*
+         * 如果 ArrayList 是不可变的，或者在结构上不可变（没有 add、remove 等），
+         * 我们可以用 Arrays.spliterator 实现它们的 spliterator。
+         * 但在遍历期间我们要尽可能多地检测干扰，同时又不牺牲太多性能。
+         * 我们主要依赖 modCount：它不能保证检测到并发违规，而且有时对线程内干扰过于保守，
+         * 但在实践中能检测到足够多的问题。为此我们
+         * (1) 延迟初始化 fence 和 expectedModCount，直到需要提交到所检查的状态的最后时刻，从而提高精度；
+         * (2) 只在 forEachRemaining 的末尾执行一次 ConcurrentModificationException 检查（性能最敏感的方法）。
+         */
+
+        private final ArrayList<E> list;
+        private int index; // 当前索引，advance/split 时修改
+        private int fence; // 初始化前为 -1；之后为最后一个索引 + 1
+        private int expectedModCount; // fence 设置时初始化
+
+        /** 创建覆盖给定范围的新 Spliterator */
+        ArrayListSpliterator(ArrayList<E> list, int origin, int fence,
+                int expectedModCount) {
+            this.list = list; // 如果为 null 则允许，除非遍历
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // 第一次使用时将 fence 初始化为 size
+            int hi;
+            ArrayList<E> lst;
+            if ((hi = fence) < 0) {
+                if ((lst = list) == null)
+                    hi = fence = 0;
+                else {
+                    expectedModCount = lst.modCount;
+                    hi = fence = lst.size;
+                }
+            }
+            return hi;
+        }
+
+        public ArrayListSpliterator<E> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : // 将区间对半分开，除非太小
+                    new ArrayListSpliterator<E>(list, lo, index = mid,
+                            expectedModCount);
+        }
+
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                @SuppressWarnings("unchecked")
+                E e = (E) list.elementData[i];
+                action.accept(e);
+                if (list.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super E> action) {
+            int i, hi, mc; // 将访问和检查提升到循环外
+            ArrayList<E> lst;
+            Object[] a;
+            if (action == null)
+                throw new NullPointerException();
+            if ((lst = list) != null && (a = lst.elementData) != null) {
+                if ((hi = fence) < 0) {
+                    mc = lst.modCount;
+                    hi = lst.size;
+                } else
+                    mc = expectedModCount;
+                if ((i = index) >= 0 && (index = hi) <= a.length) {
+                    for (; i < hi; ++i) {
+                        @SuppressWarnings("unchecked")
+                        E e = (E) a[i];
+                        action.accept(e);
+                    }
+                    if (lst.modCount == mc)
+                        return;
+                }
+            }
+            throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return (long) (getFence() - index);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.learning.demo.java.core.collection;
+
+/**
+ * 对比自定义 {@link ArrayList} 与 {@link java.util.ArrayList} 的 get/add/iterate 吞吐量。
+ *
+ * <p>简单的微基准：每个场景先预热若干轮让 JIT 充分编译，再取多轮测量的最好成绩，
+ * 结果以 ops/ms 输出。运行方式：直接执行 {@link #main(String[])}。
+ */
+public class ArrayListBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int WARMUP = 10;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        java.util.List<Integer> jdk = new java.util.ArrayList<>();
+        ArrayList<Integer> custom = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            jdk.add(i);
+            custom.add(i);
+        }
+
+        Bench.report("add      java.util.ArrayList", SIZE, WARMUP, ROUNDS, () -> {
+            java.util.List<Integer> l = new java.util.ArrayList<>();
+            for (int i = 0; i < SIZE; i++) {
+                l.add(i);
+            }
+            return l.size();
+        });
+        Bench.report("add      ArrayList          ", SIZE, WARMUP, ROUNDS, () -> {
+            ArrayList<Integer> l = new ArrayList<>();
+            for (int i = 0; i < SIZE; i++) {
+                l.add(i);
+            }
+            return l.size();
+        });
+
+        Bench.report("get      java.util.ArrayList", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (int i = 0; i < SIZE; i++) {
+                s += jdk.get(i);
+            }
+            return s;
+        });
+        Bench.report("get      ArrayList          ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (int i = 0; i < SIZE; i++) {
+                s += custom.get(i);
+            }
+            return s;
+        });
+
+        Bench.report("iterate  java.util.ArrayList", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer v : jdk) {
+                s += v;
+            }
+            return s;
+        });
+        Bench.report("iterate  ArrayList          ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer v : custom) {
+                s += v;
+            }
+            return s;
+        });
+        Bench.done();
+    }
+}
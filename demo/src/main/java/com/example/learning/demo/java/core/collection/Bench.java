@@ -0,0 +1,68 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 本包各个 <tt>*Benchmark</tt> 共用的微基准工具：先预热若干轮让 JIT 充分编译，再取多轮测量的最好成绩；
+ * 内存通过多次 {@link System#gc()} 后比较已用堆大小估算，只是近似值。
+ *
+ * <p>被测操作的返回值都累加到 {@link #sink}，基准结束时调用 {@link #done()} 输出，防止 JIT 消除无副作用的计算。
+ */
+final class Bench {
+    /** 防止 JIT 消除无副作用的计算 */
+    private static int sink;
+
+    private Bench() {
+    }
+
+    /**
+     * 执行 <tt>warmup</tt> 轮预热，再执行 <tt>rounds</tt> 轮测量，返回其中最快一轮的纳秒数。
+     */
+    static long bestNanos(int warmup, int rounds, IntSupplier op) {
+        for (int i = 0; i < warmup; i++) {
+            sink += op.getAsInt();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            sink += op.getAsInt();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * 测量 <tt>op</tt>，按每轮执行 <tt>ops</tt> 次操作输出吞吐量（ops/ms）。
+     */
+    static void report(String name, int ops, int warmup, int rounds, IntSupplier op) {
+        long best = bestNanos(warmup, rounds, op);
+        System.out.printf("%s : %10.1f ops/ms%n", name, ops / (best / 1_000_000.0));
+    }
+
+    /**
+     * 估算 <tt>build</tt> 构造的结构新占用的堆内存，按 <tt>count</tt> 个元素平均后以 bytes/<tt>unit</tt> 输出。
+     */
+    static void footprint(String name, int count, String unit, Supplier<?> build) {
+        long before = usedHeap();
+        Object s = build.get();
+        long after = usedHeap();
+        sink += s.hashCode();
+        System.out.printf("%s : %6.2f bytes/%s%n", name, (after - before) / (double) count, unit);
+    }
+
+    /**
+     * 基准结束时调用，保证所有结果都被使用。
+     */
+    static void done() {
+        System.out.println(sink == 42 ? "" : "done");
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
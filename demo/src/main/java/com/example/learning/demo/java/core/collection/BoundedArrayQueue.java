@@ -0,0 +1,420 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/*
+ * 下面几个类只用于字段填充：HotSpot 把父类字段排在子类字段之前，所以生产者索引和消费者索引
+ * 前后各隔着 64 字节的 long 字段，不会与彼此或对象头落在同一缓存行，避免伪共享。
+ */
+
+abstract class BoundedArrayQueuePad0<E> extends AbstractQueue<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class BoundedArrayQueueProducerIndex<E> extends BoundedArrayQueuePad0<E> {
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<BoundedArrayQueueProducerIndex> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(BoundedArrayQueueProducerIndex.class, "producerIndex");
+
+    /** 下一个要写入的位置（单调递增，不取模） */
+    volatile long producerIndex;
+}
+
+abstract class BoundedArrayQueuePad1<E> extends BoundedArrayQueueProducerIndex<E> {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class BoundedArrayQueueConsumerIndex<E> extends BoundedArrayQueuePad1<E> {
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<BoundedArrayQueueConsumerIndex> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(BoundedArrayQueueConsumerIndex.class, "consumerIndex");
+
+    /** 下一个要读取的位置（单调递增，不取模） */
+    volatile long consumerIndex;
+}
+
+abstract class BoundedArrayQueuePad2<E> extends BoundedArrayQueueConsumerIndex<E> {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+/**
+ * 有界、无锁、基于数组的并发队列的公共部分，采用 Dmitry Vyukov 的带序号槽位算法。
+ *
+ * <p>
+ * 每个槽位 <tt>i</tt> 有一个序号 <tt>sequences[i]</tt>，初始为 <tt>i</tt>。对于位置 <tt>pos</tt>
+ * （槽位 <tt>pos &amp; mask</tt>）：
+ * <ul>
+ * <li>序号等于 <tt>pos</tt>：槽位空闲，生产者可以写入，写完后把序号发布为 <tt>pos + 1</tt>；</li>
+ * <li>序号等于 <tt>pos + 1</tt>：元素已发布，消费者可以读取，读完后把序号发布为 <tt>pos + capacity</tt>，
+ * 即下一轮生产者的位置。</li>
+ * </ul>
+ * 生产者和消费者只通过槽位序号同步，彼此从不读取对方的索引，因此队列满和队列空的判断都不会访问对方的缓存行。
+ * 多生产者（多消费者）通过 CAS 递增生产者（消费者）索引认领位置；单生产者（单消费者）变体由唯一的线程拥有该索引，
+ * 只需有序写（<tt>lazySet</tt>），不需要 CAS。
+ *
+ * <p>
+ * 批量操作 {@link #offerBatch(Object[], int, int) offerBatch} 和 {@link #drain(Consumer, int) drain}
+ * 先检查一段连续槽位的序号，然后一次认领整段（多线程变体只需一次 CAS），再逐个写入/读出并发布序号。
+ *
+ * <p>
+ * 所有变体都不允许 <tt>null</tt> 元素。{@link #size()}、{@link #isEmpty()} 和迭代器在并发修改时只是估计值；
+ * 迭代器是弱一致的，不支持 <tt>remove</tt>。
+ *
+ * @param <E> 此队列中保存的元素的类型
+ *
+ * @see SpscArrayQueue
+ * @see MpscArrayQueue
+ * @see SpmcArrayQueue
+ * @see MpmcArrayQueue
+ */
+public abstract class BoundedArrayQueue<E> extends BoundedArrayQueuePad2<E> {
+    /** 容量，2 的幂 */
+    final int capacity;
+    final int mask;
+    final AtomicLongArray sequences;
+    final AtomicReferenceArray<E> buffer;
+
+    /**
+     * 创建容量不小于 <tt>capacity</tt> 的队列，实际容量向上取整为 2 的幂。
+     *
+     * @param capacity 最小容量
+     * @throws IllegalArgumentException 如果 <tt>capacity</tt> 小于 2 或大于 2<sup>30</sup>
+     */
+    BoundedArrayQueue(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30))
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        int actual = Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = actual;
+        this.mask = actual - 1;
+        this.sequences = new AtomicLongArray(actual);
+        this.buffer = new AtomicReferenceArray<>(actual);
+        for (int i = 0; i < actual; i++)
+            sequences.lazySet(i, i);
+    }
+
+    /**
+     * 返回此队列的容量。
+     *
+     * @return 容量
+     */
+    public final int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 把 <tt>src[off]</tt> 到 <tt>src[off + len - 1]</tt> 中尽可能多的前缀元素加入此队列，返回实际加入的个数。
+     * 没有加入的元素仍由调用者持有。
+     *
+     * @param src 元素数组
+     * @param off 起始下标
+     * @param len 最多加入的个数
+     * @return 实际加入的个数
+     * @throws NullPointerException 如果数组或其中要加入的元素为 null
+     */
+    public abstract int offerBatch(E[] src, int off, int len);
+
+    /**
+     * 取出最多 <tt>limit</tt> 个元素，按队列顺序交给 <tt>c</tt>，返回取出的个数。
+     *
+     * <p>如果 <tt>c</tt> 抛出异常，该异常会传播给调用者，已经交给 <tt>c</tt> 的元素不会放回队列。
+     * 单消费者的变体中其余元素仍留在队列里；多消费者的变体一次认领一整段连续的槽位，
+     * 这一段中尚未交付的元素会被<em>丢弃</em>。所以在多消费者的队列上，<tt>c</tt> 不应该抛出异常；
+     * 需要逐个确认交付时请使用 {@link #poll()}。
+     *
+     * @param c     接收元素的操作
+     * @param limit 最多取出的个数
+     * @return 取出的个数
+     * @throws NullPointerException 如果 <tt>c</tt> 为 null
+     */
+    public abstract int drain(Consumer<? super E> c, int limit);
+
+    /**
+     * 通过 {@link #drain(Consumer, int)} 批量取出元素并加入集合 <tt>c</tt>。如果 <tt>c.add</tt> 抛出异常，
+     * 多消费者的队列可能丢失元素，见 {@link #drain(Consumer, int)}。
+     *
+     * @throws NullPointerException     如果指定的集合为 null
+     * @throws IllegalArgumentException 如果指定的集合就是此队列
+     */
+    @Override
+    public int drainTo(java.util.Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        return drain(c::add, maxElements);
+    }
+
+    // 单生产者/多生产者
+
+    final boolean offerSingle(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        final long pos = producerIndex;
+        final int i = (int) pos & mask;
+        if (sequences.get(i) != pos)
+            return false; // 满：上一轮的元素还没被取走
+        buffer.lazySet(i, e);
+        sequences.lazySet(i, pos + 1);
+        PRODUCER_INDEX.lazySet(this, pos + 1);
+        return true;
+    }
+
+    final boolean offerMulti(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long pos = producerIndex;
+        for (;;) {
+            final int i = (int) pos & mask;
+            final long dif = sequences.get(i) - pos;
+            if (dif == 0) {
+                if (PRODUCER_INDEX.compareAndSet(this, pos, pos + 1)) {
+                    buffer.lazySet(i, e);
+                    sequences.lazySet(i, pos + 1);
+                    return true;
+                }
+                pos = producerIndex;
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = producerIndex; // 其他生产者已经认领了这个位置
+            }
+        }
+    }
+
+    final int offerBatchSingle(E[] src, int off, int len) {
+        checkBatch(src, off, len);
+        final long pos = producerIndex;
+        final int n = freeRun(pos, Math.min(len, capacity));
+        if (n == 0)
+            return 0;
+        publish(src, off, pos, n);
+        PRODUCER_INDEX.lazySet(this, pos + n);
+        return n;
+    }
+
+    final int offerBatchMulti(E[] src, int off, int len) {
+        checkBatch(src, off, len);
+        final int max = Math.min(len, capacity);
+        for (;;) {
+            final long pos = producerIndex;
+            final int n = freeRun(pos, max);
+            if (n == 0)
+                return 0;
+            if (PRODUCER_INDEX.compareAndSet(this, pos, pos + n)) {
+                publish(src, off, pos, n);
+                return n;
+            }
+        }
+    }
+
+    private static void checkBatch(Object[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length)
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + src.length);
+        for (int j = off, end = off + len; j < end; j++)
+            if (src[j] == null)
+                throw new NullPointerException();
+    }
+
+    /**
+     * 从位置 <tt>pos</tt> 起连续空闲的槽位数，最多 <tt>max</tt> 个。
+     */
+    private int freeRun(long pos, int max) {
+        int n = 0;
+        while (n < max && sequences.get((int) (pos + n) & mask) == pos + n)
+            n++;
+        return n;
+    }
+
+    private void publish(E[] src, int off, long pos, int n) {
+        for (int j = 0; j < n; j++) {
+            final int i = (int) (pos + j) & mask;
+            buffer.lazySet(i, src[off + j]);
+            sequences.lazySet(i, pos + j + 1);
+        }
+    }
+
+    // 单消费者/多消费者
+
+    final E pollSingle() {
+        final long pos = consumerIndex;
+        final int i = (int) pos & mask;
+        if (sequences.get(i) != pos + 1)
+            return null; // 空：这个位置的元素还没发布
+        final E e = buffer.get(i);
+        buffer.lazySet(i, null);
+        sequences.lazySet(i, pos + capacity);
+        CONSUMER_INDEX.lazySet(this, pos + 1);
+        return e;
+    }
+
+    final E pollMulti() {
+        long pos = consumerIndex;
+        for (;;) {
+            final int i = (int) pos & mask;
+            final long dif = sequences.get(i) - (pos + 1);
+            if (dif == 0) {
+                if (CONSUMER_INDEX.compareAndSet(this, pos, pos + 1)) {
+                    final E e = buffer.get(i);
+                    buffer.lazySet(i, null);
+                    sequences.lazySet(i, pos + capacity);
+                    return e;
+                }
+                pos = consumerIndex;
+            } else if (dif < 0) {
+                return null;
+            } else {
+                pos = consumerIndex; // 其他消费者已经取走了这个位置
+            }
+        }
+    }
+
+    final int drainSingle(Consumer<? super E> c, int limit) {
+        Objects.requireNonNull(c);
+        final long pos = consumerIndex;
+        final int n = readyRun(pos, Math.min(limit, capacity));
+        int j = 0;
+        try {
+            while (j < n) {
+                final E e = take(pos + j);
+                j++;
+                c.accept(e);
+            }
+        } finally {
+            // 单消费者：未交付的元素留在队列中
+            if (j > 0)
+                CONSUMER_INDEX.lazySet(this, pos + j);
+        }
+        return n;
+    }
+
+    final int drainMulti(Consumer<? super E> c, int limit) {
+        Objects.requireNonNull(c);
+        final int max = Math.min(limit, capacity);
+        for (;;) {
+            final long pos = consumerIndex;
+            final int n = readyRun(pos, max);
+            if (n == 0)
+                return 0;
+            if (CONSUMER_INDEX.compareAndSet(this, pos, pos + n)) {
+                int j = 0;
+                try {
+                    while (j < n) {
+                        final E e = take(pos + j);
+                        j++;
+                        c.accept(e);
+                    }
+                } finally {
+                    // 整段已经认领，必须释放所有槽位；c 抛出异常时其余元素被丢弃
+                    while (j < n)
+                        take(pos + j++);
+                }
+                return n;
+            }
+        }
+    }
+
+    /**
+     * 从位置 <tt>pos</tt> 起连续已发布的槽位数，最多 <tt>max</tt> 个。
+     */
+    private int readyRun(long pos, int max) {
+        int n = 0;
+        while (n < max && sequences.get((int) (pos + n) & mask) == pos + n + 1)
+            n++;
+        return n;
+    }
+
+    /**
+     * 读出已认领位置的元素并把槽位释放给下一轮生产者。
+     */
+    private E take(long pos) {
+        final int i = (int) pos & mask;
+        final E e = buffer.get(i);
+        buffer.lazySet(i, null);
+        sequences.lazySet(i, pos + capacity);
+        return e;
+    }
+
+    // 查询
+
+    /**
+     * 获取但不移除此队列的头；如果此队列为空，则返回 <tt>null</tt>。多消费者时返回的元素可能已被其他线程取走。
+     */
+    public E peek() {
+        long pos = consumerIndex;
+        for (;;) {
+            final int i = (int) pos & mask;
+            final long dif = sequences.get(i) - (pos + 1);
+            if (dif == 0) {
+                final E e = buffer.get(i);
+                if (e != null)
+                    return e;
+            } else if (dif < 0) {
+                return null;
+            }
+            pos = consumerIndex;
+        }
+    }
+
+    /**
+     * 返回元素个数的估计值。
+     */
+    public int size() {
+        long after = consumerIndex;
+        for (;;) {
+            final long before = after;
+            final long producer = producerIndex;
+            after = consumerIndex;
+            if (before == after) {
+                final long size = producer - after;
+                return size <= 0 ? 0 : (int) Math.min(size, capacity);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex >= producerIndex;
+    }
+
+    /**
+     * 返回弱一致的只读迭代器，按队列顺序遍历创建时（或之后某个时刻）仍在队列中的元素。
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+        private long pos = consumerIndex;
+        private final long limit = producerIndex;
+        private E nextElement = advance();
+
+        private E advance() {
+            while (pos < limit) {
+                final long p = pos++;
+                final int i = (int) p & mask;
+                if (sequences.get(i) == p + 1) {
+                    final E e = buffer.get(i);
+                    // 读取期间槽位没有被消费掉才有效
+                    if (e != null && sequences.get(i) == p + 1)
+                        return e;
+                }
+            }
+            return null;
+        }
+
+        public boolean hasNext() {
+            return nextElement != null;
+        }
+
+        public E next() {
+            final E e = nextElement;
+            if (e == null)
+                throw new NoSuchElementException();
+            nextElement = advance();
+            return e;
+        }
+    }
+}
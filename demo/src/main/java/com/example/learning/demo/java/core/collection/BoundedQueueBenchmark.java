@@ -0,0 +1,234 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 对比 {@link BoundedArrayQueue} 的各个变体与 {@link ArrayBlockingQueue}、{@link ConcurrentLinkedQueue}
+ * 的吞吐量和尾延迟。
+ *
+ * <p>按 1P/1C、4P/1C、1P/4C、4P/4C 四种生产者/消费者组合运行，每种组合使用对应的变体
+ * （{@link SpscArrayQueue}、{@link MpscArrayQueue}、{@link SpmcArrayQueue}、{@link MpmcArrayQueue}），
+ * 并额外测量 {@link BoundedArrayQueue#offerBatch offerBatch}/{@link BoundedArrayQueue#drain drain}
+ * 的批量版本。所有队列都使用非阻塞的 offer/poll，失败时 {@link Thread#yield()} 后重试。
+ *
+ * <p>每条消息携带入队时的 {@link System#nanoTime()}，消费者记录出队时刻与之的差值，
+ * 最后输出 p50/p99/p99.9/最大延迟（微秒）和吞吐量（百万 ops/s）。每种配置先预热，再取多轮中吞吐量最好的一轮。
+ * 运行方式：直接执行 {@link #main(String[])}。
+ */
+public class BoundedQueueBenchmark {
+    private static final int MESSAGES = 1_000_000;
+    private static final int CAPACITY = 1024;
+    private static final int BATCH = 32;
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+
+    /**
+     * 被测队列的最小公共接口。
+     */
+    private interface Channel {
+        boolean offer(Long e);
+
+        Long poll();
+
+        /** 批量写入，返回写入个数；不支持批量时逐个写入 */
+        default int offerBatch(Long[] src, int off, int len) {
+            int n = 0;
+            while (n < len && offer(src[off + n]))
+                n++;
+            return n;
+        }
+
+        /** 批量读出到 dst，返回读出个数；不支持批量时逐个读出 */
+        default int drain(Long[] dst, int max) {
+            int n = 0;
+            Long e;
+            while (n < max && (e = poll()) != null)
+                dst[n++] = e;
+            return n;
+        }
+    }
+
+    private static Channel of(java.util.Queue<Long> q) {
+        return new Channel() {
+            public boolean offer(Long e) {
+                return q.offer(e);
+            }
+
+            public Long poll() {
+                return q.poll();
+            }
+        };
+    }
+
+    private static Channel of(BoundedArrayQueue<Long> q) {
+        return new Channel() {
+            public boolean offer(Long e) {
+                return q.offer(e);
+            }
+
+            public Long poll() {
+                return q.poll();
+            }
+
+            public int offerBatch(Long[] src, int off, int len) {
+                return q.offerBatch(src, off, len);
+            }
+
+            public int drain(Long[] dst, int max) {
+                int[] n = new int[1];
+                q.drain(e -> dst[n[0]++] = e, max);
+                return n[0];
+            }
+        };
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[][] shapes = { { 1, 1 }, { 4, 1 }, { 1, 4 }, { 4, 4 } };
+        for (int[] shape : shapes) {
+            int p = shape[0];
+            int c = shape[1];
+            Supplier<BoundedArrayQueue<Long>> custom;
+            String name;
+            if (p == 1 && c == 1) {
+                custom = () -> new SpscArrayQueue<>(CAPACITY);
+                name = "SpscArrayQueue";
+            } else if (c == 1) {
+                custom = () -> new MpscArrayQueue<>(CAPACITY);
+                name = "MpscArrayQueue";
+            } else if (p == 1) {
+                custom = () -> new SpmcArrayQueue<>(CAPACITY);
+                name = "SpmcArrayQueue";
+            } else {
+                custom = () -> new MpmcArrayQueue<>(CAPACITY);
+                name = "MpmcArrayQueue";
+            }
+            System.out.printf("--- producers=%d consumers=%d ---%n", p, c);
+            measure(name, () -> of(custom.get()), p, c, false);
+            measure(name + " (batch)", () -> of(custom.get()), p, c, true);
+            measure("ArrayBlockingQueue", () -> of(new ArrayBlockingQueue<>(CAPACITY)), p, c, false);
+            measure("ConcurrentLinkedQueue", () -> of(new ConcurrentLinkedQueue<>()), p, c, false);
+        }
+    }
+
+    private static void measure(String name, Supplier<Channel> factory, int producers, int consumers,
+            boolean batch) throws InterruptedException {
+        for (int i = 0; i < WARMUP; i++) {
+            run(factory.get(), producers, consumers, batch);
+        }
+        long bestTime = Long.MAX_VALUE;
+        long[] bestLatencies = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            long[] latencies = new long[MESSAGES];
+            long time = run(factory.get(), producers, consumers, batch, latencies);
+            if (time < bestTime) {
+                bestTime = time;
+                bestLatencies = latencies;
+            }
+        }
+        Arrays.sort(bestLatencies);
+        System.out.printf("%-30s %8.2f Mops/s  p50=%8.1f us  p99=%8.1f us  p99.9=%9.1f us  max=%9.1f us%n",
+                name, MESSAGES / (bestTime / 1000.0),
+                percentile(bestLatencies, 0.50), percentile(bestLatencies, 0.99),
+                percentile(bestLatencies, 0.999), bestLatencies[bestLatencies.length - 1] / 1000.0);
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(q * (sorted.length - 1)))] / 1000.0;
+    }
+
+    private static long run(Channel queue, int producers, int consumers, boolean batch)
+            throws InterruptedException {
+        return run(queue, producers, consumers, batch, new long[MESSAGES]);
+    }
+
+    /**
+     * 运行一轮，返回从开始到所有消息被消费的纳秒数；延迟写入 <tt>latencies</tt>。
+     */
+    private static long run(Channel queue, int producers, int consumers, boolean batch, long[] latencies)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers + consumers);
+        AtomicInteger remaining = new AtomicInteger(MESSAGES);
+        AtomicInteger slot = new AtomicInteger();
+        int perProducer = MESSAGES / producers;
+        for (int t = 0; t < producers; t++) {
+            int count = t == producers - 1 ? MESSAGES - perProducer * (producers - 1) : perProducer;
+            new Thread(() -> {
+                await(start);
+                Long[] chunk = new Long[BATCH];
+                int sent = 0;
+                while (sent < count) {
+                    if (batch) {
+                        int len = Math.min(BATCH, count - sent);
+                        long now = System.nanoTime();
+                        for (int i = 0; i < len; i++) {
+                            chunk[i] = now;
+                        }
+                        int off = 0;
+                        while (off < len) {
+                            int n = queue.offerBatch(chunk, off, len - off);
+                            if (n == 0) {
+                                Thread.yield();
+                            }
+                            off += n;
+                        }
+                        sent += len;
+                    } else {
+                        Long msg = System.nanoTime();
+                        while (!queue.offer(msg)) {
+                            Thread.yield();
+                        }
+                        sent++;
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        for (int t = 0; t < consumers; t++) {
+            new Thread(() -> {
+                await(start);
+                Long[] chunk = new Long[BATCH];
+                while (remaining.get() > 0) {
+                    int n = batch ? queue.drain(chunk, BATCH) : poll(queue, chunk);
+                    if (n == 0) {
+                        Thread.yield();
+                        continue;
+                    }
+                    long now = System.nanoTime();
+                    int base = slot.getAndAdd(n);
+                    for (int i = 0; i < n; i++) {
+                        latencies[base + i] = now - chunk[i];
+                    }
+                    remaining.addAndGet(-n);
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    private static int poll(Channel queue, Long[] chunk) {
+        Long e = queue.poll();
+        if (e == null) {
+            return 0;
+        }
+        chunk[0] = e;
+        return 1;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,1211 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.AbstractSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 支持完全并发检索和高并发更新的哈希表，结构参考 JDK 8 的 {@link java.util.concurrent.ConcurrentHashMap}。
+ * 与 {@link java.util.Hashtable} 一样，此类不允许 <tt>null</tt> 键或值。
+ *
+ * <p>
+ * <b>检索</b>操作（包括 <tt>get</tt>）不加锁：表由 {@link AtomicReferenceArray} 承载，节点的值和后继指针都是
+ * volatile 的，所以检索总能看到最近<i>完成</i>的更新操作的结果，并且可以与更新操作重叠。
+ *
+ * <p>
+ * <b>更新</b>操作按桶加锁：向空桶插入时用一次 CAS 完成，不加锁；否则锁住该桶的第一个节点。
+ * 每个桶都是一个独立的锁分段，只有落在同一个桶上的写操作才会相互竞争。
+ *
+ * <p>
+ * <b>扩容</b>是协作式、增量式的：触发扩容的线程分配两倍大小的新表，然后各线程通过 CAS 递减
+ * <tt>transferIndex</tt> 认领一段桶（步长 <tt>stride</tt>）进行迁移，迁移完的桶用 {@link ForwardingNode}
+ * 占位。其他写线程遇到 <tt>ForwardingNode</tt> 时会先帮忙迁移再重试，读线程则直接到新表中查找，
+ * 因此没有任何一个线程需要独自承担整个表的重新散列。
+ *
+ * <p>
+ * <b>计数</b>使用 {@link LongAdder}，不同线程的增减落在不同的计数单元上。由于 {@link LongAdder#sum()}
+ * 需要遍历所有计数单元，插入后只在桶中已有冲突时、或以 1/{@value #RESIZE_CHECK_SAMPLE} 的概率抽样时才检查是否需要扩容。
+ *
+ * <p>
+ * {@link #computeIfAbsent computeIfAbsent} 是原子的：映射函数对每个键最多调用一次，且在持有桶锁
+ * （空桶时为占位的 {@link ReservationNode}）期间调用；映射函数中不能修改此映射。
+ *
+ * <p>
+ * 迭代器是<i>弱一致</i>的：它们反映创建迭代器时或之后某个时刻的状态，不会抛出
+ * {@link java.util.ConcurrentModificationException}，可以与其他操作并发进行。
+ * 聚合状态方法（<tt>size</tt>、<tt>isEmpty</tt>、<tt>containsValue</tt>）的结果只在映射没有并发更新时才准确。
+ *
+ * @param <K> 此映射所维护的键的类型
+ * @param <V> 映射值的类型
+ *
+ * @see HashMap
+ * @see java.util.concurrent.ConcurrentHashMap
+ */
+public class ConcurrentHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    /* ---------------- 常量 -------------- */
+
+    /**
+     * 最大表容量，必须是 2 的幂。
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * 默认初始容量，必须是 2 的幂。
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * 每个线程一次认领的最少桶数。
+     */
+    private static final int MIN_TRANSFER_STRIDE = 16;
+
+    /**
+     * <tt>sizeCtl</tt> 中用于生成扩容戳的位数。
+     */
+    private static final int RESIZE_STAMP_BITS = 16;
+
+    /**
+     * 同时参与扩容的最大线程数。
+     */
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+    /**
+     * 扩容戳在 <tt>sizeCtl</tt> 中的位移量。
+     */
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+    /**
+     * 未冲突的插入以 1/RESIZE_CHECK_SAMPLE 的概率检查是否需要扩容，必须是 2 的幂。
+     */
+    static final int RESIZE_CHECK_SAMPLE = 8;
+
+    /*
+     * 节点哈希字段的特殊值
+     */
+    static final int MOVED = -1; // ForwardingNode 的哈希值
+    static final int RESERVED = -3; // ReservationNode 的哈希值
+    static final int HASH_BITS = 0x7fffffff; // 普通节点哈希值的可用位
+
+    /** CPU 个数，用于计算迁移步长 */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /* ---------------- 节点 -------------- */
+
+    /**
+     * 键-值映射项。<tt>val</tt> 和 <tt>next</tt> 是 volatile 的，读线程不加锁即可安全遍历；
+     * 哈希值为负数的子类是特殊节点，<tt>key</tt> 和 <tt>val</tt> 为 null。
+     */
+    static class Node<K, V> implements java.util.Map.Entry<K, V> {
+        final int hash;
+        final K key;
+        volatile V val;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V val, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.val = val;
+            this.next = next;
+        }
+
+        public final K getKey() {
+            return key;
+        }
+
+        public final V getValue() {
+            return val;
+        }
+
+        public final int hashCode() {
+            return key.hashCode() ^ val.hashCode();
+        }
+
+        public final String toString() {
+            return key + "=" + val;
+        }
+
+        public final V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        public final boolean equals(Object o) {
+            Object k, v, u;
+            java.util.Map.Entry<?, ?> e;
+            return ((o instanceof java.util.Map.Entry) &&
+                    (k = (e = (java.util.Map.Entry<?, ?>) o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (k == key || k.equals(key)) &&
+                    (v == (u = val) || v.equals(u)));
+        }
+
+        /**
+         * 从此节点开始查找键为 <tt>k</tt> 的节点。
+         */
+        Node<K, V> find(int h, Object k) {
+            Node<K, V> e = this;
+            if (k != null) {
+                do {
+                    K ek;
+                    if (e.hash == h &&
+                            ((ek = e.key) == k || (ek != null && k.equals(ek))))
+                        return e;
+                } while ((e = e.next) != null);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 迁移期间插入到已迁移桶头部的节点，把查找转发到新表。
+     */
+    static final class ForwardingNode<K, V> extends Node<K, V> {
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<K, V>> tab) {
+            super(MOVED, null, null, null);
+            this.nextTable = tab;
+        }
+
+        Node<K, V> find(int h, Object k) {
+            // 用循环而不是递归，避免连续扩容时栈过深
+            outer: for (AtomicReferenceArray<Node<K, V>> tab = nextTable;;) {
+                Node<K, V> e;
+                int n;
+                if (k == null || tab == null || (n = tab.length()) == 0 ||
+                        (e = tab.get((n - 1) & h)) == null)
+                    return null;
+                for (;;) {
+                    int eh;
+                    K ek;
+                    if ((eh = e.hash) == h &&
+                            ((ek = e.key) == k || (ek != null && k.equals(ek))))
+                        return e;
+                    if (eh < 0) {
+                        if (e instanceof ForwardingNode) {
+                            tab = ((ForwardingNode<K, V>) e).nextTable;
+                            continue outer;
+                        } else
+                            return e.find(h, k);
+                    }
+                    if ((e = e.next) == null)
+                        return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * <tt>computeIfAbsent</tt> 在空桶上调用映射函数期间使用的占位节点。
+     */
+    static final class ReservationNode<K, V> extends Node<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+
+        Node<K, V> find(int h, Object k) {
+            return null;
+        }
+    }
+
+    /* ---------------- 静态工具 -------------- */
+
+    /**
+     * 把哈希值的高位扩散到低位，并清除符号位（负数留给特殊节点）。
+     */
+    static final int spread(int h) {
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    /**
+     * 返回不小于 <tt>c</tt> 的 2 的幂。
+     */
+    private static final int tableSizeFor(int c) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(c - 1);
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * 返回扩容表大小 <tt>n</tt> 时使用的戳。左移 {@link #RESIZE_STAMP_SHIFT} 位后一定是负数。
+     */
+    static final int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    /* ---------------- 字段 -------------- */
+
+    /**
+     * 桶数组，第一次插入时延迟初始化，长度总是 2 的幂。
+     */
+    transient volatile AtomicReferenceArray<Node<K, V>> table;
+
+    /**
+     * 下一张表，只在扩容期间非 null。
+     */
+    private transient volatile AtomicReferenceArray<Node<K, V>> nextTable;
+
+    /**
+     * 表初始化和扩容控制。为负数时表示正在初始化（-1）或扩容（高 16 位为扩容戳，低 16 位为参与线程数 + 1）；
+     * 表为 null 时保存初始容量；初始化之后保存下次扩容的元素个数阈值。
+     */
+    private transient volatile int sizeCtl;
+
+    /**
+     * 扩容时下一个待认领的桶的索引（加一）。
+     */
+    private transient volatile int transferIndex;
+
+    /**
+     * 映射关系数。
+     */
+    private final transient LongAdder counter = new LongAdder();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<ConcurrentHashMap> SIZECTL =
+            AtomicIntegerFieldUpdater.newUpdater(ConcurrentHashMap.class, "sizeCtl");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<ConcurrentHashMap> TRANSFERINDEX =
+            AtomicIntegerFieldUpdater.newUpdater(ConcurrentHashMap.class, "transferIndex");
+
+    /* ---------------- 公共操作 -------------- */
+
+    /**
+     * 创建一个新的空映射，初始表大小为默认值 (16)。
+     */
+    public ConcurrentHashMap() {
+    }
+
+    /**
+     * 创建一个新的空映射，其初始表大小能够容纳指定数目的元素，不需要动态调整大小。
+     *
+     * @param initialCapacity 初始容量
+     * @throws IllegalArgumentException 如果初始容量为负
+     */
+    public ConcurrentHashMap(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException();
+        this.sizeCtl = ((initialCapacity >= (MAXIMUM_CAPACITY >>> 1)) ? MAXIMUM_CAPACITY
+                : tableSizeFor(initialCapacity + (initialCapacity >>> 1) + 1));
+    }
+
+    /**
+     * 创建一个与给定映射具有相同映射关系的新映射。
+     *
+     * @param m 映射
+     */
+    public ConcurrentHashMap(java.util.Map<? extends K, ? extends V> m) {
+        this(m.size());
+        putAll(m);
+    }
+
+    public int size() {
+        long n = counter.sum();
+        return ((n < 0L) ? 0 : (n > (long) Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n);
+    }
+
+    /**
+     * 返回映射关系数。应使用此方法代替 {@link #size()}，因为映射关系数可能超过 int 的表示范围。
+     * 返回值是估计值：如果存在并发的插入或删除，实际数目可能不同。
+     *
+     * @return 映射关系数
+     */
+    public long mappingCount() {
+        long n = counter.sum();
+        return (n < 0L) ? 0L : n;
+    }
+
+    public boolean isEmpty() {
+        return counter.sum() <= 0L;
+    }
+
+    /**
+     * 返回指定键所映射的值；如果此映射不包含该键的映射关系，则返回 <tt>null</tt>。此操作不加锁。
+     *
+     * @throws NullPointerException 如果指定的键为 null
+     */
+    public V get(Object key) {
+        AtomicReferenceArray<Node<K, V>> tab;
+        Node<K, V> e, p;
+        int n, eh;
+        K ek;
+        int h = spread(key.hashCode());
+        if ((tab = table) != null && (n = tab.length()) > 0 &&
+                (e = tab.get((n - 1) & h)) != null) {
+            if ((eh = e.hash) == h) {
+                if ((ek = e.key) == key || (ek != null && key.equals(ek)))
+                    return e.val;
+            } else if (eh < 0)
+                return (p = e.find(h, key)) != null ? p.val : null;
+            while ((e = e.next) != null) {
+                if (e.hash == h &&
+                        ((ek = e.key) == key || (ek != null && key.equals(ek))))
+                    return e.val;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    /**
+     * 如果指定的对象是此映射中的键，则返回 <tt>true</tt>。
+     *
+     * @throws NullPointerException 如果指定的键为 null
+     */
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * 如果此映射将一个或多个键映射到指定值，则返回 <tt>true</tt>。此操作需要遍历整个映射。
+     *
+     * @throws NullPointerException 如果指定的值为 null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        AtomicReferenceArray<Node<K, V>> t;
+        if ((t = table) != null) {
+            Traverser<K, V> it = new Traverser<K, V>(t, t.length(), 0, t.length());
+            for (Node<K, V> p; (p = it.advance()) != null;) {
+                V v;
+                if ((v = p.val) == value || (v != null && value.equals(v)))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将指定键映射到此表中的指定值。键和值都不可以为 null。
+     *
+     * @return 以前与 <tt>key</tt> 关联的值，如果没有 <tt>key</tt> 的映射关系，则返回 <tt>null</tt>
+     * @throws NullPointerException 如果指定键或值为 null
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /** put 和 putIfAbsent 的实现 */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int hash = spread(key.hashCode());
+        int binCount = 0;
+        for (AtomicReferenceArray<Node<K, V>> tab = table;;) {
+            Node<K, V> f;
+            int n, i, fh;
+            if (tab == null || (n = tab.length()) == 0)
+                tab = initTable();
+            else if ((f = tab.get(i = (n - 1) & hash)) == null) {
+                // 空桶：CAS 插入，不加锁
+                if (tab.compareAndSet(i, null, new Node<K, V>(hash, key, value, null)))
+                    break;
+            } else if ((fh = f.hash) == MOVED)
+                tab = helpTransfer(tab, f);
+            else {
+                V oldVal = null;
+                synchronized (f) {
+                    if (tab.get(i) == f) {
+                        if (fh >= 0) {
+                            binCount = 1;
+                            for (Node<K, V> e = f;; ++binCount) {
+                                K ek;
+                                if (e.hash == hash &&
+                                        ((ek = e.key) == key || (ek != null && key.equals(ek)))) {
+                                    oldVal = e.val;
+                                    if (!onlyIfAbsent)
+                                        e.val = value;
+                                    break;
+                                }
+                                Node<K, V> pred = e;
+                                if ((e = e.next) == null) {
+                                    pred.next = new Node<K, V>(hash, key, value, null);
+                                    break;
+                                }
+                            }
+                        } else if (f instanceof ReservationNode)
+                            throw new IllegalStateException("Recursive update");
+                    }
+                }
+                if (binCount != 0) {
+                    if (oldVal != null)
+                        return oldVal;
+                    break;
+                }
+            }
+        }
+        addCount(1L, binCount, hash);
+        return null;
+    }
+
+    /**
+     * 将指定映射中所有映射关系复制到此映射中。
+     */
+    public void putAll(java.util.Map<? extends K, ? extends V> m) {
+        for (java.util.Map.Entry<? extends K, ? extends V> e : m.entrySet())
+            putVal(e.getKey(), e.getValue(), false);
+    }
+
+    /**
+     * 从此映射中移除键（及其相应的值）。如果该键不在映射中，则此方法不执行任何操作。
+     *
+     * @return 以前与 <tt>key</tt> 关联的值，如果没有 <tt>key</tt> 的映射关系，则返回 <tt>null</tt>
+     * @throws NullPointerException 如果指定的键为 null
+     */
+    public V remove(Object key) {
+        return replaceNode(key, null, null);
+    }
+
+    /**
+     * 四个 remove/replace 方法的实现：用 <tt>value</tt> 替换节点的值，<tt>value</tt> 为 null
+     * 时删除节点；<tt>cv</tt> 非 null 时只在当前值等于 <tt>cv</tt> 时才执行。
+     */
+    final V replaceNode(Object key, V value, Object cv) {
+        int hash = spread(key.hashCode());
+        for (AtomicReferenceArray<Node<K, V>> tab = table;;) {
+            Node<K, V> f;
+            int n, i, fh;
+            if (tab == null || (n = tab.length()) == 0 ||
+                    (f = tab.get(i = (n - 1) & hash)) == null)
+                break;
+            else if ((fh = f.hash) == MOVED)
+                tab = helpTransfer(tab, f);
+            else {
+                V oldVal = null;
+                boolean validated = false;
+                synchronized (f) {
+                    if (tab.get(i) == f) {
+                        if (fh >= 0) {
+                            validated = true;
+                            for (Node<K, V> e = f, pred = null;;) {
+                                K ek;
+                                if (e.hash == hash &&
+                                        ((ek = e.key) == key || (ek != null && key.equals(ek)))) {
+                                    V ev = e.val;
+                                    if (cv == null || cv == ev || (ev != null && cv.equals(ev))) {
+                                        oldVal = ev;
+                                        if (value != null)
+                                            e.val = value;
+                                        else if (pred != null)
+                                            pred.next = e.next;
+                                        else
+                                            tab.set(i, e.next);
+                                    }
+                                    break;
+                                }
+                                pred = e;
+                                if ((e = e.next) == null)
+                                    break;
+                            }
+                        } else if (f instanceof ReservationNode)
+                            throw new IllegalStateException("Recursive update");
+                    }
+                }
+                if (validated) {
+                    if (oldVal != null) {
+                        if (value == null)
+                            addCount(-1L, -1, hash);
+                        return oldVal;
+                    }
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从此映射中移除所有映射关系。
+     */
+    public void clear() {
+        long delta = 0L;
+        int i = 0;
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (tab != null && i < tab.length()) {
+            int fh;
+            Node<K, V> f = tab.get(i);
+            if (f == null)
+                ++i;
+            else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+                i = 0; // 从新表重新开始
+            } else {
+                synchronized (f) {
+                    if (tab.get(i) == f) {
+                        Node<K, V> p = (fh >= 0 ? f : null);
+                        while (p != null) {
+                            --delta;
+                            p = p.next;
+                        }
+                        tab.set(i++, null);
+                    }
+                }
+            }
+        }
+        if (delta != 0L)
+            addCount(delta, -1, 0);
+    }
+
+    // ConcurrentMap 方法
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException 如果指定键或值为 null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException 如果指定的键为 null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException 如果任何参数为 null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException 如果指定键或值为 null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        return replaceNode(key, value, null);
+    }
+
+    /**
+     * 如果指定的键尚未与值关联，则尝试使用给定的映射函数计算其值，并将其放入此映射中（除非为 null）。
+     * 整个方法调用是原子执行的，因此映射函数对每个键最多调用一次。计算期间其他线程对同一个桶的更新操作会被阻塞，
+     * 所以计算应简短，并且不能修改此映射的任何其他映射关系。
+     *
+     * @param key             与指定值关联的键
+     * @param mappingFunction 计算值的函数
+     * @return 与指定键关联的当前（现有的或计算的）值；如果计算的值为 null，则返回 null
+     * @throws NullPointerException  如果指定的键或映射函数为 null
+     * @throws IllegalStateException 如果检测到映射函数中对此映射的递归更新
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        int h = spread(key.hashCode());
+        V val = null;
+        int binCount = 0;
+        for (AtomicReferenceArray<Node<K, V>> tab = table;;) {
+            Node<K, V> f;
+            int n, i, fh;
+            K fk;
+            V fv;
+            if (tab == null || (n = tab.length()) == 0)
+                tab = initTable();
+            else if ((f = tab.get(i = (n - 1) & h)) == null) {
+                // 空桶：先用占位节点占住并锁住它，再调用映射函数
+                Node<K, V> r = new ReservationNode<K, V>();
+                synchronized (r) {
+                    if (tab.compareAndSet(i, null, r)) {
+                        binCount = 1;
+                        Node<K, V> node = null;
+                        try {
+                            if ((val = mappingFunction.apply(key)) != null)
+                                node = new Node<K, V>(h, key, val, null);
+                        } finally {
+                            tab.set(i, node);
+                        }
+                    }
+                }
+                if (binCount != 0)
+                    break;
+            } else if ((fh = f.hash) == MOVED)
+                tab = helpTransfer(tab, f);
+            else if (fh == h // 不加锁检查第一个节点
+                    && ((fk = f.key) == key || (fk != null && key.equals(fk)))
+                    && (fv = f.val) != null)
+                return fv;
+            else {
+                boolean added = false;
+                synchronized (f) {
+                    if (tab.get(i) == f) {
+                        if (fh >= 0) {
+                            binCount = 1;
+                            for (Node<K, V> e = f;; ++binCount) {
+                                K ek;
+                                if (e.hash == h &&
+                                        ((ek = e.key) == key || (ek != null && key.equals(ek)))) {
+                                    val = e.val;
+                                    break;
+                                }
+                                Node<K, V> pred = e;
+                                if ((e = e.next) == null) {
+                                    if ((val = mappingFunction.apply(key)) != null) {
+                                        if (pred.next != null)
+                                            throw new IllegalStateException("Recursive update");
+                                        added = true;
+                                        pred.next = new Node<K, V>(h, key, val, null);
+                                    }
+                                    break;
+                                }
+                            }
+                        } else if (f instanceof ReservationNode)
+                            throw new IllegalStateException("Recursive update");
+                    }
+                }
+                if (binCount != 0) {
+                    if (!added)
+                        return val;
+                    break;
+                }
+            }
+        }
+        if (val != null)
+            addCount(1L, binCount, h);
+        return val;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        AtomicReferenceArray<Node<K, V>> t;
+        if ((t = table) != null) {
+            Traverser<K, V> it = new Traverser<K, V>(t, t.length(), 0, t.length());
+            for (Node<K, V> p; (p = it.advance()) != null;)
+                action.accept(p.key, p.val);
+        }
+    }
+
+    /* ---------------- 表的初始化和扩容 -------------- */
+
+    /**
+     * 使用 <tt>sizeCtl</tt> 中记录的大小初始化表。
+     */
+    private final AtomicReferenceArray<Node<K, V>> initTable() {
+        AtomicReferenceArray<Node<K, V>> tab;
+        int sc;
+        while ((tab = table) == null || tab.length() == 0) {
+            if ((sc = sizeCtl) < 0)
+                Thread.yield(); // 其他线程正在初始化，让出 CPU
+            else if (SIZECTL.compareAndSet(this, sc, -1)) {
+                try {
+                    if ((tab = table) == null || tab.length() == 0) {
+                        int n = (sc > 0) ? sc : DEFAULT_CAPACITY;
+                        tab = new AtomicReferenceArray<Node<K, V>>(n);
+                        table = tab;
+                        sc = n - (n >>> 2);
+                    }
+                } finally {
+                    sizeCtl = sc;
+                }
+                break;
+            }
+        }
+        return tab;
+    }
+
+    /**
+     * 增减计数；<tt>check</tt> 非负时检查是否需要扩容。如果已在扩容，则协助迁移。
+     *
+     * @param x     增量
+     * @param check 为负数时不检查扩容；否则为插入时遍历的桶长度
+     * @param hash  本次操作的键的哈希值
+     */
+    private final void addCount(long x, int check, int hash) {
+        counter.add(x);
+        if (check < 0)
+            return;
+        // 无冲突的插入只抽样检查，避免每次插入都遍历 LongAdder 的所有计数单元
+        if (check <= 1 && (ThreadLocalRandom.current().nextInt() & (RESIZE_CHECK_SAMPLE - 1)) != 0)
+            return;
+        AtomicReferenceArray<Node<K, V>> tab, nt;
+        int n, sc;
+        long s = counter.sum();
+        while (s >= (long) (sc = sizeCtl) && (tab = table) != null &&
+                (n = tab.length()) < MAXIMUM_CAPACITY) {
+            int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+            if (sc < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 ||
+                        (nt = nextTable) == null || transferIndex <= 0)
+                    break;
+                if (SIZECTL.compareAndSet(this, sc, sc + 1))
+                    transfer(tab, nt);
+            } else if (SIZECTL.compareAndSet(this, sc, rs + 2))
+                transfer(tab, null);
+            s = counter.sum();
+        }
+    }
+
+    /**
+     * 如果正在扩容，则协助迁移。
+     */
+    final AtomicReferenceArray<Node<K, V>> helpTransfer(AtomicReferenceArray<Node<K, V>> tab, Node<K, V> f) {
+        AtomicReferenceArray<Node<K, V>> nextTab;
+        int sc;
+        if (tab != null && (f instanceof ForwardingNode) &&
+                (nextTab = ((ForwardingNode<K, V>) f).nextTable) != null) {
+            int rs = resizeStamp(tab.length()) << RESIZE_STAMP_SHIFT;
+            while (nextTab == nextTable && table == tab &&
+                    (sc = sizeCtl) < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 ||
+                        transferIndex <= 0)
+                    break;
+                if (SIZECTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nextTab);
+                    break;
+                }
+            }
+            return nextTab;
+        }
+        return table;
+    }
+
+    /**
+     * 把每个桶中的节点迁移或复制到新表。每个参与线程从 <tt>transferIndex</tt> 认领一段桶，
+     * 从高到低处理；每个桶在锁内拆分为低位链表和高位链表，分别放到新表的 <tt>i</tt> 和 <tt>i + n</tt>，
+     * 原桶替换为 {@link ForwardingNode}。最后一个退出的线程重新检查整张表，然后发布新表。
+     */
+    private final void transfer(AtomicReferenceArray<Node<K, V>> tab, AtomicReferenceArray<Node<K, V>> nextTab) {
+        int n = tab.length(), stride;
+        if ((stride = (NCPU > 1) ? (n >>> 3) / NCPU : n) < MIN_TRANSFER_STRIDE)
+            stride = MIN_TRANSFER_STRIDE;
+        if (nextTab == null) { // 发起扩容
+            try {
+                nextTab = new AtomicReferenceArray<Node<K, V>>(n << 1);
+            } catch (Throwable ex) { // 防止 OOME
+                sizeCtl = Integer.MAX_VALUE;
+                return;
+            }
+            nextTable = nextTab;
+            transferIndex = n;
+        }
+        int nextn = nextTab.length();
+        ForwardingNode<K, V> fwd = new ForwardingNode<K, V>(nextTab);
+        boolean advance = true;
+        boolean finishing = false; // 提交 nextTab 之前保证已全部扫描
+        for (int i = 0, bound = 0;;) {
+            Node<K, V> f;
+            int fh;
+            while (advance) {
+                int nextIndex, nextBound;
+                if (--i >= bound || finishing)
+                    advance = false;
+                else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                } else if (TRANSFERINDEX.compareAndSet(this, nextIndex,
+                        nextBound = (nextIndex > stride ? nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0 || i >= n || i + n >= nextn) {
+                int sc;
+                if (finishing) {
+                    nextTable = null;
+                    table = nextTab;
+                    sizeCtl = (n << 1) - (n >>> 1);
+                    return;
+                }
+                if (SIZECTL.compareAndSet(this, sc = sizeCtl, sc - 1)) {
+                    if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT)
+                        return;
+                    finishing = advance = true;
+                    i = n; // 提交前重新检查
+                }
+            } else if ((f = tab.get(i)) == null)
+                advance = tab.compareAndSet(i, null, fwd);
+            else if ((fh = f.hash) == MOVED)
+                advance = true; // 已处理
+            else {
+                synchronized (f) {
+                    if (tab.get(i) == f) {
+                        if (fh >= 0) {
+                            // 尾部落在同一侧的一段节点原样复用，其余节点复制
+                            int runBit = fh & n;
+                            Node<K, V> lastRun = f;
+                            for (Node<K, V> p = f.next; p != null; p = p.next) {
+                                int b = p.hash & n;
+                                if (b != runBit) {
+                                    runBit = b;
+                                    lastRun = p;
+                                }
+                            }
+                            Node<K, V> ln, hn;
+                            if (runBit == 0) {
+                                ln = lastRun;
+                                hn = null;
+                            } else {
+                                hn = lastRun;
+                                ln = null;
+                            }
+                            for (Node<K, V> p = f; p != lastRun; p = p.next) {
+                                int ph = p.hash;
+                                K pk = p.key;
+                                V pv = p.val;
+                                if ((ph & n) == 0)
+                                    ln = new Node<K, V>(ph, pk, pv, ln);
+                                else
+                                    hn = new Node<K, V>(ph, pk, pv, hn);
+                            }
+                            nextTab.set(i, ln);
+                            nextTab.set(i + n, hn);
+                            tab.set(i, fwd);
+                            advance = true;
+                        } else if (f instanceof ReservationNode)
+                            throw new IllegalStateException("Recursive update");
+                    }
+                }
+            }
+        }
+    }
+
+    /* ---------------- 遍历 -------------- */
+
+    /**
+     * 记录遍历到 {@link ForwardingNode} 时所在的表、长度和索引。
+     */
+    static final class TableStack<K, V> {
+        int length;
+        int index;
+        AtomicReferenceArray<Node<K, V>> tab;
+        TableStack<K, V> next;
+    }
+
+    /**
+     * 弱一致遍历。遇到 {@link ForwardingNode} 时转到新表中处理对应的两个桶（<tt>i</tt> 和
+     * <tt>i + baseSize</tt>），然后回到原表继续，这样扩容期间每个节点仍然只访问一次。
+     */
+    static class Traverser<K, V> {
+        AtomicReferenceArray<Node<K, V>> tab; // 当前表，扩容后会更新
+        Node<K, V> next; // 下一个要使用的节点
+        TableStack<K, V> stack, spare; // 遇到 ForwardingNode 时保存/恢复状态
+        int index; // 下一个要使用的桶的索引
+        int baseIndex; // 初始表的当前索引
+        int baseLimit; // 初始表的索引上界
+        final int baseSize; // 初始表的大小
+
+        Traverser(AtomicReferenceArray<Node<K, V>> tab, int size, int index, int limit) {
+            this.tab = tab;
+            this.baseSize = size;
+            this.baseIndex = this.index = index;
+            this.baseLimit = limit;
+            this.next = null;
+        }
+
+        /**
+         * 前进到下一个节点；没有更多节点时返回 null。
+         */
+        final Node<K, V> advance() {
+            Node<K, V> e;
+            if ((e = next) != null)
+                e = e.next;
+            for (;;) {
+                AtomicReferenceArray<Node<K, V>> t;
+                int i, n;
+                if (e != null)
+                    return next = e;
+                if (baseIndex >= baseLimit || (t = tab) == null ||
+                        (n = t.length()) <= (i = index) || i < 0)
+                    return next = null;
+                if ((e = t.get(i)) != null && e.hash < 0) {
+                    if (e instanceof ForwardingNode) {
+                        tab = ((ForwardingNode<K, V>) e).nextTable;
+                        e = null;
+                        pushState(t, i, n);
+                        continue;
+                    } else
+                        e = null;
+                }
+                if (stack != null)
+                    recoverState(n);
+                else if ((index = i + baseSize) >= n)
+                    index = ++baseIndex; // 访问高位桶之后
+            }
+        }
+
+        private void pushState(AtomicReferenceArray<Node<K, V>> t, int i, int n) {
+            TableStack<K, V> s = spare; // 尽量复用
+            if (s != null)
+                spare = s.next;
+            else
+                s = new TableStack<K, V>();
+            s.tab = t;
+            s.length = n;
+            s.index = i;
+            s.next = stack;
+            stack = s;
+        }
+
+        private void recoverState(int n) {
+            TableStack<K, V> s;
+            int len;
+            while ((s = stack) != null && (index += (len = s.length)) >= n) {
+                n = len;
+                index = s.index;
+                tab = s.tab;
+                s.tab = null;
+                TableStack<K, V> next = s.next;
+                s.next = spare; // 保存以便复用
+                stack = next;
+                spare = s;
+            }
+            if (s == null && (index += baseSize) >= n)
+                index = ++baseIndex;
+        }
+    }
+
+    /**
+     * 视图迭代器的公共部分，支持 <tt>remove</tt>。
+     */
+    abstract static class BaseIterator<K, V, E> extends Traverser<K, V> implements Iterator<E> {
+        final ConcurrentHashMap<K, V> map;
+        Node<K, V> lastReturned;
+
+        BaseIterator(AtomicReferenceArray<Node<K, V>> tab, int size, ConcurrentHashMap<K, V> map) {
+            super(tab, size, 0, size);
+            this.map = map;
+            advance();
+        }
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        final Node<K, V> nextNode() {
+            Node<K, V> p;
+            if ((p = next) == null)
+                throw new NoSuchElementException();
+            lastReturned = p;
+            advance();
+            return p;
+        }
+
+        public final void remove() {
+            Node<K, V> p;
+            if ((p = lastReturned) == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            map.replaceNode(p.key, null, null);
+        }
+    }
+
+    static final class KeyIterator<K, V> extends BaseIterator<K, V, K> {
+        KeyIterator(AtomicReferenceArray<Node<K, V>> tab, int size, ConcurrentHashMap<K, V> map) {
+            super(tab, size, map);
+        }
+
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    static final class ValueIterator<K, V> extends BaseIterator<K, V, V> {
+        ValueIterator(AtomicReferenceArray<Node<K, V>> tab, int size, ConcurrentHashMap<K, V> map) {
+            super(tab, size, map);
+        }
+
+        public V next() {
+            return nextNode().val;
+        }
+    }
+
+    static final class EntryIterator<K, V> extends BaseIterator<K, V, java.util.Map.Entry<K, V>> {
+        EntryIterator(AtomicReferenceArray<Node<K, V>> tab, int size, ConcurrentHashMap<K, V> map) {
+            super(tab, size, map);
+        }
+
+        public java.util.Map.Entry<K, V> next() {
+            Node<K, V> p = nextNode();
+            return new MapEntry<K, V>(p.key, p.val, map);
+        }
+    }
+
+    /**
+     * 迭代器导出的映射项，<tt>setValue</tt> 写回到映射中。
+     */
+    static final class MapEntry<K, V> implements java.util.Map.Entry<K, V> {
+        final K key; // 非 null
+        V val; // 非 null
+        final ConcurrentHashMap<K, V> map;
+
+        MapEntry(K key, V val, ConcurrentHashMap<K, V> map) {
+            this.key = key;
+            this.val = val;
+            this.map = map;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return val;
+        }
+
+        public int hashCode() {
+            return key.hashCode() ^ val.hashCode();
+        }
+
+        public String toString() {
+            return key + "=" + val;
+        }
+
+        public boolean equals(Object o) {
+            Object k, v;
+            java.util.Map.Entry<?, ?> e;
+            return ((o instanceof java.util.Map.Entry) &&
+                    (k = (e = (java.util.Map.Entry<?, ?>) o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (k == key || k.equals(key)) &&
+                    (v == val || v.equals(val)));
+        }
+
+        /**
+         * 设置此映射项的值并写回到映射中。返回值只是本地的旧值，因为映射中的值可能已被其他线程修改。
+         */
+        public V setValue(V value) {
+            if (value == null)
+                throw new NullPointerException();
+            V v = val;
+            val = value;
+            map.put(key, value);
+            return v;
+        }
+    }
+
+    /* ---------------- 视图 -------------- */
+
+    private transient Set<java.util.Map.Entry<K, V>> entrySet;
+
+    public Set<K> keySet() {
+        Set<K> ks = keySet;
+        if (ks == null) {
+            ks = new KeySet();
+            keySet = ks;
+        }
+        return ks;
+    }
+
+    final class KeySet extends AbstractSet<K> {
+        public Iterator<K> iterator() {
+            AtomicReferenceArray<Node<K, V>> t = table;
+            int f = (t == null) ? 0 : t.length();
+            return new KeyIterator<K, V>(t, f, ConcurrentHashMap.this);
+        }
+
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        public boolean remove(Object o) {
+            return ConcurrentHashMap.this.remove(o) != null;
+        }
+
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+    }
+
+    public java.util.Collection<V> values() {
+        java.util.Collection<V> vs = values;
+        if (vs == null) {
+            vs = new Values();
+            values = vs;
+        }
+        return vs;
+    }
+
+    final class Values extends AbstractCollection<V> {
+        public Iterator<V> iterator() {
+            AtomicReferenceArray<Node<K, V>> t = table;
+            int f = (t == null) ? 0 : t.length();
+            return new ValueIterator<K, V>(t, f, ConcurrentHashMap.this);
+        }
+
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+    }
+
+    public Set<java.util.Map.Entry<K, V>> entrySet() {
+        Set<java.util.Map.Entry<K, V>> es = entrySet;
+        if (es == null) {
+            es = new EntrySet();
+            entrySet = es;
+        }
+        return es;
+    }
+
+    final class EntrySet extends AbstractSet<java.util.Map.Entry<K, V>> {
+        public Iterator<java.util.Map.Entry<K, V>> iterator() {
+            AtomicReferenceArray<Node<K, V>> t = table;
+            int f = (t == null) ? 0 : t.length();
+            return new EntryIterator<K, V>(t, f, ConcurrentHashMap.this);
+        }
+
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            Object k, v, r;
+            java.util.Map.Entry<?, ?> e;
+            return ((o instanceof java.util.Map.Entry) &&
+                    (k = (e = (java.util.Map.Entry<?, ?>) o).getKey()) != null &&
+                    (r = get(k)) != null &&
+                    (v = e.getValue()) != null &&
+                    (v == r || v.equals(r)));
+        }
+
+        public boolean remove(Object o) {
+            Object k, v;
+            java.util.Map.Entry<?, ?> e;
+            return ((o instanceof java.util.Map.Entry) &&
+                    (k = (e = (java.util.Map.Entry<?, ?>) o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    ConcurrentHashMap.this.remove(k, v));
+        }
+
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 多线程对比自定义 {@link ConcurrentHashMap}、{@link java.util.concurrent.ConcurrentHashMap} 与
+ * {@link Collections#synchronizedMap(java.util.Map)} 包装的 {@link java.util.HashMap}。
+ *
+ * <p>在 1、4、16、64 个线程下分别以 100%、90%、50% 的读比例执行随机的 get/put/remove，
+ * 键空间为 {@value #KEYS} 个预先装箱的整数，开始前预先填充一半。每种配置先预热再取多轮最好成绩，
+ * 结果以所有线程合计的 ops/ms 输出。运行方式：直接执行 {@link #main(String[])}。
+ */
+public class ConcurrentHashMapBenchmark {
+    private static final int KEYS = 1 << 16;
+    private static final int OPS = 2_000_000;
+    private static final int[] THREADS = { 1, 4, 16, 64 };
+    private static final int[] READ_PERCENT = { 100, 90, 50 };
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+
+    private static final Integer[] KEY_POOL = new Integer[KEYS];
+
+    static {
+        for (int i = 0; i < KEYS; i++) {
+            KEY_POOL[i] = i;
+        }
+    }
+
+    /** 防止 JIT 消除无副作用的计算 */
+    private static volatile int sink;
+
+    private interface MapFactory {
+        java.util.Map<Integer, Integer> create();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int readPercent : READ_PERCENT) {
+            for (int threads : THREADS) {
+                double custom = measure(ConcurrentHashMap::new, threads, readPercent);
+                double jdk = measure(java.util.concurrent.ConcurrentHashMap::new, threads, readPercent);
+                double sync = measure(() -> Collections.synchronizedMap(new java.util.HashMap<>()),
+                        threads, readPercent);
+                System.out.printf("read=%3d%% threads=%2d  ConcurrentHashMap: %9.1f  j.u.c.ConcurrentHashMap: %9.1f"
+                        + "  synchronizedMap: %9.1f ops/ms%n", readPercent, threads, custom, jdk, sync);
+            }
+        }
+    }
+
+    private static double measure(MapFactory factory, int threads, int readPercent)
+            throws InterruptedException {
+        for (int i = 0; i < WARMUP; i++) {
+            run(factory.create(), threads, readPercent);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            best = Math.min(best, run(factory.create(), threads, readPercent));
+        }
+        return OPS / (best / 1_000_000.0);
+    }
+
+    /**
+     * 预先填充一半的键，然后让所有线程同时开始，返回从开始到最后一个线程结束的纳秒数。
+     */
+    private static long run(java.util.Map<Integer, Integer> map, int threads, int readPercent)
+            throws InterruptedException {
+        for (int i = 0; i < KEYS; i += 2) {
+            map.put(KEY_POOL[i], i);
+        }
+        int opsPerThread = OPS / threads;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int s = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < opsPerThread; i++) {
+                    Integer key = KEY_POOL[random.nextInt(KEYS)];
+                    int op = random.nextInt(100);
+                    if (op < readPercent) {
+                        Integer v = map.get(key);
+                        s += v == null ? 0 : v;
+                    } else if ((op & 1) == 0) {
+                        map.put(key, op);
+                    } else {
+                        map.remove(key);
+                    }
+                }
+                sink += s;
+                done.countDown();
+            });
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+}
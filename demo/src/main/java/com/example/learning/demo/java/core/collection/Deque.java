@@ -0,0 +1,205 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 一个线性集合，支持在两端插入和移除元素。名称 <i>deque</i> 是“double ended queue（双端队列）”的缩写，通常读为“deck”。
+ *
+ * <p>
+ * 此接口定义在双端队列两端访问元素的方法。提供插入、移除和检查元素的方法。每种方法都存在两种形式：
+ * 一种形式在操作失败时抛出异常，另一种形式返回一个特殊值（<tt>null</tt> 或 <tt>false</tt>，具体取决于操作）。
+ *
+ * <table BORDER CELLPADDING=3 CELLSPACING=1>
+ * <caption>双端队列方法摘要</caption>
+ * <tr>
+ * <td></td>
+ * <td ALIGN=CENTER COLSPAN=2><b>第一个元素（头部）</b></td>
+ * <td ALIGN=CENTER COLSPAN=2><b>最后一个元素（尾部）</b></td>
+ * </tr>
+ * <tr>
+ * <td></td>
+ * <td ALIGN=CENTER><em>抛出异常</em></td>
+ * <td ALIGN=CENTER><em>特殊值</em></td>
+ * <td ALIGN=CENTER><em>抛出异常</em></td>
+ * <td ALIGN=CENTER><em>特殊值</em></td>
+ * </tr>
+ * <tr>
+ * <td><b>插入</b></td>
+ * <td>{@link #addFirst addFirst(e)}</td>
+ * <td>{@link #offerFirst offerFirst(e)}</td>
+ * <td>{@link #addLast addLast(e)}</td>
+ * <td>{@link #offerLast offerLast(e)}</td>
+ * </tr>
+ * <tr>
+ * <td><b>移除</b></td>
+ * <td>{@link #removeFirst removeFirst()}</td>
+ * <td>{@link #pollFirst pollFirst()}</td>
+ * <td>{@link #removeLast removeLast()}</td>
+ * <td>{@link #pollLast pollLast()}</td>
+ * </tr>
+ * <tr>
+ * <td><b>检查</b></td>
+ * <td>{@link #getFirst getFirst()}</td>
+ * <td>{@link #peekFirst peekFirst()}</td>
+ * <td>{@link #getLast getLast()}</td>
+ * <td>{@link #peekLast peekLast()}</td>
+ * </tr>
+ * </table>
+ *
+ * <p>
+ * 此接口扩展了 {@link Queue} 接口。在将双端队列用作队列时，将得到 FIFO（先进先出）行为：将元素添加到双端队列的末尾，从双端队列的开头移除元素。
+ * 双端队列也可用作 LIFO（后进先出）堆栈，此时元素被推入双端队列的开头并从双端队列开头弹出（{@link #push push}、{@link #pop pop}）。
+ *
+ * <p>
+ * 虽然 <tt>Deque</tt> 实现没有严格要求禁止插入 null 元素，但建议最好这样做，因为各种方法会将 <tt>null</tt>
+ * 用作特殊的返回值来指示双端队列为空。
+ *
+ * @param <E> 此集合中保存的元素的类型
+ *
+ * @author Doug Lea
+ * @author Josh Bloch
+ * @see Queue
+ * @see ArrayDeque
+ * @since 1.6
+ */
+public interface Deque<E> extends Queue<E> {
+    /**
+     * 如果可以直接将指定的元素插入此双端队列的开头（并且不会违反容量限制）；如果当前没有空间可用，则抛出
+     * <tt>IllegalStateException</tt>。
+     *
+     * @param e 要添加的元素
+     * @throws IllegalStateException 如果由于容量的限制此时不能添加该元素
+     * @throws NullPointerException  如果指定的元素为 null 并且此双端队列不允许 null 元素
+     */
+    void addFirst(E e);
+
+    /**
+     * 如果可以直接将指定的元素插入此双端队列的末尾（并且不会违反容量限制）；如果当前没有空间可用，则抛出
+     * <tt>IllegalStateException</tt>。
+     *
+     * @param e 要添加的元素
+     * @throws IllegalStateException 如果由于容量的限制此时不能添加该元素
+     * @throws NullPointerException  如果指定的元素为 null 并且此双端队列不允许 null 元素
+     */
+    void addLast(E e);
+
+    /**
+     * 在不违反容量限制的情况下，将指定的元素插入此双端队列的开头。
+     *
+     * @param e 要添加的元素
+     * @return 如果元素被添加到此双端队列，则返回 <tt>true</tt>；否则返回 <tt>false</tt>
+     * @throws NullPointerException 如果指定的元素为 null 并且此双端队列不允许 null 元素
+     */
+    boolean offerFirst(E e);
+
+    /**
+     * 在不违反容量限制的情况下，将指定的元素插入此双端队列的末尾。
+     *
+     * @param e 要添加的元素
+     * @return 如果元素被添加到此双端队列，则返回 <tt>true</tt>；否则返回 <tt>false</tt>
+     * @throws NullPointerException 如果指定的元素为 null 并且此双端队列不允许 null 元素
+     */
+    boolean offerLast(E e);
+
+    /**
+     * 获取并移除此双端队列第一个元素。此方法与 {@link #pollFirst pollFirst} 唯一的不同在于：如果此双端队列为空，它将抛出一个异常。
+     *
+     * @return 此双端队列的头部
+     * @throws NoSuchElementException 如果此双端队列为空
+     */
+    E removeFirst();
+
+    /**
+     * 获取并移除此双端队列的最后一个元素。此方法与 {@link #pollLast pollLast} 唯一的不同在于：如果此双端队列为空，它将抛出一个异常。
+     *
+     * @return 此双端队列的尾部
+     * @throws NoSuchElementException 如果此双端队列为空
+     */
+    E removeLast();
+
+    /**
+     * 获取并移除此双端队列的第一个元素；如果此双端队列为空，则返回 <tt>null</tt>。
+     *
+     * @return 此双端队列的头部；如果此双端队列为空，则返回 <tt>null</tt>
+     */
+    E pollFirst();
+
+    /**
+     * 获取并移除此双端队列的最后一个元素；如果此双端队列为空，则返回 <tt>null</tt>。
+     *
+     * @return 此双端队列的尾部；如果此双端队列为空，则返回 <tt>null</tt>
+     */
+    E pollLast();
+
+    /**
+     * 获取，但不移除此双端队列的第一个元素。此方法与 {@link #peekFirst peekFirst} 唯一的不同在于：如果此双端队列为空，它将抛出一个异常。
+     *
+     * @return 此双端队列的头部
+     * @throws NoSuchElementException 如果此双端队列为空
+     */
+    E getFirst();
+
+    /**
+     * 获取，但不移除此双端队列的最后一个元素。此方法与 {@link #peekLast peekLast} 唯一的不同在于：如果此双端队列为空，它将抛出一个异常。
+     *
+     * @return 此双端队列的尾部
+     * @throws NoSuchElementException 如果此双端队列为空
+     */
+    E getLast();
+
+    /**
+     * 获取，但不移除此双端队列的第一个元素；如果此双端队列为空，则返回 <tt>null</tt>。
+     *
+     * @return 此双端队列的头部；如果此双端队列为空，则返回 <tt>null</tt>
+     */
+    E peekFirst();
+
+    /**
+     * 获取，但不移除此双端队列的最后一个元素；如果此双端队列为空，则返回 <tt>null</tt>。
+     *
+     * @return 此双端队列的尾部；如果此双端队列为空，则返回 <tt>null</tt>
+     */
+    E peekLast();
+
+    /**
+     * 从此双端队列移除第一次出现的指定元素。如果此双端队列不包含该元素，则不作更改。
+     *
+     * @param o 要从此双端队列移除的元素（如果存在）
+     * @return 如果由于此调用而移除了一个元素，则返回 <tt>true</tt>
+     */
+    boolean removeFirstOccurrence(Object o);
+
+    /**
+     * 从此双端队列移除最后一次出现的指定元素。如果此双端队列不包含该元素，则不作更改。
+     *
+     * @param o 要从此双端队列移除的元素（如果存在）
+     * @return 如果由于此调用而移除了一个元素，则返回 <tt>true</tt>
+     */
+    boolean removeLastOccurrence(Object o);
+
+    // 堆栈方法
+
+    /**
+     * 将一个元素推入此双端队列所表示的堆栈（换句话说，此双端队列的头部）。此方法等效于 {@link #addFirst}。
+     *
+     * @param e 要推入的元素
+     * @throws IllegalStateException 如果由于容量的限制此时不能添加该元素
+     * @throws NullPointerException  如果指定的元素为 null 并且此双端队列不允许 null 元素
+     */
+    void push(E e);
+
+    /**
+     * 从此双端队列所表示的堆栈中弹出一个元素。换句话说，移除并返回此双端队列第一个元素。此方法等效于 {@link #removeFirst()}。
+     *
+     * @return 此双端队列开头的元素（它是此双端队列所表示的堆栈的顶部）
+     * @throws NoSuchElementException 如果此双端队列为空
+     */
+    E pop();
+
+    /**
+     * 返回以逆向顺序在此双端队列的元素上进行迭代的迭代器。元素将按从最后一个（尾部）到第一个（头部）的顺序返回。
+     *
+     * @return 以逆向顺序在此双端队列中的元素上进行迭代的迭代器
+     */
+    Iterator<E> descendingIterator();
+}
@@ -0,0 +1,779 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * 基于开放寻址（Robin Hood 线性探测）哈希表的 <tt>Map</tt> 实现。此实现提供所有可选的映射操作，并允许
+ * <tt>null</tt> 值和 <tt>null</tt> 键。此类不保证映射的顺序，特别是它不保证该顺序恒久不变。
+ *
+ * <p>
+ * 与 {@link java.util.HashMap} 的链表/红黑树桶不同，此类不为每个映射关系分配节点对象，而是使用两个扁平数组：
+ * <ul>
+ * <li><tt>table</tt>：键和值交替存放（键在 <tt>2i</tt>，值在 <tt>2i+1</tt>），命中时键和值通常位于同一缓存行；</li>
+ * <li><tt>hashes</tt>：缓存每个槽位中键的哈希值，<tt>0</tt> 表示空槽。探测时先比较缓存的哈希值，
+ * 只有相等时才读取键并调用 <tt>equals</tt>。</li>
+ * </ul>
+ * 插入时采用 Robin Hood 策略：探测距离较短的已有元素让位给探测距离较长的新元素，使探测距离的方差很小；
+ * 查找时一旦遇到探测距离比当前距离还短的元素即可断定键不存在。删除时采用向后移位（backward-shift），
+ * 不留下墓碑，因此长期混合增删后查找性能不会退化。
+ *
+ * <p>
+ * 负载因子必须小于 1（保证表中总有空槽），默认值为 0.8。在压缩指针下每个映射关系约占
+ * (4 + 4 + 4) / 0.8 ≈ 15 字节，而 {@link java.util.HashMap} 每个映射关系需要一个 32 字节的节点再加上桶数组。
+ *
+ * <p>
+ * <tt>entrySet()</tt> 的迭代器在整个迭代过程中复用同一个 <tt>Map.Entry</tt> 对象，迭代时不分配内存。
+ * 因此调用者不能在下一次调用 <tt>next</tt> 之后继续持有已返回的映射项；需要保存映射项时使用
+ * <tt>entrySet().toArray()</tt>，它返回独立的映射项快照。
+ *
+ * <p>
+ * <strong>注意，此实现不是同步的。</strong>如果多个线程同时访问一个哈希映射，而其中至少一个线程从结构上修改了该映射，
+ * 则它必须保持外部同步。
+ *
+ * <p>
+ * 由此类的所有“collection 视图方法”所返回的迭代器都是<i>快速失败</i>的：在迭代器创建之后，
+ * 如果从结构上对映射进行修改，除非通过迭代器本身的 <tt>remove</tt> 方法，其他任何时间任何方式的修改，
+ * 迭代器都将抛出 {@link ConcurrentModificationException}。
+ *
+ * @param <K> 此映射所维护的键的类型
+ * @param <V> 所映射值的类型
+ *
+ * @see Map
+ * @see AbstractMap
+ * @see java.util.HashMap
+ */
+public class HashMap<K, V> extends AbstractMap<K, V> implements Cloneable {
+    /**
+     * 默认初始容量，必须是 2 的幂。
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * 最大容量，必须是 2 的幂。<tt>table</tt> 的长度是容量的两倍，而数组长度不能超过 <tt>Integer.MAX_VALUE</tt>，
+     * 所以最大只能是 1 &lt;&lt; 29。
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    /**
+     * 构造器中未指定时使用的负载因子。
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.8f;
+
+    /**
+     * 代表 <tt>null</tt> 键的内部值，使探测循环中不需要额外的 null 判断。
+     */
+    static final Object NULL_KEY = new Object();
+
+    /**
+     * 表尚未分配时 <tt>hashes</tt> 和 <tt>table</tt> 共享的空表：只有一个空槽，查找立即结束，从不写入。
+     */
+    private static final int[] EMPTY_HASHES = { 0 };
+    private static final Object[] EMPTY_TABLE = new Object[2];
+
+    /**
+     * 每个槽位的键的哈希值；<tt>0</tt> 表示空槽。长度总是 2 的幂。
+     */
+    transient int[] hashes;
+
+    /**
+     * 键和值交替存放的表，长度为 <tt>2 * hashes.length</tt>。
+     */
+    transient Object[] table;
+
+    /**
+     * 此映射中包含的键-值映射关系数。
+     */
+    transient int size;
+
+    /**
+     * 此映射结构修改的次数，用于使 collection 视图的迭代器快速失败。
+     */
+    transient int modCount;
+
+    /**
+     * 下次扩容前允许的最大映射关系数 (容量 * 负载因子)；表尚未分配时为第一次分配的容量。
+     */
+    int threshold;
+
+    /**
+     * 哈希表的负载因子。
+     */
+    final float loadFactor;
+
+    /**
+     * 构造一个具有指定初始容量和负载因子的空 <tt>HashMap</tt>。
+     *
+     * @param initialCapacity 初始容量
+     * @param loadFactor      负载因子
+     * @throws IllegalArgumentException 如果初始容量为负，或负载因子不在 (0, 1) 区间内
+     */
+    public HashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        this.loadFactor = loadFactor;
+        unallocated(capacityFor(initialCapacity));
+    }
+
+    /**
+     * 构造一个具有指定初始容量和默认负载因子 (0.8) 的空 <tt>HashMap</tt>。
+     *
+     * @param initialCapacity 初始容量
+     * @throws IllegalArgumentException 如果初始容量为负
+     */
+    public HashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * 构造一个具有默认初始容量 (16) 和默认负载因子 (0.8) 的空 <tt>HashMap</tt>。
+     */
+    public HashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        unallocated(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * 构造一个映射关系与指定 <tt>Map</tt> 相同的新 <tt>HashMap</tt>。
+     *
+     * @param m 映射关系要放置在此映射中的映射
+     * @throws NullPointerException 如果指定的映射为 null
+     */
+    public HashMap(java.util.Map<? extends K, ? extends V> m) {
+        this(m.size(), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * 返回能够容纳 <tt>expected</tt> 个映射关系而不扩容的最小 2 的幂容量。
+     */
+    private int capacityFor(int expected) {
+        long needed = (long) Math.ceil(expected / (double) loadFactor) + 1;
+        if (needed >= MAXIMUM_CAPACITY)
+            return MAXIMUM_CAPACITY;
+        int cap = Integer.highestOneBit((int) Math.max(needed - 1, 1)) << 1;
+        return Math.max(cap, 2);
+    }
+
+    /**
+     * 推迟分配：构造器只记下容量，第一次插入时才分配表，预设了容量却一直为空的映射不占用表的空间。
+     */
+    private void unallocated(int capacity) {
+        hashes = EMPTY_HASHES;
+        table = EMPTY_TABLE;
+        threshold = capacity;
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        table = new Object[capacity << 1];
+        threshold = capacity == MAXIMUM_CAPACITY ? capacity - 1
+                : Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /**
+     * 计算键的哈希值：乘法散列后把高位折叠到低位（槽位由低位决定），并置最高位，保证结果不为 0。
+     */
+    static int hash(Object k) {
+        int h = k.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) | 0x80000000;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * 返回键所在的槽位，如果不存在则返回 -1。
+     */
+    private int indexOf(Object k, int h) {
+        final int[] hs = hashes;
+        final Object[] tab = table;
+        final int mask = hs.length - 1;
+        for (int i = h & mask, d = 0;; i = (i + 1) & mask, d++) {
+            int sh = hs[i];
+            // 空槽，或者遇到了比当前探测距离更“富”的元素：键不存在
+            if (sh == 0 || ((i - (sh & mask)) & mask) < d)
+                return -1;
+            if (sh == h) {
+                Object c = tab[i << 1];
+                if (c == k || k.equals(c))
+                    return i;
+            }
+        }
+    }
+
+    // 查询操作
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 返回指定键所映射的值；如果对于该键来说，此映射不包含任何映射关系，则返回 <tt>null</tt>。
+     *
+     * <p>
+     * 返回 <tt>null</tt> 值并不一定表明该映射不包含该键的映射关系；也可能该映射将该键显式地映射为 <tt>null</tt>。
+     * 可使用 {@link #containsKey containsKey} 操作来区分这两种情况。
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object k = maskNull(key);
+        int i = indexOf(k, hash(k));
+        return i < 0 ? null : (V) table[(i << 1) + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        Object k = maskNull(key);
+        int i = indexOf(k, hash(k));
+        return i < 0 ? defaultValue : (V) table[(i << 1) + 1];
+    }
+
+    /**
+     * 如果此映射包含对于指定键的映射关系，则返回 <tt>true</tt>。
+     */
+    public boolean containsKey(Object key) {
+        Object k = maskNull(key);
+        return indexOf(k, hash(k)) >= 0;
+    }
+
+    /**
+     * 如果此映射将一个或多个键映射到指定值，则返回 <tt>true</tt>。此操作顺序扫描值，需要的时间与容量呈线性关系。
+     */
+    public boolean containsValue(Object value) {
+        final int[] hs = hashes;
+        final Object[] tab = table;
+        for (int i = 0; i < hs.length; i++) {
+            if (hs[i] != 0) {
+                Object v = tab[(i << 1) + 1];
+                if (value == null ? v == null : value.equals(v))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    // 修改操作
+
+    /**
+     * 在此映射中关联指定值与指定键。如果该映射以前包含了一个该键的映射关系，则旧值被替换。
+     *
+     * @return 与 <tt>key</tt> 关联的旧值；如果 <tt>key</tt> 没有任何映射关系，则返回 <tt>null</tt>
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Object k = maskNull(key);
+        int h = hash(k);
+        int i = indexOf(k, h);
+        if (i >= 0) {
+            int vi = (i << 1) + 1;
+            V oldValue = (V) table[vi];
+            table[vi] = value;
+            return oldValue;
+        }
+        if (size >= threshold || hashes == EMPTY_HASHES)
+            resize();
+        insert(h, k, value);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * 插入一个已知不存在的键。沿探测序列前进时，如果当前槽位的元素探测距离比待插入元素短，
+     * 就把待插入元素放在这里，并继续为被换出的元素寻找位置。
+     */
+    private void insert(int h, Object k, Object v) {
+        final int[] hs = hashes;
+        final Object[] tab = table;
+        final int mask = hs.length - 1;
+        for (int i = h & mask, d = 0;; i = (i + 1) & mask, d++) {
+            int sh = hs[i];
+            if (sh == 0) {
+                hs[i] = h;
+                tab[i << 1] = k;
+                tab[(i << 1) + 1] = v;
+                return;
+            }
+            int ed = (i - (sh & mask)) & mask;
+            if (ed < d) {
+                Object ek = tab[i << 1];
+                Object ev = tab[(i << 1) + 1];
+                hs[i] = h;
+                tab[i << 1] = k;
+                tab[(i << 1) + 1] = v;
+                h = sh;
+                k = ek;
+                v = ev;
+                d = ed;
+            }
+        }
+    }
+
+    /**
+     * 容量加倍并重新插入所有映射关系；表尚未分配时按记下的容量分配。
+     */
+    private void resize() {
+        int[] oldHashes = hashes;
+        Object[] oldTable = table;
+        if (oldHashes == EMPTY_HASHES) {
+            allocate(threshold);
+            return;
+        }
+        int oldCapacity = oldHashes.length;
+        if (oldCapacity == MAXIMUM_CAPACITY)
+            throw new IllegalStateException("Capacity exhausted.");
+        allocate(oldCapacity << 1);
+        for (int i = 0; i < oldCapacity; i++) {
+            int h = oldHashes[i];
+            if (h != 0)
+                insert(h, oldTable[i << 1], oldTable[(i << 1) + 1]);
+        }
+    }
+
+    /**
+     * 将指定映射的所有映射关系复制到此映射中，先按两者大小之和预先扩容，避免逐步加倍。
+     */
+    public void putAll(java.util.Map<? extends K, ? extends V> m) {
+        int n = m.size();
+        if (n == 0)
+            return;
+        if (hashes == EMPTY_HASHES) {
+            allocate(Math.max(threshold, capacityFor(n)));
+        } else if (size + n > threshold) {
+            int capacity = capacityFor(size + n);
+            if (capacity > hashes.length) {
+                int[] oldHashes = hashes;
+                Object[] oldTable = table;
+                allocate(capacity);
+                for (int i = 0; i < oldHashes.length; i++) {
+                    int h = oldHashes[i];
+                    if (h != 0)
+                        insert(h, oldTable[i << 1], oldTable[(i << 1) + 1]);
+                }
+            }
+        }
+        for (java.util.Map.Entry<? extends K, ? extends V> e : m.entrySet())
+            put(e.getKey(), e.getValue());
+    }
+
+    /**
+     * 从此映射中移除指定键的映射关系（如果存在）。
+     *
+     * @return 与 <tt>key</tt> 关联的旧值；如果 <tt>key</tt> 没有任何映射关系，则返回 <tt>null</tt>
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        Object k = maskNull(key);
+        int i = indexOf(k, hash(k));
+        if (i < 0)
+            return null;
+        V oldValue = (V) table[(i << 1) + 1];
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * 删除槽位 <tt>i</tt> 中的映射关系，并把其后探测距离大于 0 的连续元素各向前移动一格，不留下墓碑。
+     */
+    void removeAt(int i) {
+        final int[] hs = hashes;
+        final Object[] tab = table;
+        final int mask = hs.length - 1;
+        modCount++;
+        size--;
+        for (int j = (i + 1) & mask;; i = j, j = (j + 1) & mask) {
+            int sh = hs[j];
+            if (sh == 0 || ((j - (sh & mask)) & mask) == 0)
+                break;
+            hs[i] = sh;
+            tab[i << 1] = tab[j << 1];
+            tab[(i << 1) + 1] = tab[(j << 1) + 1];
+        }
+        hs[i] = 0;
+        tab[i << 1] = null;
+        tab[(i << 1) + 1] = null;
+    }
+
+    /**
+     * 从此映射中移除所有映射关系。此调用返回后，映射将为空，但容量不变。
+     */
+    public void clear() {
+        modCount++;
+        if (size > 0) {
+            Arrays.fill(hashes, 0);
+            Arrays.fill(table, null);
+        }
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        final int[] hs = hashes;
+        final Object[] tab = table;
+        final int mc = modCount;
+        for (int i = 0; i < hs.length && modCount == mc; i++) {
+            if (hs[i] != 0)
+                action.accept(HashMap.<K>unmaskNull(tab[i << 1]), (V) tab[(i << 1) + 1]);
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        final int[] hs = hashes;
+        final Object[] tab = table;
+        final int mc = modCount;
+        for (int i = 0; i < hs.length && modCount == mc; i++) {
+            if (hs[i] != 0) {
+                int vi = (i << 1) + 1;
+                tab[vi] = function.apply(HashMap.<K>unmaskNull(tab[i << 1]), (V) tab[vi]);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * 返回此 <tt>HashMap</tt> 实例的浅表副本：并不复制键和值本身。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public HashMap<K, V> clone() {
+        HashMap<K, V> result;
+        try {
+            result = (HashMap<K, V>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            // 这不应该发生，因为我们是 Cloneable
+            throw new InternalError(e);
+        }
+        if (hashes != EMPTY_HASHES) {
+            result.hashes = hashes.clone();
+            result.table = table.clone();
+        }
+        result.entrySet = null;
+        result.modCount = 0;
+        return result;
+    }
+
+    // 迭代器
+
+    /**
+     * 视图迭代器的公共部分。
+     *
+     * <p>
+     * 迭代从某个空槽的下方开始，按槽位递减（循环）的顺序进行。向后移位删除只会把空槽之前、
+     * 当前槽位之上的元素向下移动一格，而这些槽位都已被访问过，所以迭代器的 <tt>remove</tt>
+     * 不会导致元素被重复返回或遗漏。
+     */
+    abstract class HashIterator<E> implements Iterator<E> {
+        /** 下一个要检查的槽位 */
+        int index;
+        /** 尚未返回的元素个数 */
+        int remaining;
+        int lastReturned = -1;
+        int expectedModCount = modCount;
+
+        HashIterator() {
+            final int[] hs = hashes;
+            final int mask = hs.length - 1;
+            int e = mask;
+            // 负载因子小于 1，总能找到空槽
+            while (hs[e] != 0)
+                e--;
+            index = (e - 1) & mask;
+            remaining = size;
+        }
+
+        public final boolean hasNext() {
+            return remaining > 0;
+        }
+
+        final int nextIndex() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining <= 0)
+                throw new NoSuchElementException();
+            final int[] hs = hashes;
+            final int mask = hs.length - 1;
+            int i = index;
+            while (hs[i] == 0)
+                i = (i - 1) & mask;
+            index = (i - 1) & mask;
+            remaining--;
+            return lastReturned = i;
+        }
+
+        public final void remove() {
+            if (lastReturned < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            removeAt(lastReturned);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    final class KeyIterator extends HashIterator<K> {
+        public K next() {
+            return unmaskNull(table[nextIndex() << 1]);
+        }
+    }
+
+    final class ValueIterator extends HashIterator<V> {
+        @SuppressWarnings("unchecked")
+        public V next() {
+            return (V) table[(nextIndex() << 1) + 1];
+        }
+    }
+
+    /**
+     * 指向某个槽位的映射项，读写直接作用于表。只由 <tt>entrySet()</tt> 的迭代器使用，
+     * 槽位在删除或扩容后会改变，所以不能交给会长期持有映射项的调用方。
+     */
+    final class HashEntry implements java.util.Map.Entry<K, V> {
+        int index;
+
+        HashEntry(int index) {
+            this.index = index;
+        }
+
+        public K getKey() {
+            return unmaskNull(table[index << 1]);
+        }
+
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) table[(index << 1) + 1];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            int vi = (index << 1) + 1;
+            V oldValue = (V) table[vi];
+            table[vi] = value;
+            return oldValue;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof java.util.Map.Entry))
+                return false;
+            java.util.Map.Entry<?, ?> e = (java.util.Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * 映射项迭代器。<tt>reuse</tt> 为 true 时每次 <tt>next</tt> 都返回同一个 {@link HashEntry}，
+     * 只是把它指向下一个槽位；否则每次返回一个新的映射项快照（用于 <tt>toArray</tt> 和 <tt>spliterator</tt>，
+     * 这些调用方会同时持有多个映射项，之后映射的修改不影响快照，快照的 <tt>setValue</tt> 也不写回映射）。
+     */
+    final class EntryIterator extends HashIterator<java.util.Map.Entry<K, V>> {
+        private final HashEntry entry;
+
+        EntryIterator(boolean reuse) {
+            entry = reuse ? new HashEntry(-1) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public java.util.Map.Entry<K, V> next() {
+            int i = nextIndex();
+            HashEntry e = entry;
+            if (e == null)
+                return new java.util.AbstractMap.SimpleEntry<>(HashMap.<K>unmaskNull(table[i << 1]),
+                        (V) table[(i << 1) + 1]);
+            e.index = i;
+            return e;
+        }
+    }
+
+    // 视图
+
+    private transient Set<java.util.Map.Entry<K, V>> entrySet;
+
+    /**
+     * 返回此映射中所包含的键的 set 视图。
+     */
+    public Set<K> keySet() {
+        Set<K> ks = keySet;
+        if (ks == null) {
+            ks = new KeySet();
+            keySet = ks;
+        }
+        return ks;
+    }
+
+    final class KeySet extends AbstractSet<K> {
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        public boolean remove(Object o) {
+            Object k = maskNull(o);
+            int i = indexOf(k, hash(k));
+            if (i < 0)
+                return false;
+            removeAt(i);
+            return true;
+        }
+
+        public void clear() {
+            HashMap.this.clear();
+        }
+
+        public Spliterator<K> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.DISTINCT);
+        }
+    }
+
+    /**
+     * 返回此映射所包含的值的 collection 视图。
+     */
+    public java.util.Collection<V> values() {
+        java.util.Collection<V> vs = values;
+        if (vs == null) {
+            vs = new Values();
+            values = vs;
+        }
+        return vs;
+    }
+
+    final class Values extends AbstractCollection<V> {
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        public void clear() {
+            HashMap.this.clear();
+        }
+    }
+
+    /**
+     * 返回此映射所包含的映射关系的 set 视图。
+     *
+     * <p>
+     * 该 set 的迭代器复用同一个映射项对象：每次调用 <tt>next</tt> 后，之前返回的映射项都会指向新的映射关系。
+     * 映射项的 <tt>setValue</tt> 直接写入此映射。<tt>toArray</tt> 和 <tt>spliterator</tt>
+     * 为每个映射关系返回独立的映射项快照，它们不随之后的修改而改变，<tt>setValue</tt> 也不写回此映射。
+     */
+    public Set<java.util.Map.Entry<K, V>> entrySet() {
+        Set<java.util.Map.Entry<K, V>> es = entrySet;
+        if (es == null) {
+            es = new EntrySet();
+            entrySet = es;
+        }
+        return es;
+    }
+
+    final class EntrySet extends AbstractSet<java.util.Map.Entry<K, V>> {
+        public Iterator<java.util.Map.Entry<K, V>> iterator() {
+            return new EntryIterator(true);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(Object o) {
+            if (!(o instanceof java.util.Map.Entry))
+                return false;
+            java.util.Map.Entry<?, ?> e = (java.util.Map.Entry<?, ?>) o;
+            Object k = maskNull(e.getKey());
+            int i = indexOf(k, hash(k));
+            return i >= 0 && Objects.equals(table[(i << 1) + 1], e.getValue());
+        }
+
+        public boolean remove(Object o) {
+            if (!(o instanceof java.util.Map.Entry))
+                return false;
+            java.util.Map.Entry<?, ?> e = (java.util.Map.Entry<?, ?>) o;
+            Object k = maskNull(e.getKey());
+            int i = indexOf(k, hash(k));
+            if (i < 0 || !Objects.equals(table[(i << 1) + 1], e.getValue()))
+                return false;
+            removeAt(i);
+            return true;
+        }
+
+        public void clear() {
+            HashMap.this.clear();
+        }
+
+        public Object[] toArray() {
+            return fill(new Object[size]);
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T[] toArray(T[] a) {
+            int n = size;
+            T[] r = a.length >= n ? a
+                    : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), n);
+            fill(r);
+            if (r.length > n)
+                r[n] = null;
+            return r;
+        }
+
+        private Object[] fill(Object[] r) {
+            EntryIterator it = new EntryIterator(false);
+            for (int i = 0; it.hasNext(); i++)
+                r[i] = it.next();
+            return r;
+        }
+
+        public Spliterator<java.util.Map.Entry<K, V>> spliterator() {
+            return Spliterators.spliterator(new EntryIterator(false), size, Spliterator.DISTINCT);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Random;
+
+/**
+ * 对比自定义 {@link HashMap} 与 {@link java.util.HashMap}：
+ * <ul>
+ * <li>按随机顺序查找 100 万个已存在的键（命中）和 100 万个不存在的键（未命中）的吞吐量；</li>
+ * <li>每个映射关系占用的堆内存（键和值对象预先分配并共享，只统计映射本身的结构）。</li>
+ * </ul>
+ *
+ * <p>与 {@link ArrayListBenchmark} 一样是简单的微基准：先预热再取多轮最好成绩。内存通过多次
+ * {@link System#gc()} 后比较已用堆大小估算，只是近似值。运行方式：直接执行 {@link #main(String[])}。
+ */
+public class HashMapBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int WARMUP = 10;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        Integer[] keys = new Integer[SIZE];
+        Integer[] missing = new Integer[SIZE];
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = random.nextInt() & ~1;
+            missing[i] = keys[i] | 1;
+        }
+        Integer[] lookups = keys.clone();
+        for (int i = lookups.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer t = lookups[i];
+            lookups[i] = lookups[j];
+            lookups[j] = t;
+        }
+
+        java.util.Map<Integer, Integer> jdk = new java.util.HashMap<>();
+        HashMap<Integer, Integer> custom = new HashMap<>();
+        for (Integer k : keys) {
+            jdk.put(k, k);
+            custom.put(k, k);
+        }
+
+        Bench.report("get hit   java.util.HashMap", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : lookups) {
+                s += jdk.get(k);
+            }
+            return s;
+        });
+        Bench.report("get hit   HashMap          ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : lookups) {
+                s += custom.get(k);
+            }
+            return s;
+        });
+        Bench.report("get miss  java.util.HashMap", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : missing) {
+                s += jdk.get(k) == null ? 1 : 0;
+            }
+            return s;
+        });
+        Bench.report("get miss  HashMap          ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : missing) {
+                s += custom.get(k) == null ? 1 : 0;
+            }
+            return s;
+        });
+        Bench.report("iterate   java.util.HashMap", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (java.util.Map.Entry<Integer, Integer> e : jdk.entrySet()) {
+                s += e.getValue();
+            }
+            return s;
+        });
+        Bench.report("iterate   HashMap          ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (java.util.Map.Entry<Integer, Integer> e : custom.entrySet()) {
+                s += e.getValue();
+            }
+            return s;
+        });
+
+        Integer value = 0;
+        Bench.footprint("java.util.HashMap", jdk.size(), "entry", () -> {
+            java.util.Map<Integer, Integer> m = new java.util.HashMap<>();
+            for (Integer k : keys) {
+                m.put(k, value);
+            }
+            return m;
+        });
+        Bench.footprint("HashMap          ", jdk.size(), "entry", () -> {
+            HashMap<Integer, Integer> m = new HashMap<>();
+            for (Integer k : keys) {
+                m.put(k, value);
+            }
+            return m;
+        });
+        Bench.done();
+    }
+}
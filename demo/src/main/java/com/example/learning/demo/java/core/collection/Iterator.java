@@ -81,4 +81,42 @@ public interface Iterator<E> extends java.util.Iterator<E> {
         while (hasNext())
             action.accept(next());
     }
+
+    /**
+     * 一次取出最多 {@code max} 个剩余元素，依次写入 {@code dst[off]} 到 {@code dst[off + n - 1]}，
+     * 返回实际写入的个数 {@code n}。返回值小于 {@code max} 说明迭代已经结束；
+     * 当 {@code max > 0} 时返回 0 表示没有剩余元素。
+     *
+     * <p>
+     * 逐个调用 {@link #hasNext()}/{@link #next()} 时每个元素要付出两次（通常是多态的）虚调用。
+     * 数组或树等支持的实现可以重写此方法，直接把一段连续存储复制到 {@code dst} 中，
+     * 把虚调用的开销分摊到整个批次上。
+     *
+     * <p>
+     * 调用此方法后，{@link #remove()} 作用于批次中的最后一个元素。
+     *
+     * @implSpec
+     *           <p>
+     *           默认实现的行为等同于：
+     *
+     *           <pre>{@code
+     *     int n = 0;
+     *     while (n < max && hasNext())
+     *         dst[off + n++] = next();
+     *     return n;
+     * }</pre>
+     *
+     * @param dst 目标数组
+     * @param off 写入的起始下标
+     * @param max 最多取出的元素个数
+     * @return 实际写入的元素个数
+     * @throws IndexOutOfBoundsException 如果 {@code off} 或 {@code max} 使写入越界
+     * @throws ArrayStoreException       如果元素的类型不能存入 {@code dst}
+     */
+    default int nextBatch(Object[] dst, int off, int max) {
+        int n = 0;
+        while (n < max && hasNext())
+            dst[off + n++] = next();
+        return n;
+    }
 }
@@ -1,14 +1,13 @@
 package com.example.learning.demo.java.core.collection;
 
-import java.util.AbstractList;
 import java.util.AbstractSequentialList;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.ListIterator;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
@@ -537,7 +536,13 @@ public interface List<E> extends Collection<E> {
      * {@link Spliterator#ORDERED} 特性。
      * 实现类应当记录所报告的其他特性值。
      *
-     * @implSpec 默认实现从列表的 {@code Iterator} 创建一个
+     * @implSpec 如果列表实现了 {@link RandomAccess}，默认实现返回一个基于索引区间的
+     *           <em><a href="Spliterator.html#binding">延迟绑定</a></em> 的
+     *           `Spliterator`：通过 {@link #get(int)} 访问元素，并以 O(1) 的代价对半拆分索引区间，
+     *           因此 {@code parallelStream()} 可以随核数扩展。如果列表是 {@link AbstractList}，
+     *           该 `Spliterator` 会检查 {@code modCount} 并具有 <em>快速失败（fail-fast）</em> 特性。
+     *           <p>
+     *           否则，默认实现从列表的 {@code Iterator} 创建一个
      *           <em><a href="Spliterator.html#binding">延迟绑定</a></em> 的
      *           `Spliterator`。
      *           该 `Spliterator` 继承了列表迭代器的 <em>快速失败（fail-fast）</em> 特性。
@@ -549,7 +554,11 @@ public interface List<E> extends Collection<E> {
      */
     @Override
     default Spliterator<E> spliterator() {
-        return Spliterators.spliterator(this, Spliterator.ORDERED);
+        if (this instanceof RandomAccess) {
+            return new AbstractList.RandomAccessSpliterator<>(this);
+        } else {
+            return Spliterators.spliterator(this, Spliterator.ORDERED);
+        }
     }
 
 }
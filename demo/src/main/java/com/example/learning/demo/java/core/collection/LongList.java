@@ -0,0 +1,684 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 元素类型为 <tt>long</tt> 的可变大小数组列表，所有操作都不会装箱。
+ *
+ * <p>
+ * 通过泛型的 {@link Collection}/{@link List} 接口存放数值时，每次 <tt>add</tt>、<tt>get</tt>、
+ * <tt>contains</tt> 都会产生 <tt>Long</tt> 的装箱或拆箱，每个元素除了 8 字节的数值本身外，
+ * 还要付出对象头和引用的开销。此类直接把元素存放在 <tt>long[]</tt> 中：
+ * <ul>
+ * <li><tt>get</tt>、<tt>contains</tt>、<tt>indexOf</tt>、{@link #forEach(LongConsumer)} 等读路径上不分配任何对象；</li>
+ * <li>{@link #iterator()} 返回 {@link PrimitiveIterator.OfLong}，{@link #spliterator()} 返回
+ * {@link Spliterator.OfLong}，可以直接构造 {@link LongStream}；</li>
+ * <li>需要与旧代码兼容时，{@link #boxed()} 返回一个满足 <tt>List&lt;Long&gt;</tt> 的视图，
+ * 只在通过视图访问时才装箱。</li>
+ * </ul>
+ *
+ * <p>
+ * 容量增长策略与 {@link ArrayList} 相同（1.5 倍）。<strong>注意，此实现不是同步的。</strong>
+ *
+ * @see ArrayList
+ * @see IntList
+ * @see DoubleList
+ */
+public class LongList implements RandomAccess, Cloneable {
+    /**
+     * 默认初始容量。
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * 用于空实例的共享空数组实例。
+     */
+    private static final long[] EMPTY_ELEMENTDATA = {};
+
+    /**
+     * 数组分配的最大大小。
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 存储元素的数组缓冲区。
+     */
+    long[] elementData;
+
+    /**
+     * 列表的大小（它包含的元素数量）。
+     */
+    int size;
+
+    /**
+     * 结构性修改的次数，用于迭代器的快速失败检查。
+     */
+    transient int modCount;
+
+    /**
+     * 构造一个空列表。
+     */
+    public LongList() {
+        this.elementData = EMPTY_ELEMENTDATA;
+    }
+
+    /**
+     * 构造一个具有指定初始容量的空列表。
+     *
+     * @param initialCapacity 列表的初始容量
+     * @throws IllegalArgumentException 如果指定的初始容量为负数
+     */
+    public LongList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        this.elementData = initialCapacity == 0 ? EMPTY_ELEMENTDATA : new long[initialCapacity];
+    }
+
+    /**
+     * 构造一个包含指定数组元素的列表（会复制数组）。
+     *
+     * @param values 初始元素
+     */
+    public LongList(long[] values) {
+        this.elementData = values.length == 0 ? EMPTY_ELEMENTDATA : values.clone();
+        this.size = values.length;
+    }
+
+    // 容量管理
+
+    /**
+     * 将容量修剪为列表的当前大小。
+     */
+    public void trimToSize() {
+        modCount++;
+        if (size < elementData.length) {
+            elementData = (size == 0) ? EMPTY_ELEMENTDATA : Arrays.copyOf(elementData, size);
+        }
+    }
+
+    /**
+     * 如有必要，增加容量以确保它至少可以容纳 <tt>minCapacity</tt> 个元素。
+     *
+     * @param minCapacity 所需的最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity - elementData.length > 0)
+            grow(minCapacity);
+    }
+
+    private void grow(int minCapacity) {
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity - minCapacity < 0)
+            newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        if (newCapacity - MAX_ARRAY_SIZE > 0) {
+            if (minCapacity < 0) // 溢出
+                throw new OutOfMemoryError();
+            newCapacity = (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+        }
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    // 查询操作
+
+    /**
+     * 返回此列表中的元素数量。
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 如果此列表不包含任何元素，则返回 <tt>true</tt>。
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 返回此列表中指定位置的元素。
+     *
+     * @param index 要返回的元素的索引
+     * @return 此列表中指定位置的元素
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    public long get(int index) {
+        rangeCheck(index);
+        return elementData[index];
+    }
+
+    /**
+     * 如果此列表包含指定元素，则返回 <tt>true</tt>。
+     */
+    public boolean contains(long e) {
+        return indexOf(e) >= 0;
+    }
+
+    /**
+     * 返回指定元素在此列表中第一次出现的索引；如果此列表不包含该元素，则返回 -1。
+     */
+    public int indexOf(long e) {
+        final long[] es = elementData;
+        for (int i = 0, n = size; i < n; i++)
+            if (es[i] == e)
+                return i;
+        return -1;
+    }
+
+    /**
+     * 返回指定元素在此列表中最后一次出现的索引；如果此列表不包含该元素，则返回 -1。
+     */
+    public int lastIndexOf(long e) {
+        final long[] es = elementData;
+        for (int i = size - 1; i >= 0; i--)
+            if (es[i] == e)
+                return i;
+        return -1;
+    }
+
+    /**
+     * 以正确的顺序返回包含此列表中所有元素的新数组。
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elementData, size);
+    }
+
+    // 修改操作
+
+    /**
+     * 用指定元素替换此列表中指定位置的元素。
+     *
+     * @return 之前在指定位置的元素
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    public long set(int index, long element) {
+        rangeCheck(index);
+        long oldValue = elementData[index];
+        elementData[index] = element;
+        return oldValue;
+    }
+
+    /**
+     * 将指定元素追加到此列表的末尾。
+     *
+     * @return <tt>true</tt>
+     */
+    public boolean add(long e) {
+        modCount++;
+        if (size == elementData.length)
+            grow(size + 1);
+        elementData[size++] = e;
+        return true;
+    }
+
+    /**
+     * 将指定元素插入此列表中的指定位置，后续元素右移。
+     *
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    public void add(int index, long element) {
+        rangeCheckForAdd(index);
+        modCount++;
+        if (size == elementData.length)
+            grow(size + 1);
+        System.arraycopy(elementData, index, elementData, index + 1, size - index);
+        elementData[index] = element;
+        size++;
+    }
+
+    /**
+     * 将数组中的全部元素追加到此列表的末尾，只做一次容量检查和一次 <tt>System.arraycopy</tt>。
+     *
+     * @param values 要追加的元素
+     * @return 如果此列表因调用而发生更改，则返回 <tt>true</tt>
+     */
+    public boolean addAll(long[] values) {
+        return addAll(values, 0, values.length);
+    }
+
+    /**
+     * 将数组 <tt>values</tt> 中从 <tt>offset</tt> 开始的 <tt>length</tt> 个元素追加到此列表的末尾。
+     *
+     * @return 如果此列表因调用而发生更改，则返回 <tt>true</tt>
+     * @throws IndexOutOfBoundsException 如果范围越界
+     */
+    public boolean addAll(long[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > values.length - length)
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length);
+        modCount++;
+        ensureCapacity(size + length);
+        System.arraycopy(values, offset, elementData, size, length);
+        size += length;
+        return length != 0;
+    }
+
+    /**
+     * 将另一个列表中的全部元素追加到此列表的末尾。
+     *
+     * @return 如果此列表因调用而发生更改，则返回 <tt>true</tt>
+     */
+    public boolean addAll(LongList other) {
+        return addAll(other.elementData, 0, other.size);
+    }
+
+    /**
+     * 移除此列表中指定位置的元素，后续元素左移。
+     * <p>
+     * 为了不与 {@link #remove(long)} 产生重载歧义，按索引移除的方法命名为 <tt>removeAt</tt>。
+     *
+     * @return 从列表中移除的元素
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    public long removeAt(int index) {
+        rangeCheck(index);
+        modCount++;
+        long oldValue = elementData[index];
+        int numMoved = size - index - 1;
+        if (numMoved > 0)
+            System.arraycopy(elementData, index + 1, elementData, index, numMoved);
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * 如果指定元素存在，则从此列表中移除它的第一次出现。
+     *
+     * @return 如果此列表包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean remove(long e) {
+        int index = indexOf(e);
+        if (index < 0)
+            return false;
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * 从此列表中移除所有元素。基本类型数组无需清除引用，只需把大小归零。
+     */
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    /**
+     * 移除满足给定谓词的所有元素，不装箱。
+     *
+     * <p>
+     * 与 {@link ArrayList#removeIf} 相同，先把需要移除的位置标记在位图中，再一次性前移幸存元素，
+     * 整体为 O(n)；谓词在中途抛出异常时列表保持不变。
+     *
+     * @param filter 对要移除的元素返回 {@code true} 的谓词
+     * @return 如果有任何元素被移除，则返回 {@code true}
+     */
+    public boolean removeIf(LongPredicate filter) {
+        Objects.requireNonNull(filter);
+        final int expectedModCount = modCount;
+        final long[] es = elementData;
+        final int end = size;
+        int beg;
+        for (beg = 0; beg < end && !filter.test(es[beg]); beg++)
+            ;
+        if (beg == end) {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return false;
+        }
+        final long[] deathRow = ArrayList.nBits(end - beg);
+        deathRow[0] = 1L;
+        for (int i = beg + 1; i < end; i++)
+            if (filter.test(es[i]))
+                ArrayList.setBit(deathRow, i - beg);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        modCount++;
+        int w = beg;
+        for (int i = beg; i < end; i++)
+            if (ArrayList.isClear(deathRow, i - beg))
+                es[w++] = es[i];
+        size = w;
+        return true;
+    }
+
+    /**
+     * 元素个数达到此值时 {@link #sort()} 改用基数排序；更小的列表使用 {@link Arrays#sort(long[], int, int)}。
+     */
+    static final int RADIX_SORT_THRESHOLD = 1 << 12;
+
+    /**
+     * 按升序原地排序此列表。
+     *
+     * <p>
+     * 小列表直接对底层数组调用 {@link Arrays#sort(long[], int, int)}；大列表使用 LSD 基数排序：
+     * 每趟处理 8 位，共 8 趟，每趟 O(n)，只需要一个与列表等长的辅助数组，
+     * 并且会跳过所有元素在该 8 位上都相同的趟数（例如数值范围较小的 ID）。
+     */
+    public void sort() {
+        modCount++;
+        if (size < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(elementData, 0, size);
+        } else {
+            radixSort(elementData, size);
+        }
+    }
+
+    /**
+     * 对 {@code a[0, n)} 做 LSD 基数排序。符号位取反后按无符号整数排序，即得到有符号的升序。
+     */
+    static void radixSort(long[] a, int n) {
+        long[] src = a, dst = new long[n];
+        int[] count = new int[256];
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++)
+                count[(int) ((src[i] ^ Long.MIN_VALUE) >>> shift) & 0xFF]++;
+            if (count[(int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & 0xFF] == n)
+                continue; // 所有元素在这一趟的 8 位上都相同，跳过
+            for (int i = 0, sum = 0; i < 256; i++) {
+                int c = count[i];
+                count[i] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                long v = src[i];
+                dst[count[(int) ((v ^ Long.MIN_VALUE) >>> shift) & 0xFF]++] = v;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a)
+            System.arraycopy(src, 0, a, 0, n);
+    }
+
+    // 遍历
+
+    /**
+     * 直接遍历底层数组，对每个元素执行给定操作，不装箱。
+     *
+     * @param action 要对每个元素执行的操作
+     */
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final long[] es = elementData;
+        final int size = this.size;
+        for (int i = 0; modCount == expectedModCount && i < size; i++)
+            action.accept(es[i]);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * 返回一个不装箱的基本类型迭代器。
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new Itr();
+    }
+
+    /**
+     * 在此列表的元素上创建一个<em>延迟绑定</em>且<em>快速失败</em>的基本类型 {@link Spliterator}。
+     *
+     * <p>
+     * 第一次遍历、拆分或估计大小时才绑定列表当时的大小和 <tt>modCount</tt>，所以在创建流之后、
+     * 终端操作之前对列表的修改会被看到；绑定之后的结构修改会导致 {@link ConcurrentModificationException}
+     * （<tt>forEachRemaining</tt> 只在遍历结束时检查一次）。报告 {@link Spliterator#ORDERED}、
+     * {@link Spliterator#SIZED} 和 {@link Spliterator#SUBSIZED}。
+     *
+     * @return 此列表元素上的 {@code Spliterator.OfLong}
+     */
+    public Spliterator.OfLong spliterator() {
+        return new LongListSpliterator(0, -1, 0);
+    }
+
+    /**
+     * 返回以此列表为源的顺序 {@link LongStream}。
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    private class Itr implements PrimitiveIterator.OfLong {
+        int cursor;
+        int lastRet = -1;
+        int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor != size;
+        }
+
+        public long nextLong() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i = cursor;
+            if (i >= size)
+                throw new NoSuchElementException();
+            cursor = i + 1;
+            return elementData[lastRet = i];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            removeAt(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /** 基于索引的对半拆分、延迟初始化的 Spliterator，与 {@link ArrayList} 的 spliterator 相同 */
+    private final class LongListSpliterator implements Spliterator.OfLong {
+        private int index; // 当前索引，advance/split 时修改
+        private int fence; // 初始化前为 -1；之后为最后一个索引 + 1
+        private int expectedModCount; // fence 设置时初始化
+
+        LongListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // 第一次使用时将 fence 初始化为 size
+            int hi;
+            if ((hi = fence) < 0) {
+                expectedModCount = modCount;
+                hi = fence = size;
+            }
+            return hi;
+        }
+
+        public LongListSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : // 将区间对半分开，除非太小
+                    new LongListSpliterator(lo, index = mid, expectedModCount);
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                action.accept(elementData[i]);
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+            int hi, mc; // 将访问和检查提升到循环外
+            final long[] a = elementData;
+            if ((hi = fence) < 0) {
+                mc = modCount;
+                hi = size;
+            } else
+                mc = expectedModCount;
+            int i = index;
+            if (i >= 0 && (index = hi) <= a.length) {
+                for (; i < hi; ++i)
+                    action.accept(a[i]);
+                if (modCount == mc)
+                    return;
+            }
+            throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return (long) (getFence() - index);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    // 兼容视图
+
+    /**
+     * 返回一个由此列表支持的 {@link List List&lt;Long&gt;} 视图。
+     * <p>
+     * 对视图的修改会写回此列表，反之亦然。视图只在通过它访问元素时装箱，
+     * 供需要泛型集合的旧接口使用；性能敏感的代码应直接使用此类的基本类型方法。
+     *
+     * @return 此列表的装箱视图
+     */
+    public List<Long> boxed() {
+        return new BoxedView();
+    }
+
+    private class BoxedView extends AbstractList<Long> implements RandomAccess {
+        // 迭代器检查 LongList 自身的 modCount，直接修改 LongList 时也能快速失败
+        public Iterator<Long> iterator() {
+            return backedListIterator(0);
+        }
+
+        public java.util.ListIterator<Long> listIterator(int index) {
+            return backedListIterator(index);
+        }
+
+        private BackedListItr<Long> backedListIterator(int index) {
+            return new BackedListItr<>(super.listIterator(index), () -> LongList.this.modCount);
+        }
+
+        public Long get(int index) {
+            return LongList.this.get(index);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Long set(int index, Long element) {
+            return LongList.this.set(index, element);
+        }
+
+        public void add(int index, Long element) {
+            LongList.this.add(index, element);
+            this.modCount++;
+        }
+
+        public Long remove(int index) {
+            Long old = removeAt(index);
+            this.modCount++;
+            return old;
+        }
+
+        public boolean contains(Object o) {
+            return o instanceof Long && LongList.this.contains((Long) o);
+        }
+
+        public int indexOf(Object o) {
+            return o instanceof Long ? LongList.this.indexOf((Long) o) : -1;
+        }
+
+        public int lastIndexOf(Object o) {
+            return o instanceof Long ? LongList.this.lastIndexOf((Long) o) : -1;
+        }
+    }
+
+    // 比较和哈希
+
+    @Override
+    public LongList clone() {
+        try {
+            LongList v = (LongList) super.clone();
+            v.elementData = Arrays.copyOf(elementData, size);
+            v.modCount = 0;
+            return v;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * 当且仅当指定对象也是 <tt>LongList</tt>，且两者按顺序包含相同的元素时返回 <tt>true</tt>。
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LongList))
+            return false;
+        LongList other = (LongList) o;
+        if (other.size != size)
+            return false;
+        for (int i = 0; i < size; i++)
+            if (!(elementData[i] == other.elementData[i]))
+                return false;
+        return true;
+    }
+
+    /**
+     * 返回与等价的 <tt>List&lt;Long&gt;</tt> 相同的哈希码。
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < size; i++)
+            hashCode = 31 * hashCode + Long.hashCode(elementData[i]);
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0)
+            return "[]";
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; ; i++) {
+            sb.append(elementData[i]);
+            if (i == size - 1)
+                return sb.append(']').toString();
+            sb.append(", ");
+        }
+    }
+
+    private void rangeCheck(int index) {
+        if (index >= size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index > size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Set;
+
+/**
+ * 将键映射到值的对象。映射不能包含重复的键；每个键最多只能映射到一个值。
+ *
+ * <p>
+ * <tt>Map</tt> 接口提供三种<i>集合视图</i>，允许以键集、值集合或键-值映射关系集的形式查看映射的内容。
+ * 映射的<i>顺序</i>定义为映射的集合视图上的迭代器返回其元素的顺序。某些映射实现（如 <tt>TreeMap</tt>）
+ * 对其顺序做出了特定的保证，另一些映射实现（如 <tt>HashMap</tt>）则不保证顺序。
+ *
+ * <p>
+ * 注意：将可变对象用作映射键时必须格外小心。当对象是映射中的键时，如果以影响 <tt>equals</tt>
+ * 比较的方式更改了对象的值，则映射的行为就是不确定的。
+ *
+ * <p>
+ * 所有通用的映射实现类都应提供两个“标准”构造器：一个无参数构造器，用于创建空映射；
+ * 以及一个带有单个 <tt>Map</tt> 类型参数的构造器，用于创建一个与其参数具有相同键-值映射关系的新映射。
+ *
+ * <p>
+ * 此接口中包含的“破坏性”方法（即修改其操作的映射的方法），如果此映射不支持该操作，则抛出
+ * <tt>UnsupportedOperationException</tt>。
+ *
+ * <p>
+ * 某些映射实现对可能包含的键和值有所限制。例如，某些实现禁止 null 键和值，另一些则对其键的类型有所限制。
+ * 尝试插入不合格的键或值将抛出一个未经检查的异常，通常是 <tt>NullPointerException</tt> 或
+ * <tt>ClassCastException</tt>。
+ *
+ * <p>
+ * 与 {@link Collection} 一样，此接口扩展了 {@link java.util.Map}，因此此包中的映射可以直接传给
+ * 接受 JDK 映射的代码；此接口重新声明了 <tt>JCF_MAP.puml</tt> 中列出的核心操作。
+ *
+ * @param <K> 此映射所维护的键的类型
+ * @param <V> 映射值的类型
+ *
+ * @author Josh Bloch
+ * @see HashMap
+ * @see AbstractMap
+ * @see Collection
+ * @since 1.2
+ */
+public interface Map<K, V> extends java.util.Map<K, V> {
+    // 查询操作
+
+    /**
+     * 返回此映射中的键-值映射关系数。如果该映射包含的元素多于 <tt>Integer.MAX_VALUE</tt>，
+     * 则返回 <tt>Integer.MAX_VALUE</tt>。
+     *
+     * @return 此映射中的键-值映射关系数
+     */
+    int size();
+
+    /**
+     * 如果此映射未包含键-值映射关系，则返回 <tt>true</tt>。
+     *
+     * @return 如果此映射未包含键-值映射关系，则返回 <tt>true</tt>
+     */
+    boolean isEmpty();
+
+    /**
+     * 如果此映射包含指定键的映射关系，则返回 <tt>true</tt>。更正式地说，当且仅当此映射包含针对满足
+     * <tt>(key==null ? k==null : key.equals(k))</tt> 的键 <tt>k</tt> 的映射关系时，返回 <tt>true</tt>。
+     *
+     * @param key 测试是否存在于此映射中的键
+     * @return 如果此映射包含指定键的映射关系，则返回 <tt>true</tt>
+     * @throws ClassCastException   如果该键对于此映射是不合适的类型（可选）
+     * @throws NullPointerException 如果指定的键为 null 并且此映射不允许 null 键（可选）
+     */
+    boolean containsKey(Object key);
+
+    /**
+     * 如果此映射将一个或多个键映射到指定值，则返回 <tt>true</tt>。更正式地说，当且仅当此映射至少包含一个对满足
+     * <tt>(value==null ? v==null : value.equals(v))</tt> 的值 <tt>v</tt> 的映射关系时，返回
+     * <tt>true</tt>。对于大多数 <tt>Map</tt> 接口的实现而言，此操作需要的时间可能与映射大小呈线性关系。
+     *
+     * @param value 测试是否存在于此映射中的值
+     * @return 如果此映射将一个或多个键映射到指定值，则返回 <tt>true</tt>
+     */
+    boolean containsValue(Object value);
+
+    /**
+     * 返回指定键所映射的值；如果此映射不包含该键的映射关系，则返回 {@code null}。
+     *
+     * <p>
+     * 如果此映射允许 null 值，则返回 {@code null} 并不一定表示该映射不包含该键的映射关系；
+     * 也可能该映射将该键显式地映射到 {@code null}。使用 {@link #containsKey containsKey} 操作可区分这两种情况。
+     *
+     * @param key 要返回其关联值的键
+     * @return 指定键所映射的值；如果此映射不包含该键的映射关系，则返回 {@code null}
+     * @throws ClassCastException   如果该键对于此映射是不合适的类型（可选）
+     * @throws NullPointerException 如果指定的键为 null 并且此映射不允许 null 键（可选）
+     */
+    V get(Object key);
+
+    // 修改操作
+
+    /**
+     * 将指定的值与此映射中的指定键关联（可选操作）。如果此映射以前包含一个该键的映射关系，则用指定值替换旧值。
+     *
+     * @param key   与指定值关联的键
+     * @param value 与指定键关联的值
+     * @return 以前与 <tt>key</tt> 关联的值，如果没有针对 <tt>key</tt> 的映射关系，则返回 <tt>null</tt>
+     * @throws UnsupportedOperationException 如果此映射不支持 <tt>put</tt> 操作
+     * @throws ClassCastException            如果指定键或值的类阻止将其存储在此映射中
+     * @throws NullPointerException          如果指定键或值为 null，并且此映射不允许 null 键或值
+     * @throws IllegalArgumentException      如果指定键或值的某些属性阻止将其存储在此映射中
+     */
+    V put(K key, V value);
+
+    /**
+     * 如果存在一个键的映射关系，则将其从此映射中移除（可选操作）。
+     *
+     * @param key 从映射中移除其映射关系的键
+     * @return 以前与 <tt>key</tt> 关联的值；如果没有 <tt>key</tt> 的映射关系，则返回 <tt>null</tt>
+     * @throws UnsupportedOperationException 如果此映射不支持 <tt>remove</tt> 操作
+     * @throws ClassCastException            如果该键对于此映射是不合适的类型（可选）
+     * @throws NullPointerException          如果指定的键为 null 并且此映射不允许 null 键（可选）
+     */
+    V remove(Object key);
+
+    // 视图
+
+    /**
+     * 返回此映射中包含的映射关系的 {@link Set} 视图。该 set 受映射支持，所以对映射的更改可在此 set 中反映出来，反之亦然。
+     * 如果对该 set 进行迭代的同时修改了映射（通过迭代器自己的 <tt>remove</tt> 操作，或者通过对迭代器返回的映射项执行
+     * <tt>setValue</tt> 操作除外），则迭代结果是不确定的。
+     *
+     * <p>
+     * 实现可以在迭代时复用同一个 <tt>Map.Entry</tt> 对象；除非实现另有说明，调用者不应在下一次调用
+     * <tt>next</tt> 之后继续持有迭代器返回的映射项。
+     *
+     * @return 此映射中包含的映射关系的 set 视图
+     */
+    Set<java.util.Map.Entry<K, V>> entrySet();
+}
@@ -0,0 +1,50 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.function.Consumer;
+
+/**
+ * 有界、无锁的多生产者多消费者数组队列。
+ *
+ * <p>
+ * 任意多个线程可以并发调用 <tt>offer</tt>/<tt>offerBatch</tt> 和 <tt>poll</tt>/<tt>drain</tt>，
+ * 两端都通过 CAS 认领位置。
+ * 违反线程约束时行为是不确定的。
+ *
+ * <p>
+ * 槽位协议、批量操作和伪共享填充见 {@link BoundedArrayQueue}。
+ *
+ * @param <E> 此队列中保存的元素的类型
+ */
+public class MpmcArrayQueue<E> extends BoundedArrayQueue<E> {
+    /**
+     * 创建容量不小于 <tt>capacity</tt> 的队列，实际容量向上取整为 2 的幂。
+     *
+     * @param capacity 最小容量
+     * @throws IllegalArgumentException 如果 <tt>capacity</tt> 小于 2 或大于 2<sup>30</sup>
+     */
+    public MpmcArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * 如果队列未满，则将指定元素插入队尾。
+     *
+     * @return 如果插入成功，则返回 <tt>true</tt>；如果队列已满，则返回 <tt>false</tt>
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean offer(E e) {
+        return offerMulti(e);
+    }
+
+    public E poll() {
+        return pollMulti();
+    }
+
+    public int offerBatch(E[] src, int off, int len) {
+        return offerBatchMulti(src, off, len);
+    }
+
+    public int drain(Consumer<? super E> c, int limit) {
+        return drainMulti(c, limit);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.learning.demo.java.core.collection;
+
+/**
+ * 扩展的 {@link SortedSet}，具有了为给定搜索目标报告最接近匹配项的导航方法。方法 <tt>lower</tt>、<tt>floor</tt>、
+ * <tt>ceiling</tt> 和 <tt>higher</tt> 分别返回小于、小于等于、大于等于、大于给定元素的元素，如果不存在这样的元素，则返回
+ * <tt>null</tt>。可以按升序或降序访问和遍历 <tt>NavigableSet</tt>。<tt>descendingSet</tt>
+ * 方法返回 set 的一个视图，该视图表示的所有关系方法和方向方法都是逆向的。
+ *
+ * <p>
+ * 此接口还定义了 <tt>pollFirst</tt> 和 <tt>pollLast</tt> 方法，它们返回并移除最小和最大的元素（如果存在），否则返回
+ * <tt>null</tt>。<tt>subSet</tt>、<tt>headSet</tt> 和 <tt>tailSet</tt> 方法与名称相似的 <tt>SortedSet</tt>
+ * 方法的不同之处在于：可以接受用于描述是否包括（或不包括）下边界和上边界的附加参数。
+ *
+ * <p>
+ * 与 {@link SortedSet} 一样，此接口同时扩展 JDK 的 {@link java.util.NavigableSet}，所有返回视图的方法都返回此包中的类型。
+ *
+ * @param <E> 此 set 维护的元素的类型
+ *
+ * @author Doug Lea
+ * @author Josh Bloch
+ * @see SortedArraySet
+ * @since 1.6
+ */
+public interface NavigableSet<E> extends SortedSet<E>, java.util.NavigableSet<E> {
+    /**
+     * 返回此 set 中严格小于给定元素的最大元素；如果不存在这样的元素，则返回 <tt>null</tt>。
+     *
+     * @param e 要匹配的值
+     * @return 小于 <tt>e</tt> 的最大元素；如果不存在这样的元素，则返回 <tt>null</tt>
+     * @throws ClassCastException   如果指定元素不能与 set 中的当前元素进行比较
+     * @throws NullPointerException 如果指定元素为 null，并且此 set 不允许 null 元素
+     */
+    E lower(E e);
+
+    /**
+     * 返回此 set 中小于等于给定元素的最大元素；如果不存在这样的元素，则返回 <tt>null</tt>。
+     *
+     * @param e 要匹配的值
+     * @return 小于等于 <tt>e</tt> 的最大元素；如果不存在这样的元素，则返回 <tt>null</tt>
+     * @throws ClassCastException   如果指定元素不能与 set 中的当前元素进行比较
+     * @throws NullPointerException 如果指定元素为 null，并且此 set 不允许 null 元素
+     */
+    E floor(E e);
+
+    /**
+     * 返回此 set 中大于等于给定元素的最小元素；如果不存在这样的元素，则返回 <tt>null</tt>。
+     *
+     * @param e 要匹配的值
+     * @return 大于等于 <tt>e</tt> 的最小元素；如果不存在这样的元素，则返回 <tt>null</tt>
+     * @throws ClassCastException   如果指定元素不能与 set 中的当前元素进行比较
+     * @throws NullPointerException 如果指定元素为 null，并且此 set 不允许 null 元素
+     */
+    E ceiling(E e);
+
+    /**
+     * 返回此 set 中严格大于给定元素的最小元素；如果不存在这样的元素，则返回 <tt>null</tt>。
+     *
+     * @param e 要匹配的值
+     * @return 大于 <tt>e</tt> 的最小元素；如果不存在这样的元素，则返回 <tt>null</tt>
+     * @throws ClassCastException   如果指定元素不能与 set 中的当前元素进行比较
+     * @throws NullPointerException 如果指定元素为 null，并且此 set 不允许 null 元素
+     */
+    E higher(E e);
+
+    /**
+     * 获取并移除第一个（最低）元素；如果此 set 为空，则返回 <tt>null</tt>。
+     *
+     * @return 第一个元素；如果此 set 为空，则返回 <tt>null</tt>
+     */
+    E pollFirst();
+
+    /**
+     * 获取并移除最后一个（最高）元素；如果此 set 为空，则返回 <tt>null</tt>。
+     *
+     * @return 最后一个元素；如果此 set 为空，则返回 <tt>null</tt>
+     */
+    E pollLast();
+
+    /**
+     * 以升序返回在此 set 的元素上进行迭代的迭代器。
+     *
+     * @return 在此 set 的元素上进行迭代的迭代器，按升序进行
+     */
+    Iterator<E> iterator();
+
+    /**
+     * 返回此 set 中所包含元素的逆序视图。降序 set 受此 set 的支持，所以对此 set 的更改将反映在降序 set 中，反之亦然。
+     *
+     * <p>
+     * 返回 set 的顺序等于 <tt>{@link java.util.Collections#reverseOrder(java.util.Comparator) Collections.reverseOrder}(comparator())</tt>。
+     * 表达式 <tt>s.descendingSet().descendingSet()</tt> 返回的 <tt>s</tt> 视图基本等于 <tt>s</tt>。
+     *
+     * @return 此 set 的逆序视图
+     */
+    NavigableSet<E> descendingSet();
+
+    /**
+     * 以降序返回在此 set 的元素上进行迭代的迭代器。效果等同于 <tt>descendingSet().iterator()</tt>。
+     *
+     * @return 以降序在此 set 的元素上进行迭代的迭代器
+     */
+    Iterator<E> descendingIterator();
+
+    /**
+     * 返回此 set 的部分视图，其元素范围从 <tt>fromElement</tt> 到 <tt>toElement</tt>。如果 <tt>fromElement</tt> 和
+     * <tt>toElement</tt> 相等，则返回的 set 为空，除非 <tt>fromInclusive</tt> 和 <tt>toInclusive</tt> 都为 true。
+     *
+     * @param fromElement   返回 set 的低端点
+     * @param fromInclusive 如果低端点要包含在返回的视图中，则为 <tt>true</tt>
+     * @param toElement     返回 set 的高端点
+     * @param toInclusive   如果高端点要包含在返回的视图中，则为 <tt>true</tt>
+     * @return 此 set 的部分视图，其元素范围从 <tt>fromElement</tt>（包括）到 <tt>toElement</tt>（不包括）
+     * @throws ClassCastException       如果不能使用此 set 的比较器或者使用自然顺序（如果 set 没有比较器）比较
+     *                                  <tt>fromElement</tt> 和 <tt>toElement</tt>
+     * @throws NullPointerException     如果 <tt>fromElement</tt> 或 <tt>toElement</tt> 为 null，并且此 set
+     *                                  不允许 null 元素
+     * @throws IllegalArgumentException 如果 <tt>fromElement</tt> 大于 <tt>toElement</tt>；或者如果此 set
+     *                                  本身有范围限制，并且 <tt>fromElement</tt> 或 <tt>toElement</tt> 位于范围的边界之外
+     */
+    NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive);
+
+    /**
+     * 返回此 set 的部分视图，其元素小于（或等于，如果 <tt>inclusive</tt> 为 true）<tt>toElement</tt>。
+     *
+     * @param toElement 返回 set 的高端点
+     * @param inclusive 如果高端点要包含在返回的视图中，则为 <tt>true</tt>
+     * @return 此 set 的部分视图
+     * @throws ClassCastException       如果 <tt>toElement</tt> 与此 set 的比较器不兼容
+     * @throws NullPointerException     如果 <tt>toElement</tt> 为 null，并且此 set 不允许 null 元素
+     * @throws IllegalArgumentException 如果此 set 本身有范围限制，并且 <tt>toElement</tt> 位于范围的边界之外
+     */
+    NavigableSet<E> headSet(E toElement, boolean inclusive);
+
+    /**
+     * 返回此 set 的部分视图，其元素大于（或等于，如果 <tt>inclusive</tt> 为 true）<tt>fromElement</tt>。
+     *
+     * @param fromElement 返回 set 的低端点
+     * @param inclusive   如果低端点要包含在返回的视图中，则为 <tt>true</tt>
+     * @return 此 set 的部分视图
+     * @throws ClassCastException       如果 <tt>fromElement</tt> 与此 set 的比较器不兼容
+     * @throws NullPointerException     如果 <tt>fromElement</tt> 为 null，并且此 set 不允许 null 元素
+     * @throws IllegalArgumentException 如果此 set 本身有范围限制，并且 <tt>fromElement</tt> 位于范围的边界之外
+     */
+    NavigableSet<E> tailSet(E fromElement, boolean inclusive);
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 等效于 <tt>subSet(fromElement, true, toElement, false)</tt>。
+     */
+    SortedSet<E> subSet(E fromElement, E toElement);
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 等效于 <tt>headSet(toElement, false)</tt>。
+     */
+    SortedSet<E> headSet(E toElement);
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 等效于 <tt>tailSet(fromElement, true)</tt>。
+     */
+    SortedSet<E> tailSet(E fromElement);
+}
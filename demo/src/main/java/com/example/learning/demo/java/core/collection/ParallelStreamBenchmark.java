@@ -0,0 +1,70 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+
+/**
+ * 在 1、4、8、16 个线程下，对 1000 万个元素做并行 filter + sum，
+ * 对比基于迭代器的 {@link Spliterators#spliterator(java.util.Collection, int)}
+ * 与 {@link ArrayList#spliterator()} 的索引区间拆分。
+ *
+ * <p>并行度通过在指定大小的 {@link ForkJoinPool} 中提交流水线来控制。
+ * 运行方式：直接执行 {@link #main(String[])}，建议配合 {@code -Xmx2g}。
+ */
+public class ParallelStreamBenchmark {
+    private static final int SIZE = 10_000_000;
+    private static final int[] THREADS = { 1, 4, 8, 16 };
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        ArrayList<Integer> list = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+        }
+
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                long iterator = measure(pool, () -> StreamSupport
+                        .stream(Spliterators.spliterator(list, Spliterator.ORDERED), true)
+                        .filter(v -> (v & 1) == 0)
+                        .mapToLong(Integer::longValue)
+                        .sum());
+                long indexed = measure(pool, () -> list.parallelStream()
+                        .filter(v -> (v & 1) == 0)
+                        .mapToLong(Integer::longValue)
+                        .sum());
+                System.out.printf("threads=%2d  iterator-based: %6d ms  index-range: %6d ms%n",
+                        threads, iterator, indexed);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static long measure(ForkJoinPool pool, Supplier<Long> pipeline)
+            throws ExecutionException, InterruptedException {
+        long expected = (long) (SIZE / 2) * (SIZE / 2 - 1);
+        for (int i = 0; i < WARMUP; i++) {
+            check(pool.submit(pipeline::get).get(), expected);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            check(pool.submit(pipeline::get).get(), expected);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+
+    private static void check(long actual, long expected) {
+        if (actual != expected) {
+            throw new IllegalStateException("expected " + expected + " but was " + actual);
+        }
+    }
+}
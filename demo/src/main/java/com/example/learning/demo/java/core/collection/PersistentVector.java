@@ -0,0 +1,606 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 持久化（不可变）向量：基于 32 路位分区 trie（bit-partitioned trie）并带尾部缓冲区，
+ * 具体参考 Clojure 的 {@code PersistentVector}。
+ *
+ * <p>
+ * 此类实现 {@link List} 的只读部分，所有修改方法（{@code add}、{@code set}、{@code remove} 等）
+ * 都抛出 {@link UnsupportedOperationException}。修改通过返回新版本的方法完成：
+ * <ul>
+ * <li>{@link #append(Object)}：在末尾追加元素；</li>
+ * <li>{@link #update(int, Object)}：替换指定位置的元素；</li>
+ * <li>{@link #pop()}：移除最后一个元素。</li>
+ * </ul>
+ * 新旧版本共享绝大部分结构：每次修改只复制从根到目标叶子路径上的 log<sub>32</sub>(n) 个节点，
+ * 追加和弹出在大多数情况下只动尾部缓冲区，因此实际上是 O(1) 的。
+ *
+ * <p>
+ * 因为每个版本都不可变（所有字段都是 final 的），任意多个读线程可以各自持有某个版本的快照，
+ * 无需加锁也无需复制。
+ *
+ * <p>
+ * 大批量构造时使用 {@link #asTransient()} 得到一个 {@link Transient}：它在同一个编辑令牌下原地修改自己新建的节点，
+ * 构造完成后用 {@link Transient#persistent()} 以 O(1) 的代价转换回持久化版本。
+ *
+ * <pre>
+ *         root (shift = 5)
+ *        /    |    \
+ *     leaf  leaf  leaf ...     tail（最多 32 个元素，不在树中）
+ * </pre>
+ *
+ * @param <E> 此向量中元素的类型
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    /**
+     * 编辑令牌：持久化节点的令牌值为 null；{@link Transient} 的节点共享一个值为当前线程的令牌，
+     * {@link Transient#persistent()} 时把它置为 null，使这些节点重新变为不可变。
+     */
+    private static final AtomicReference<Thread> NOEDIT = new AtomicReference<>(null);
+
+    /**
+     * trie 节点：内部节点保存子节点，叶子节点保存元素，数组长度都是 32。
+     */
+    static final class Node {
+        final AtomicReference<Thread> edit;
+        final Object[] array;
+
+        Node(AtomicReference<Thread> edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        Node(AtomicReference<Thread> edit) {
+            this.edit = edit;
+            this.array = new Object[32];
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(NOEDIT, new Object[32]);
+
+    private static final PersistentVector<Object> EMPTY = new PersistentVector<>(0, 5, EMPTY_NODE, new Object[0]);
+
+    /** 元素个数 */
+    private final int cnt;
+    /** 根节点所在层的位移量，每层 5 位 */
+    private final int shift;
+    private final Node root;
+    /** 尾部缓冲区，长度等于尾部元素个数 */
+    private final Object[] tail;
+
+    private PersistentVector(int cnt, int shift, Node root, Object[] tail) {
+        this.cnt = cnt;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * 返回空向量。
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * 返回包含指定元素的向量。
+     */
+    @SafeVarargs
+    public static <E> PersistentVector<E> of(E... elements) {
+        Transient<E> t = PersistentVector.<E>empty().asTransient();
+        for (E e : elements)
+            t.append(e);
+        return t.persistent();
+    }
+
+    /**
+     * 返回按迭代顺序包含指定元素的向量，通过 {@link Transient} 批量构造。
+     */
+    public static <E> PersistentVector<E> from(java.lang.Iterable<? extends E> elements) {
+        Transient<E> t = PersistentVector.<E>empty().asTransient();
+        for (E e : elements)
+            t.append(e);
+        return t.persistent();
+    }
+
+    // 查询操作
+
+    public int size() {
+        return cnt;
+    }
+
+    /**
+     * 返回指定位置的元素，代价为 O(log<sub>32</sub> n)。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) arrayFor(index)[index & 0x01f];
+    }
+
+    private int tailoff() {
+        if (cnt < 32)
+            return 0;
+        return ((cnt - 1) >>> 5) << 5;
+    }
+
+    /**
+     * 返回包含第 {@code i} 个元素的叶子数组（可能是尾部缓冲区）。
+     */
+    private Object[] arrayFor(int i) {
+        if (i >= 0 && i < cnt) {
+            if (i >= tailoff())
+                return tail;
+            Node node = root;
+            for (int level = shift; level > 0; level -= 5)
+                node = (Node) node.array[(i >>> level) & 0x01f];
+            return node.array;
+        }
+        throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + cnt);
+    }
+
+    // 持久化修改操作
+
+    /**
+     * 返回在末尾追加了 {@code e} 的新版本，此版本不变。
+     *
+     * @param e 要追加的元素
+     * @return 新版本
+     */
+    public PersistentVector<E> append(E e) {
+        // 尾部还有空间？
+        if (cnt - tailoff() < 32) {
+            Object[] newTail = new Object[tail.length + 1];
+            System.arraycopy(tail, 0, newTail, 0, tail.length);
+            newTail[tail.length] = e;
+            return new PersistentVector<>(cnt + 1, shift, root, newTail);
+        }
+        // 尾部已满，把它推入树中
+        Node newroot;
+        Node tailnode = new Node(root.edit, tail);
+        int newshift = shift;
+        // 根节点溢出？
+        if ((cnt >>> 5) > (1 << shift)) {
+            newroot = new Node(root.edit);
+            newroot.array[0] = root;
+            newroot.array[1] = newPath(root.edit, shift, tailnode);
+            newshift += 5;
+        } else {
+            newroot = pushTail(shift, root, tailnode);
+        }
+        return new PersistentVector<>(cnt + 1, newshift, newroot, new Object[] { e });
+    }
+
+    private Node pushTail(int level, Node parent, Node tailnode) {
+        // 如果是叶子的父节点，直接插入叶子；否则递归向下，子节点不存在时新建路径
+        int subidx = ((cnt - 1) >>> level) & 0x01f;
+        Node ret = new Node(parent.edit, parent.array.clone());
+        Node nodeToInsert;
+        if (level == 5) {
+            nodeToInsert = tailnode;
+        } else {
+            Node child = (Node) parent.array[subidx];
+            nodeToInsert = (child != null) ? pushTail(level - 5, child, tailnode)
+                    : newPath(root.edit, level - 5, tailnode);
+        }
+        ret.array[subidx] = nodeToInsert;
+        return ret;
+    }
+
+    private static Node newPath(AtomicReference<Thread> edit, int level, Node node) {
+        if (level == 0)
+            return node;
+        Node ret = new Node(edit);
+        ret.array[0] = newPath(edit, level - 5, node);
+        return ret;
+    }
+
+    /**
+     * 返回把第 {@code index} 个元素替换为 {@code e} 的新版本，此版本不变。
+     * {@code index == size()} 时等价于 {@link #append(Object)}。
+     *
+     * @param index 要替换的元素的索引
+     * @param e     新元素
+     * @return 新版本
+     * @throws IndexOutOfBoundsException 如果索引越界 {@code (index < 0 || index > size())}
+     */
+    public PersistentVector<E> update(int index, E e) {
+        if (index >= 0 && index < cnt) {
+            if (index >= tailoff()) {
+                Object[] newTail = tail.clone();
+                newTail[index & 0x01f] = e;
+                return new PersistentVector<>(cnt, shift, root, newTail);
+            }
+            return new PersistentVector<>(cnt, shift, doAssoc(shift, root, index, e), tail);
+        }
+        if (index == cnt)
+            return append(e);
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + cnt);
+    }
+
+    private static Node doAssoc(int level, Node node, int i, Object val) {
+        Node ret = new Node(node.edit, node.array.clone());
+        if (level == 0) {
+            ret.array[i & 0x01f] = val;
+        } else {
+            int subidx = (i >>> level) & 0x01f;
+            ret.array[subidx] = doAssoc(level - 5, (Node) node.array[subidx], i, val);
+        }
+        return ret;
+    }
+
+    /**
+     * 返回移除了最后一个元素的新版本，此版本不变。
+     *
+     * @return 新版本
+     * @throws IllegalStateException 如果向量为空
+     */
+    public PersistentVector<E> pop() {
+        if (cnt == 0)
+            throw new IllegalStateException("Can't pop empty vector");
+        if (cnt == 1)
+            return empty();
+        if (cnt - tailoff() > 1) {
+            Object[] newTail = new Object[tail.length - 1];
+            System.arraycopy(tail, 0, newTail, 0, newTail.length);
+            return new PersistentVector<>(cnt - 1, shift, root, newTail);
+        }
+        // 尾部只剩一个元素：把树中最后一个叶子提升为新的尾部
+        Object[] newtail = arrayFor(cnt - 2);
+
+        Node newroot = popTail(shift, root);
+        int newshift = shift;
+        if (newroot == null) {
+            newroot = EMPTY_NODE;
+        }
+        if (shift > 5 && newroot.array[1] == null) {
+            newroot = (Node) newroot.array[0];
+            newshift -= 5;
+        }
+        return new PersistentVector<>(cnt - 1, newshift, newroot, newtail);
+    }
+
+    private Node popTail(int level, Node node) {
+        int subidx = ((cnt - 2) >>> level) & 0x01f;
+        if (level > 5) {
+            Node newchild = popTail(level - 5, (Node) node.array[subidx]);
+            if (newchild == null && subidx == 0) {
+                return null;
+            } else {
+                Node ret = new Node(root.edit, node.array.clone());
+                ret.array[subidx] = newchild;
+                return ret;
+            }
+        } else if (subidx == 0) {
+            return null;
+        } else {
+            Node ret = new Node(root.edit, node.array.clone());
+            ret.array[subidx] = null;
+            return ret;
+        }
+    }
+
+    /**
+     * 返回以此版本为起点的可变构造器。此版本本身不受影响。
+     */
+    public Transient<E> asTransient() {
+        return new Transient<>(this);
+    }
+
+    // 遍历
+
+    /**
+     * 返回逐个叶子数组前进的迭代器，每 32 个元素才需要一次从根到叶子的查找。
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * 逐个叶子数组遍历，对每个元素执行给定操作。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        for (int base = 0; base < cnt; base += 32) {
+            Object[] array = arrayFor(base);
+            for (int i = 0, n = Math.min(32, cnt - base); i < n; i++)
+                action.accept((E) array[i]);
+        }
+    }
+
+    private final class Itr implements Iterator<E> {
+        private int i;
+        private int base;
+        private Object[] array;
+
+        Itr() {
+            array = cnt > 0 ? arrayFor(0) : null;
+        }
+
+        public boolean hasNext() {
+            return i < cnt;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (i >= cnt)
+                throw new NoSuchElementException();
+            if (i - base == 32) {
+                array = arrayFor(i);
+                base = i;
+            }
+            return (E) array[i++ - base];
+        }
+
+        /**
+         * 直接把叶子数组中的连续元素复制到 {@code dst}。
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            int n = 0;
+            while (n < max && i < cnt) {
+                if (i - base == 32) {
+                    array = arrayFor(i);
+                    base = i;
+                }
+                int k = Math.min(max - n, Math.min(32 - (i - base), cnt - i));
+                System.arraycopy(array, i - base, dst, off + n, k);
+                i += k;
+                n += k;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * {@link PersistentVector} 的可变（transient）版本，用于批量构造或批量修改。
+     *
+     * <p>
+     * 由它新建或复制的节点都带有同一个编辑令牌，之后再次修改这些节点时直接原地写入，
+     * 不再逐层复制路径；从原持久化版本共享来的节点在第一次修改时才复制一次。
+     * 调用 {@link #persistent()} 之后令牌失效，此对象不能再使用。
+     *
+     * <p>
+     * <strong>此类不是线程安全的。</strong>
+     *
+     * @param <E> 元素类型
+     */
+    public static final class Transient<E> {
+        private int cnt;
+        private int shift;
+        private Node root;
+        private Object[] tail;
+
+        Transient(PersistentVector<E> v) {
+            this.cnt = v.cnt;
+            this.shift = v.shift;
+            this.root = new Node(new AtomicReference<>(Thread.currentThread()), v.root.array.clone());
+            Object[] t = new Object[32];
+            System.arraycopy(v.tail, 0, t, 0, v.tail.length);
+            this.tail = t;
+        }
+
+        public int size() {
+            ensureEditable();
+            return cnt;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            ensureEditable();
+            return (E) arrayFor(index)[index & 0x01f];
+        }
+
+        /**
+         * 以 O(1) 的代价返回持久化版本，此后此对象不能再使用。
+         *
+         * @return 持久化版本
+         */
+        public PersistentVector<E> persistent() {
+            ensureEditable();
+            root.edit.set(null);
+            Object[] trimmedTail = new Object[cnt - tailoff()];
+            System.arraycopy(tail, 0, trimmedTail, 0, trimmedTail.length);
+            return new PersistentVector<>(cnt, shift, root, trimmedTail);
+        }
+
+        /**
+         * 在末尾追加元素。
+         *
+         * @return 此对象
+         */
+        public Transient<E> append(E e) {
+            ensureEditable();
+            int i = cnt;
+            // 尾部还有空间？
+            if (i - tailoff() < 32) {
+                tail[i & 0x01f] = e;
+                ++cnt;
+                return this;
+            }
+            // 尾部已满，把它推入树中
+            Node newroot;
+            Node tailnode = new Node(root.edit, tail);
+            tail = new Object[32];
+            tail[0] = e;
+            int newshift = shift;
+            if ((cnt >>> 5) > (1 << shift)) {
+                newroot = new Node(root.edit);
+                newroot.array[0] = root;
+                newroot.array[1] = newPath(root.edit, shift, tailnode);
+                newshift += 5;
+            } else {
+                newroot = pushTail(shift, root, tailnode);
+            }
+            root = newroot;
+            shift = newshift;
+            ++cnt;
+            return this;
+        }
+
+        /**
+         * 替换指定位置的元素；{@code index == size()} 时等价于 {@link #append(Object)}。
+         *
+         * @return 此对象
+         * @throws IndexOutOfBoundsException 如果索引越界
+         */
+        public Transient<E> set(int index, E e) {
+            ensureEditable();
+            if (index >= 0 && index < cnt) {
+                if (index >= tailoff()) {
+                    tail[index & 0x01f] = e;
+                    return this;
+                }
+                root = doAssoc(shift, root, index, e);
+                return this;
+            }
+            if (index == cnt)
+                return append(e);
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + cnt);
+        }
+
+        /**
+         * 移除最后一个元素。
+         *
+         * @return 此对象
+         * @throws IllegalStateException 如果为空
+         */
+        public Transient<E> pop() {
+            ensureEditable();
+            if (cnt == 0)
+                throw new IllegalStateException("Can't pop empty vector");
+            if (cnt == 1) {
+                cnt = 0;
+                return this;
+            }
+            int i = cnt - 1;
+            // 尾部还有其他元素
+            if ((i & 0x01f) > 0) {
+                --cnt;
+                tail[i & 0x01f] = null;
+                return this;
+            }
+
+            Object[] newtail = editableArrayFor(cnt - 2);
+
+            Node newroot = popTail(shift, root);
+            int newshift = shift;
+            if (newroot == null) {
+                newroot = new Node(root.edit);
+            }
+            if (shift > 5 && newroot.array[1] == null) {
+                newroot = ensureEditable((Node) newroot.array[0]);
+                newshift -= 5;
+            }
+            root = newroot;
+            shift = newshift;
+            --cnt;
+            tail = newtail;
+            return this;
+        }
+
+        private void ensureEditable() {
+            if (root.edit.get() == null)
+                throw new IllegalStateException("Transient used after persistent() call");
+        }
+
+        /**
+         * 如果节点属于此构造器，直接返回；否则复制一份带有此构造器令牌的节点。
+         */
+        private Node ensureEditable(Node node) {
+            if (node.edit == root.edit)
+                return node;
+            return new Node(root.edit, node.array.clone());
+        }
+
+        private int tailoff() {
+            if (cnt < 32)
+                return 0;
+            return ((cnt - 1) >>> 5) << 5;
+        }
+
+        private Object[] arrayFor(int i) {
+            if (i >= 0 && i < cnt) {
+                if (i >= tailoff())
+                    return tail;
+                Node node = root;
+                for (int level = shift; level > 0; level -= 5)
+                    node = (Node) node.array[(i >>> level) & 0x01f];
+                return node.array;
+            }
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + cnt);
+        }
+
+        /**
+         * 返回第 {@code i} 个元素所在叶子数组的可写副本（该叶子即将成为新的尾部，不需要挂回树中）。
+         */
+        private Object[] editableArrayFor(int i) {
+            if (i >= 0 && i < cnt) {
+                if (i >= tailoff())
+                    return tail;
+                Node node = root;
+                for (int level = shift; level > 0; level -= 5)
+                    node = ensureEditable((Node) node.array[(i >>> level) & 0x01f]);
+                return node.array;
+            }
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + cnt);
+        }
+
+        private Node pushTail(int level, Node parent, Node tailnode) {
+            parent = ensureEditable(parent);
+            int subidx = ((cnt - 1) >>> level) & 0x01f;
+            Node ret = parent;
+            Node nodeToInsert;
+            if (level == 5) {
+                nodeToInsert = tailnode;
+            } else {
+                Node child = (Node) parent.array[subidx];
+                nodeToInsert = (child != null) ? pushTail(level - 5, child, tailnode)
+                        : newPath(root.edit, level - 5, tailnode);
+            }
+            ret.array[subidx] = nodeToInsert;
+            return ret;
+        }
+
+        private Node doAssoc(int level, Node node, int i, Object val) {
+            node = ensureEditable(node);
+            Node ret = node;
+            if (level == 0) {
+                ret.array[i & 0x01f] = val;
+            } else {
+                int subidx = (i >>> level) & 0x01f;
+                ret.array[subidx] = doAssoc(level - 5, (Node) node.array[subidx], i, val);
+            }
+            return ret;
+        }
+
+        private Node popTail(int level, Node node) {
+            node = ensureEditable(node);
+            int subidx = ((cnt - 2) >>> level) & 0x01f;
+            if (level > 5) {
+                Node newchild = popTail(level - 5, (Node) node.array[subidx]);
+                if (newchild == null && subidx == 0) {
+                    return null;
+                } else {
+                    node.array[subidx] = newchild;
+                    return node;
+                }
+            } else if (subidx == 0) {
+                return null;
+            } else {
+                node.array[subidx] = null;
+                return node;
+            }
+        }
+    }
+}
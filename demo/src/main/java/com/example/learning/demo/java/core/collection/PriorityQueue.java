@@ -0,0 +1,561 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedSet;
+
+/**
+ * 一个基于优先级堆的无界优先级 {@linkplain Queue 队列}。优先级队列的元素按照其{@linkplain Comparable 自然顺序}进行排序，
+ * 或者根据构造队列时提供的 {@link Comparator} 进行排序，具体取决于所使用的构造器。优先级队列不允许使用 <tt>null</tt> 元素。
+ *
+ * <p>
+ * 此队列的<em>头</em>是按指定排序方式确定的<em>最小</em>元素。如果多个元素都是最小值，则头是其中一个元素——选择方法是任意的。
+ *
+ * <p>
+ * 与 {@link java.util.PriorityQueue} 的二叉堆不同，此类使用 <b>4 叉堆</b>：节点 <tt>i</tt> 的子节点是
+ * <tt>4i+1</tt> 到 <tt>4i+4</tt>，父节点是 <tt>(i-1)/4</tt>。树高约为二叉堆的一半，<tt>offer</tt> 的上移次数随之减半；
+ * <tt>poll</tt> 的下移每层要比较 4 个子节点，但它们在数组中相邻，通常位于同一缓存行。堆直接存放在 <tt>Object[]</tt> 中，
+ * 不为元素分配节点。
+ *
+ * <p>
+ * 方法 {@link #iterator()} 中提供的迭代器<em>不</em>保证以任何特定的顺序遍历优先级队列中的元素。如果需要按顺序批量取出，
+ * 请使用 {@link #drainTo(java.util.Collection, int) drainTo}。
+ *
+ * <p>
+ * <strong>注意，此实现不是同步的。</strong>
+ *
+ * <p>
+ * 实现注意事项：此实现为入队和出队方法（<tt>offer</tt>、<tt>poll</tt>、<tt>remove()</tt> 和 <tt>add</tt>）提供
+ * O(log(n)) 时间；为 <tt>remove(Object)</tt> 和 <tt>contains(Object)</tt> 方法提供线性时间；为获取方法（<tt>peek</tt>、
+ * <tt>element</tt> 和 <tt>size</tt>）提供固定时间。
+ *
+ * @param <E> 此集合中保存的元素的类型
+ *
+ * @author Josh Bloch
+ * @author Doug Lea
+ * @see Queue
+ * @since 1.5
+ */
+public class PriorityQueue<E> extends AbstractQueue<E> {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * 每个节点子节点个数的对数：4 叉堆。
+     */
+    private static final int ARITY_SHIFT = 2;
+
+    /**
+     * 要分配的数组的最大大小。一些虚拟机在数组中保留一些头字。
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 以 4 叉堆表示的优先级队列：<tt>queue[i]</tt> 的子节点为 <tt>queue[4i+1]</tt> 到 <tt>queue[4i+4]</tt>。
+     * 优先级队列按比较器排序，如果比较器为 null，则按元素的自然顺序排序：对于堆中的每个节点 n 和 n 的每个后代 d，
+     * n &lt;= d。如果队列非空，则具有最小值的元素位于 <tt>queue[0]</tt> 中。
+     */
+    transient Object[] queue;
+
+    /**
+     * 优先级队列中的元素个数。
+     */
+    private int size = 0;
+
+    /**
+     * 比较器，如果优先级队列使用元素的自然顺序，则为 null。
+     */
+    private final Comparator<? super E> comparator;
+
+    /**
+     * 此优先级队列被<i>结构修改</i>的次数。
+     */
+    transient int modCount = 0;
+
+    /**
+     * 使用默认的初始容量 (16) 创建一个 <tt>PriorityQueue</tt>，并根据其{@linkplain Comparable 自然顺序}对元素进行排序。
+     */
+    public PriorityQueue() {
+        this(DEFAULT_INITIAL_CAPACITY, null);
+    }
+
+    /**
+     * 使用指定的初始容量创建一个 <tt>PriorityQueue</tt>，并根据其{@linkplain Comparable 自然顺序}对元素进行排序。
+     *
+     * @param initialCapacity 此优先级队列的初始容量
+     * @throws IllegalArgumentException 如果 <tt>initialCapacity</tt> 小于 1
+     */
+    public PriorityQueue(int initialCapacity) {
+        this(initialCapacity, null);
+    }
+
+    /**
+     * 使用默认的初始容量创建一个 <tt>PriorityQueue</tt>，并根据指定的比较器对元素进行排序。
+     *
+     * @param comparator 用于对此优先级队列进行排序的比较器。如果该参数为 <tt>null</tt>，则将使用元素的{@linkplain Comparable
+     *                   自然顺序}
+     */
+    public PriorityQueue(Comparator<? super E> comparator) {
+        this(DEFAULT_INITIAL_CAPACITY, comparator);
+    }
+
+    /**
+     * 使用指定的初始容量创建一个 <tt>PriorityQueue</tt>，并根据指定的比较器对元素进行排序。
+     *
+     * @param initialCapacity 此优先级队列的初始容量
+     * @param comparator      用于对此优先级队列进行排序的比较器。如果该参数为 <tt>null</tt>，则将使用元素的{@linkplain Comparable
+     *                        自然顺序}
+     * @throws IllegalArgumentException 如果 <tt>initialCapacity</tt> 小于 1
+     */
+    public PriorityQueue(int initialCapacity, Comparator<? super E> comparator) {
+        if (initialCapacity < 1)
+            throw new IllegalArgumentException();
+        this.queue = new Object[initialCapacity];
+        this.comparator = comparator;
+    }
+
+    /**
+     * 创建包含指定 collection 中元素的 <tt>PriorityQueue</tt>。如果指定的 collection 是 {@link SortedSet} 的实例或者是另一个
+     * <tt>PriorityQueue</tt>，那么此优先级队列将根据相同顺序进行排序；否则，此优先级队列将根据元素的{@linkplain Comparable 自然顺序}进行排序。
+     * 建堆使用自底向上的下移，代价为 O(n)。
+     *
+     * @param c 其元素要置于此优先级队列中的 collection
+     * @throws ClassCastException   如果根据优先级队列的顺序，无法比较指定 collection 中的元素
+     * @throws NullPointerException 如果指定 collection 或其任何元素为 null
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityQueue(java.util.Collection<? extends E> c) {
+        if (c instanceof SortedSet<?>)
+            this.comparator = (Comparator<? super E>) ((SortedSet<?>) c).comparator();
+        else if (c instanceof PriorityQueue<?>)
+            this.comparator = (Comparator<? super E>) ((PriorityQueue<?>) c).comparator();
+        else
+            this.comparator = null;
+        Object[] es = c.toArray();
+        if (es.getClass() != Object[].class)
+            es = Arrays.copyOf(es, es.length, Object[].class);
+        for (Object e : es)
+            if (e == null)
+                throw new NullPointerException();
+        this.queue = es.length > 0 ? es : new Object[1];
+        this.size = es.length;
+        heapify();
+    }
+
+    /**
+     * 增加数组的容量。
+     *
+     * @param minCapacity 所需的最小容量
+     */
+    private void grow(int minCapacity) {
+        int oldCapacity = queue.length;
+        // 如果很小则加倍，否则增长 50%
+        int newCapacity = oldCapacity + ((oldCapacity < 64) ? (oldCapacity + 2) : (oldCapacity >> 1));
+        if (newCapacity - MAX_ARRAY_SIZE > 0)
+            newCapacity = hugeCapacity(minCapacity);
+        queue = Arrays.copyOf(queue, newCapacity);
+    }
+
+    private static int hugeCapacity(int minCapacity) {
+        if (minCapacity < 0) // 溢出
+            throw new OutOfMemoryError();
+        return (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+    }
+
+    /**
+     * 将指定的元素插入此优先级队列。
+     *
+     * @return <tt>true</tt>（根据 {@link Queue#offer} 的规定）
+     * @throws ClassCastException   如果根据优先级队列的顺序，无法将指定元素与优先级队列中当前的元素进行比较
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        modCount++;
+        int i = size;
+        if (i >= queue.length)
+            grow(i + 1);
+        size = i + 1;
+        if (i == 0)
+            queue[0] = e;
+        else
+            siftUp(i, e);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return (size == 0) ? null : (E) queue[0];
+    }
+
+    private int indexOf(Object o) {
+        if (o != null) {
+            for (int i = 0; i < size; i++)
+                if (o.equals(queue[i]))
+                    return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 从此队列中移除指定元素的单个实例（如果存在）。
+     *
+     * @param o 要从此队列中移除的元素（如果存在）
+     * @return 如果此队列由于调用而发生更改，则返回 <tt>true</tt>
+     */
+    public boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i == -1)
+            return false;
+        else {
+            removeAt(i);
+            return true;
+        }
+    }
+
+    /**
+     * 使用引用相等性的 remove 版本，供迭代器的 remove 使用。
+     */
+    boolean removeEq(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (o == queue[i]) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 如果此队列包含指定的元素，则返回 <tt>true</tt>。
+     *
+     * @param o 要检查是否包含于此队列的对象
+     * @return 如果此队列包含指定元素，则返回 <tt>true</tt>
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * 返回一个包含此队列所有元素的数组。数组元素没有特定的顺序。
+     *
+     * @return 包含此队列所有元素的数组
+     */
+    public Object[] toArray() {
+        return Arrays.copyOf(queue, size);
+    }
+
+    /**
+     * 返回一个包含此队列所有元素的数组；返回数组的运行时类型是指定数组的类型。返回数组的元素没有特定的顺序。
+     *
+     * @param a 存储此队列元素的数组（如果该数组足够大）；否则，将为此分配一个具有相同运行时类型的新数组
+     * @return 包含此队列所有元素的数组
+     * @throws ArrayStoreException  如果指定数组的运行时类型不是此队列每个元素的运行时类型的超类型
+     * @throws NullPointerException 如果指定数组为 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        final int size = this.size;
+        if (a.length < size)
+            // 新建一个运行时类型为 a 的数组，但内容为本队列的内容
+            return (T[]) Arrays.copyOf(queue, size, a.getClass());
+        System.arraycopy(queue, 0, a, 0, size);
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+    /**
+     * 返回在此队列中的元素上进行迭代的迭代器。迭代器并不以任何特定的顺序返回元素。
+     *
+     * @return 在此队列的元素上进行迭代的迭代器
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+        /**
+         * 后续调用 next 返回的元素的（数组）索引。
+         */
+        private int cursor = 0;
+
+        /**
+         * 最近一次调用 next 返回的元素的索引，除非该元素来自 forgetMeNot。如果元素已通过调用 remove 删除，则设置为 -1。
+         */
+        private int lastRet = -1;
+
+        /**
+         * 迭代器的 remove 导致“未访问”元素被上移到已访问区域时，把它们保存在这个队列中，在正常迭代结束后再返回。
+         * 对 d 叉堆也成立：只有上移的元素会越过游标。
+         */
+        private ArrayDeque<E> forgetMeNot = null;
+
+        /**
+         * 最近一次调用 next 返回的元素（如果该元素来自 forgetMeNot）。
+         */
+        private E lastRetElt = null;
+
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor < size || (forgetMeNot != null && !forgetMeNot.isEmpty());
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (cursor < size)
+                return (E) queue[lastRet = cursor++];
+            if (forgetMeNot != null) {
+                lastRet = -1;
+                lastRetElt = forgetMeNot.poll();
+                if (lastRetElt != null)
+                    return lastRetElt;
+            }
+            throw new NoSuchElementException();
+        }
+
+        public void remove() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (lastRet != -1) {
+                E moved = PriorityQueue.this.removeAt(lastRet);
+                lastRet = -1;
+                if (moved == null)
+                    cursor--;
+                else {
+                    if (forgetMeNot == null)
+                        forgetMeNot = new ArrayDeque<>();
+                    forgetMeNot.add(moved);
+                }
+            } else if (lastRetElt != null) {
+                PriorityQueue.this.removeEq(lastRetElt);
+                lastRetElt = null;
+            } else {
+                throw new IllegalStateException();
+            }
+            expectedModCount = modCount;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 从此优先级队列中移除所有元素。此调用返回后队列将为空。
+     */
+    public void clear() {
+        modCount++;
+        Arrays.fill(queue, 0, size, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (size == 0)
+            return null;
+        int s = --size;
+        modCount++;
+        E result = (E) queue[0];
+        E x = (E) queue[s];
+        queue[s] = null;
+        if (s != 0)
+            siftDown(0, x);
+        return result;
+    }
+
+    /**
+     * 按优先级顺序移除最多 <tt>maxElements</tt> 个元素，并添加到给定集合中。
+     *
+     * <p>
+     * 当批次覆盖整个队列时，直接对底层数组做一次排序（有序数组本身就是合法的堆），然后顺序交付并整段清空，
+     * 省去 n 次逐个 <tt>poll</tt> 的下移；否则逐个 <tt>poll</tt>。如果向 <tt>c</tt> 添加元素时抛出异常，
+     * 尚未交付的元素（仍然有序）保留在此队列中。
+     *
+     * @throws NullPointerException     如果指定的集合为 null
+     * @throws IllegalArgumentException 如果指定的集合就是此队列
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(java.util.Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        final int n = size;
+        if (maxElements <= 0 || n == 0)
+            return 0;
+        if (maxElements < n) {
+            for (int i = 0; i < maxElements; i++)
+                c.add(poll());
+            return maxElements;
+        }
+        final Object[] es = queue;
+        Arrays.sort(es, 0, n, (Comparator<Object>) comparator);
+        modCount++;
+        int i = 0;
+        try {
+            for (; i < n; i++)
+                c.add((E) es[i]);
+        } finally {
+            int rest = n - i;
+            System.arraycopy(es, i, es, 0, rest);
+            Arrays.fill(es, rest, n, null);
+            size = rest;
+        }
+        return n;
+    }
+
+    /**
+     * 移除队列中第 i 个元素。
+     *
+     * <p>
+     * 通常此方法最多只会移动 i-1 之前的元素（包括 i-1），不会影响这部分元素。在这些情况下，它将返回 null。
+     * 但偶尔为了维持堆的不变式，它必须将列表中较后的元素与早于 i 的元素交换。在这种情况下，此方法将返回之前位于列表末尾、
+     * 现在位于 i 之前某个位置的元素。迭代器的 remove 使用了这一事实，以避免丢失遍历的元素。
+     */
+    @SuppressWarnings("unchecked")
+    E removeAt(int i) {
+        modCount++;
+        int s = --size;
+        if (s == i) // 移除的是最后一个元素
+            queue[i] = null;
+        else {
+            E moved = (E) queue[s];
+            queue[s] = null;
+            siftDown(i, moved);
+            if (queue[i] == moved) {
+                siftUp(i, moved);
+                if (queue[i] != moved)
+                    return moved;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在位置 k 插入项 x，通过反复将 x 与它的父节点交换（直到 x 大于等于它的父节点或者到达根），保持堆的不变式。
+     *
+     * <p>
+     * 为简化和加速强制转换和比较操作，Comparable 和 Comparator 版本被分离为不同的方法，它们在其他方面是完全相同的。
+     *
+     * @param k 要填充的位置
+     * @param x 要插入的项
+     */
+    private void siftUp(int k, E x) {
+        if (comparator != null)
+            siftUpUsingComparator(k, x);
+        else
+            siftUpComparable(k, x);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUpComparable(int k, E x) {
+        Comparable<? super E> key = (Comparable<? super E>) x;
+        final Object[] es = queue;
+        while (k > 0) {
+            int parent = (k - 1) >>> ARITY_SHIFT;
+            Object e = es[parent];
+            if (key.compareTo((E) e) >= 0)
+                break;
+            es[k] = e;
+            k = parent;
+        }
+        es[k] = key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUpUsingComparator(int k, E x) {
+        final Object[] es = queue;
+        final Comparator<? super E> cmp = comparator;
+        while (k > 0) {
+            int parent = (k - 1) >>> ARITY_SHIFT;
+            Object e = es[parent];
+            if (cmp.compare(x, (E) e) >= 0)
+                break;
+            es[k] = e;
+            k = parent;
+        }
+        es[k] = x;
+    }
+
+    /**
+     * 在位置 k 插入项 x，通过反复将 x 与它的最小子节点交换（直到 x 小于等于所有子节点或者成为叶子），保持堆的不变式。
+     *
+     * @param k 要填充的位置
+     * @param x 要插入的项
+     */
+    private void siftDown(int k, E x) {
+        if (comparator != null)
+            siftDownUsingComparator(k, x);
+        else
+            siftDownComparable(k, x);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDownComparable(int k, E x) {
+        Comparable<? super E> key = (Comparable<? super E>) x;
+        final Object[] es = queue;
+        final int n = size;
+        // 最后一个非叶子节点的索引；n < 2 时为负数
+        final int lastParent = (n - 2) >> ARITY_SHIFT;
+        while (k <= lastParent) {
+            int child = (k << ARITY_SHIFT) + 1;
+            Object c = es[child];
+            int end = Math.min(child + (1 << ARITY_SHIFT), n);
+            for (int j = child + 1; j < end; j++) {
+                if (((Comparable<? super E>) c).compareTo((E) es[j]) > 0)
+                    c = es[child = j];
+            }
+            if (key.compareTo((E) c) <= 0)
+                break;
+            es[k] = c;
+            k = child;
+        }
+        es[k] = key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDownUsingComparator(int k, E x) {
+        final Object[] es = queue;
+        final Comparator<? super E> cmp = comparator;
+        final int n = size;
+        final int lastParent = (n - 2) >> ARITY_SHIFT;
+        while (k <= lastParent) {
+            int child = (k << ARITY_SHIFT) + 1;
+            Object c = es[child];
+            int end = Math.min(child + (1 << ARITY_SHIFT), n);
+            for (int j = child + 1; j < end; j++) {
+                if (cmp.compare((E) c, (E) es[j]) > 0)
+                    c = es[child = j];
+            }
+            if (cmp.compare(x, (E) c) <= 0)
+                break;
+            es[k] = c;
+            k = child;
+        }
+        es[k] = x;
+    }
+
+    /**
+     * 在整个树中建立堆的不变式（如上所述），不对调用之前元素的顺序做任何假设。
+     */
+    @SuppressWarnings("unchecked")
+    private void heapify() {
+        for (int i = (size - 2) >> ARITY_SHIFT; i >= 0; i--)
+            siftDown(i, (E) queue[i]);
+    }
+
+    /**
+     * 返回用来对此队列中的元素进行排序的比较器；如果此队列根据其元素的{@linkplain Comparable 自然顺序}进行排序，则返回 <tt>null</tt>。
+     *
+     * @return 用于对此队列进行排序的比较器；如果此队列根据其元素的自然顺序进行排序，则返回 <tt>null</tt>
+     */
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * 在处理元素前用于保存元素的集合。除了基本的 {@link Collection} 操作外，队列还提供其他的插入、提取和检查操作。
+ * 每个方法都存在两种形式：一种在操作失败时抛出异常，另一种返回一个特殊值（<tt>null</tt> 或 <tt>false</tt>，具体取决于操作）。
+ *
+ * <table BORDER CELLPADDING=3 CELLSPACING=1>
+ * <caption>队列方法摘要</caption>
+ * <tr>
+ * <td></td>
+ * <td ALIGN=CENTER><em>抛出异常</em></td>
+ * <td ALIGN=CENTER><em>返回特殊值</em></td>
+ * </tr>
+ * <tr>
+ * <td><b>插入</b></td>
+ * <td>{@link Queue#add add(e)}</td>
+ * <td>{@link Queue#offer offer(e)}</td>
+ * </tr>
+ * <tr>
+ * <td><b>移除</b></td>
+ * <td>{@link Queue#remove remove()}</td>
+ * <td>{@link Queue#poll poll()}</td>
+ * </tr>
+ * <tr>
+ * <td><b>检查</b></td>
+ * <td>{@link Queue#element element()}</td>
+ * <td>{@link Queue#peek peek()}</td>
+ * </tr>
+ * </table>
+ *
+ * <p>
+ * 队列通常（但并非一定）以 FIFO（先进先出）的方式排序各个元素。不过优先级队列是例外，它们根据提供的比较器或元素的自然顺序对元素进行排序。
+ * 无论使用哪种排序方式，队列的<i>头</i>都是调用 {@link #remove()} 或 {@link #poll()} 所移除的元素。
+ *
+ * <p>
+ * 如果可能，{@link #offer offer} 方法可插入一个元素，否则返回 <tt>false</tt>。这与 {@link java.util.Collection#add
+ * Collection.add} 方法不同，该方法只能通过抛出未经检查的异常使添加元素失败。<tt>offer</tt>
+ * 方法设计用于正常的失败情况，而不是出现异常的情况，例如在容量固定（有界）的队列中。
+ *
+ * <p>
+ * 与 {@link java.util.concurrent.BlockingQueue} 一样，此接口提供 {@link #drainTo(java.util.Collection, int)
+ * drainTo}，让消费者一次取走一批元素；实现可以按批次移动底层存储，而不是逐个 <tt>poll</tt>。
+ *
+ * <p>
+ * <tt>Queue</tt> 实现通常不允许插入 <tt>null</tt> 元素，因为 <tt>poll</tt> 方法使用 <tt>null</tt>
+ * 作为特殊的返回值，用来表示队列不包含元素。
+ *
+ * @param <E> 此集合中保存的元素的类型
+ *
+ * @author Doug Lea
+ * @see Collection
+ * @see AbstractQueue
+ * @see Deque
+ * @see ArrayDeque
+ * @see PriorityQueue
+ * @since 1.5
+ */
+public interface Queue<E> extends Collection<E> {
+    /**
+     * 将指定的元素插入此队列（如果立即可行且不会违反容量限制），在成功时返回 <tt>true</tt>，如果当前没有可用的空间，则抛出
+     * <tt>IllegalStateException</tt>。
+     *
+     * @param e 要添加的元素
+     * @return <tt>true</tt>（根据 {@link java.util.Collection#add} 的规定）
+     * @throws IllegalStateException    如果由于容量的限制此时不能添加该元素
+     * @throws ClassCastException       如果指定元素的类不允许将其添加到此队列
+     * @throws NullPointerException     如果指定的元素为 null 并且此队列不允许 null 元素
+     * @throws IllegalArgumentException 如果此元素的某些属性不允许将其添加到此队列
+     */
+    boolean add(E e);
+
+    /**
+     * 将指定的元素插入此队列（如果立即可行且不会违反容量限制）。当使用有容量限制的队列时，此方法通常要优于
+     * {@link #add}，后者可能无法插入元素，而只是抛出一个异常。
+     *
+     * @param e 要添加的元素
+     * @return 如果该元素已添加到此队列，则返回 <tt>true</tt>；否则返回 <tt>false</tt>
+     * @throws ClassCastException       如果指定元素的类不允许将其添加到此队列
+     * @throws NullPointerException     如果指定的元素为 null 并且此队列不允许 null 元素
+     * @throws IllegalArgumentException 如果此元素的某些属性不允许将其添加到此队列
+     */
+    boolean offer(E e);
+
+    /**
+     * 获取并移除此队列的头。此方法与 {@link #poll poll} 唯一的不同在于：此队列为空时将抛出一个异常。
+     *
+     * @return 队列的头
+     * @throws NoSuchElementException 如果此队列为空
+     */
+    E remove();
+
+    /**
+     * 获取并移除此队列的头，如果此队列为空，则返回 <tt>null</tt>。
+     *
+     * @return 队列的头，如果此队列为空，则返回 <tt>null</tt>
+     */
+    E poll();
+
+    /**
+     * 获取，但是不移除此队列的头。此方法与 {@link #peek peek} 唯一的不同在于：此队列为空时将抛出一个异常。
+     *
+     * @return 队列的头
+     * @throws NoSuchElementException 如果此队列为空
+     */
+    E element();
+
+    /**
+     * 获取但不移除此队列的头；如果此队列为空，则返回 <tt>null</tt>。
+     *
+     * @return 此队列的头；如果此队列为空，则返回 <tt>null</tt>
+     */
+    E peek();
+
+    /**
+     * 按照 {@link #poll()} 的顺序移除最多 <tt>maxElements</tt> 个元素，并将它们依次添加到给定集合中。
+     * 尝试向集合 <tt>c</tt> 中添加元素时遇到的失败，可能导致抛出相关异常时，元素既不在此队列中也不在集合中。
+     * 试图将队列排空到自身将导致 <tt>IllegalArgumentException</tt>。
+     *
+     * @implSpec
+     *           默认实现逐个调用 {@link #poll()}。基于数组的实现应重写此方法，按段移动元素并一次性更新索引。
+     *
+     * @param c           接收传输元素的集合
+     * @param maxElements 传输元素的最大数量
+     * @return 传输的元素个数
+     * @throws NullPointerException     如果指定的集合为 null
+     * @throws IllegalArgumentException 如果指定的集合就是此队列
+     */
+    default int drainTo(java.util.Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,1680 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * 以压缩位图存放 <tt>int</tt> 的 {@link Set}，适用于稠密的整数 ID 集合。
+ *
+ * <p>
+ * 用 <tt>HashSet&lt;Integer&gt;</tt> 存放整数时，每个成员要付出装箱对象、哈希节点和桶引用，约 50 字节；
+ * 而在 ID 稠密时，位图只需约 1 比特。此类采用 Roaring 位图的布局：按值的高 16 位把 32 位整数空间划分为 65536 个块，
+ * 每个非空块用一个容器存放低 16 位，并根据块内的分布在三种编码之间切换：
+ * <ul>
+ * <li><b>数组容器</b>：有序的 <tt>char[]</tt>，每个成员 2 字节，用于不超过 {@value #MAX_ARRAY_SIZE} 个成员的稀疏块；</li>
+ * <li><b>位图容器</b>：固定 1024 个 <tt>long</tt>（8KB），用于成员更多的稠密块；</li>
+ * <li><b>行程容器</b>：<tt>(起点, 长度)</tt> 对的有序数组，每段连续区间 4 字节，用于由长区间组成的块。</li>
+ * </ul>
+ * 数组容器与位图容器在增删时根据成员数自动转换；行程容器由 {@link #addRange(long, long)}
+ * 和行程之间的运算产生，{@link #runOptimize()} 则把所有容器转换为三者中最小的编码。
+ *
+ * <p>
+ * {@link #and(RoaringBitmap, RoaringBitmap) and}、{@link #or(RoaringBitmap, RoaringBitmap) or}、
+ * {@link #andNot(RoaringBitmap, RoaringBitmap) andNot} 及其就地版本按块合并两个位图，块内按容器类型选择
+ * 归并、按字位运算或区间运算，不对成员装箱；{@link #andCardinality(RoaringBitmap, RoaringBitmap) andCardinality}
+ * 只计数而不构造结果。{@link AbstractCollection#containsAll(java.util.Collection) containsAll} 与
+ * {@link AbstractCollection#retainAll(java.util.Collection) retainAll} 识别两边都是位图的情况并走这些快速路径，
+ * {@link #addAll(java.util.Collection) addAll} 与 {@link #removeAll(java.util.Collection) removeAll} 同理。
+ *
+ * <p>
+ * {@link #serialize(ByteBuffer)} 把位图写成紧凑的小端字节格式：一个固定大小的头部，
+ * 包含每个容器的键、类型、成员数和数据偏移，随后是各容器的数据。由于每个容器都可以通过头部直接定位，
+ * 映射到内存的文件（{@link java.nio.MappedByteBuffer}）既可以用 {@link #deserialize(ByteBuffer)} 载入，
+ * 也可以用 {@link #contains(ByteBuffer, int)} 不经反序列化直接查询。
+ *
+ * <p>
+ * 成员按<em>无符号</em>顺序迭代，即负数排在所有非负数之后。此 set 不允许 <tt>null</tt>。
+ * <strong>注意，此实现不是同步的。</strong>迭代器是快速失败的。
+ *
+ * @see Set
+ * @see IntList
+ */
+public class RoaringBitmap extends AbstractSet<Integer> implements Cloneable {
+    /**
+     * 数组容器的最大成员数。超过此值时数组容器（2 字节/成员）会比位图容器（8KB）更大。
+     */
+    static final int MAX_ARRAY_SIZE = 4096;
+
+    /**
+     * 位图容器的 <tt>long</tt> 个数。
+     */
+    static final int BITMAP_WORDS = 1 << 10;
+
+    /**
+     * 序列化格式的魔数。
+     */
+    static final int SERIAL_COOKIE = 0x524F4152;
+
+    /**
+     * 序列化头部中每个容器描述符的字节数：键（2）、类型（2）、成员数（4）、数据偏移（4）。
+     */
+    static final int DESCRIPTOR_BYTES = 12;
+
+    static final int ARRAY = 0, BITMAP = 1, RUN = 2;
+
+    /**
+     * 各容器的键（值的高 16 位），按无符号顺序排列。
+     */
+    char[] keys;
+
+    /**
+     * 与 <tt>keys</tt> 一一对应的容器，都不为空。
+     */
+    Container[] containers;
+
+    /**
+     * 容器个数。
+     */
+    int containerCount;
+
+    /**
+     * 结构性修改的次数，用于迭代器的快速失败检查。
+     */
+    transient int modCount;
+
+    /**
+     * 构造一个空位图。
+     */
+    public RoaringBitmap() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    /**
+     * 构造一个包含指定集合中元素的位图。
+     *
+     * @param c 要放入此位图的元素
+     * @throws NullPointerException 如果指定的集合或其中任何元素为 null
+     */
+    public RoaringBitmap(java.util.Collection<? extends Integer> c) {
+        this();
+        addAll(c);
+    }
+
+    /**
+     * 返回包含指定值的位图。
+     *
+     * @param values 成员
+     * @return 新位图
+     */
+    public static RoaringBitmap bitmapOf(int... values) {
+        RoaringBitmap r = new RoaringBitmap();
+        for (int v : values)
+            r.add(v);
+        return r;
+    }
+
+    // 单个成员
+
+    /**
+     * 如果此位图包含 <tt>x</tt>，则返回 <tt>true</tt>。
+     *
+     * @param x 要检查的值
+     * @return 如果此位图包含 <tt>x</tt>，则返回 <tt>true</tt>
+     */
+    public boolean contains(int x) {
+        int i = Arrays.binarySearch(keys, 0, containerCount, (char) (x >>> 16));
+        return i >= 0 && containers[i].contains((char) x);
+    }
+
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains(((Integer) o).intValue());
+    }
+
+    /**
+     * 如果此位图尚未包含 <tt>x</tt>，则添加它。
+     *
+     * @param x 要添加的值
+     * @return 如果此位图因此调用而改变，则返回 <tt>true</tt>
+     */
+    public boolean add(int x) {
+        char high = (char) (x >>> 16);
+        int i = Arrays.binarySearch(keys, 0, containerCount, high);
+        if (i >= 0) {
+            Container c = containers[i];
+            int before = c.cardinality();
+            c = c.add((char) x);
+            containers[i] = c;
+            if (c.cardinality() == before)
+                return false;
+        } else {
+            insertContainerAt(-i - 1, high, new ArrayContainer().add((char) x));
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException 如果指定的元素为 null
+     */
+    public boolean add(Integer e) {
+        return add(e.intValue());
+    }
+
+    /**
+     * 如果此位图包含 <tt>x</tt>，则移除它。
+     *
+     * @param x 要移除的值
+     * @return 如果此位图因此调用而改变，则返回 <tt>true</tt>
+     */
+    public boolean remove(int x) {
+        int i = Arrays.binarySearch(keys, 0, containerCount, (char) (x >>> 16));
+        if (i < 0)
+            return false;
+        Container c = containers[i];
+        int before = c.cardinality();
+        c = c.remove((char) x);
+        if (c.cardinality() == before)
+            return false;
+        if (c.cardinality() == 0)
+            removeContainerAt(i);
+        else
+            containers[i] = c;
+        modCount++;
+        return true;
+    }
+
+    public boolean remove(Object o) {
+        return o instanceof Integer && remove(((Integer) o).intValue());
+    }
+
+    /**
+     * 添加无符号区间 <tt>[rangeStart, rangeEnd)</tt> 中的所有值。区间完全覆盖的块直接用单个行程表示。
+     *
+     * @param rangeStart 起点（包含），在 <tt>[0, 2<sup>32</sup>]</tt> 中
+     * @param rangeEnd   终点（不包含），在 <tt>[rangeStart, 2<sup>32</sup>]</tt> 中
+     * @throws IllegalArgumentException 如果区间越界
+     */
+    public void addRange(long rangeStart, long rangeEnd) {
+        if (rangeStart < 0 || rangeStart > rangeEnd || rangeEnd > 0x1_0000_0000L)
+            throw new IllegalArgumentException("Illegal range: [" + rangeStart + ", " + rangeEnd + ")");
+        if (rangeStart == rangeEnd)
+            return;
+        int firstKey = (int) (rangeStart >>> 16);
+        int lastKey = (int) ((rangeEnd - 1) >>> 16);
+        for (int k = firstKey; k <= lastKey; k++) {
+            int lo = k == firstKey ? (int) (rangeStart & 0xFFFF) : 0;
+            int hi = k == lastKey ? (int) ((rangeEnd - 1) & 0xFFFF) : 0xFFFF;
+            Container range = new RunContainer(new char[] { (char) lo, (char) (hi - lo) }, 1, hi - lo + 1);
+            int i = Arrays.binarySearch(keys, 0, containerCount, (char) k);
+            if (i >= 0)
+                containers[i] = containers[i].or(range);
+            else
+                insertContainerAt(-i - 1, (char) k, range.optimize());
+        }
+        modCount++;
+    }
+
+    // 查询
+
+    /**
+     * 返回此位图的成员数。与 {@link #size()} 不同，结果不会被截断为 <tt>Integer.MAX_VALUE</tt>。
+     *
+     * @return 成员数
+     */
+    public long getCardinality() {
+        long n = 0;
+        for (int i = 0; i < containerCount; i++)
+            n += containers[i].cardinality();
+        return n;
+    }
+
+    public int size() {
+        return (int) Math.min(getCardinality(), Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return containerCount == 0;
+    }
+
+    /**
+     * 移除所有成员。
+     */
+    public void clear() {
+        Arrays.fill(containers, 0, containerCount, null);
+        containerCount = 0;
+        modCount++;
+    }
+
+    /**
+     * 如果 <tt>subset</tt> 的每个成员都在此位图中，则返回 <tt>true</tt>。逐块比较交集的大小，不对成员装箱。
+     *
+     * @param subset 要检查的位图
+     * @return 如果 <tt>subset</tt> 是此位图的子集，则返回 <tt>true</tt>
+     */
+    public boolean contains(RoaringBitmap subset) {
+        if (subset.containerCount > containerCount)
+            return false;
+        int j = 0;
+        for (int i = 0; i < subset.containerCount; i++) {
+            char key = subset.keys[i];
+            while (j < containerCount && keys[j] < key)
+                j++;
+            if (j == containerCount || keys[j] != key)
+                return false;
+            Container sub = subset.containers[i];
+            if (sub.cardinality() > containers[j].cardinality()
+                    || containers[j].andCardinality(sub) != sub.cardinality())
+                return false;
+            j++;
+        }
+        return true;
+    }
+
+    // 集合运算
+
+    /**
+     * 返回 <tt>a</tt> 与 <tt>b</tt> 的交集，两个参数都不会被修改。
+     *
+     * @param a 第一个位图
+     * @param b 第二个位图
+     * @return 新的位图
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap r = new RoaringBitmap();
+        int i = 0, j = 0;
+        while (i < a.containerCount && j < b.containerCount) {
+            char ka = a.keys[i], kb = b.keys[j];
+            if (ka < kb) {
+                i++;
+            } else if (ka > kb) {
+                j++;
+            } else {
+                Container c = a.containers[i++].and(b.containers[j++]);
+                if (c.cardinality() > 0)
+                    r.appendContainer(ka, c);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * 返回 <tt>a</tt> 与 <tt>b</tt> 的并集，两个参数都不会被修改。
+     *
+     * @param a 第一个位图
+     * @param b 第二个位图
+     * @return 新的位图
+     */
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        return or(a, b, true);
+    }
+
+    /**
+     * 返回 <tt>a</tt> 中不在 <tt>b</tt> 中的成员，两个参数都不会被修改。
+     *
+     * @param a 第一个位图
+     * @param b 第二个位图
+     * @return 新的位图
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap r = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.containerCount; i++) {
+            char key = a.keys[i];
+            while (j < b.containerCount && b.keys[j] < key)
+                j++;
+            Container c = j < b.containerCount && b.keys[j] == key
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (c.cardinality() > 0)
+                r.appendContainer(key, c);
+        }
+        return r;
+    }
+
+    /**
+     * 返回 <tt>a</tt> 与 <tt>b</tt> 交集的大小，不构造交集本身。
+     *
+     * @param a 第一个位图
+     * @param b 第二个位图
+     * @return 交集的成员数
+     */
+    public static long andCardinality(RoaringBitmap a, RoaringBitmap b) {
+        long n = 0;
+        int i = 0, j = 0;
+        while (i < a.containerCount && j < b.containerCount) {
+            char ka = a.keys[i], kb = b.keys[j];
+            if (ka < kb)
+                i++;
+            else if (ka > kb)
+                j++;
+            else
+                n += a.containers[i++].andCardinality(b.containers[j++]);
+        }
+        return n;
+    }
+
+    /**
+     * 如果 <tt>a</tt> 与 <tt>b</tt> 至少有一个公共成员，则返回 <tt>true</tt>。
+     *
+     * @param a 第一个位图
+     * @param b 第二个位图
+     * @return 如果交集非空，则返回 <tt>true</tt>
+     */
+    public static boolean intersects(RoaringBitmap a, RoaringBitmap b) {
+        int i = 0, j = 0;
+        while (i < a.containerCount && j < b.containerCount) {
+            char ka = a.keys[i], kb = b.keys[j];
+            if (ka < kb)
+                i++;
+            else if (ka > kb)
+                j++;
+            else if (a.containers[i++].andCardinality(b.containers[j++]) > 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * 就地计算此位图与 <tt>other</tt> 的交集。
+     *
+     * @param other 另一个位图，不会被修改
+     */
+    public void and(RoaringBitmap other) {
+        int w = 0, j = 0;
+        for (int i = 0; i < containerCount; i++) {
+            char key = keys[i];
+            while (j < other.containerCount && other.keys[j] < key)
+                j++;
+            if (j < other.containerCount && other.keys[j] == key) {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) {
+                    keys[w] = key;
+                    containers[w++] = c;
+                }
+            }
+        }
+        Arrays.fill(containers, w, containerCount, null);
+        containerCount = w;
+        modCount++;
+    }
+
+    /**
+     * 就地计算此位图与 <tt>other</tt> 的并集。
+     *
+     * @param other 另一个位图，不会被修改
+     */
+    public void or(RoaringBitmap other) {
+        RoaringBitmap r = or(this, other, false);
+        keys = r.keys;
+        containers = r.containers;
+        containerCount = r.containerCount;
+        modCount++;
+    }
+
+    /**
+     * 就地从此位图中移除 <tt>other</tt> 的成员。
+     *
+     * @param other 另一个位图，不会被修改
+     */
+    public void andNot(RoaringBitmap other) {
+        int w = 0, j = 0;
+        for (int i = 0; i < containerCount; i++) {
+            char key = keys[i];
+            Container c = containers[i];
+            while (j < other.containerCount && other.keys[j] < key)
+                j++;
+            if (j < other.containerCount && other.keys[j] == key)
+                c = c.andNot(other.containers[j]);
+            if (c.cardinality() > 0) {
+                keys[w] = key;
+                containers[w++] = c;
+            }
+        }
+        Arrays.fill(containers, w, containerCount, null);
+        containerCount = w;
+        modCount++;
+    }
+
+    /**
+     * 并集的公共实现。<tt>copyA</tt> 为 <tt>false</tt> 时结果直接复用 <tt>a</tt> 中只出现在一边的容器，
+     * 供就地版本使用。
+     */
+    private static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b, boolean copyA) {
+        RoaringBitmap r = new RoaringBitmap();
+        int capacity = Math.max(4, a.containerCount + b.containerCount);
+        r.keys = new char[capacity];
+        r.containers = new Container[capacity];
+        int i = 0, j = 0;
+        while (i < a.containerCount || j < b.containerCount) {
+            if (j == b.containerCount || (i < a.containerCount && a.keys[i] < b.keys[j])) {
+                Container c = a.containers[i];
+                r.appendContainer(a.keys[i++], copyA ? c.copy() : c);
+            } else if (i == a.containerCount || a.keys[i] > b.keys[j]) {
+                r.appendContainer(b.keys[j], b.containers[j++].copy());
+            } else {
+                r.appendContainer(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        return r;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 如果 <tt>c</tt> 也是一个位图，则此实现就地计算并集。
+     */
+    public boolean addAll(java.util.Collection<? extends Integer> c) {
+        if (c instanceof RoaringBitmap) {
+            long before = getCardinality();
+            or((RoaringBitmap) c);
+            return getCardinality() != before;
+        }
+        return super.addAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 如果 <tt>c</tt> 也是一个位图，则此实现就地计算差集。
+     */
+    public boolean removeAll(java.util.Collection<?> c) {
+        if (c instanceof RoaringBitmap) {
+            long before = getCardinality();
+            andNot((RoaringBitmap) c);
+            return getCardinality() != before;
+        }
+        return super.removeAll(c);
+    }
+
+    /**
+     * 把每个容器转换为数组、位图、行程三种编码中最小的一种。适合在位图构建完成、即将序列化或长期保存时调用。
+     *
+     * @return 如果有容器改变了编码，则返回 <tt>true</tt>
+     */
+    public boolean runOptimize() {
+        boolean changed = false;
+        for (int i = 0; i < containerCount; i++) {
+            Container c = containers[i].optimize();
+            if (c != containers[i]) {
+                containers[i] = c;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // 遍历
+
+    /**
+     * 按无符号顺序对每个成员执行给定操作，不装箱。
+     *
+     * @param action 要执行的操作
+     * @throws NullPointerException 如果指定的操作为 null
+     */
+    public void forEachInt(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < containerCount; i++) {
+            int base = keys[i] << 16;
+            CharIterator it = containers[i].iterator(0);
+            while (it.hasNext())
+                action.accept(base | it.next());
+        }
+    }
+
+    public void forEach(Consumer<? super Integer> action) {
+        Objects.requireNonNull(action);
+        forEachInt(action::accept);
+    }
+
+    /**
+     * 按无符号顺序返回包含所有成员的数组。
+     *
+     * @return 成员数组
+     * @throws OutOfMemoryError 如果成员数超过数组的最大长度
+     */
+    public int[] toIntArray() {
+        long n = getCardinality();
+        if (n > Integer.MAX_VALUE - 8)
+            throw new OutOfMemoryError("Required array size too large");
+        int[] a = new int[(int) n];
+        int k = 0;
+        for (int i = 0; i < containerCount; i++) {
+            int base = keys[i] << 16;
+            CharIterator it = containers[i].iterator(0);
+            while (it.hasNext())
+                a[k++] = base | it.next();
+        }
+        return a;
+    }
+
+    /**
+     * 返回按无符号顺序迭代成员的迭代器。
+     *
+     * @return 迭代器
+     */
+    public Iterator<Integer> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<Integer> {
+        /** 当前容器的下标 */
+        int index;
+        /** 当前容器上的迭代器；迭代结束时为 null */
+        CharIterator it;
+        int lastRet;
+        boolean canRemove;
+        int expectedModCount = modCount;
+
+        Itr() {
+            it = containerCount > 0 ? containers[0].iterator(0) : null;
+            advance();
+        }
+
+        /** 跳过已经耗尽的容器 */
+        private void advance() {
+            while (it != null && !it.hasNext())
+                it = ++index < containerCount ? containers[index].iterator(0) : null;
+        }
+
+        public boolean hasNext() {
+            return it != null;
+        }
+
+        public Integer next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (it == null)
+                throw new NoSuchElementException();
+            lastRet = keys[index] << 16 | it.next();
+            canRemove = true;
+            advance();
+            return lastRet;
+        }
+
+        public void remove() {
+            if (!canRemove)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            RoaringBitmap.this.remove(lastRet);
+            canRemove = false;
+            expectedModCount = modCount;
+            // 移除可能改变容器的编码或下标，从 lastRet 之后重新定位
+            int low = lastRet & 0xFFFF;
+            int i = Arrays.binarySearch(keys, 0, containerCount, (char) (lastRet >>> 16));
+            if (i >= 0 && low < 0xFFFF) {
+                index = i;
+                it = containers[i].iterator(low + 1);
+            } else {
+                index = i >= 0 ? i + 1 : -i - 1;
+                it = index < containerCount ? containers[index].iterator(0) : null;
+            }
+            advance();
+        }
+    }
+
+    // 比较和哈希
+
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof RoaringBitmap))
+            return super.equals(o);
+        RoaringBitmap other = (RoaringBitmap) o;
+        if (containerCount != other.containerCount)
+            return false;
+        for (int i = 0; i < containerCount; i++) {
+            if (keys[i] != other.keys[i])
+                return false;
+            int n = containers[i].cardinality();
+            if (n != other.containers[i].cardinality()
+                    || containers[i].andCardinality(other.containers[i]) != n)
+                return false;
+        }
+        return true;
+    }
+
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < containerCount; i++) {
+            int base = keys[i] << 16;
+            CharIterator it = containers[i].iterator(0);
+            while (it.hasNext())
+                h += base | it.next();
+        }
+        return h;
+    }
+
+    /**
+     * 返回此位图的深拷贝。
+     *
+     * @return 此位图的一个副本
+     */
+    public RoaringBitmap clone() {
+        try {
+            RoaringBitmap r = (RoaringBitmap) super.clone();
+            r.keys = keys.clone();
+            r.containers = new Container[containers.length];
+            for (int i = 0; i < containerCount; i++)
+                r.containers[i] = containers[i].copy();
+            r.modCount = 0;
+            return r;
+        } catch (CloneNotSupportedException e) {
+            // 这不应该发生，因为我们是 Cloneable 的
+            throw new InternalError(e);
+        }
+    }
+
+    // 序列化
+
+    /**
+     * 返回 {@link #serialize(ByteBuffer)} 写出的字节数。
+     *
+     * @return 序列化后的字节数
+     */
+    public int serializedSizeInBytes() {
+        int n = 8 + DESCRIPTOR_BYTES * containerCount;
+        for (int i = 0; i < containerCount; i++)
+            n += containers[i].serializedSize();
+        return n;
+    }
+
+    /**
+     * 把此位图以紧凑的小端格式写入 <tt>out</tt> 的当前位置，并把位置前移 {@link #serializedSizeInBytes()} 字节。
+     * <tt>out</tt> 自身的字节顺序不受影响。
+     *
+     * <p>
+     * 格式如下（所有偏移都相对于位图的起始位置）：
+     * <pre>
+     * int   魔数
+     * int   容器个数 n
+     * n 个描述符，按键排序：char 键，char 类型（0 数组、1 位图、2 行程），int 成员数，int 数据偏移
+     * 各容器的数据：
+     *   数组：成员数个 char
+     *   位图：1024 个 long
+     *   行程：char 行程数 r，随后 r 对 (char 起点, char 长度 - 1)
+     * </pre>
+     *
+     * @param out 目标缓冲区
+     * @throws java.nio.BufferOverflowException 如果剩余空间不足
+     * @throws java.nio.ReadOnlyBufferException 如果缓冲区是只读的
+     */
+    public void serialize(ByteBuffer out) {
+        int size = serializedSizeInBytes();
+        if (out.remaining() < size)
+            throw new java.nio.BufferOverflowException();
+        ByteBuffer buf = out.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = buf.position();
+        buf.putInt(SERIAL_COOKIE).putInt(containerCount);
+        int offset = 8 + DESCRIPTOR_BYTES * containerCount;
+        for (int i = 0; i < containerCount; i++) {
+            Container c = containers[i];
+            buf.putChar(keys[i]).putChar((char) c.type()).putInt(c.cardinality()).putInt(offset);
+            offset += c.serializedSize();
+        }
+        for (int i = 0; i < containerCount; i++)
+            containers[i].write(buf);
+        assert buf.position() - base == size;
+        out.position(out.position() + size);
+    }
+
+    /**
+     * 从 <tt>in</tt> 的当前位置读取一个由 {@link #serialize(ByteBuffer)} 写出的位图，并把位置移到它的末尾。
+     * <tt>in</tt> 自身的字节顺序不受影响。
+     *
+     * @param in 源缓冲区，例如映射到内存的文件
+     * @return 读出的位图
+     * @throws IllegalArgumentException 如果数据不是序列化的位图
+     */
+    public static RoaringBitmap deserialize(ByteBuffer in) {
+        ByteBuffer buf = in.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = buf.position();
+        if (buf.remaining() < 8 || buf.getInt() != SERIAL_COOKIE)
+            throw new IllegalArgumentException("Not a serialized bitmap");
+        int n = buf.getInt();
+        RoaringBitmap r = new RoaringBitmap();
+        r.keys = new char[Math.max(4, n)];
+        r.containers = new Container[Math.max(4, n)];
+        int end = base + 8 + DESCRIPTOR_BYTES * n;
+        for (int i = 0; i < n; i++) {
+            int d = base + 8 + DESCRIPTOR_BYTES * i;
+            char key = buf.getChar(d);
+            int type = buf.getChar(d + 2);
+            int cardinality = buf.getInt(d + 4);
+            buf.position(base + buf.getInt(d + 8));
+            Container c;
+            if (type == ARRAY) {
+                char[] content = new char[cardinality];
+                buf.asCharBuffer().get(content);
+                c = new ArrayContainer(content, cardinality);
+            } else if (type == BITMAP) {
+                long[] words = new long[BITMAP_WORDS];
+                buf.asLongBuffer().get(words);
+                c = new BitmapContainer(words, cardinality);
+            } else if (type == RUN) {
+                int nruns = buf.getChar();
+                char[] runs = new char[2 * nruns];
+                buf.asCharBuffer().get(runs);
+                c = new RunContainer(runs, nruns, cardinality);
+            } else {
+                throw new IllegalArgumentException("Unknown container type: " + type);
+            }
+            if (i > 0 && key <= r.keys[i - 1])
+                throw new IllegalArgumentException("Keys out of order");
+            r.appendContainer(key, c);
+            end = Math.max(end, base + buf.getInt(d + 8) + c.serializedSize());
+        }
+        in.position(end);
+        return r;
+    }
+
+    /**
+     * 直接在序列化数据上检查 <tt>x</tt> 是否是成员，不反序列化也不改变 <tt>serialized</tt> 的位置。
+     * 先在头部二分查找键，再在对应容器的数据上查找低 16 位，只读取必要的字节，适合查询映射到内存的大位图。
+     *
+     * @param serialized 当前位置处是一个序列化位图的缓冲区
+     * @param x          要检查的值
+     * @return 如果 <tt>x</tt> 是成员，则返回 <tt>true</tt>
+     * @throws IllegalArgumentException 如果数据不是序列化的位图
+     */
+    public static boolean contains(ByteBuffer serialized, int x) {
+        ByteBuffer buf = serialized.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = buf.position();
+        if (buf.getInt(base) != SERIAL_COOKIE)
+            throw new IllegalArgumentException("Not a serialized bitmap");
+        char high = (char) (x >>> 16);
+        char low = (char) x;
+        int lo = 0, hi = buf.getInt(base + 4) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int d = base + 8 + DESCRIPTOR_BYTES * mid;
+            char key = buf.getChar(d);
+            if (key < high) {
+                lo = mid + 1;
+            } else if (key > high) {
+                hi = mid - 1;
+            } else {
+                int type = buf.getChar(d + 2);
+                int cardinality = buf.getInt(d + 4);
+                int data = base + buf.getInt(d + 8);
+                if (type == BITMAP)
+                    return (buf.getLong(data + 8 * (low >>> 6)) & (1L << low)) != 0;
+                if (type == ARRAY)
+                    return searchChars(buf, data, cardinality, 2, low) >= 0;
+                int i = searchChars(buf, data + 2, buf.getChar(data), 4, low);
+                if (i >= 0)
+                    return true;
+                i = -i - 2;
+                return i >= 0 && low - buf.getChar(data + 2 + 4 * i) <= buf.getChar(data + 4 + 4 * i);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在 <tt>buf</tt> 中从 <tt>from</tt> 开始、步长为 <tt>stride</tt> 的 <tt>n</tt> 个有序 char 上二分查找
+     * <tt>key</tt>，返回值的含义与 {@link Arrays#binarySearch(char[], char)} 相同。
+     */
+    private static int searchChars(ByteBuffer buf, int from, int n, int stride, char key) {
+        int lo = 0, hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char v = buf.getChar(from + stride * mid);
+            if (v < key)
+                lo = mid + 1;
+            else if (v > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // 容器数组维护
+
+    private void ensureCapacity(int min) {
+        if (min > keys.length) {
+            int newCapacity = Math.max(min, keys.length + (keys.length >> 1));
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+    }
+
+    private void appendContainer(char key, Container c) {
+        ensureCapacity(containerCount + 1);
+        keys[containerCount] = key;
+        containers[containerCount++] = c;
+    }
+
+    private void insertContainerAt(int i, char key, Container c) {
+        ensureCapacity(containerCount + 1);
+        System.arraycopy(keys, i, keys, i + 1, containerCount - i);
+        System.arraycopy(containers, i, containers, i + 1, containerCount - i);
+        keys[i] = key;
+        containers[i] = c;
+        containerCount++;
+    }
+
+    private void removeContainerAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, containerCount - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, containerCount - i - 1);
+        containers[--containerCount] = null;
+    }
+
+    // 容器
+
+    /**
+     * 块内低 16 位值的迭代器，按升序返回 <tt>[0, 65535]</tt> 中的值。
+     */
+    interface CharIterator {
+        boolean hasNext();
+
+        int next();
+    }
+
+    /**
+     * 一个块内的成员集合。修改操作可能就地修改并返回 <tt>this</tt>，也可能返回另一种编码的新容器，
+     * 调用方必须使用返回值；二元运算总是返回新容器，不修改任何一方。
+     */
+    abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char x);
+
+        abstract Container add(char x);
+
+        abstract Container remove(char x);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        /** 把此容器的成员设置到 <tt>words</tt> 中 */
+        abstract void orInto(long[] words);
+
+        /** 从 <tt>words</tt> 中清除此容器的成员 */
+        abstract void andNotFrom(long[] words);
+
+        abstract int numberOfRuns();
+
+        abstract RunContainer toRun();
+
+        /** 返回从不小于 <tt>from</tt> 的第一个成员开始的迭代器，<tt>from</tt> 在 <tt>[0, 65535]</tt> 中 */
+        abstract CharIterator iterator(int from);
+
+        abstract Container copy();
+
+        abstract int type();
+
+        abstract int serializedSize();
+
+        abstract void write(ByteBuffer buf);
+
+        final long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            orInto(words);
+            return words;
+        }
+
+        /**
+         * 返回三种编码中序列化后最小的等价容器，如果此容器已经最小则返回 <tt>this</tt>。
+         */
+        final Container optimize() {
+            int card = cardinality();
+            int runSize = 2 + 4 * numberOfRuns();
+            int otherSize = card <= MAX_ARRAY_SIZE ? 2 * card : 8 * BITMAP_WORDS;
+            if (runSize < otherSize)
+                return this instanceof RunContainer ? this : toRun();
+            if (card <= MAX_ARRAY_SIZE)
+                return this instanceof ArrayContainer ? this : ArrayContainer.fromIterator(iterator(0), card);
+            return this instanceof BitmapContainer ? this : new BitmapContainer(toWords(), card);
+        }
+    }
+
+    /**
+     * 根据成员数为 <tt>words</tt> 选择数组或位图编码。
+     */
+    static Container fromWords(long[] words) {
+        int card = 0;
+        for (long w : words)
+            card += Long.bitCount(w);
+        if (card > MAX_ARRAY_SIZE)
+            return new BitmapContainer(words, card);
+        char[] content = new char[card];
+        int k = 0;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            long w = words[i];
+            while (w != 0) {
+                content[k++] = (char) (i << 6 | Long.numberOfTrailingZeros(w));
+                w &= w - 1;
+            }
+        }
+        return new ArrayContainer(content, card);
+    }
+
+    /**
+     * 设置 <tt>words</tt> 中 <tt>[start, end]</tt> 的所有位。
+     */
+    static void setRange(long[] words, int start, int end) {
+        int first = start >>> 6, last = end >>> 6;
+        long firstMask = -1L << start, lastMask = -1L >>> (63 - (end & 63));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++)
+            words[i] = -1L;
+        words[last] |= lastMask;
+    }
+
+    /**
+     * 清除 <tt>words</tt> 中 <tt>[start, end]</tt> 的所有位。
+     */
+    static void clearRange(long[] words, int start, int end) {
+        int first = start >>> 6, last = end >>> 6;
+        long firstMask = -1L << start, lastMask = -1L >>> (63 - (end & 63));
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++)
+            words[i] = 0L;
+        words[last] &= ~lastMask;
+    }
+
+    /**
+     * 返回 <tt>words</tt> 中 <tt>[start, end]</tt> 内置位的个数。
+     */
+    static int cardinalityInRange(long[] words, int start, int end) {
+        int first = start >>> 6, last = end >>> 6;
+        long firstMask = -1L << start, lastMask = -1L >>> (63 - (end & 63));
+        if (first == last)
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        int n = Long.bitCount(words[first] & firstMask);
+        for (int i = first + 1; i < last; i++)
+            n += Long.bitCount(words[i]);
+        return n + Long.bitCount(words[last] & lastMask);
+    }
+
+    /**
+     * 有序 <tt>char[]</tt> 编码，用于稀疏块。
+     */
+    static final class ArrayContainer extends Container {
+        char[] content;
+        int cardinality;
+
+        ArrayContainer() {
+            content = new char[4];
+        }
+
+        ArrayContainer(char[] content, int cardinality) {
+            this.content = content;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer fromIterator(CharIterator it, int cardinality) {
+            char[] content = new char[cardinality];
+            for (int k = 0; k < cardinality; k++)
+                content[k] = (char) it.next();
+            return new ArrayContainer(content, cardinality);
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(char x) {
+            return Arrays.binarySearch(content, 0, cardinality, x) >= 0;
+        }
+
+        Container add(char x) {
+            int i = Arrays.binarySearch(content, 0, cardinality, x);
+            if (i >= 0)
+                return this;
+            if (cardinality == MAX_ARRAY_SIZE) {
+                long[] words = toWords();
+                words[x >>> 6] |= 1L << x;
+                return new BitmapContainer(words, cardinality + 1);
+            }
+            i = -i - 1;
+            if (cardinality == content.length)
+                content = Arrays.copyOf(content, Math.min(MAX_ARRAY_SIZE, cardinality + (cardinality >> 1) + 1));
+            System.arraycopy(content, i, content, i + 1, cardinality - i);
+            content[i] = x;
+            cardinality++;
+            return this;
+        }
+
+        Container remove(char x) {
+            int i = Arrays.binarySearch(content, 0, cardinality, x);
+            if (i >= 0) {
+                System.arraycopy(content, i + 1, content, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        Container and(Container other) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer b = (ArrayContainer) other;
+                int i = 0, j = 0;
+                while (i < cardinality && j < b.cardinality) {
+                    char x = content[i], y = b.content[j];
+                    if (x < y) {
+                        i++;
+                    } else if (x > y) {
+                        j++;
+                    } else {
+                        out[n++] = x;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++)
+                    if (other.contains(content[i]))
+                        out[n++] = content[i];
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        int andCardinality(Container other) {
+            int n = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer b = (ArrayContainer) other;
+                int i = 0, j = 0;
+                while (i < cardinality && j < b.cardinality) {
+                    char x = content[i], y = b.content[j];
+                    if (x < y) {
+                        i++;
+                    } else if (x > y) {
+                        j++;
+                    } else {
+                        n++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++)
+                    if (other.contains(content[i]))
+                        n++;
+            }
+            return n;
+        }
+
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer))
+                return other.or(this);
+            ArrayContainer b = (ArrayContainer) other;
+            if (cardinality + b.cardinality > MAX_ARRAY_SIZE) {
+                long[] words = toWords();
+                b.orInto(words);
+                return fromWords(words);
+            }
+            char[] out = new char[cardinality + b.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality && j < b.cardinality) {
+                char x = content[i], y = b.content[j];
+                if (x < y) {
+                    out[n++] = x;
+                    i++;
+                } else if (x > y) {
+                    out[n++] = y;
+                    j++;
+                } else {
+                    out[n++] = x;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < cardinality)
+                out[n++] = content[i++];
+            while (j < b.cardinality)
+                out[n++] = b.content[j++];
+            return new ArrayContainer(out, n);
+        }
+
+        Container andNot(Container other) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++)
+                if (!other.contains(content[i]))
+                    out[n++] = content[i];
+            return new ArrayContainer(out, n);
+        }
+
+        void orInto(long[] words) {
+            for (int i = 0; i < cardinality; i++)
+                words[content[i] >>> 6] |= 1L << content[i];
+        }
+
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < cardinality; i++)
+                words[content[i] >>> 6] &= ~(1L << content[i]);
+        }
+
+        int numberOfRuns() {
+            int n = cardinality > 0 ? 1 : 0;
+            for (int i = 1; i < cardinality; i++)
+                if (content[i] != content[i - 1] + 1)
+                    n++;
+            return n;
+        }
+
+        RunContainer toRun() {
+            RunBuilder b = new RunBuilder(numberOfRuns());
+            for (int i = 0; i < cardinality; i++)
+                b.append(content[i], content[i]);
+            return b.toContainer();
+        }
+
+        CharIterator iterator(int from) {
+            int start = Arrays.binarySearch(content, 0, cardinality, (char) from);
+            int first = start >= 0 ? start : -start - 1;
+            return new CharIterator() {
+                int i = first;
+
+                public boolean hasNext() {
+                    return i < cardinality;
+                }
+
+                public int next() {
+                    return content[i++];
+                }
+            };
+        }
+
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, Math.max(cardinality, 1)), cardinality);
+        }
+
+        int type() {
+            return ARRAY;
+        }
+
+        int serializedSize() {
+            return 2 * cardinality;
+        }
+
+        void write(ByteBuffer buf) {
+            for (int i = 0; i < cardinality; i++)
+                buf.putChar(content[i]);
+        }
+    }
+
+    /**
+     * 固定 8KB 的位图编码，用于稠密块。
+     */
+    static final class BitmapContainer extends Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(char x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        Container add(char x) {
+            long w = words[x >>> 6];
+            long bit = 1L << x;
+            if ((w & bit) == 0) {
+                words[x >>> 6] = w | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        Container remove(char x) {
+            long w = words[x >>> 6];
+            long bit = 1L << x;
+            if ((w & bit) == 0)
+                return this;
+            words[x >>> 6] = w & ~bit;
+            if (--cardinality <= MAX_ARRAY_SIZE)
+                return ArrayContainer.fromIterator(iterator(0), cardinality);
+            return this;
+        }
+
+        Container and(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.and(this);
+            long[] mask = other instanceof BitmapContainer ? ((BitmapContainer) other).words : other.toWords();
+            long[] out = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                out[i] = words[i] & mask[i];
+            return fromWords(out);
+        }
+
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.andCardinality(this);
+            if (other instanceof RunContainer)
+                return other.andCardinality(this);
+            long[] b = ((BitmapContainer) other).words;
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                n += Long.bitCount(words[i] & b[i]);
+            return n;
+        }
+
+        Container or(Container other) {
+            long[] out = words.clone();
+            other.orInto(out);
+            int card = 0;
+            for (long w : out)
+                card += Long.bitCount(w);
+            return new BitmapContainer(out, card);
+        }
+
+        Container andNot(Container other) {
+            long[] out = words.clone();
+            other.andNotFrom(out);
+            return fromWords(out);
+        }
+
+        void orInto(long[] out) {
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                out[i] |= words[i];
+        }
+
+        void andNotFrom(long[] out) {
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                out[i] &= ~words[i];
+        }
+
+        int numberOfRuns() {
+            int n = 0;
+            long prev = 0;
+            for (long w : words) {
+                // 一个行程的起点是前一位未置位的置位
+                n += Long.bitCount(w & ~(w << 1 | prev >>> 63));
+                prev = w;
+            }
+            return n;
+        }
+
+        RunContainer toRun() {
+            RunBuilder b = new RunBuilder(numberOfRuns());
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    int start = Long.numberOfTrailingZeros(w);
+                    int len = Long.numberOfTrailingZeros(~(w >>> start));
+                    int base = i << 6;
+                    b.append(base + start, base + start + len - 1);
+                    w = len + start == 64 ? 0 : w & (-1L << (start + len));
+                }
+            }
+            return b.toContainer();
+        }
+
+        CharIterator iterator(int from) {
+            return new CharIterator() {
+                int index = from >>> 6;
+                long word = words[index] & (-1L << from);
+
+                public boolean hasNext() {
+                    while (word == 0 && index < BITMAP_WORDS - 1)
+                        word = words[++index];
+                    return word != 0;
+                }
+
+                public int next() {
+                    hasNext();
+                    int r = index << 6 | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    return r;
+                }
+            };
+        }
+
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        int type() {
+            return BITMAP;
+        }
+
+        int serializedSize() {
+            return 8 * BITMAP_WORDS;
+        }
+
+        void write(ByteBuffer buf) {
+            for (long w : words)
+                buf.putLong(w);
+        }
+    }
+
+    /**
+     * 行程编码：<tt>runs[2i]</tt> 是第 <tt>i</tt> 段的起点，<tt>runs[2i + 1]</tt> 是它的长度减一，各段有序且互不相邻。
+     */
+    static final class RunContainer extends Container {
+        char[] runs;
+        int nruns;
+        int cardinality;
+
+        RunContainer(char[] runs, int nruns, int cardinality) {
+            this.runs = runs;
+            this.nruns = nruns;
+            this.cardinality = cardinality;
+        }
+
+        int start(int i) {
+            return runs[2 * i];
+        }
+
+        int end(int i) {
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        /**
+         * 返回起点不大于 <tt>x</tt> 的最后一段的下标，如果没有则返回 -1。
+         */
+        int find(int x) {
+            int lo = 0, hi = nruns - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= x)
+                    lo = mid + 1;
+                else
+                    hi = mid - 1;
+            }
+            return hi;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(char x) {
+            int i = find(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        Container add(char x) {
+            int i = find(x);
+            if (i >= 0 && x <= end(i))
+                return this;
+            cardinality++;
+            boolean joinsLeft = i >= 0 && end(i) + 1 == x;
+            boolean joinsRight = i + 1 < nruns && start(i + 1) == x + 1;
+            if (joinsLeft && joinsRight) {
+                runs[2 * i + 1] = (char) (end(i + 1) - start(i));
+                removeRun(i + 1);
+                return this;
+            }
+            if (joinsLeft) {
+                runs[2 * i + 1]++;
+                return this;
+            }
+            if (joinsRight) {
+                runs[2 * i + 2] = x;
+                runs[2 * i + 3]++;
+                return this;
+            }
+            insertRun(i + 1, x, x);
+            return optimize();
+        }
+
+        Container remove(char x) {
+            int i = find(x);
+            if (i < 0 || x > end(i))
+                return this;
+            cardinality--;
+            int s = start(i), e = end(i);
+            if (s == e) {
+                removeRun(i);
+            } else if (x == s) {
+                runs[2 * i] = (char) (s + 1);
+                runs[2 * i + 1]--;
+            } else if (x == e) {
+                runs[2 * i + 1]--;
+            } else {
+                runs[2 * i + 1] = (char) (x - 1 - s);
+                insertRun(i + 1, x + 1, e);
+                return optimize();
+            }
+            return this;
+        }
+
+        private void insertRun(int i, int start, int end) {
+            if (2 * nruns + 2 > runs.length)
+                runs = Arrays.copyOf(runs, 2 * nruns + Math.max(4, nruns));
+            System.arraycopy(runs, 2 * i, runs, 2 * i + 2, 2 * (nruns - i));
+            runs[2 * i] = (char) start;
+            runs[2 * i + 1] = (char) (end - start);
+            nruns++;
+        }
+
+        private void removeRun(int i) {
+            System.arraycopy(runs, 2 * i + 2, runs, 2 * i, 2 * (nruns - i - 1));
+            nruns--;
+        }
+
+        Container and(Container other) {
+            if (!(other instanceof RunContainer))
+                return other.and(this);
+            RunContainer b = (RunContainer) other;
+            RunBuilder out = new RunBuilder(nruns + b.nruns);
+            int i = 0, j = 0;
+            while (i < nruns && j < b.nruns) {
+                int s = Math.max(start(i), b.start(j));
+                int e = Math.min(end(i), b.end(j));
+                if (s <= e)
+                    out.append(s, e);
+                if (end(i) < b.end(j))
+                    i++;
+                else
+                    j++;
+            }
+            return out.toContainer().optimize();
+        }
+
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.andCardinality(this);
+            int n = 0;
+            if (other instanceof BitmapContainer) {
+                long[] words = ((BitmapContainer) other).words;
+                for (int i = 0; i < nruns; i++)
+                    n += cardinalityInRange(words, start(i), end(i));
+                return n;
+            }
+            RunContainer b = (RunContainer) other;
+            int i = 0, j = 0;
+            while (i < nruns && j < b.nruns) {
+                int s = Math.max(start(i), b.start(j));
+                int e = Math.min(end(i), b.end(j));
+                if (s <= e)
+                    n += e - s + 1;
+                if (end(i) < b.end(j))
+                    i++;
+                else
+                    j++;
+            }
+            return n;
+        }
+
+        Container or(Container other) {
+            if (other instanceof BitmapContainer)
+                return other.or(this);
+            RunContainer b = other.toRun();
+            RunBuilder out = new RunBuilder(nruns + b.nruns);
+            int i = 0, j = 0;
+            while (i < nruns || j < b.nruns) {
+                if (j == b.nruns || (i < nruns && start(i) <= b.start(j))) {
+                    out.append(start(i), end(i));
+                    i++;
+                } else {
+                    out.append(b.start(j), b.end(j));
+                    j++;
+                }
+            }
+            return out.toContainer().optimize();
+        }
+
+        Container andNot(Container other) {
+            if (other instanceof BitmapContainer) {
+                long[] words = toWords();
+                other.andNotFrom(words);
+                return fromWords(words);
+            }
+            RunContainer b = other.toRun();
+            RunBuilder out = new RunBuilder(nruns + b.nruns);
+            int j = 0;
+            for (int i = 0; i < nruns; i++) {
+                int s = start(i), e = end(i);
+                while (j < b.nruns && b.end(j) < s)
+                    j++;
+                for (int k = j; s <= e && k < b.nruns && b.start(k) <= e; k++) {
+                    if (b.start(k) > s)
+                        out.append(s, b.start(k) - 1);
+                    s = Math.max(s, b.end(k) + 1);
+                }
+                if (s <= e)
+                    out.append(s, e);
+            }
+            return out.toContainer().optimize();
+        }
+
+        void orInto(long[] words) {
+            for (int i = 0; i < nruns; i++)
+                setRange(words, start(i), end(i));
+        }
+
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < nruns; i++)
+                clearRange(words, start(i), end(i));
+        }
+
+        int numberOfRuns() {
+            return nruns;
+        }
+
+        RunContainer toRun() {
+            return this;
+        }
+
+        CharIterator iterator(int from) {
+            int first = find(from);
+            return new CharIterator() {
+                int i;
+                int value;
+
+                {
+                    if (first < 0) {
+                        i = 0;
+                        value = nruns > 0 ? start(0) : 0;
+                    } else if (from > end(first)) {
+                        i = first + 1;
+                        value = i < nruns ? start(i) : 0;
+                    } else {
+                        i = first;
+                        value = from;
+                    }
+                }
+
+                public boolean hasNext() {
+                    return i < nruns;
+                }
+
+                public int next() {
+                    int r = value;
+                    if (value == end(i)) {
+                        if (++i < nruns)
+                            value = start(i);
+                    } else {
+                        value++;
+                    }
+                    return r;
+                }
+            };
+        }
+
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, Math.max(2 * nruns, 2)), nruns, cardinality);
+        }
+
+        int type() {
+            return RUN;
+        }
+
+        int serializedSize() {
+            return 2 + 4 * nruns;
+        }
+
+        void write(ByteBuffer buf) {
+            buf.putChar((char) nruns);
+            for (int i = 0; i < 2 * nruns; i++)
+                buf.putChar(runs[i]);
+        }
+    }
+
+    /**
+     * 按起点升序追加区间、并合并重叠或相邻区间的行程构造器。
+     */
+    static final class RunBuilder {
+        char[] runs;
+        int nruns;
+        int cardinality;
+        int lastEnd = -2;
+
+        RunBuilder(int expectedRuns) {
+            runs = new char[2 * Math.max(expectedRuns, 1)];
+        }
+
+        /**
+         * 追加区间 <tt>[start, end]</tt>，<tt>start</tt> 不小于之前追加的所有起点。
+         */
+        void append(int start, int end) {
+            if (start <= lastEnd + 1) {
+                if (end > lastEnd) {
+                    cardinality += end - lastEnd;
+                    lastEnd = end;
+                    runs[2 * nruns - 1] = (char) (end - runs[2 * nruns - 2]);
+                }
+                return;
+            }
+            if (2 * nruns + 2 > runs.length)
+                runs = Arrays.copyOf(runs, runs.length * 2);
+            runs[2 * nruns] = (char) start;
+            runs[2 * nruns + 1] = (char) (end - start);
+            nruns++;
+            cardinality += end - start + 1;
+            lastEnd = end;
+        }
+
+        RunContainer toContainer() {
+            return new RunContainer(runs, nruns, cardinality);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * 对比 {@link RoaringBitmap} 与 {@link java.util.HashSet}：
+ * <ul>
+ * <li>两组各 100 万个稠密 ID（从 0..4M 中随机抽取）的交集、并集、差集，以及只计数的交集；</li>
+ * <li>逐个 <tt>contains</tt> 的吞吐量；</li>
+ * <li>每个成员占用的堆内存，以及 {@link RoaringBitmap#runOptimize()} 后的序列化大小。</li>
+ * </ul>
+ *
+ * <p>与 {@link HashMapBenchmark} 一样是简单的微基准：先预热再取多轮最好成绩，内存通过多次
+ * {@link System#gc()} 后比较已用堆大小估算。运行方式：直接执行 {@link #main(String[])}。
+ */
+public class RoaringBitmapBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int UNIVERSE = 4_000_000;
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int[] a = new int[SIZE];
+        int[] b = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextInt(UNIVERSE);
+            b[i] = random.nextInt(UNIVERSE);
+        }
+        RoaringBitmap ra = new RoaringBitmap();
+        RoaringBitmap rb = new RoaringBitmap();
+        java.util.Set<Integer> ha = new java.util.HashSet<>();
+        java.util.Set<Integer> hb = new java.util.HashSet<>();
+        for (int i = 0; i < SIZE; i++) {
+            ra.add(a[i]);
+            rb.add(b[i]);
+            ha.add(a[i]);
+            hb.add(b[i]);
+        }
+
+        report("and          java.util.HashSet", () -> {
+            java.util.Set<Integer> r = new java.util.HashSet<>(ha);
+            r.retainAll(hb);
+            return r.size();
+        });
+        report("and          RoaringBitmap    ", () -> RoaringBitmap.and(ra, rb).size());
+        report("andCard      RoaringBitmap    ", () -> (int) RoaringBitmap.andCardinality(ra, rb));
+        report("or           java.util.HashSet", () -> {
+            java.util.Set<Integer> r = new java.util.HashSet<>(ha);
+            r.addAll(hb);
+            return r.size();
+        });
+        report("or           RoaringBitmap    ", () -> RoaringBitmap.or(ra, rb).size());
+        report("andNot       java.util.HashSet", () -> {
+            java.util.Set<Integer> r = new java.util.HashSet<>(ha);
+            r.removeAll(hb);
+            return r.size();
+        });
+        report("andNot       RoaringBitmap    ", () -> RoaringBitmap.andNot(ra, rb).size());
+        report("contains     java.util.HashSet", () -> {
+            int s = 0;
+            for (int v : b) {
+                s += ha.contains(v) ? 1 : 0;
+            }
+            return s;
+        });
+        report("contains     RoaringBitmap    ", () -> {
+            int s = 0;
+            for (int v : b) {
+                s += ra.contains(v) ? 1 : 0;
+            }
+            return s;
+        });
+
+        Bench.footprint("java.util.HashSet", ha.size(), "member", () -> {
+            java.util.Set<Integer> s = new java.util.HashSet<>();
+            for (int v : a) {
+                s.add(v);
+            }
+            return s;
+        });
+        Bench.footprint("RoaringBitmap    ", ha.size(), "member", () -> {
+            RoaringBitmap s = new RoaringBitmap();
+            for (int v : a) {
+                s.add(v);
+            }
+            return s;
+        });
+        RoaringBitmap ranges = new RoaringBitmap();
+        for (int start = 0; start < UNIVERSE; start += 10_000) {
+            ranges.addRange(start, start + 5_000);
+        }
+        System.out.printf("serialized   dense random : %6.3f bytes/member%n",
+                ra.serializedSizeInBytes() / (double) ra.getCardinality());
+        ranges.runOptimize();
+        System.out.printf("serialized   ranges       : %6.3f bytes/member%n",
+                ranges.serializedSizeInBytes() / (double) ranges.getCardinality());
+        Bench.done();
+    }
+
+    private static void report(String name, IntSupplier op) {
+        System.out.printf("%s : %10.3f ms%n", name, Bench.bestNanos(WARMUP, ROUNDS, op) / 1_000_000.0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * 一个不包含重复元素的集合。更确切地讲，set 不包含满足 <tt>e1.equals(e2)</tt> 的元素对 <tt>e1</tt> 和
+ * <tt>e2</tt>，并且最多包含一个 null 元素。正如其名称所暗示的，此接口模仿了数学上的 <i>set</i> 抽象。
+ *
+ * <p>
+ * 在所有构造器以及 <tt>add</tt>、<tt>equals</tt> 和 <tt>hashCode</tt> 方法的协定上，<tt>Set</tt>
+ * 接口还加入了其他规定，这些规定超出了从 <tt>Collection</tt> 接口所继承的内容。为了方便起见，
+ * 它还包括了其他继承方法的声明（这些声明的规范已经专门针对 <tt>Set</tt> 接口进行了修改，但是没有包含任何其他的规定）。
+ *
+ * <p>
+ * 此接口同时扩展 {@link java.util.Set}，因此其实现可以直接交给只接受 JDK 集合的代码，
+ * 并与 JDK 的 set 实现之间满足 <tt>equals</tt> 的对称性。
+ *
+ * <p>
+ * 注：如果将可变对象用作 set 元素，那么必须极其小心。如果对象是 set 中某个元素，
+ * 以一种影响 <tt>equals</tt> 比较的方式改变对象的值，那么 set 的行为就是不确定的。
+ *
+ * @param <E> 此 set 所维护元素的类型
+ *
+ * @author Josh Bloch
+ * @author Neal Gafter
+ * @see Collection
+ * @see List
+ * @see AbstractSet
+ * @see RoaringBitmap
+ * @since 1.2
+ */
+public interface Set<E> extends Collection<E>, java.util.Set<E> {
+    /**
+     * 返回在此 set 中的元素上进行迭代的迭代器。返回的元素没有特定的顺序（除非此 set 是某个提供顺序保证的类的实例）。
+     *
+     * @return 在此 set 中的元素上进行迭代的迭代器
+     */
+    Iterator<E> iterator();
+
+    /**
+     * 如果 set 中尚未存在指定的元素，则添加此元素。更确切地讲，如果此 set 没有包含满足
+     * <tt>(e==null ? e2==null : e.equals(e2))</tt> 的元素 <tt>e2</tt>，则向该 set 中添加指定的元素
+     * <tt>e</tt>。如果此 set 已经包含该元素，则该调用不改变此 set 并返回 <tt>false</tt>。
+     *
+     * @param e 要添加到 set 中的元素
+     * @return 如果 set 尚未包含指定的元素，则返回 <tt>true</tt>
+     * @throws UnsupportedOperationException 如果此 set 不支持 <tt>add</tt> 操作
+     * @throws ClassCastException            如果指定元素的类不允许它添加到此 set
+     * @throws NullPointerException          如果指定的元素为 null 并且此 set 不允许 null 元素
+     * @throws IllegalArgumentException      如果指定元素的某些属性不允许它添加到此 set
+     */
+    boolean add(E e);
+
+    /**
+     * 比较指定对象与此 set 的相等性。如果指定的对象也是一个 set，两个 set 的大小相同，
+     * 并且指定 set 的所有成员都包含在此 set 中，则返回 <tt>true</tt>。此定义确保了 equals
+     * 方法可在不同的 set 接口实现间正常工作。
+     *
+     * @param o 要与此 set 进行相等性比较的对象
+     * @return 如果指定的对象等于此 set，则返回 <tt>true</tt>
+     */
+    boolean equals(Object o);
+
+    /**
+     * 返回 set 的哈希码值。一个 set 的哈希码定义为此 set 中所有元素的哈希码和，其中 null 元素的哈希码定义为零。
+     *
+     * @return 此 set 的哈希码值
+     * @see Object#equals(Object)
+     * @see Set#equals(Object)
+     */
+    int hashCode();
+
+    /**
+     * 在此 set 中的元素上创建一个 {@code Spliterator}。
+     *
+     * <p>
+     * 此 {@code Spliterator} 报告 {@link Spliterator#DISTINCT}。实现应该记录其他特征值的报告。
+     *
+     * @implSpec
+     *           默认实现从 set 的 {@code Iterator} 创建一个<em>后绑定</em>的 spliterator。
+     *
+     * @return 在此 set 中的元素上的 {@code Spliterator}
+     * @since 1.8
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.DISTINCT);
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * 基于有序数组的不可变 {@link NavigableSet}，适用于构建一次、之后以查找和范围查询为主的场景。
+ *
+ * <p>
+ * 与 {@link java.util.TreeSet} 相比，此类不为每个元素分配树节点：元素按顺序连续存放在一个 <tt>Object[]</tt> 中，
+ * 每个元素只占一个引用（约为 <tt>TreeSet</tt> 结构开销的十分之一，计入元素对象本身约为三分之一），查找时的二分搜索也只访问连续内存。
+ * <ul>
+ * <li>构造时对参数的 <tt>toArray()</tt> 结果做一次排序和一次去重扫描；如果参数是使用相同比较器的
+ * {@link java.util.SortedSet}，则跳过排序；</li>
+ * <li>{@link #contains}、{@link #lower}、{@link #floor}、{@link #ceiling}、{@link #higher} 都是
+ * O(log n) 的二分搜索；</li>
+ * <li>{@link #subSet}、{@link #headSet}、{@link #tailSet} 和 {@link #descendingSet()} 返回共享同一数组的视图，
+ * 只记录下标范围和方向，不复制元素。</li>
+ * </ul>
+ *
+ * <p>
+ * 此 set 不可修改：<tt>add</tt>、<tt>remove</tt>、<tt>pollFirst</tt>、<tt>pollLast</tt> 等修改操作都抛出
+ * <tt>UnsupportedOperationException</tt>。元素不能为 <tt>null</tt>。由于视图是不可变的，
+ * 超出视图范围的端点会被截断到视图范围内，而不像 <tt>TreeSet</tt> 的子 set 那样抛出 <tt>IllegalArgumentException</tt>。
+ * 此类可以在多个线程之间安全地共享。
+ *
+ * @param <E> 此 set 维护的元素的类型
+ *
+ * @see NavigableSet
+ * @see SortedIntArraySet
+ * @see SortedLongArraySet
+ */
+public final class SortedArraySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+    /**
+     * 按 <tt>comparator</tt> 升序排列、没有重复的元素；所有视图共享此数组。
+     */
+    final Object[] elements;
+
+    /**
+     * 此视图在 <tt>elements</tt> 中的下标范围 <tt>[from, to)</tt>。
+     */
+    final int from, to;
+
+    /**
+     * <tt>elements</tt> 的升序比较器；<tt>null</tt> 表示自然顺序。
+     */
+    final Comparator<? super E> comparator;
+
+    /**
+     * 此视图是否按降序呈现元素。
+     */
+    final boolean descending;
+
+    /**
+     * 构造一个包含指定集合中元素的 set，按元素的自然顺序排序。如果 <tt>c</tt> 是一个 {@link java.util.SortedSet}，
+     * 则沿用它的比较器。
+     *
+     * @param c 要放入此 set 的元素
+     * @throws ClassCastException   如果 <tt>c</tt> 中的元素不是可互相比较的
+     * @throws NullPointerException 如果指定的集合或其中任何元素为 null
+     */
+    @SuppressWarnings("unchecked")
+    public SortedArraySet(java.util.Collection<? extends E> c) {
+        this(c, c instanceof java.util.SortedSet
+                ? ((java.util.SortedSet<E>) c).comparator()
+                : null);
+    }
+
+    /**
+     * 构造一个包含指定集合中元素的 set，按指定比较器排序。
+     *
+     * @param c          要放入此 set 的元素
+     * @param comparator 用来排序的比较器；<tt>null</tt> 表示使用元素的自然顺序
+     * @throws ClassCastException   如果 <tt>c</tt> 中的元素不能用该比较器互相比较
+     * @throws NullPointerException 如果指定的集合或其中任何元素为 null
+     */
+    public SortedArraySet(java.util.Collection<? extends E> c, Comparator<? super E> comparator) {
+        Object[] a = c.toArray();
+        // c.toArray 可能（不正确地）不返回 Object[]（见 JDK-6260652）
+        if (a.getClass() != Object[].class)
+            a = Arrays.copyOf(a, a.length, Object[].class);
+        for (Object e : a)
+            Objects.requireNonNull(e);
+        boolean sorted = c instanceof java.util.SortedSet
+                && Objects.equals(comparator, ((java.util.SortedSet<?>) c).comparator());
+        this.elements = sorted ? a : sortedDistinct(a, comparator);
+        this.from = 0;
+        this.to = elements.length;
+        this.comparator = comparator;
+        this.descending = false;
+    }
+
+    private SortedArraySet(Object[] elements, int from, int to, Comparator<? super E> comparator,
+            boolean descending) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+        this.comparator = comparator;
+        this.descending = descending;
+    }
+
+    /**
+     * 返回按自然顺序包含指定元素的 set。重复元素只保留一个。
+     *
+     * @param elements 元素
+     * @param <E>      元素类型
+     * @return 新的 set
+     * @throws NullPointerException 如果任何元素为 null
+     */
+    @SafeVarargs
+    public static <E extends Comparable<? super E>> SortedArraySet<E> of(E... elements) {
+        // 只读取 elements 的元素，不把这个数组本身交给其他方法，@SafeVarargs 才成立
+        Object[] a = new Object[elements.length];
+        for (int i = 0; i < a.length; i++)
+            a[i] = Objects.requireNonNull(elements[i]);
+        a = sortedDistinct(a, null);
+        return new SortedArraySet<>(a, 0, a.length, null, false);
+    }
+
+    /**
+     * 对 <tt>a</tt> 排序并就地去重，返回恰好容纳去重后元素的数组。
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object[] sortedDistinct(Object[] a, Comparator cmp) {
+        Arrays.sort(a, cmp);
+        int n = a.length == 0 ? 0 : 1;
+        for (int i = 1; i < a.length; i++) {
+            int c = cmp == null ? ((Comparable) a[i]).compareTo(a[n - 1]) : cmp.compare(a[i], a[n - 1]);
+            if (c != 0)
+                a[n++] = a[i];
+        }
+        return n == a.length ? a : Arrays.copyOf(a, n);
+    }
+
+    // 下标运算，均针对升序的底层数组
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private int compare(Object a, Object b) {
+        return comparator == null ? ((Comparable) a).compareTo(b) : comparator.compare((E) a, (E) b);
+    }
+
+    /**
+     * 返回 <tt>[from, to]</tt> 中第一个大于等于（<tt>inclusive</tt>）或大于 <tt>e</tt> 的元素的下标，
+     * 如果没有这样的元素则返回 <tt>to</tt>。
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private int lowerBound(Object e, boolean inclusive) {
+        int i = Arrays.binarySearch(elements, from, to, Objects.requireNonNull(e), (Comparator) comparator);
+        return i >= 0 ? (inclusive ? i : i + 1) : -i - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) elements[i];
+    }
+
+    /** 升序下小于（或等于）<tt>e</tt> 的最大元素 */
+    private E below(Object e, boolean inclusive) {
+        int i = lowerBound(e, !inclusive) - 1;
+        return i >= from ? elementAt(i) : null;
+    }
+
+    /** 升序下大于（或等于）<tt>e</tt> 的最小元素 */
+    private E above(Object e, boolean inclusive) {
+        int i = lowerBound(e, inclusive);
+        return i < to ? elementAt(i) : null;
+    }
+
+    /** 返回升序范围 <tt>[lo, hi)</tt> 上、方向为 <tt>descending</tt> 的视图 */
+    private SortedArraySet<E> view(int lo, int hi, boolean descending) {
+        return new SortedArraySet<>(elements, lo, Math.max(lo, hi), comparator, descending);
+    }
+
+    // 查询
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    /**
+     * 如果此 set 包含指定的元素，则返回 <tt>true</tt>。<tt>null</tt> 永远不是此 set 的成员。
+     *
+     * @param o 要检查的对象
+     * @return 如果此 set 包含 <tt>o</tt>，则返回 <tt>true</tt>
+     * @throws ClassCastException 如果 <tt>o</tt> 不能与此 set 中的元素进行比较
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public boolean contains(Object o) {
+        return o != null && Arrays.binarySearch(elements, from, to, o, (Comparator) comparator) >= 0;
+    }
+
+    public Comparator<? super E> comparator() {
+        return descending ? Collections.reverseOrder(comparator) : comparator;
+    }
+
+    public E first() {
+        if (from == to)
+            throw new NoSuchElementException();
+        return elementAt(descending ? to - 1 : from);
+    }
+
+    public E last() {
+        if (from == to)
+            throw new NoSuchElementException();
+        return elementAt(descending ? from : to - 1);
+    }
+
+    public E lower(E e) {
+        return descending ? above(e, false) : below(e, false);
+    }
+
+    public E floor(E e) {
+        return descending ? above(e, true) : below(e, true);
+    }
+
+    public E ceiling(E e) {
+        return descending ? below(e, true) : above(e, true);
+    }
+
+    public E higher(E e) {
+        return descending ? below(e, false) : above(e, false);
+    }
+
+    /**
+     * 总是抛出 <tt>UnsupportedOperationException</tt>。
+     *
+     * @throws UnsupportedOperationException 总是
+     */
+    public E pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 总是抛出 <tt>UnsupportedOperationException</tt>。
+     *
+     * @throws UnsupportedOperationException 总是
+     */
+    public E pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 总是抛出 <tt>UnsupportedOperationException</tt>。
+     *
+     * @throws UnsupportedOperationException 总是
+     */
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    // 视图
+
+    public NavigableSet<E> descendingSet() {
+        return new SortedArraySet<>(elements, from, to, comparator, !descending);
+    }
+
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        int c = compare(Objects.requireNonNull(fromElement), Objects.requireNonNull(toElement));
+        if (descending ? c < 0 : c > 0)
+            throw new IllegalArgumentException("fromKey > toKey");
+        if (descending)
+            return view(lowerBound(toElement, toInclusive), lowerBound(fromElement, !fromInclusive), true);
+        return view(lowerBound(fromElement, fromInclusive), lowerBound(toElement, !toInclusive), false);
+    }
+
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        if (descending)
+            return view(lowerBound(toElement, inclusive), to, true);
+        return view(from, lowerBound(toElement, !inclusive), false);
+    }
+
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        if (descending)
+            return view(from, lowerBound(fromElement, !inclusive), true);
+        return view(lowerBound(fromElement, inclusive), to, false);
+    }
+
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    public SortedSet<E> headSet(E toElement) {
+        return headSet(toElement, false);
+    }
+
+    public SortedSet<E> tailSet(E fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    // 遍历
+
+    public Iterator<E> iterator() {
+        return new Itr(descending);
+    }
+
+    public Iterator<E> descendingIterator() {
+        return new Itr(!descending);
+    }
+
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        if (descending) {
+            for (int i = to - 1; i >= from; i--)
+                action.accept(elementAt(i));
+        } else {
+            for (int i = from; i < to; i++)
+                action.accept(elementAt(i));
+        }
+    }
+
+    public Object[] toArray() {
+        Object[] a = Arrays.copyOfRange(elements, from, to);
+        if (descending)
+            Collections.reverse(Arrays.asList(a));
+        return a;
+    }
+
+    /**
+     * 返回在此 set 中的元素上创建的 {@link Spliterator}。
+     *
+     * <p>
+     * 升序视图的 spliterator 直接覆盖底层数组的下标范围，报告 {@link Spliterator#SIZED}、
+     * {@link Spliterator#SUBSIZED}、{@link Spliterator#DISTINCT}、{@link Spliterator#ORDERED}、
+     * {@link Spliterator#IMMUTABLE} 和 {@link Spliterator#NONNULL}，使用自然顺序时还报告
+     * {@link Spliterator#SORTED}；降序视图使用 {@link SortedSet#spliterator()} 的默认实现。
+     *
+     * @return 在此 set 中的元素上的 {@code Spliterator}
+     */
+    public Spliterator<E> spliterator() {
+        if (descending)
+            return NavigableSet.super.spliterator();
+        int characteristics = Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.IMMUTABLE
+                | Spliterator.NONNULL;
+        if (comparator == null)
+            characteristics |= Spliterator.SORTED;
+        return Spliterators.spliterator(elements, from, to, characteristics);
+    }
+
+    private final class Itr implements Iterator<E> {
+        final boolean reverse;
+        int cursor;
+
+        Itr(boolean reverse) {
+            this.reverse = reverse;
+            this.cursor = reverse ? to - 1 : from;
+        }
+
+        public boolean hasNext() {
+            return reverse ? cursor >= from : cursor < to;
+        }
+
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return elementAt(reverse ? cursor-- : cursor++);
+        }
+
+        public int nextBatch(Object[] dst, int off, int max) {
+            if (reverse)
+                return Iterator.super.nextBatch(dst, off, max);
+            int n = Math.min(max, to - cursor);
+            System.arraycopy(elements, cursor, dst, off, n);
+            cursor += n;
+            return n;
+        }
+    }
+}
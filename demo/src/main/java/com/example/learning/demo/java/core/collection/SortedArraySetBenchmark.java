@@ -0,0 +1,105 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Random;
+
+/**
+ * 对比 {@link SortedArraySet}、{@link SortedIntArraySet} 与 {@link java.util.TreeSet}：
+ * <ul>
+ * <li>按随机顺序对 100 万个元素执行 <tt>contains</tt>（一半命中）和 <tt>floor</tt> 的吞吐量；</li>
+ * <li>每个元素占用的堆内存，分别统计不含元素对象（元素预先分配并共享）和含元素对象两种口径。</li>
+ * </ul>
+ *
+ * <p>与 {@link HashMapBenchmark} 一样是简单的微基准：先预热再取多轮最好成绩，内存通过多次
+ * {@link System#gc()} 后比较已用堆大小估算。运行方式：直接执行 {@link #main(String[])}。
+ */
+public class SortedArraySetBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int WARMUP = 10;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Integer[] keys = new Integer[SIZE];
+        int[] probes = new int[SIZE];
+        Integer[] boxedProbes = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = random.nextInt() & ~1;
+            probes[i] = random.nextBoolean() ? keys[random.nextInt(i + 1)] : random.nextInt() | 1;
+            boxedProbes[i] = probes[i];
+        }
+        java.util.List<Integer> list = java.util.Arrays.asList(keys);
+        java.util.TreeSet<Integer> tree = new java.util.TreeSet<>(list);
+        SortedArraySet<Integer> array = new SortedArraySet<>(list);
+        SortedIntArraySet ints = new SortedIntArraySet(list);
+
+        Bench.report("contains  java.util.TreeSet ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : boxedProbes) {
+                s += tree.contains(k) ? 1 : 0;
+            }
+            return s;
+        });
+        Bench.report("contains  SortedArraySet    ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : boxedProbes) {
+                s += array.contains(k) ? 1 : 0;
+            }
+            return s;
+        });
+        Bench.report("contains  SortedIntArraySet ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (int k : probes) {
+                s += ints.contains(k) ? 1 : 0;
+            }
+            return s;
+        });
+        Bench.report("floor     java.util.TreeSet ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : boxedProbes) {
+                Integer f = tree.floor(k);
+                s += f == null ? 0 : f;
+            }
+            return s;
+        });
+        Bench.report("floor     SortedArraySet    ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (Integer k : boxedProbes) {
+                Integer f = array.floor(k);
+                s += f == null ? 0 : f;
+            }
+            return s;
+        });
+        Bench.report("floor     SortedIntArraySet ", SIZE, WARMUP, ROUNDS, () -> {
+            int s = 0;
+            for (int k : probes) {
+                int i = ints.floorIndex(k);
+                s += i < 0 ? 0 : ints.get(i);
+            }
+            return s;
+        });
+
+        Bench.footprint("structure java.util.TreeSet ", SIZE, "element", () -> new java.util.TreeSet<>(list));
+        Bench.footprint("structure SortedArraySet    ", SIZE, "element", () -> new SortedArraySet<>(list));
+        int[] raw = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            raw[i] = keys[i];
+        }
+        //键是随机的 int，几乎都在 Integer 缓存范围之外，valueOf 会为每个元素分配新对象
+        Bench.footprint("boxed     java.util.TreeSet ", SIZE, "element", () -> {
+            java.util.TreeSet<Integer> s = new java.util.TreeSet<>();
+            for (int v : raw) {
+                s.add(Integer.valueOf(v));
+            }
+            return s;
+        });
+        Bench.footprint("boxed     SortedArraySet    ", SIZE, "element", () -> {
+            java.util.List<Integer> fresh = new java.util.ArrayList<>(SIZE);
+            for (int v : raw) {
+                fresh.add(Integer.valueOf(v));
+            }
+            return new SortedArraySet<>(fresh);
+        });
+        Bench.footprint("primitive SortedIntArraySet ", SIZE, "element", () -> new SortedIntArraySet(raw));
+        Bench.done();
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 元素类型为 <tt>int</tt> 的不可变有序 set，基于升序排列的 <tt>int[]</tt>，所有操作都不会装箱。
+ *
+ * <p>
+ * 这是 {@link SortedArraySet} 的基本类型版本：每个元素只占 4 字节，查找是对连续 <tt>int</tt> 的二分搜索。
+ * 由于 <tt>int</tt> 没有 <tt>null</tt> 可以表示“不存在”，导航操作 {@link #lowerIndex}、{@link #floorIndex}、
+ * {@link #ceilingIndex}、{@link #higherIndex} 返回元素在此 set 中的下标（不存在时返回 -1），
+ * 再通过 {@link #get(int)} 取值：
+ *
+ * <pre>{@code
+ *     int i = set.floorIndex(key);
+ *     if (i >= 0)
+ *         use(set.get(i));
+ * }</pre>
+ *
+ * <p>
+ * {@link #subSet}、{@link #headSet}、{@link #tailSet} 返回共享同一数组的视图，不复制元素；视图中的下标从 0 开始。
+ * 此类可以在多个线程之间安全地共享。
+ *
+ * @see SortedArraySet
+ * @see SortedLongArraySet
+ * @see IntList
+ */
+public final class SortedIntArraySet {
+    /**
+     * 升序排列、没有重复的元素；所有视图共享此数组。
+     */
+    final int[] elements;
+
+    /**
+     * 此视图在 <tt>elements</tt> 中的下标范围 <tt>[from, to)</tt>。
+     */
+    final int from, to;
+
+    /**
+     * 构造一个包含指定数组中元素的 set。数组被复制，之后对它的修改不影响此 set。
+     *
+     * @param values 元素，可以无序、可以重复
+     */
+    public SortedIntArraySet(int[] values) {
+        this.elements = sortedDistinct(values.clone());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    /**
+     * 构造一个包含指定列表中元素的 set。
+     *
+     * @param values 元素，可以无序、可以重复
+     */
+    public SortedIntArraySet(IntList values) {
+        this.elements = sortedDistinct(values.toArray());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    /**
+     * 构造一个包含指定集合中元素的 set。
+     *
+     * @param c 要放入此 set 的元素
+     * @throws NullPointerException 如果指定的集合或其中任何元素为 null
+     */
+    public SortedIntArraySet(java.util.Collection<? extends Integer> c) {
+        this.elements = toSortedArray(c);
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    private SortedIntArraySet(int[] elements, int from, int to) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * 返回包含指定值的 set。
+     *
+     * @param values 元素，可以无序、可以重复
+     * @return 新的 set
+     */
+    public static SortedIntArraySet of(int... values) {
+        return new SortedIntArraySet(values);
+    }
+
+    private static int[] toSortedArray(java.util.Collection<? extends Integer> c) {
+        int[] a = new int[c.size()];
+        int n = 0;
+        for (Integer e : c) {
+            if (n == a.length)
+                a = Arrays.copyOf(a, Math.max(4, n + (n >> 1)));
+            a[n++] = e;
+        }
+        return sortedDistinct(n == a.length ? a : Arrays.copyOf(a, n));
+    }
+
+    /**
+     * 对 <tt>a</tt> 排序并就地去重，返回恰好容纳去重后元素的数组。
+     */
+    private static int[] sortedDistinct(int[] a) {
+        Arrays.sort(a);
+        int n = a.length == 0 ? 0 : 1;
+        for (int i = 1; i < a.length; i++)
+            if (a[i] != a[n - 1])
+                a[n++] = a[i];
+        return n == a.length ? a : Arrays.copyOf(a, n);
+    }
+
+    /**
+     * 返回 <tt>[from, to]</tt> 中第一个大于等于（<tt>inclusive</tt>）或大于 <tt>e</tt> 的元素在底层数组中的下标，
+     * 如果没有这样的元素则返回 <tt>to</tt>。
+     */
+    private int lowerBound(int e, boolean inclusive) {
+        int i = Arrays.binarySearch(elements, from, to, e);
+        return i >= 0 ? (inclusive ? i : i + 1) : -i - 1;
+    }
+
+    // 查询
+
+    /**
+     * 返回此 set 中的元素个数。
+     *
+     * @return 元素个数
+     */
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * 如果此 set 不包含元素，则返回 <tt>true</tt>。
+     *
+     * @return 如果此 set 为空，则返回 <tt>true</tt>
+     */
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    /**
+     * 如果此 set 包含指定的元素，则返回 <tt>true</tt>。
+     *
+     * @param e 要检查的元素
+     * @return 如果此 set 包含 <tt>e</tt>，则返回 <tt>true</tt>
+     */
+    public boolean contains(int e) {
+        return Arrays.binarySearch(elements, from, to, e) >= 0;
+    }
+
+    /**
+     * 返回此 set 中按升序排在第 <tt>index</tt> 位的元素。
+     *
+     * @param index 下标
+     * @return 该位置上的元素
+     * @throws IndexOutOfBoundsException 如果下标越界
+     */
+    public int get(int index) {
+        if (index < 0 || index >= to - from)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+        return elements[from + index];
+    }
+
+    /**
+     * 返回指定元素在此 set 中的下标（即小于它的元素个数），如果不包含该元素则返回 -1。
+     *
+     * @param e 要查找的元素
+     * @return 下标，或 -1
+     */
+    public int indexOf(int e) {
+        int i = Arrays.binarySearch(elements, from, to, e);
+        return i >= 0 ? i - from : -1;
+    }
+
+    /**
+     * 返回最小的元素。
+     *
+     * @return 最小的元素
+     * @throws NoSuchElementException 如果此 set 为空
+     */
+    public int first() {
+        if (from == to)
+            throw new NoSuchElementException();
+        return elements[from];
+    }
+
+    /**
+     * 返回最大的元素。
+     *
+     * @return 最大的元素
+     * @throws NoSuchElementException 如果此 set 为空
+     */
+    public int last() {
+        if (from == to)
+            throw new NoSuchElementException();
+        return elements[to - 1];
+    }
+
+    /**
+     * 返回严格小于 <tt>e</tt> 的最大元素的下标，如果不存在则返回 -1。
+     *
+     * @param e 要匹配的值
+     * @return 下标，或 -1
+     */
+    public int lowerIndex(int e) {
+        return lowerBound(e, true) - 1 - from;
+    }
+
+    /**
+     * 返回小于等于 <tt>e</tt> 的最大元素的下标，如果不存在则返回 -1。
+     *
+     * @param e 要匹配的值
+     * @return 下标，或 -1
+     */
+    public int floorIndex(int e) {
+        return lowerBound(e, false) - 1 - from;
+    }
+
+    /**
+     * 返回大于等于 <tt>e</tt> 的最小元素的下标，如果不存在则返回 -1。
+     *
+     * @param e 要匹配的值
+     * @return 下标，或 -1
+     */
+    public int ceilingIndex(int e) {
+        int i = lowerBound(e, true);
+        return i < to ? i - from : -1;
+    }
+
+    /**
+     * 返回严格大于 <tt>e</tt> 的最小元素的下标，如果不存在则返回 -1。
+     *
+     * @param e 要匹配的值
+     * @return 下标，或 -1
+     */
+    public int higherIndex(int e) {
+        int i = lowerBound(e, false);
+        return i < to ? i - from : -1;
+    }
+
+    // 视图
+
+    /**
+     * 返回元素在 <tt>fromElement</tt> 与 <tt>toElement</tt> 之间的视图，不复制元素。
+     *
+     * @param fromElement   低端点
+     * @param fromInclusive 低端点是否包含在视图中
+     * @param toElement     高端点
+     * @param toInclusive   高端点是否包含在视图中
+     * @return 视图
+     * @throws IllegalArgumentException 如果 <tt>fromElement</tt> 大于 <tt>toElement</tt>
+     */
+    public SortedIntArraySet subSet(int fromElement, boolean fromInclusive, int toElement, boolean toInclusive) {
+        if (fromElement > toElement)
+            throw new IllegalArgumentException("fromKey > toKey");
+        int lo = lowerBound(fromElement, fromInclusive);
+        return new SortedIntArraySet(elements, lo, Math.max(lo, lowerBound(toElement, !toInclusive)));
+    }
+
+    /**
+     * 返回元素小于（或等于，如果 <tt>inclusive</tt> 为 true）<tt>toElement</tt> 的视图，不复制元素。
+     *
+     * @param toElement 高端点
+     * @param inclusive 高端点是否包含在视图中
+     * @return 视图
+     */
+    public SortedIntArraySet headSet(int toElement, boolean inclusive) {
+        return new SortedIntArraySet(elements, from, lowerBound(toElement, !inclusive));
+    }
+
+    /**
+     * 返回元素大于（或等于，如果 <tt>inclusive</tt> 为 true）<tt>fromElement</tt> 的视图，不复制元素。
+     *
+     * @param fromElement 低端点
+     * @param inclusive   低端点是否包含在视图中
+     * @return 视图
+     */
+    public SortedIntArraySet tailSet(int fromElement, boolean inclusive) {
+        return new SortedIntArraySet(elements, lowerBound(fromElement, inclusive), to);
+    }
+
+    // 遍历
+
+    /**
+     * 按升序对每个元素执行给定操作，不装箱。
+     *
+     * @param action 要对每个元素执行的操作
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = from; i < to; i++)
+            action.accept(elements[i]);
+    }
+
+    /**
+     * 返回按升序遍历的基本类型迭代器。
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * 返回覆盖此 set 的基本类型 {@link Spliterator}。
+     */
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(elements, from, to,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * 返回以此 set 为源的顺序 {@link IntStream}。
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * 返回按升序包含所有元素的新数组。
+     */
+    public int[] toArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    // 比较和哈希
+
+    /**
+     * 当且仅当指定对象也是 <tt>SortedIntArraySet</tt>，且两者包含相同的元素时返回 <tt>true</tt>。
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof SortedIntArraySet))
+            return false;
+        SortedIntArraySet other = (SortedIntArraySet) o;
+        if (other.size() != size())
+            return false;
+        for (int i = from, j = other.from; i < to; i++, j++)
+            if (elements[i] != other.elements[j])
+                return false;
+        return true;
+    }
+
+    /**
+     * 返回与等价的 <tt>Set&lt;Integer&gt;</tt> 相同的哈希码。
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = from; i < to; i++)
+            h += Integer.hashCode(elements[i]);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        if (from == to)
+            return "[]";
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = from; ; i++) {
+            sb.append(elements[i]);
+            if (i == to - 1)
+                return sb.append(']').toString();
+            sb.append(", ");
+        }
+    }
+}
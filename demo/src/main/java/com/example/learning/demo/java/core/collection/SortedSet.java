@@ -0,0 +1,117 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+/**
+ * 进一步提供关于元素的<i>总体排序</i>的 {@link Set}。这些元素使用其{@linkplain Comparable 自然顺序}进行排序，
+ * 或者根据通常在创建有序 set 时提供的 {@link Comparator} 进行排序。该 set 的迭代器将按元素升序遍历 set。
+ * 提供了一些附加的操作来利用这种排序。
+ *
+ * <p>
+ * 插入有序 set 的所有元素都必须实现 <tt>Comparable</tt> 接口（或者被指定的比较器所接受）。另外，所有这些元素都必须是<i>可互相比较的</i>：
+ * 对于有序 set 中的任意两个元素 <tt>e1</tt> 和 <tt>e2</tt>，执行 <tt>e1.compareTo(e2)</tt>（或
+ * <tt>comparator.compare(e1, e2)</tt>）都不得抛出 <tt>ClassCastException</tt>。
+ *
+ * <p>
+ * 注意，如果有序 set 要正确实现 <tt>Set</tt> 接口，则有序 set 所维持的顺序（无论是否提供了明确的比较器）都必须与
+ * <i>equals 一致</i>。这是因为 <tt>Set</tt> 接口是按照 <tt>equals</tt> 操作定义的，但有序 set
+ * 使用它的 <tt>compareTo</tt>（或 <tt>compare</tt>）方法对所有元素进行比较，因此从有序 set
+ * 的角度来看，此方法认为相等的两个元素就是相等的。
+ *
+ * <p>
+ * <tt>subSet</tt>、<tt>headSet</tt> 和 <tt>tailSet</tt> 返回的子 set 是由此 set 支持的视图，
+ * 范围对<i>低端点</i>是包括的，对<i>高端点</i>是不包括的。
+ *
+ * @param <E> 此 set 维护的元素的类型
+ *
+ * @author Josh Bloch
+ * @see Set
+ * @see NavigableSet
+ * @see SortedArraySet
+ * @since 1.2
+ */
+public interface SortedSet<E> extends Set<E>, java.util.SortedSet<E> {
+    /**
+     * 返回对此 set 中的元素进行排序的比较器；如果此 set 使用其元素的{@linkplain Comparable 自然顺序}，则返回
+     * <tt>null</tt>。
+     *
+     * @return 用来对此 set 中的元素进行排序的比较器；如果此 set 使用其元素的自然顺序，则返回 <tt>null</tt>
+     */
+    Comparator<? super E> comparator();
+
+    /**
+     * 返回此 set 的部分视图，其元素从 <tt>fromElement</tt>（包括）到 <tt>toElement</tt>（不包括）。
+     * （如果 <tt>fromElement</tt> 和 <tt>toElement</tt> 相等，则返回空的 set。）返回的 set 受此 set
+     * 支持，所以在返回 set 中的更改将反映在此 set 中，反之亦然。
+     *
+     * @param fromElement 返回 set 的低端点（包括）
+     * @param toElement   返回 set 的高端点（不包括）
+     * @return 此 set 的部分视图
+     * @throws ClassCastException       如果无法使用此 set 的比较器（或者，如果此 set 没有比较器，则使用自然顺序）比较
+     *                                  <tt>fromElement</tt> 和 <tt>toElement</tt>
+     * @throws NullPointerException     如果 <tt>fromElement</tt> 或 <tt>toElement</tt> 为 null，并且此 set
+     *                                  不允许 null 元素
+     * @throws IllegalArgumentException 如果 <tt>fromElement</tt> 大于 <tt>toElement</tt>；或者如果此 set
+     *                                  本身有范围限制，并且 <tt>fromElement</tt> 或 <tt>toElement</tt> 位于范围的边界之外
+     */
+    SortedSet<E> subSet(E fromElement, E toElement);
+
+    /**
+     * 返回此 set 的部分视图，其元素严格小于 <tt>toElement</tt>。
+     *
+     * @param toElement 返回 set 的高端点（不包括）
+     * @return 此 set 的部分视图，其元素严格小于 <tt>toElement</tt>
+     * @throws ClassCastException       如果 <tt>toElement</tt> 与此 set 的比较器不兼容
+     * @throws NullPointerException     如果 <tt>toElement</tt> 为 null，并且此 set 不允许 null 元素
+     * @throws IllegalArgumentException 如果此 set 本身有范围限制，并且 <tt>toElement</tt> 位于范围的边界之外
+     */
+    SortedSet<E> headSet(E toElement);
+
+    /**
+     * 返回此 set 的部分视图，其元素大于等于 <tt>fromElement</tt>。
+     *
+     * @param fromElement 返回 set 的低端点（包括）
+     * @return 此 set 的部分视图，其元素大于等于 <tt>fromElement</tt>
+     * @throws ClassCastException       如果 <tt>fromElement</tt> 与此 set 的比较器不兼容
+     * @throws NullPointerException     如果 <tt>fromElement</tt> 为 null，并且此 set 不允许 null 元素
+     * @throws IllegalArgumentException 如果此 set 本身有范围限制，并且 <tt>fromElement</tt> 位于范围的边界之外
+     */
+    SortedSet<E> tailSet(E fromElement);
+
+    /**
+     * 返回此 set 中当前第一个（最低）元素。
+     *
+     * @return 此 set 中当前第一个（最低）元素
+     * @throws NoSuchElementException 如果此 set 为空
+     */
+    E first();
+
+    /**
+     * 返回此 set 中当前最后一个（最高）元素。
+     *
+     * @return 此 set 中当前最后一个（最高）元素
+     * @throws NoSuchElementException 如果此 set 为空
+     */
+    E last();
+
+    /**
+     * 在此有序 set 中的元素上创建一个 {@code Spliterator}。
+     *
+     * <p>
+     * 此 {@code Spliterator} 报告 {@link Spliterator#DISTINCT}、{@link Spliterator#SORTED} 和
+     * {@link Spliterator#ORDERED}，其比较器与此有序 set 的比较器相同。
+     *
+     * @implSpec
+     *           默认实现与 {@link java.util.SortedSet#spliterator()} 相同：从有序 set 的 {@code Iterator}
+     *           创建一个<em>后绑定</em>的 spliterator，并返回此 set 的比较器。
+     *
+     * @return 在此有序 set 中的元素上的 {@code Spliterator}
+     * @since 1.8
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return java.util.SortedSet.super.spliterator();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.function.Consumer;
+
+/**
+ * 有界、无锁的单生产者单消费者数组队列。
+ *
+ * <p>
+ * 只允许一个线程调用 <tt>offer</tt>/<tt>offerBatch</tt>，且只允许一个线程调用 <tt>poll</tt>/<tt>drain</tt>
+ * （可以是不同的线程）。两端都不需要 CAS，只用有序写发布索引和槽位序号。
+ * 违反线程约束时行为是不确定的。
+ *
+ * <p>
+ * 槽位协议、批量操作和伪共享填充见 {@link BoundedArrayQueue}。
+ *
+ * @param <E> 此队列中保存的元素的类型
+ */
+public class SpscArrayQueue<E> extends BoundedArrayQueue<E> {
+    /**
+     * 创建容量不小于 <tt>capacity</tt> 的队列，实际容量向上取整为 2 的幂。
+     *
+     * @param capacity 最小容量
+     * @throws IllegalArgumentException 如果 <tt>capacity</tt> 小于 2 或大于 2<sup>30</sup>
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * 如果队列未满，则将指定元素插入队尾。
+     *
+     * @return 如果插入成功，则返回 <tt>true</tt>；如果队列已满，则返回 <tt>false</tt>
+     * @throws NullPointerException 如果指定元素为 null
+     */
+    public boolean offer(E e) {
+        return offerSingle(e);
+    }
+
+    public E poll() {
+        return pollSingle();
+    }
+
+    public int offerBatch(E[] src, int off, int len) {
+        return offerBatchSingle(src, off, len);
+    }
+
+    public int drain(Consumer<? super E> c, int limit) {
+        return drainSingle(c, limit);
+    }
+}
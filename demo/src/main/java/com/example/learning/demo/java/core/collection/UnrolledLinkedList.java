@@ -0,0 +1,530 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 展开链表（unrolled linked list）：每个链表节点（块，chunk）保存一段连续的元素数组，
+ * 而不是只保存一个元素。
+ *
+ * <p>
+ * 每个元素一个节点的 {@link java.util.LinkedList} 在遍历时几乎每一步都是一次缓存未命中，
+ * 每个元素还要额外付出约 40 字节（节点对象头加三个引用）。展开链表把 {@code chunkCapacity}
+ * （默认 64，推荐 32 ~ 128）个元素放在同一个数组里：
+ * <ul>
+ * <li>遍历时按块顺序扫描数组，{@link ListIterator} 与 {@link Iterator#nextBatch} 都是逐块前进的；</li>
+ * <li>按索引定位时从较近的一端出发，根据每块的元素个数整块跳过，代价为 O(n / chunkCapacity)；</li>
+ * <li>在中间插入或删除只需要移动所在块内的元素：块满时对半<b>拆分</b>，
+ * 删除后块内元素少于一半时与相邻块<b>合并</b>或从相邻块<b>借</b>元素，避免留下大量稀疏的块。</li>
+ * </ul>
+ *
+ * <p>
+ * 通过 {@link #listIterator()} 在遍历的同时插入或删除元素时，每次修改只花费 O(chunkCapacity)。
+ * <strong>注意，此实现不是同步的。</strong>迭代器是<i>快速失败</i>的。
+ *
+ * @param <E> 此列表中元素的类型
+ * @see ArrayList
+ * @see java.util.LinkedList
+ */
+public class UnrolledLinkedList<E> extends AbstractList<E> {
+    /**
+     * 默认的块容量。
+     */
+    public static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+    /**
+     * 块：保存最多 {@code items.length} 个元素的双向链表节点。
+     */
+    private static final class Chunk {
+        final Object[] items;
+        int count;
+        Chunk prev;
+        Chunk next;
+
+        Chunk(int capacity) {
+            items = new Object[capacity];
+        }
+    }
+
+    private final int chunkCapacity;
+
+    /**
+     * 第一个块。列表为空时是一个空块，而不是 null。
+     */
+    private Chunk head;
+
+    /**
+     * 最后一个块。
+     */
+    private Chunk tail;
+
+    private int size;
+
+    /**
+     * 构造一个使用默认块容量的空列表。
+     */
+    public UnrolledLinkedList() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * 构造一个使用指定块容量的空列表。
+     *
+     * @param chunkCapacity 每块最多保存的元素个数
+     * @throws IllegalArgumentException 如果块容量小于 4
+     */
+    public UnrolledLinkedList(int chunkCapacity) {
+        if (chunkCapacity < 4)
+            throw new IllegalArgumentException("Illegal chunk capacity: " + chunkCapacity);
+        this.chunkCapacity = chunkCapacity;
+        this.head = this.tail = new Chunk(chunkCapacity);
+    }
+
+    /**
+     * 构造一个包含指定集合元素的列表，元素顺序与集合迭代器返回的顺序相同。
+     *
+     * @param c 其元素将被放入此列表的集合
+     * @throws NullPointerException 如果指定的集合为 null
+     */
+    public UnrolledLinkedList(java.util.Collection<? extends E> c) {
+        this();
+        addAll(c);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 位置访问操作
+
+    /**
+     * 返回此列表中指定位置的元素。从较近的一端出发，整块跳过不包含该索引的块。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkElementIndex(index);
+        if (index < (size >> 1)) {
+            Chunk c = head;
+            while (index >= c.count) {
+                index -= c.count;
+                c = c.next;
+            }
+            return (E) c.items[index];
+        } else {
+            Chunk c = tail;
+            int back = size - 1 - index;
+            while (back >= c.count) {
+                back -= c.count;
+                c = c.prev;
+            }
+            return (E) c.items[c.count - 1 - back];
+        }
+    }
+
+    /**
+     * 用指定元素替换此列表中指定位置的元素。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E set(int index, E element) {
+        checkElementIndex(index);
+        ListItr it = new ListItr(index);
+        E old = it.next();
+        it.set(element);
+        return old;
+    }
+
+    /**
+     * 将指定元素追加到此列表的末尾。尾块已满时直接新建一个块，不拆分，
+     * 因此顺序追加得到的块都是满的。
+     *
+     * @param e 要追加到此列表的元素
+     * @return <tt>true</tt>
+     */
+    public boolean add(E e) {
+        Chunk t = tail;
+        if (t.count == chunkCapacity) {
+            Chunk c = new Chunk(chunkCapacity);
+            c.prev = t;
+            t.next = c;
+            tail = t = c;
+        }
+        t.items[t.count++] = e;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * 将指定元素插入此列表中的指定位置。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public void add(int index, E element) {
+        if (index == size) {
+            add(element);
+        } else {
+            checkPositionIndex(index);
+            new ListItr(index).add(element);
+        }
+    }
+
+    /**
+     * 移除此列表中指定位置的元素。
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E remove(int index) {
+        checkElementIndex(index);
+        ListItr it = new ListItr(index);
+        E e = it.next();
+        it.remove();
+        return e;
+    }
+
+    /**
+     * 从此列表中移除所有元素，只保留一个空块。
+     */
+    public void clear() {
+        head = tail = new Chunk(chunkCapacity);
+        size = 0;
+        modCount++;
+    }
+
+    // 查询操作
+
+    /**
+     * 逐块扫描，返回指定元素第一次出现的索引；如果此列表不包含该元素，则返回 -1。
+     */
+    public int indexOf(Object o) {
+        int base = 0;
+        for (Chunk c = head; c != null; base += c.count, c = c.next) {
+            final Object[] items = c.items;
+            for (int i = 0, n = c.count; i < n; i++)
+                if (o == null ? items[i] == null : o.equals(items[i]))
+                    return base + i;
+        }
+        return -1;
+    }
+
+    /**
+     * 从尾块开始逐块反向扫描，返回指定元素最后一次出现的索引；如果此列表不包含该元素，则返回 -1。
+     */
+    public int lastIndexOf(Object o) {
+        int end = size;
+        for (Chunk c = tail; c != null; c = c.prev) {
+            end -= c.count;
+            final Object[] items = c.items;
+            for (int i = c.count - 1; i >= 0; i--)
+                if (o == null ? items[i] == null : o.equals(items[i]))
+                    return end + i;
+        }
+        return -1;
+    }
+
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * 逐块复制，返回包含此列表中所有元素的数组。
+     */
+    public Object[] toArray() {
+        Object[] r = new Object[size];
+        int i = 0;
+        for (Chunk c = head; c != null; c = c.next) {
+            System.arraycopy(c.items, 0, r, i, c.count);
+            i += c.count;
+        }
+        return r;
+    }
+
+    /**
+     * 逐块遍历，对每个元素执行给定操作。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        for (Chunk c = head; c != null && modCount == expectedModCount; c = c.next) {
+            final Object[] items = c.items;
+            for (int i = 0, n = c.count; i < n; i++)
+                action.accept((E) items[i]);
+        }
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    // 迭代器
+
+    public Iterator<E> iterator() {
+        return new ListItr(0);
+    }
+
+    public ListIterator<E> listIterator() {
+        return new ListItr(0);
+    }
+
+    public ListIterator<E> listIterator(int index) {
+        checkPositionIndex(index);
+        return new ListItr(index);
+    }
+
+    /**
+     * 逐块前进的列表迭代器。游标由 (chunk, offset) 表示：下一个元素是 {@code chunk.items[offset]}；
+     * 当 {@code offset == chunk.count} 时，下一个元素位于后继块的开头。
+     * 插入和删除（包括由此引起的拆分、合并和借用）都在迭代器内部完成，并同步修正游标，
+     * 因此遍历中的修改不需要重新从头定位。
+     */
+    private class ListItr implements Iterator<E>, ListIterator<E> {
+        private Chunk chunk;
+        private int offset;
+        private int nextIndex;
+        /** 最近一次 next/previous 返回的元素所在的块；没有或已被移除时为 null */
+        private Chunk lastChunk;
+        private int lastOffset;
+        private int expectedModCount = modCount;
+
+        ListItr(int index) {
+            nextIndex = index;
+            if (index <= (size >> 1)) {
+                Chunk c = head;
+                while (index > c.count) {
+                    index -= c.count;
+                    c = c.next;
+                }
+                chunk = c;
+                offset = index;
+            } else {
+                Chunk c = tail;
+                int back = size - index;
+                while (back > c.count) {
+                    back -= c.count;
+                    c = c.prev;
+                }
+                chunk = c;
+                offset = c.count - back;
+            }
+        }
+
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            if (nextIndex >= size)
+                throw new NoSuchElementException();
+            while (offset >= chunk.count) {
+                chunk = chunk.next;
+                offset = 0;
+            }
+            lastChunk = chunk;
+            lastOffset = offset;
+            nextIndex++;
+            return (E) chunk.items[offset++];
+        }
+
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            if (nextIndex <= 0)
+                throw new NoSuchElementException();
+            while (offset == 0) {
+                chunk = chunk.prev;
+                offset = chunk.count;
+            }
+            offset--;
+            lastChunk = chunk;
+            lastOffset = offset;
+            nextIndex--;
+            return (E) chunk.items[offset];
+        }
+
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        /**
+         * 把当前块中剩余的元素整段复制到 {@code dst}，再前进到下一块。
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            checkForComodification();
+            int n = 0;
+            while (n < max && nextIndex < size) {
+                while (offset >= chunk.count) {
+                    chunk = chunk.next;
+                    offset = 0;
+                }
+                int k = Math.min(max - n, chunk.count - offset);
+                System.arraycopy(chunk.items, offset, dst, off + n, k);
+                offset += k;
+                nextIndex += k;
+                n += k;
+                lastChunk = chunk;
+                lastOffset = offset - 1;
+            }
+            return n;
+        }
+
+        public void set(E e) {
+            if (lastChunk == null)
+                throw new IllegalStateException();
+            checkForComodification();
+            lastChunk.items[lastOffset] = e;
+        }
+
+        public void remove() {
+            if (lastChunk == null)
+                throw new IllegalStateException();
+            checkForComodification();
+            Chunk c = lastChunk;
+            int o = lastOffset;
+            if (c != chunk || o < offset) // 最近一次调用的是 next()，游标在被删除元素之后
+                nextIndex--;
+            System.arraycopy(c.items, o + 1, c.items, o, c.count - o - 1);
+            c.items[--c.count] = null; // 清除以让 GC 完成它的工作
+            // 删除后游标指向原先紧跟在被删除元素之后的元素
+            chunk = c;
+            offset = o;
+            lastChunk = null;
+            size--;
+            rebalance(c);
+            expectedModCount = ++modCount;
+        }
+
+        public void add(E e) {
+            checkForComodification();
+            Chunk c = chunk;
+            int o = offset;
+            if (c.count == chunkCapacity) {
+                // 块已满：把后一半元素移到新块中
+                int half = chunkCapacity >>> 1;
+                Chunk n = new Chunk(chunkCapacity);
+                int moved = c.count - half;
+                System.arraycopy(c.items, half, n.items, 0, moved);
+                for (int i = half; i < c.count; i++)
+                    c.items[i] = null;
+                n.count = moved;
+                c.count = half;
+                linkAfter(c, n);
+                if (o > half) {
+                    c = n;
+                    o -= half;
+                }
+            }
+            System.arraycopy(c.items, o, c.items, o + 1, c.count - o);
+            c.items[o] = e;
+            c.count++;
+            chunk = c;
+            offset = o + 1;
+            nextIndex++;
+            lastChunk = null;
+            size++;
+            expectedModCount = ++modCount;
+        }
+
+        /**
+         * 块 {@code c} 少于半满时，与相邻块合并或从相邻块借元素，并修正游标位置。
+         */
+        private void rebalance(Chunk c) {
+            int min = chunkCapacity >>> 1;
+            if (c.count >= min)
+                return;
+            Chunk next = c.next, prev = c.prev;
+            if (next != null && c.count + next.count <= chunkCapacity) {
+                // 把后继块合并进来，游标位置不变
+                if (chunk == next) {
+                    chunk = c;
+                    offset += c.count;
+                }
+                System.arraycopy(next.items, 0, c.items, c.count, next.count);
+                c.count += next.count;
+                unlink(next);
+            } else if (prev != null && prev.count + c.count <= chunkCapacity) {
+                // 合并到前驱块
+                if (chunk == c) {
+                    chunk = prev;
+                    offset += prev.count;
+                }
+                System.arraycopy(c.items, 0, prev.items, prev.count, c.count);
+                prev.count += c.count;
+                unlink(c);
+            } else if (next != null) {
+                // 从后继块的头部借元素
+                int k = (next.count - c.count) >>> 1;
+                System.arraycopy(next.items, 0, c.items, c.count, k);
+                System.arraycopy(next.items, k, next.items, 0, next.count - k);
+                for (int i = next.count - k; i < next.count; i++)
+                    next.items[i] = null;
+                c.count += k;
+                next.count -= k;
+            } else if (prev != null) {
+                // 从前驱块的尾部借元素
+                int k = (prev.count - c.count) >>> 1;
+                System.arraycopy(c.items, 0, c.items, k, c.count);
+                System.arraycopy(prev.items, prev.count - k, c.items, 0, k);
+                for (int i = prev.count - k; i < prev.count; i++)
+                    prev.items[i] = null;
+                prev.count -= k;
+                c.count += k;
+                if (chunk == c)
+                    offset += k;
+            }
+            // 否则 c 是唯一的块，允许它不满甚至为空
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    private void linkAfter(Chunk c, Chunk n) {
+        n.prev = c;
+        n.next = c.next;
+        if (c.next != null)
+            c.next.prev = n;
+        else
+            tail = n;
+        c.next = n;
+    }
+
+    private void unlink(Chunk c) {
+        if (c.prev != null)
+            c.prev.next = c.next;
+        else
+            head = c.next;
+        if (c.next != null)
+            c.next.prev = c.prev;
+        else
+            tail = c.prev;
+        c.prev = c.next = null;
+    }
+
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
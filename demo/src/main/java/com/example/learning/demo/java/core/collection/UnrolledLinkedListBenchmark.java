@@ -0,0 +1,112 @@
+package com.example.learning.demo.java.core.collection;
+
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 混合插入/扫描负载下，对比 {@link UnrolledLinkedList}、{@link java.util.LinkedList} 和
+ * {@link java.util.ArrayList}。
+ *
+ * <ul>
+ * <li>random-index：在随机位置按索引插入和删除，再做一次完整扫描；</li>
+ * <li>iterator-insert：用 {@link ListIterator} 遍历，每隔 8 个元素插入一个新元素，再做一次完整扫描。</li>
+ * </ul>
+ * 运行方式：直接执行 {@link #main(String[])}。
+ */
+public class UnrolledLinkedListBenchmark {
+    private static final int SIZE = 200_000;
+    private static final int OPS = 20_000;
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        run("java.util.ArrayList ", java.util.ArrayList::new);
+        run("java.util.LinkedList", java.util.LinkedList::new);
+        run("UnrolledLinkedList  ", UnrolledLinkedList::new);
+        Bench.done();
+    }
+
+    private static void run(String name, Supplier<java.util.Collection<Integer>> factory) {
+        long randomIndex = measure(() -> {
+            java.util.List<Integer> list = fill(factory);
+            Random random = new Random(42);
+            for (int i = 0; i < OPS; i++) {
+                list.add(random.nextInt(list.size() + 1), i);
+                list.remove(random.nextInt(list.size()));
+            }
+            return scan(list);
+        });
+        long iteratorInsert = measure(() -> {
+            java.util.List<Integer> list = fill(factory);
+            ListIterator<Integer> it = list.listIterator();
+            int i = 0;
+            while (it.hasNext()) {
+                it.next();
+                if ((++i & 7) == 0) {
+                    it.add(i);
+                }
+            }
+            return scan(list);
+        });
+        System.out.printf("%s  random-index: %6d ms  iterator-insert: %6d ms%n", name, randomIndex, iteratorInsert);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static java.util.List<Integer> fill(Supplier<java.util.Collection<Integer>> factory) {
+        java.util.Collection<Integer> c = factory.get();
+        for (int i = 0; i < SIZE; i++) {
+            c.add(i);
+        }
+        // UnrolledLinkedList 实现的是本包的 List，这里统一用 java.util.List 的视角操作
+        return c instanceof java.util.List ? (java.util.List<Integer>) c : new ListAdapter<>((UnrolledLinkedList<Integer>) c);
+    }
+
+    private static int scan(java.util.List<Integer> list) {
+        int s = 0;
+        for (Integer v : list) {
+            s += v;
+        }
+        return s;
+    }
+
+    private static long measure(IntSupplier op) {
+        return Bench.bestNanos(WARMUP, ROUNDS, op) / 1_000_000;
+    }
+
+    /**
+     * 把本包的 {@link List} 适配为 {@link java.util.List}，只转发基准用到的方法。
+     */
+    private static final class ListAdapter<E> extends java.util.AbstractList<E> {
+        private final List<E> list;
+
+        ListAdapter(List<E> list) {
+            this.list = list;
+        }
+
+        public E get(int index) {
+            return list.get(index);
+        }
+
+        public int size() {
+            return list.size();
+        }
+
+        public void add(int index, E element) {
+            list.add(index, element);
+        }
+
+        public E remove(int index) {
+            return list.remove(index);
+        }
+
+        public java.util.Iterator<E> iterator() {
+            return list.iterator();
+        }
+
+        public ListIterator<E> listIterator() {
+            return list.listIterator();
+        }
+    }
+}
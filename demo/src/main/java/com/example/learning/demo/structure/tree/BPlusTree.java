@@ -0,0 +1,901 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * B+ 树：与 {@link RedBlackTree} 提供相同的有序 map 操作，但每个节点把多达 <tt>order</tt> 个键连续存放在一个数组中，
+ * 适合范围扫描和大量的点查。
+ *
+ * <p>结构：
+ * <ul>
+ * <li>所有键值对都在叶子节点中，叶子按键的顺序用 <tt>prev</tt>/<tt>next</tt> 双向链接，范围扫描沿链表顺序读取数组，
+ * 不需要像 {@link RedBlackTree#successor} 那样每个键追一次指针；</li>
+ * <li>内部节点只存放分隔键：<tt>keys[i]</tt> 左边的子树中的键都小于它，右边的子树中的键都大于等于它；</li>
+ * <li>除根以外，每个节点至少半满，所以树高是 O(log<sub>order</sub> n)：默认的阶 128 下，一千万个键只有 4 层。</li>
+ * </ul>
+ *
+ * <p>插入时节点满了就对半分裂并把分隔键插入父节点；删除时节点不足半满就先向相邻的兄弟借一个键，
+ * 兄弟也只剩一半时与它合并。{@link #BPlusTree(Comparator, int, Object[], Object[])} 等构造方法从有序数据
+ * 自底向上逐层构造，线性时间，不需要任何分裂。
+ *
+ * <p>迭代器是快速失败的，通过迭代器删除后会按被删除的键重新定位。<strong>注意，此实现不是同步的。</strong>
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @see RedBlackTree
+ */
+public class BPlusTree<K, V> implements Iterable<Map.Entry<K, V>> {
+    /** 默认的阶，即内部节点的最大孩子数和叶子节点的最大键数 */
+    public static final int DEFAULT_ORDER = 128;
+
+    /** 允许的最小阶，主要用于测试 */
+    private static final int MIN_ORDER = 4;
+
+    /* 节点：count 个有效的键连续存放在 keys 中 */
+    abstract static class Node {
+        final Object[] keys;
+        int count;
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /* 叶子节点：最多 order 个键值对 */
+    static final class Leaf extends Node {
+        final Object[] values;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int order) {
+            super(order);
+            values = new Object[order];
+        }
+    }
+
+    /* 内部节点：最多 order - 1 个分隔键、order 个孩子 */
+    static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int order) {
+            super(order - 1);
+            children = new Node[order];
+        }
+    }
+
+    /* 键比较器，为 null 时使用键的自然顺序 */
+    private final Comparator<? super K> comparator;
+    /* 阶 */
+    private final int order;
+    /* 根节点，空树时为 null */
+    private transient Node root;
+    /* 第一个和最后一个叶子 */
+    private transient Leaf head;
+    private transient Leaf tail;
+    /* 键值对个数 */
+    private transient int size;
+    /* 结构性修改次数，用于迭代器的快速失败检查 */
+    private transient int modCount;
+
+    /* 插入和删除的递归过程中向上传递的结果，此实现不是同步的，所以可以放在字段中避免分配 */
+    private transient Object splitKey;
+    private transient Node splitNode;
+    private transient boolean changed;
+
+    /**
+     * 构造一棵空树，按键的自然顺序排序，阶为 {@link #DEFAULT_ORDER}。
+     */
+    public BPlusTree() {
+        this(null, DEFAULT_ORDER);
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序，阶为 {@link #DEFAULT_ORDER}。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     */
+    public BPlusTree(Comparator<? super K> comparator) {
+        this(comparator, DEFAULT_ORDER);
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序，使用给定的阶。阶越大树越矮、扫描越连续，但插入和删除时移动的元素越多，
+     * 通常取 64～256。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     * @param order      阶，即每个节点的最大孩子数（叶子节点的最大键数）
+     * @throws IllegalArgumentException 如果阶小于 4
+     */
+    public BPlusTree(Comparator<? super K> comparator, int order) {
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("Illegal order: " + order);
+        }
+        this.comparator = comparator;
+        this.order = order;
+    }
+
+    /**
+     * 用严格升序的键数组在线性时间内自底向上构造一棵树。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     * @param order      阶
+     * @param keys       按 <tt>comparator</tt> 严格升序排列的键
+     * @param values     与键一一对应的值；为 null 时所有值都是 null
+     * @throws IllegalArgumentException 如果键不是严格升序，或者两个数组长度不同，或者阶小于 4
+     */
+    public BPlusTree(Comparator<? super K> comparator, int order, K[] keys, V[] values) {
+        this(comparator, order);
+        if (values != null && values.length != keys.length) {
+            throw new IllegalArgumentException("keys.length != values.length");
+        }
+        bulkLoad(keys.length, null, keys, values);
+    }
+
+    /**
+     * 用按键严格升序给出的 <tt>size</tt> 个键值对在线性时间内自底向上构造一棵树，迭代器恰好被消费 <tt>size</tt> 次。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     * @param order      阶
+     * @param size       键值对的个数
+     * @param entries    按键严格升序的键值对
+     * @throws IllegalArgumentException 如果键不是严格升序，或者阶小于 4
+     * @throws NoSuchElementException   如果迭代器中的元素少于 <tt>size</tt> 个
+     */
+    public BPlusTree(Comparator<? super K> comparator, int order, int size,
+                     Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        this(comparator, order);
+        if (size < 0) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        bulkLoad(size, entries, null, null);
+    }
+
+    /**
+     * 自底向上构造：先把键值对尽量平均地装进 ceil(n / order) 个叶子，再把每层的节点尽量平均地分给
+     * ceil(c / order) 个父节点，直到只剩一个节点。平均分配保证每个节点都至少半满。
+     */
+    private void bulkLoad(int n, Iterator<? extends Map.Entry<? extends K, ? extends V>> it,
+                          Object[] keys, Object[] values) {
+        if (n == 0) {
+            return;
+        }
+        int leaves = (n + order - 1) / order;
+        Node[] level = new Node[leaves];
+        //每个节点子树中的最小键，用作父节点的分隔键
+        Object[] lowKeys = new Object[leaves];
+        Object prevKey = null;
+        int next = 0;
+        Leaf prev = null;
+        for (int l = 0; l < leaves; l++) {
+            Leaf leaf = new Leaf(order);
+            int count = n / leaves + (l < n % leaves ? 1 : 0);
+            for (int i = 0; i < count; i++, next++) {
+                Object key;
+                Object value;
+                if (it != null) {
+                    Map.Entry<? extends K, ? extends V> e = it.next();
+                    key = e.getKey();
+                    value = e.getValue();
+                } else {
+                    key = keys[next];
+                    value = (values == null ? null : values[next]);
+                }
+                if (next == 0 ? compare(key, key) != 0 : compare(prevKey, key) >= 0) {
+                    throw new IllegalArgumentException("keys not in strictly ascending order at index " + next);
+                }
+                prevKey = key;
+                leaf.keys[i] = key;
+                leaf.values[i] = value;
+            }
+            leaf.count = count;
+            leaf.prev = prev;
+            if (prev != null) {
+                prev.next = leaf;
+            } else {
+                head = leaf;
+            }
+            prev = leaf;
+            level[l] = leaf;
+            lowKeys[l] = leaf.keys[0];
+        }
+        tail = prev;
+        //逐层向上构造内部节点
+        int c = leaves;
+        while (c > 1) {
+            int parents = (c + order - 1) / order;
+            Node[] upper = new Node[parents];
+            Object[] upperLow = new Object[parents];
+            int child = 0;
+            for (int p = 0; p < parents; p++) {
+                Inner inner = new Inner(order);
+                int count = c / parents + (p < c % parents ? 1 : 0);
+                upperLow[p] = lowKeys[child];
+                for (int i = 0; i < count; i++, child++) {
+                    inner.children[i] = level[child];
+                    if (i > 0) {
+                        inner.keys[i - 1] = lowKeys[child];
+                    }
+                }
+                inner.count = count - 1;
+                upper[p] = inner;
+            }
+            level = upper;
+            lowKeys = upperLow;
+            c = parents;
+        }
+        root = level[0];
+        size = n;
+    }
+
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator == null ? ((Comparable<? super K>) k1).compareTo((K) k2)
+                : comparator.compare((K) k1, (K) k2);
+    }
+
+    /**
+     * 在节点的前 count 个键中二分查找，与 {@link java.util.Arrays#binarySearch} 的约定相同：
+     * 找到时返回下标，否则返回 <tt>-(插入点) - 1</tt>。
+     */
+    private int search(Node node, Object key) {
+        Object[] keys = node.keys;
+        int lo = 0;
+        int hi = node.count - 1;
+        if (comparator == null) {
+            if (key == null) {
+                throw new NullPointerException();
+            }
+            @SuppressWarnings("unchecked")
+            Comparable<Object> k = (Comparable<Object>) key;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = k.compareTo(keys[mid]);
+                if (cmp > 0) {
+                    lo = mid + 1;
+                } else if (cmp < 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+        } else {
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = compare(key, keys[mid]);
+                if (cmp > 0) {
+                    lo = mid + 1;
+                } else if (cmp < 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /** 返回内部节点中 key 所在的孩子的下标，即小于等于 key 的分隔键的个数 */
+    private int childIndex(Inner inner, Object key) {
+        int i = search(inner, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /** 返回 key 所在（或者应当插入）的叶子 */
+    private Leaf findLeaf(Object key) {
+        Node p = root;
+        while (p instanceof Inner) {
+            Inner inner = (Inner) p;
+            p = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) p;
+    }
+
+    /* 查询操作 */
+    /**返回键值对个数*/
+    public int size() {
+        return size;
+    }
+    /**是否为空*/
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    /**返回排序使用的比较器，自然顺序时返回 null*/
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+    /**返回阶*/
+    public int order() {
+        return order;
+    }
+    /**是否包含指定的键*/
+    public boolean containsKey(Object key) {
+        if (root == null) {
+            return false;
+        }
+        return search(findLeaf(key), key) >= 0;
+    }
+    /**返回键对应的值，不存在时返回 null*/
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return i >= 0 ? (V) leaf.values[i] : null;
+    }
+    /**返回最小的键*/
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        return (K) head.keys[0];
+    }
+    /**返回最大的键*/
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        if (tail == null) {
+            throw new NoSuchElementException();
+        }
+        return (K) tail.keys[tail.count - 1];
+    }
+    /**返回严格小于 key 的最大键，不存在时返回 null*/
+    public K lowerKey(K key) {
+        return below(key, false);
+    }
+    /**返回小于等于 key 的最大键，不存在时返回 null*/
+    public K floorKey(K key) {
+        return below(key, true);
+    }
+    /**返回大于等于 key 的最小键，不存在时返回 null*/
+    public K ceilingKey(K key) {
+        return above(key, true);
+    }
+    /**返回严格大于 key 的最小键，不存在时返回 null*/
+    public K higherKey(K key) {
+        return above(key, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K above(K key, boolean inclusive) {
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = position(leaf, key, inclusive);
+        if (i == leaf.count) {
+            leaf = leaf.next;
+            i = 0;
+        }
+        return leaf == null ? null : (K) leaf.keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private K below(K key, boolean inclusive) {
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        //第一个大于（inclusive 时为大于等于）key 的位置的前一个
+        int i = position(leaf, key, !inclusive) - 1;
+        if (i < 0) {
+            leaf = leaf.prev;
+            if (leaf == null) {
+                return null;
+            }
+            i = leaf.count - 1;
+        }
+        return (K) leaf.keys[i];
+    }
+
+    /** 返回叶子中第一个大于等于（inclusive）或大于 key 的键的下标，可能等于 count */
+    private int position(Leaf leaf, Object key, boolean inclusive) {
+        int i = search(leaf, key);
+        return i >= 0 ? (inclusive ? i : i + 1) : -i - 1;
+    }
+
+    /**
+     * 按键的升序对 <tt>lo</tt> 与 <tt>hi</tt> 之间的键值对执行给定操作，端点是否包含由对应的参数决定。
+     * 只在开始时从根查找一次，之后沿叶子链表顺序扫描。
+     *
+     * @return 访问的键值对个数
+     * @throws IllegalArgumentException 如果 <tt>lo</tt> 大于 <tt>hi</tt>
+     */
+    @SuppressWarnings("unchecked")
+    public int forEachInRange(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+                              BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        if (compare(lo, hi) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        if (root == null) {
+            return 0;
+        }
+        int expectedModCount = modCount;
+        Leaf leaf = findLeaf(lo);
+        int i = position(leaf, lo, loInclusive);
+        int visited = 0;
+        for (; leaf != null; leaf = leaf.next, i = 0) {
+            Object[] keys = leaf.keys;
+            for (int n = leaf.count; i < n; i++) {
+                int cmp = compare(keys[i], hi);
+                if (cmp > 0 || (cmp == 0 && !hiInclusive)) {
+                    return visited;
+                }
+                action.accept((K) keys[i], (V) leaf.values[i]);
+                visited++;
+                if (expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+        return visited;
+    }
+
+    /* 修改操作 */
+    /**
+     * 插入或替换键值对。
+     *
+     * @return 键原来对应的值，不存在时返回 null
+     */
+    public V put(K key, V value) {
+        if (root == null) {
+            //类型（以及可能的 null）检查
+            compare(key, key);
+            Leaf leaf = new Leaf(order);
+            leaf.keys[0] = key;
+            leaf.values[0] = value;
+            leaf.count = 1;
+            root = head = tail = leaf;
+            size = 1;
+            modCount++;
+            return null;
+        }
+        changed = false;
+        V oldValue = insert(root, key, value);
+        if (splitNode != null) {
+            //根分裂了：新根有两个孩子，树长高一层
+            Inner newRoot = new Inner(order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.count = 1;
+            root = newRoot;
+            splitKey = null;
+            splitNode = null;
+        }
+        if (changed) {
+            size++;
+            modCount++;
+        }
+        return oldValue;
+    }
+
+    /**
+     * 把键值对插入以 node 为根的子树。如果 node 分裂了，新的右兄弟和它的分隔键通过 splitNode/splitKey 返回。
+     */
+    @SuppressWarnings("unchecked")
+    private V insert(Node node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf, key);
+            if (i >= 0) {
+                V oldValue = (V) leaf.values[i];
+                leaf.values[i] = value;
+                return oldValue;
+            }
+            i = -i - 1;
+            changed = true;
+            if (leaf.count < order) {
+                insertAt(leaf, i, key, value);
+                return null;
+            }
+            //叶子满了：后一半移到新的右兄弟，再把键值对插入合适的一半
+            Leaf right = new Leaf(order);
+            int mid = order / 2;
+            int moved = order - mid;
+            System.arraycopy(leaf.keys, mid, right.keys, 0, moved);
+            System.arraycopy(leaf.values, mid, right.values, 0, moved);
+            clear(leaf.keys, mid, order);
+            clear(leaf.values, mid, order);
+            leaf.count = mid;
+            right.count = moved;
+            if (i <= mid) {
+                insertAt(leaf, i, key, value);
+            } else {
+                insertAt(right, i - mid, key, value);
+            }
+            //链入叶子链表
+            right.next = leaf.next;
+            if (leaf.next != null) {
+                leaf.next.prev = right;
+            } else {
+                tail = right;
+            }
+            leaf.next = right;
+            right.prev = leaf;
+            splitKey = right.keys[0];
+            splitNode = right;
+            return null;
+        }
+        Inner inner = (Inner) node;
+        int idx = childIndex(inner, key);
+        V oldValue = insert(inner.children[idx], key, value);
+        if (splitNode != null) {
+            Object sk = splitKey;
+            Node sn = splitNode;
+            splitKey = null;
+            splitNode = null;
+            if (inner.count < order - 1) {
+                insertChild(inner, idx, sk, sn);
+            } else {
+                splitInner(inner, idx, sk, sn);
+            }
+        }
+        return oldValue;
+    }
+
+    private static void insertAt(Leaf leaf, int i, Object key, Object value) {
+        int move = leaf.count - i;
+        if (move > 0) {
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, move);
+            System.arraycopy(leaf.values, i, leaf.values, i + 1, move);
+        }
+        leaf.keys[i] = key;
+        leaf.values[i] = value;
+        leaf.count++;
+    }
+
+    /** 孩子 idx 分裂出了右兄弟 child，把分隔键插到 keys[idx]、右兄弟插到 children[idx + 1] */
+    private static void insertChild(Inner inner, int idx, Object key, Node child) {
+        int move = inner.count - idx;
+        if (move > 0) {
+            System.arraycopy(inner.keys, idx, inner.keys, idx + 1, move);
+            System.arraycopy(inner.children, idx + 1, inner.children, idx + 2, move);
+        }
+        inner.keys[idx] = key;
+        inner.children[idx + 1] = child;
+        inner.count++;
+    }
+
+    /**
+     * 内部节点满了：连同新的分隔键共 order 个键，中间的一个上移到父节点，左边的留在原节点，右边的移到新节点。
+     * 分裂很少发生，所以这里用临时数组换取简单。
+     */
+    private void splitInner(Inner inner, int idx, Object key, Node child) {
+        Object[] keys = new Object[order];
+        Node[] children = new Node[order + 1];
+        System.arraycopy(inner.keys, 0, keys, 0, idx);
+        keys[idx] = key;
+        System.arraycopy(inner.keys, idx, keys, idx + 1, inner.count - idx);
+        System.arraycopy(inner.children, 0, children, 0, idx + 1);
+        children[idx + 1] = child;
+        System.arraycopy(inner.children, idx + 1, children, idx + 2, inner.count - idx);
+
+        int mid = order / 2;
+        Inner right = new Inner(order);
+        System.arraycopy(keys, 0, inner.keys, 0, mid);
+        System.arraycopy(children, 0, inner.children, 0, mid + 1);
+        clear(inner.keys, mid, order - 1);
+        clear(inner.children, mid + 1, order);
+        inner.count = mid;
+        System.arraycopy(keys, mid + 1, right.keys, 0, order - mid - 1);
+        System.arraycopy(children, mid + 1, right.children, 0, order - mid);
+        right.count = order - mid - 1;
+        splitKey = keys[mid];
+        splitNode = right;
+    }
+
+    /**
+     * 删除键。
+     *
+     * @return 键原来对应的值，不存在时返回 null
+     */
+    public V remove(Object key) {
+        if (root == null) {
+            return null;
+        }
+        changed = false;
+        V oldValue = delete(root, key);
+        if (!changed) {
+            return null;
+        }
+        size--;
+        modCount++;
+        if (root instanceof Inner && root.count == 0) {
+            //根只剩一个孩子：树变矮一层
+            root = ((Inner) root).children[0];
+        } else if (root.count == 0) {
+            root = head = tail = null;
+        }
+        return oldValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V delete(Node node, Object key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf, key);
+            if (i < 0) {
+                return null;
+            }
+            V oldValue = (V) leaf.values[i];
+            int move = leaf.count - i - 1;
+            if (move > 0) {
+                System.arraycopy(leaf.keys, i + 1, leaf.keys, i, move);
+                System.arraycopy(leaf.values, i + 1, leaf.values, i, move);
+            }
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            leaf.values[leaf.count] = null;
+            changed = true;
+            return oldValue;
+        }
+        Inner inner = (Inner) node;
+        int idx = childIndex(inner, key);
+        V oldValue = delete(inner.children[idx], key);
+        if (changed && inner.children[idx].count < minCount(inner.children[idx])) {
+            fixUnderflow(inner, idx);
+        }
+        return oldValue;
+    }
+
+    /** 非根节点的最少键数：叶子为 order / 2，内部节点为 order / 2 - 1（即 order / 2 个孩子） */
+    private int minCount(Node node) {
+        return node instanceof Leaf ? order / 2 : order / 2 - 1;
+    }
+
+    /**
+     * 孩子 idx 不足半满：先向左兄弟借，再向右兄弟借，都不能借时与一个兄弟合并。
+     */
+    private void fixUnderflow(Inner parent, int idx) {
+        Node left = idx > 0 ? parent.children[idx - 1] : null;
+        Node right = idx < parent.count ? parent.children[idx + 1] : null;
+        if (left != null && left.count > minCount(left)) {
+            borrowFromLeft(parent, idx);
+        } else if (right != null && right.count > minCount(right)) {
+            borrowFromRight(parent, idx);
+        } else if (left != null) {
+            merge(parent, idx - 1);
+        } else {
+            merge(parent, idx);
+        }
+    }
+
+    private static void borrowFromLeft(Inner parent, int idx) {
+        Node child = parent.children[idx];
+        Node left = parent.children[idx - 1];
+        if (child instanceof Leaf) {
+            Leaf c = (Leaf) child;
+            Leaf l = (Leaf) left;
+            insertAt(c, 0, l.keys[l.count - 1], l.values[l.count - 1]);
+            l.count--;
+            l.keys[l.count] = null;
+            l.values[l.count] = null;
+            parent.keys[idx - 1] = c.keys[0];
+        } else {
+            //分隔键下移到孩子的最前面，左兄弟的最后一个键上移成为新的分隔键，最后一个孩子随之移动
+            Inner c = (Inner) child;
+            Inner l = (Inner) left;
+            System.arraycopy(c.keys, 0, c.keys, 1, c.count);
+            System.arraycopy(c.children, 0, c.children, 1, c.count + 1);
+            c.keys[0] = parent.keys[idx - 1];
+            c.children[0] = l.children[l.count];
+            c.count++;
+            parent.keys[idx - 1] = l.keys[l.count - 1];
+            l.keys[l.count - 1] = null;
+            l.children[l.count] = null;
+            l.count--;
+        }
+    }
+
+    private static void borrowFromRight(Inner parent, int idx) {
+        Node child = parent.children[idx];
+        Node right = parent.children[idx + 1];
+        if (child instanceof Leaf) {
+            Leaf c = (Leaf) child;
+            Leaf r = (Leaf) right;
+            c.keys[c.count] = r.keys[0];
+            c.values[c.count] = r.values[0];
+            c.count++;
+            r.count--;
+            System.arraycopy(r.keys, 1, r.keys, 0, r.count);
+            System.arraycopy(r.values, 1, r.values, 0, r.count);
+            r.keys[r.count] = null;
+            r.values[r.count] = null;
+            parent.keys[idx] = r.keys[0];
+        } else {
+            //分隔键下移到孩子的最后面，右兄弟的第一个键上移成为新的分隔键，第一个孩子随之移动
+            Inner c = (Inner) child;
+            Inner r = (Inner) right;
+            c.keys[c.count] = parent.keys[idx];
+            c.children[c.count + 1] = r.children[0];
+            c.count++;
+            parent.keys[idx] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.count - 1);
+            System.arraycopy(r.children, 1, r.children, 0, r.count);
+            r.keys[r.count - 1] = null;
+            r.children[r.count] = null;
+            r.count--;
+        }
+    }
+
+    /** 把孩子 i + 1 合并进孩子 i，并从父节点删除它们之间的分隔键 */
+    private void merge(Inner parent, int i) {
+        Node left = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (left instanceof Leaf) {
+            Leaf l = (Leaf) left;
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.count, r.count);
+            System.arraycopy(r.values, 0, l.values, l.count, r.count);
+            l.count += r.count;
+            l.next = r.next;
+            if (r.next != null) {
+                r.next.prev = l;
+            } else {
+                tail = l;
+            }
+        } else {
+            //分隔键下移，夹在两个节点的键之间
+            Inner l = (Inner) left;
+            Inner r = (Inner) right;
+            l.keys[l.count] = parent.keys[i];
+            System.arraycopy(r.keys, 0, l.keys, l.count + 1, r.count);
+            System.arraycopy(r.children, 0, l.children, l.count + 1, r.count + 1);
+            l.count += r.count + 1;
+        }
+        int move = parent.count - i - 1;
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, move);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, move);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    private static void clear(Object[] a, int from, int to) {
+        for (int i = from; i < to; i++) {
+            a[i] = null;
+        }
+    }
+
+    /**删除所有键值对*/
+    public void clear() {
+        modCount++;
+        size = 0;
+        root = head = tail = null;
+    }
+
+    /* 遍历 */
+    /**按键的升序遍历所有键值对*/
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Leaf leaf = head; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept((K) leaf.keys[i], (V) leaf.values[i]);
+                if (expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+    }
+
+    /**返回按键升序遍历的迭代器，支持 remove*/
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator(false);
+    }
+
+    /**返回按键降序遍历的迭代器，支持 remove*/
+    public Iterator<Map.Entry<K, V>> descendingIterator() {
+        return new EntryIterator(true);
+    }
+
+    /**
+     * 沿叶子链表移动的迭代器。删除会在叶子之间移动键值对，所以 remove 之后按被删除的键重新定位。
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final boolean descending;
+        private Leaf leaf;
+        private int index;
+        private Object lastKey;
+        private boolean canRemove;
+        private int expectedModCount;
+
+        EntryIterator(boolean descending) {
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            if (descending) {
+                leaf = tail;
+                index = (tail == null ? -1 : tail.count - 1);
+            } else {
+                leaf = head;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Leaf l = leaf;
+            int i = index;
+            lastKey = l.keys[i];
+            canRemove = true;
+            if (descending) {
+                if (--index < 0) {
+                    leaf = l.prev;
+                    index = (leaf == null ? -1 : leaf.count - 1);
+                }
+            } else if (++index == l.count) {
+                leaf = l.next;
+                index = 0;
+            }
+            return new AbstractMap.SimpleImmutableEntry<>((K) lastKey, (V) l.values[i]);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            BPlusTree.this.remove(lastKey);
+            canRemove = false;
+            expectedModCount = modCount;
+            //重新定位到被删除的键之后（降序时为之前）的位置
+            if (root == null) {
+                leaf = null;
+                return;
+            }
+            Leaf l = findLeaf(lastKey);
+            int i = position(l, lastKey, false);
+            if (descending) {
+                i--;
+                if (i < 0) {
+                    l = l.prev;
+                    i = (l == null ? -1 : l.count - 1);
+                }
+            } else if (i == l.count) {
+                l = l.next;
+                i = 0;
+            }
+            leaf = l;
+            index = i;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntSupplier;
+
+/**
+ * 在 n 个（默认 1000 万）有序 <tt>Integer</tt> 键上对比 {@link BPlusTree}、{@link RedBlackTree} 与 {@link TreeMap}：
+ * <ul>
+ * <li>点查：随机探测，一半命中，一半未命中，单位 ns/op；</li>
+ * <li>范围扫描：从随机的起点开始按序读取 1K 个键值对，单位 ns/scan。{@link BPlusTree} 用
+ * {@link BPlusTree#forEachInRange forEachInRange} 沿叶子链表扫描，{@link RedBlackTree} 用
+ * {@link RedBlackTree#successor successor} 逐个移动，{@link TreeMap} 用 <tt>subMap(...).forEach</tt>。</li>
+ * </ul>
+ *
+ * <p>三种结构都从有序数据批量构造，所以比较的是结构本身而不是插入顺序的影响。与其它 <tt>*Benchmark</tt> 一样是简单的微基准：
+ * 先预热再取多轮最好成绩。运行方式：直接执行 {@link #main(String[])}，第一个参数可以指定 n，第二个参数可以指定阶；
+ * 1000 万个键时三种结构同时驻留，约需 <tt>-Xmx3g</tt>。
+ */
+public class BPlusTreeBenchmark {
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    /** 点查次数 */
+    private static final int LOOKUPS = 1_000_000;
+    /** 范围扫描次数和每次扫描的键数 */
+    private static final int SCANS = 10_000;
+    private static final int SCAN_LENGTH = 1_000;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int order = args.length > 1 ? Integer.parseInt(args[1]) : BPlusTree.DEFAULT_ORDER;
+        //键是 0, 2, 4, ...，奇数探测一定未命中
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = 2 * i;
+        }
+        Random random = new Random(42);
+        Integer[] probes = new Integer[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = random.nextInt(2 * n);
+        }
+        Integer[] starts = new Integer[SCANS];
+        for (int i = 0; i < SCANS; i++) {
+            starts[i] = keys[random.nextInt(Math.max(1, n - SCAN_LENGTH))];
+        }
+
+        BPlusTree<Integer, Integer> bp = new BPlusTree<>(null, order, keys, keys);
+        RedBlackTree<Integer, Integer> rb = new RedBlackTree<>(null, false, keys, keys);
+        TreeMap<Integer, Integer> tm = new TreeMap<>();
+        for (Integer k : keys) {
+            tm.put(k, k);
+        }
+        System.out.printf("n = %,d, order = %d%n", n, order);
+
+        measure("lookup  BPlusTree    ", LOOKUPS, "op", () -> {
+            int s = 0;
+            for (Integer k : probes) {
+                s += bp.get(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+        measure("lookup  RedBlackTree ", LOOKUPS, "op", () -> {
+            int s = 0;
+            for (Integer k : probes) {
+                s += rb.get(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+        measure("lookup  TreeMap      ", LOOKUPS, "op", () -> {
+            int s = 0;
+            for (Integer k : probes) {
+                s += tm.get(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+
+        int[] sum = new int[1];
+        measure("scan 1K BPlusTree    ", SCANS, "scan", () -> {
+            sum[0] = 0;
+            for (Integer lo : starts) {
+                bp.forEachInRange(lo, true, lo + 2 * SCAN_LENGTH, false, (k, v) -> sum[0] += v);
+            }
+            return sum[0];
+        });
+        measure("scan 1K RedBlackTree ", SCANS, "scan", () -> {
+            int s = 0;
+            for (Integer lo : starts) {
+                int hi = lo + 2 * SCAN_LENGTH;
+                for (RedBlackTree.Node<Integer, Integer> e = rb.getEntry(lo); e != null && e.key < hi;
+                     e = RedBlackTree.successor(e)) {
+                    s += e.value;
+                }
+            }
+            return s;
+        });
+        measure("scan 1K TreeMap      ", SCANS, "scan", () -> {
+            sum[0] = 0;
+            for (Integer lo : starts) {
+                tm.subMap(lo, lo + 2 * SCAN_LENGTH).forEach((k, v) -> sum[0] += v);
+            }
+            return sum[0];
+        });
+        Bench.done();
+    }
+
+    private static void measure(String name, int ops, String unit, IntSupplier op) {
+        System.out.printf("%s : %10.1f ns/%s%n", name, Bench.bestNanos(WARMUP, ROUNDS, op) / (double) ops, unit);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 本包各个 <tt>*Benchmark</tt> 共用的微基准工具：先预热若干轮让 JIT 充分编译，再取多轮测量的最好成绩；
+ * 内存通过多次 {@link System#gc()} 后比较已用堆大小估算，只是近似值。
+ *
+ * <p>被测操作的返回值都累加到 {@link #sink}，基准结束时调用 {@link #done()} 输出，防止 JIT 消除无副作用的计算。
+ */
+final class Bench {
+    /** 防止 JIT 消除无副作用的计算 */
+    private static long sink;
+
+    private Bench() {
+    }
+
+    /**
+     * 执行 <tt>warmup</tt> 轮预热，再执行 <tt>rounds</tt> 轮测量，返回其中最快一轮的纳秒数。
+     */
+    static long bestNanos(int warmup, int rounds, IntSupplier op) {
+        return bestNanos(warmup, rounds, null, op);
+    }
+
+    /**
+     * 与 {@link #bestNanos(int, int, IntSupplier)} 相同，但每轮之前先执行不计时的 <tt>setup</tt>（可以为 null），
+     * 用于删除这类每轮都要重建数据的场景。
+     */
+    static long bestNanos(int warmup, int rounds, Runnable setup, IntSupplier op) {
+        for (int i = 0; i < warmup; i++) {
+            if (setup != null) {
+                setup.run();
+            }
+            sink += op.getAsInt();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            if (setup != null) {
+                setup.run();
+            }
+            long start = System.nanoTime();
+            sink += op.getAsInt();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * 估算 <tt>build</tt> 构造的结构新占用的堆内存，按 <tt>count</tt> 个元素平均后以 bytes/<tt>unit</tt> 输出。
+     */
+    static void footprint(String name, int count, String unit, Supplier<?> build) {
+        long before = usedHeap();
+        Object s = build.get();
+        long after = usedHeap();
+        sink += s.hashCode();
+        System.out.printf("%s : %6.2f bytes/%s%n", name, (after - before) / (double) count, unit);
+    }
+
+    /**
+     * 使用一个不经过 {@link #bestNanos} 计时的结果。
+     */
+    static void consume(long value) {
+        sink += value;
+    }
+
+    /**
+     * 基准结束时调用，保证所有结果都被使用。
+     */
+    static void done() {
+        System.out.println(sink == 42 ? "" : "done");
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 线程安全的有序 map，内部是一棵 {@link RedBlackTree}，用 {@link StampedLock} 协调读写。
+ *
+ * <p>写操作（{@link #put}、{@link #remove} 等）在写锁下修改并重新平衡树。读操作先不加锁地进行
+ * <em>乐观读</em>：取得版本戳后直接在树上查找，结束后用 {@link StampedLock#validate} 检查期间是否有写操作；
+ * 没有的话结果就是一致的，否则在读锁下重做一遍。读多写少时，大部分读操作不写任何共享变量，
+ * 因此可以随读线程数近似线性地扩展，而不会像全局锁那样串行化。
+ *
+ * <p>乐观读期间树可能正在被旋转，读线程可能看到不一致的状态：null 引用、尚未初始化的节点，
+ * 甚至暂时成环的指针。因此乐观读中的遍历都满足：
+ * <ul>
+ * <li><b>有界</b>：从根向下最多走 {@link #MAX_DEPTH} 步。一棵合法红黑树的高度不超过 2log<sub>2</sub>(n+1) &lt; 64，
+ * 所以只要被截断，期间一定发生过写操作，验证必然失败；</li>
+ * <li><b>先捕获再验证</b>：遍历中抛出的任何 {@link RuntimeException} 都被捕获并视为验证失败，
+ * 真正由参数引起的异常（例如 null 键）会在读锁下重做时再次抛出；</li>
+ * <li><b>不泄露节点</b>：只向调用者返回键和值，从不返回可能被写线程修改的节点。</li>
+ * </ul>
+ * 比较器在乐观读中可能收到不一致的键，因此它必须没有副作用。
+ *
+ * <p>范围查询 {@link #entriesInRange} 返回某一时刻的一致快照；{@link #forEach} 在读锁下进行，
+ * 回调期间会阻塞写操作。
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @see RedBlackTree
+ * @see StampedLock
+ */
+public class ConcurrentRedBlackTree<K, V> {
+    /** 乐观读时从根向下最多走的步数，大于任何合法红黑树的高度 */
+    static final int MAX_DEPTH = 64;
+
+    private final RedBlackTree<K, V> tree;
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * 构造一棵空树，按键的自然顺序排序。
+     */
+    public ConcurrentRedBlackTree() {
+        this(null);
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序；必须没有副作用
+     */
+    public ConcurrentRedBlackTree(Comparator<? super K> comparator) {
+        tree = new RedBlackTree<>(comparator);
+    }
+
+    /**
+     * 执行一次读操作：先乐观读，验证失败或遍历中出现异常时在读锁下重做。
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException ignored) {
+                //读到了不一致的状态，或者参数本身有问题，都在读锁下重做来区分
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /* 查询操作 */
+    /**返回键值对的个数*/
+    public int size() {
+        return read(tree::size);
+    }
+    /**是否为空*/
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    /**是否包含指定的键*/
+    public boolean containsKey(Object key) {
+        return read(() -> find(key) != null);
+    }
+    /**返回键对应的值，不存在时返回 null*/
+    public V get(Object key) {
+        return read(() -> {
+            RedBlackTree.Node<K, V> p = find(key);
+            return (p == null ? null : p.value);
+        });
+    }
+    /**返回键对应的值，不存在时返回 defaultValue*/
+    public V getOrDefault(Object key, V defaultValue) {
+        return read(() -> {
+            RedBlackTree.Node<K, V> p = find(key);
+            return (p == null ? defaultValue : p.value);
+        });
+    }
+    /**返回最小的键*/
+    public K firstKey() {
+        return read(() -> key(edge(true)));
+    }
+    /**返回最大的键*/
+    public K lastKey() {
+        return read(() -> key(edge(false)));
+    }
+    /**返回严格小于 key 的最大键，不存在时返回 null*/
+    public K lowerKey(K key) {
+        return read(() -> keyOrNull(bound(key, false, false)));
+    }
+    /**返回小于等于 key 的最大键，不存在时返回 null*/
+    public K floorKey(K key) {
+        return read(() -> keyOrNull(bound(key, false, true)));
+    }
+    /**返回大于等于 key 的最小键，不存在时返回 null*/
+    public K ceilingKey(K key) {
+        return read(() -> keyOrNull(bound(key, true, true)));
+    }
+    /**返回严格大于 key 的最小键，不存在时返回 null*/
+    public K higherKey(K key) {
+        return read(() -> keyOrNull(bound(key, true, false)));
+    }
+
+    /**
+     * 空树由节点是否存在判断，而不是由键是否为 null 判断：使用比较器时键可以是 null。
+     * 在读操作内部抛出异常，乐观读失败时会在读锁下重做，确认树确实为空后才把异常抛给调用者。
+     */
+    private static <K> K key(RedBlackTree.Node<K, ?> p) {
+        if (p == null) {
+            throw new NoSuchElementException();
+        }
+        return p.key;
+    }
+
+    private static <K> K keyOrNull(RedBlackTree.Node<K, ?> p) {
+        return (p == null ? null : p.key);
+    }
+
+    /**
+     * 返回 <tt>lo</tt> 与 <tt>hi</tt> 之间的键值对的快照，按键升序排列。返回的列表不可修改，之后的写操作不影响它。
+     *
+     * @param lo          低端点
+     * @param loInclusive 低端点是否包含在内
+     * @param hi          高端点
+     * @param hiInclusive 高端点是否包含在内
+     * @return 区间内的键值对
+     * @throws IllegalArgumentException 如果 <tt>lo</tt> 大于 <tt>hi</tt>
+     */
+    public List<Map.Entry<K, V>> entriesInRange(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        if (tree.compare(lo, hi) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return read(() -> range(lo, loInclusive, hi, hiInclusive));
+    }
+
+    /**
+     * 在读锁下按键的升序对每个键值对执行给定操作。回调期间写操作会被阻塞，回调中不能修改此 map。
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        long stamp = lock.readLock();
+        try {
+            tree.forEach(action);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /* 修改操作，都在写锁下进行 */
+    /**插入或替换键值对，返回原来的值，不存在时返回 null*/
+    public V put(K key, V value) {
+        long stamp = lock.writeLock();
+        try {
+            return tree.put(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**键不存在时才插入，返回已有的值，不存在时返回 null*/
+    public V putIfAbsent(K key, V value) {
+        long stamp = lock.writeLock();
+        try {
+            RedBlackTree.Node<K, V> p = tree.getEntry(key);
+            if (p != null) {
+                return p.value;
+            }
+            tree.put(key, value);
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**删除键，返回原来的值，不存在时返回 null*/
+    public V remove(Object key) {
+        long stamp = lock.writeLock();
+        try {
+            return tree.remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**把一批严格升序的键值对并入此 map，见 {@link RedBlackTree#putAllSorted}*/
+    public void putAllSorted(K[] keys, V[] values) {
+        long stamp = lock.writeLock();
+        try {
+            tree.putAllSorted(keys, values);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**删除所有键值对*/
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            tree.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long stamp = lock.readLock();
+        try {
+            return tree.toString();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /* 有界遍历，乐观读和读锁下共用 */
+    /**
+     * 查找键所在的节点，最多走 {@link #MAX_DEPTH} 步。
+     */
+    private RedBlackTree.Node<K, V> find(Object key) {
+        checkKey(key);
+        RedBlackTree.Node<K, V> p = tree.getRoot();
+        for (int depth = 0; p != null && depth < MAX_DEPTH; depth++) {
+            int cmp = tree.compare(key, p.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /** 与 {@link RedBlackTree} 一致：使用自然顺序时不允许 null 键 */
+    private void checkKey(Object key) {
+        if (key == null && tree.comparator() == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    /**
+     * 查找最小（<tt>first</tt> 为 true）或最大的节点，最多走 {@link #MAX_DEPTH} 步。
+     */
+    private RedBlackTree.Node<K, V> edge(boolean first) {
+        RedBlackTree.Node<K, V> p = tree.getRoot();
+        if (p == null) {
+            return null;
+        }
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            RedBlackTree.Node<K, V> next = first ? p.left : p.right;
+            if (next == null) {
+                break;
+            }
+            p = next;
+        }
+        return p;
+    }
+
+    /**
+     * 查找 key 的上界（<tt>above</tt> 为 true，即 ceiling/higher）或下界（floor/lower），最多走 {@link #MAX_DEPTH} 步。
+     * 向下查找时记住最近一个满足条件的节点，这样不需要沿父指针回溯。
+     */
+    private RedBlackTree.Node<K, V> bound(K key, boolean above, boolean inclusive) {
+        checkKey(key);
+        RedBlackTree.Node<K, V> best = null;
+        RedBlackTree.Node<K, V> p = tree.getRoot();
+        for (int depth = 0; p != null && depth < MAX_DEPTH; depth++) {
+            int cmp = tree.compare(key, p.key);
+            if (cmp == 0 && inclusive) {
+                return p;
+            }
+            if (above) {
+                if (cmp < 0) {
+                    best = p;
+                    p = p.left;
+                } else {
+                    p = p.right;
+                }
+            } else {
+                if (cmp > 0) {
+                    best = p;
+                    p = p.right;
+                } else {
+                    p = p.left;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 收集区间内的键值对。中序遍历的总步数不超过 2n 加上两倍树高，以此为上界，防止在不一致的状态下无限循环。
+     */
+    private List<Map.Entry<K, V>> range(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        List<Map.Entry<K, V>> result = new ArrayList<>();
+        long limit = 2L * tree.size() + 4 * MAX_DEPTH;
+        long steps = 0;
+        RedBlackTree.Node<K, V> e = bound(lo, true, loInclusive);
+        while (e != null && steps++ < limit) {
+            int cmp = tree.compare(e.key, hi);
+            if (cmp > 0 || (cmp == 0 && !hiInclusive)) {
+                break;
+            }
+            result.add(new AbstractMap.SimpleImmutableEntry<>(e.key, e.value));
+            //内联的后继查找，每一步都计入上界
+            if (e.right != null) {
+                e = e.right;
+                while (e.left != null && steps++ < limit) {
+                    e = e.left;
+                }
+            } else {
+                RedBlackTree.Node<K, V> p = e.parent;
+                RedBlackTree.Node<K, V> ch = e;
+                while (p != null && ch == p.right && steps++ < limit) {
+                    ch = p;
+                    p = p.parent;
+                }
+                e = p;
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
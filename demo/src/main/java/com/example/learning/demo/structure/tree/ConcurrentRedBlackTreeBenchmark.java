@@ -0,0 +1,168 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 在 95% 读（点查）、5% 写（各一半插入和删除）的混合负载下，对比以下实现随线程数增加的吞吐量：
+ * <ul>
+ * <li>{@link ConcurrentRedBlackTree}：乐观读；</li>
+ * <li>用一把全局锁（<tt>synchronized</tt>）保护的 {@link RedBlackTree}；</li>
+ * <li>{@link ConcurrentSkipListMap}。</li>
+ * </ul>
+ *
+ * <p>每种配置先预热，再固定运行一段时间统计总操作数。运行方式：直接执行 {@link #main(String[])}，
+ * 可以通过参数指定线程数，例如 <tt>1 2 4 8 16 32</tt>。结果只在核数不少于线程数的机器上有意义。
+ */
+public class ConcurrentRedBlackTreeBenchmark {
+    private static final int KEY_RANGE = 2_000_000;
+    private static final int WRITE_PERCENT = 5;
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 2_000;
+
+    /* 运行阶段：预热、计时、结束 */
+    private static final int WARMUP = 0;
+    private static final int MEASURE = 1;
+    private static final int DONE = 2;
+
+    /** 防止 JIT 消除无副作用的计算 */
+    private static volatile int sink;
+
+    /** 被测 map 的最小接口 */
+    private interface Target {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+
+        void remove(Integer key);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] threads = {1, 2, 4, 8, 16, 32};
+        if (args.length > 0) {
+            threads = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threads[i] = Integer.parseInt(args[i]);
+            }
+        }
+        Integer[] keys = new Integer[KEY_RANGE];
+        for (int i = 0; i < KEY_RANGE; i++) {
+            keys[i] = i;
+        }
+        for (int n : threads) {
+            run("ConcurrentRedBlackTree   ", n, keys, () -> {
+                ConcurrentRedBlackTree<Integer, Integer> m = new ConcurrentRedBlackTree<>();
+                return new Target() {
+                    public Integer get(Integer key) {
+                        return m.get(key);
+                    }
+
+                    public void put(Integer key, Integer value) {
+                        m.put(key, value);
+                    }
+
+                    public void remove(Integer key) {
+                        m.remove(key);
+                    }
+                };
+            });
+            run("synchronized RedBlackTree", n, keys, () -> {
+                RedBlackTree<Integer, Integer> m = new RedBlackTree<>();
+                return new Target() {
+                    public synchronized Integer get(Integer key) {
+                        return m.get(key);
+                    }
+
+                    public synchronized void put(Integer key, Integer value) {
+                        m.put(key, value);
+                    }
+
+                    public synchronized void remove(Integer key) {
+                        m.remove(key);
+                    }
+                };
+            });
+            run("ConcurrentSkipListMap    ", n, keys, () -> {
+                ConcurrentSkipListMap<Integer, Integer> m = new ConcurrentSkipListMap<>();
+                return new Target() {
+                    public Integer get(Integer key) {
+                        return m.get(key);
+                    }
+
+                    public void put(Integer key, Integer value) {
+                        m.put(key, value);
+                    }
+
+                    public void remove(Integer key) {
+                        m.remove(key);
+                    }
+                };
+            });
+        }
+    }
+
+    private static void run(String name, int threads, Integer[] keys, Supplier<Target> factory)
+            throws InterruptedException {
+        Target target = factory.get();
+        //预先填入一半的键
+        Random random = new Random(42);
+        for (int i = 0; i < KEY_RANGE / 2; i++) {
+            Integer k = keys[random.nextInt(KEY_RANGE)];
+            target.put(k, k);
+        }
+        LongAdder ops = new LongAdder();
+        AtomicInteger phase = new AtomicInteger(WARMUP);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int hits = 0;
+                int p;
+                while ((p = phase.get()) != DONE) {
+                    for (int i = 0; i < 1024; i++) {
+                        Integer k = keys[r.nextInt(KEY_RANGE)];
+                        int dice = r.nextInt(100);
+                        if (dice < WRITE_PERCENT) {
+                            if ((dice & 1) == 0) {
+                                target.put(k, k);
+                            } else {
+                                target.remove(k);
+                            }
+                        } else if (target.get(k) != null) {
+                            hits++;
+                        }
+                    }
+                    //每 1024 次操作才检查一次阶段并累计，避免计数本身成为竞争点
+                    if (p == MEASURE) {
+                        ops.add(1024);
+                    }
+                }
+                sink += hits;
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(WARMUP_MILLIS);
+        phase.set(MEASURE);
+        long begin = System.nanoTime();
+        Thread.sleep(MEASURE_MILLIS);
+        long total = ops.sum();
+        long elapsed = System.nanoTime() - begin;
+        phase.set(DONE);
+        for (Thread w : workers) {
+            w.join();
+        }
+        System.out.printf("%s threads=%2d : %8.2f Mops/s%n", name, threads, total / (elapsed / 1_000.0));
+    }
+}
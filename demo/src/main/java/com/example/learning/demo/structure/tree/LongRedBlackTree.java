@@ -0,0 +1,572 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * 键和值都是 <tt>long</tt> 的红黑树，算法与 {@link RedBlackTree} 完全相同，但节点不是对象，而是一个 <tt>int</tt> 下标。
+ *
+ * <p>{@link RedBlackTree.Node} 每个节点要占一个对象头、五个引用和一个 boolean，再加上装箱的键和值，
+ * 上千万个节点时 GC 的标记和复制开销会成为主要瓶颈。此实现把节点的各个字段拆成并行的列：
+ *
+ * <pre>
+ *     下标 i:    left[i]  right[i]  parent[i]  colors[i]  keys[i]  values[i]
+ * </pre>
+ *
+ * <p>每个节点固定占 3 个 <tt>int</tt>、1 个 <tt>boolean</tt> 和 2 个 <tt>long</tt>，整棵树只有六个数组对象，
+ * GC 不需要逐个遍历节点。删除节点后，它的槽位被放入空闲链表（借用 <tt>left</tt> 列作为 next 指针），
+ * 后续插入优先复用，所以稳定的插入/删除负载下不会产生垃圾；数组只在容量不足时按 1.5 倍扩容。
+ *
+ * <p>导航 API 与 {@link RedBlackTree} 相同，只是节点用下标表示、用 {@link #NIL} 表示“没有节点”：
+ *
+ * <pre>{@code
+ *     for (int i = tree.getFirstNode(); i != LongRedBlackTree.NIL; i = tree.successor(i)) {
+ *         use(tree.key(i), tree.value(i));
+ *     }
+ * }</pre>
+ *
+ * <p>注意：与 {@link RedBlackTree} 一样，删除有两个孩子的节点时会把后继的键值复制过来、释放后继的槽位，
+ * 因此删除之后，之前拿到的下标可能已经指向别的键或已被释放。<strong>此实现不是同步的。</strong>
+ *
+ * @see RedBlackTree
+ */
+public class LongRedBlackTree {
+    /** 表示“没有节点”的下标，相当于 {@link RedBlackTree} 中的 null */
+    public static final int NIL = -1;
+
+    /* 红黑颜色 */
+    private static final boolean RED = false;
+    private static final boolean BLACK = true;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /* 节点的各个字段，按下标对齐 */
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private boolean[] colors;
+    private long[] keys;
+    private long[] values;
+
+    /* 根节点 */
+    private int root = NIL;
+    /* 节点个数 */
+    private int size;
+    /* 从未使用过的第一个槽位，[0, used) 之外的槽位都是空白的 */
+    private int used;
+    /* 空闲链表的头，通过 left 列串起来 */
+    private int free = NIL;
+    /* 结构性修改次数，用于遍历时的快速失败检查 */
+    private int modCount;
+
+    /**
+     * 构造一棵空树。
+     */
+    public LongRedBlackTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造一棵空树，预先为指定个数的节点分配空间。
+     *
+     * @param initialCapacity 初始容量
+     * @throws IllegalArgumentException 如果初始容量为负数
+     */
+    public LongRedBlackTree(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+        left = new int[initialCapacity];
+        right = new int[initialCapacity];
+        parent = new int[initialCapacity];
+        colors = new boolean[initialCapacity];
+        keys = new long[initialCapacity];
+        values = new long[initialCapacity];
+    }
+
+    /* 查询操作 */
+    /**返回节点个数*/
+    public int size() {
+        return size;
+    }
+    /**是否为空*/
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    /**返回已分配的节点槽位数*/
+    public int capacity() {
+        return keys.length;
+    }
+    /**是否包含指定的键*/
+    public boolean containsKey(long key) {
+        return getNode(key) != NIL;
+    }
+    /**返回键对应的值，不存在时返回 defaultValue*/
+    public long get(long key, long defaultValue) {
+        int p = getNode(key);
+        return (p == NIL ? defaultValue : values[p]);
+    }
+    /**返回最小的键*/
+    public long firstKey() {
+        return key(checked(getFirstNode()));
+    }
+    /**返回最大的键*/
+    public long lastKey() {
+        return key(checked(getLastNode()));
+    }
+
+    private static int checked(int p) {
+        if (p == NIL) {
+            throw new NoSuchElementException();
+        }
+        return p;
+    }
+
+    /* 节点访问 */
+    /**返回节点的键*/
+    public long key(int node) {
+        return keys[node];
+    }
+    /**返回节点的值*/
+    public long value(int node) {
+        return values[node];
+    }
+    /**替换节点的值，返回旧值*/
+    public long setValue(int node, long value) {
+        long oldValue = values[node];
+        values[node] = value;
+        return oldValue;
+    }
+
+    /**返回键所在的节点，不存在时返回 {@link #NIL}*/
+    public int getNode(long key) {
+        int p = root;
+        while (p != NIL) {
+            long k = keys[p];
+            if (key < k) {
+                p = left[p];
+            } else if (key > k) {
+                p = right[p];
+            } else {
+                return p;
+            }
+        }
+        return NIL;
+    }
+
+    /* 修改操作 */
+    /**
+     * 插入或替换键值对。
+     *
+     * @return 如果插入了新键则返回 <tt>true</tt>，如果只是替换了已有键的值则返回 <tt>false</tt>
+     */
+    public boolean put(long key, long value) {
+        int t = root;
+        if (t == NIL) {
+            root = newNode(key, value, NIL);
+            size = 1;
+            modCount++;
+            return true;
+        }
+        int p;
+        boolean less;
+        do {
+            p = t;
+            long k = keys[t];
+            if (key < k) {
+                less = true;
+                t = left[t];
+            } else if (key > k) {
+                less = false;
+                t = right[t];
+            } else {
+                values[t] = value;
+                return false;
+            }
+        } while (t != NIL);
+        //注意 newNode 可能扩容，所以先分配再链接
+        int e = newNode(key, value, p);
+        if (less) {
+            left[p] = e;
+        } else {
+            right[p] = e;
+        }
+        fixAfterInsertion(e);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * 删除键。
+     *
+     * @return 如果键存在并被删除则返回 <tt>true</tt>
+     */
+    public boolean remove(long key) {
+        int p = getNode(key);
+        if (p == NIL) {
+            return false;
+        }
+        deleteEntry(p);
+        return true;
+    }
+
+    /**清空所有节点，保留已分配的数组以便复用*/
+    public void clear() {
+        modCount++;
+        size = 0;
+        used = 0;
+        root = NIL;
+        free = NIL;
+    }
+
+    /**把数组容量缩减到当前节点个数；只在没有空闲槽位时有效，否则需要搬动节点*/
+    public void trimToSize() {
+        if (free == NIL && used < keys.length) {
+            resize(used);
+        }
+    }
+
+    /* 槽位分配 */
+    /** 优先从空闲链表取槽位，否则使用下一个空白槽位，必要时扩容 */
+    private int newNode(long key, long value, int p) {
+        int e;
+        if (free != NIL) {
+            e = free;
+            free = left[e];
+        } else {
+            if (used == keys.length) {
+                resize(Math.max(DEFAULT_CAPACITY, used + (used >> 1)));
+            }
+            e = used++;
+        }
+        left[e] = NIL;
+        right[e] = NIL;
+        parent[e] = p;
+        colors[e] = BLACK;
+        keys[e] = key;
+        values[e] = value;
+        return e;
+    }
+
+    /** 把槽位放回空闲链表 */
+    private void freeNode(int e) {
+        left[e] = free;
+        right[e] = NIL;
+        parent[e] = NIL;
+        free = e;
+    }
+
+    private void resize(int capacity) {
+        if (capacity < 0) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    /* 节点操作，NIL 视为黑色的叶子 */
+    private boolean colorOf(int p) {
+        return (p == NIL ? BLACK : colors[p]);
+    }
+    private void setColor(int p, boolean color) {
+        if (p != NIL) {
+            colors[p] = color;
+        }
+    }
+    private int leftOf(int p) {
+        return (p == NIL) ? NIL : left[p];
+    }
+    private int rightOf(int p) {
+        return (p == NIL) ? NIL : right[p];
+    }
+    private int parentOf(int p) {
+        return (p == NIL ? NIL : parent[p]);
+    }
+
+    /* 导航 */
+    /**获取最小的节点*/
+    public int getFirstNode() {
+        int p = root;
+        if (p != NIL) {
+            while (left[p] != NIL) {
+                p = left[p];
+            }
+        }
+        return p;
+    }
+    /**获取最大的节点*/
+    public int getLastNode() {
+        int p = root;
+        if (p != NIL) {
+            while (right[p] != NIL) {
+                p = right[p];
+            }
+        }
+        return p;
+    }
+    /**获取后继节点*/
+    public int successor(int t) {
+        if (t == NIL) {
+            return NIL;
+        }
+        /*如果右子树存在，找右子树的最左节点*/
+        else if (right[t] != NIL) {
+            int p = right[t];
+            while (left[p] != NIL) {
+                p = left[p];
+            }
+            return p;
+        }
+        /*如果右子树不存在，向上找第一个左拐的父节点*/
+        else {
+            int p = parent[t];
+            int ch = t;
+            while (p != NIL && ch == right[p]) {
+                ch = p;
+                p = parent[p];
+            }
+            return p;
+        }
+    }
+    /**获取前驱节点*/
+    public int predecessor(int t) {
+        if (t == NIL) {
+            return NIL;
+        }
+        /*如果左子树存在，找左子树的最右点*/
+        else if (left[t] != NIL) {
+            int p = left[t];
+            while (right[p] != NIL) {
+                p = right[p];
+            }
+            return p;
+        }
+        /*如果左子树不存在，向上找第一个右拐的父节点*/
+        else {
+            int p = parent[t];
+            int ch = t;
+            while (p != NIL && ch == left[p]) {
+                ch = p;
+                p = parent[p];
+            }
+            return p;
+        }
+    }
+
+    /**按键的升序对每个节点执行给定操作，不装箱*/
+    public void forEach(LongLongConsumer action) {
+        int expectedModCount = modCount;
+        for (int e = getFirstNode(); e != NIL; e = successor(e)) {
+            action.accept(keys[e], values[e]);
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * 接受一对 <tt>long</tt> 的操作，用于 {@link #forEach}。
+     */
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    /* 旋转操作，与 RedBlackTree 相同 */
+    private void rotateLeft(int p) {
+        if (p != NIL) {
+            int r = right[p];
+            right[p] = left[r];
+            if (left[r] != NIL) {
+                parent[left[r]] = p;
+            }
+            parent[r] = parent[p];
+            if (parent[p] == NIL) {
+                root = r;
+            } else if (left[parent[p]] == p) {
+                left[parent[p]] = r;
+            } else {
+                right[parent[p]] = r;
+            }
+            left[r] = p;
+            parent[p] = r;
+        }
+    }
+
+    private void rotateRight(int p) {
+        if (p != NIL) {
+            int l = left[p];
+            left[p] = right[l];
+            if (right[l] != NIL) {
+                parent[right[l]] = p;
+            }
+            parent[l] = parent[p];
+            if (parent[p] == NIL) {
+                root = l;
+            } else if (right[parent[p]] == p) {
+                right[parent[p]] = l;
+            } else {
+                left[parent[p]] = l;
+            }
+            right[l] = p;
+            parent[p] = l;
+        }
+    }
+
+    /* 插入后的平衡维护，各种情况的说明见 RedBlackTree#fixAfterInsertion */
+    private void fixAfterInsertion(int x) {
+        colors[x] = RED;
+        while (x != NIL && x != root && colors[parent[x]] == RED) {
+            if (parentOf(x) == leftOf(parentOf(parentOf(x)))) {
+                int y = rightOf(parentOf(parentOf(x)));
+                if (colorOf(y) == RED) {
+                    setColor(parentOf(x), BLACK);
+                    setColor(y, BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    x = parentOf(parentOf(x));
+                } else {
+                    if (x == rightOf(parentOf(x))) {
+                        x = parentOf(x);
+                        rotateLeft(x);
+                    }
+                    setColor(parentOf(x), BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    rotateRight(parentOf(parentOf(x)));
+                }
+            } else {
+                int y = leftOf(parentOf(parentOf(x)));
+                if (colorOf(y) == RED) {
+                    setColor(parentOf(x), BLACK);
+                    setColor(y, BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    x = parentOf(parentOf(x));
+                } else {
+                    if (x == leftOf(parentOf(x))) {
+                        x = parentOf(x);
+                        rotateRight(x);
+                    }
+                    setColor(parentOf(x), BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    rotateLeft(parentOf(parentOf(x)));
+                }
+            }
+        }
+        colors[root] = BLACK;
+    }
+
+    /* 删除操作，说明见 RedBlackTree#deleteEntry */
+    private void deleteEntry(int p) {
+        modCount++;
+        size--;
+        //有两个孩子时，把后继的键值复制到p，转而删除后继节点
+        if (left[p] != NIL && right[p] != NIL) {
+            int s = successor(p);
+            keys[p] = keys[s];
+            values[p] = values[s];
+            p = s;
+        }
+        int replacement = (left[p] != NIL ? left[p] : right[p]);
+        if (replacement != NIL) {
+            parent[replacement] = parent[p];
+            if (parent[p] == NIL) {
+                root = replacement;
+            } else if (p == left[parent[p]]) {
+                left[parent[p]] = replacement;
+            } else {
+                right[parent[p]] = replacement;
+            }
+            if (colors[p] == BLACK) {
+                fixAfterDeletion(replacement);
+            }
+        } else if (parent[p] == NIL) {
+            root = NIL;
+        } else {
+            //没有孩子：把p当作占位节点修正后再摘除
+            if (colors[p] == BLACK) {
+                fixAfterDeletion(p);
+            }
+            if (parent[p] != NIL) {
+                if (p == left[parent[p]]) {
+                    left[parent[p]] = NIL;
+                } else if (p == right[parent[p]]) {
+                    right[parent[p]] = NIL;
+                }
+            }
+        }
+        freeNode(p);
+    }
+
+    /* 删除后的平衡维护，各种情况的说明见 RedBlackTree#fixAfterDeletion */
+    private void fixAfterDeletion(int x) {
+        while (x != root && colorOf(x) == BLACK) {
+            if (x == leftOf(parentOf(x))) {
+                int sib = rightOf(parentOf(x));
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(parentOf(x), RED);
+                    rotateLeft(parentOf(x));
+                    sib = rightOf(parentOf(x));
+                }
+                if (colorOf(leftOf(sib)) == BLACK && colorOf(rightOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(rightOf(sib)) == BLACK) {
+                        setColor(leftOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateRight(sib);
+                        sib = rightOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(rightOf(sib), BLACK);
+                    rotateLeft(parentOf(x));
+                    x = root;
+                }
+            } else {
+                int sib = leftOf(parentOf(x));
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(parentOf(x), RED);
+                    rotateRight(parentOf(x));
+                    sib = leftOf(parentOf(x));
+                }
+                if (colorOf(rightOf(sib)) == BLACK && colorOf(leftOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(leftOf(sib)) == BLACK) {
+                        setColor(rightOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateLeft(sib);
+                        sib = leftOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(leftOf(sib), BLACK);
+                    rotateRight(parentOf(x));
+                    x = root;
+                }
+            }
+        }
+        setColor(x, BLACK);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int e = getFirstNode(); e != NIL; e = successor(e)) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(keys[e]).append('=').append(values[e]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.learning.demo.structure.tree;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * 对比 {@link LongRedBlackTree}、{@link RedBlackTree} 与 {@link TreeMap}（后两者使用装箱的 <tt>Long</tt> 键值）：
+ * <ul>
+ * <li>每个键值对占用的堆内存；</li>
+ * <li>在规模稳定的树上反复“删除一个旧键、插入一个新键”时的耗时，以及期间发生的 GC 次数和累计 GC 时间。</li>
+ * </ul>
+ *
+ * <p>与其它 <tt>*Benchmark</tt> 一样是简单的微基准，内存通过多次 {@link System#gc()} 后比较已用堆大小估算，
+ * GC 统计来自 {@link GarbageCollectorMXBean}。运行方式：直接执行 {@link #main(String[])}，
+ * 第一个参数可以指定树的规模（默认 100 万），第二个参数指定删除/插入的轮数（默认 1000 万）。
+ */
+public class LongRedBlackTreeBenchmark {
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int churn = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        Random random = new Random(42);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextLong();
+        }
+
+        Bench.footprint("footprint TreeMap<Long, Long>      ", size, "entry", () -> {
+            TreeMap<Long, Long> m = new TreeMap<>();
+            for (long k : keys) {
+                m.put(k, k);
+            }
+            return m;
+        });
+        Bench.footprint("footprint RedBlackTree<Long, Long> ", size, "entry", () -> {
+            RedBlackTree<Long, Long> t = new RedBlackTree<>();
+            for (long k : keys) {
+                t.put(k, k);
+            }
+            return t;
+        });
+        Bench.footprint("footprint LongRedBlackTree         ", size, "entry", () -> {
+            LongRedBlackTree t = new LongRedBlackTree(size);
+            for (long k : keys) {
+                t.put(k, k);
+            }
+            return t;
+        });
+
+        TreeMap<Long, Long> treeMap = new TreeMap<>();
+        RedBlackTree<Long, Long> boxed = new RedBlackTree<>();
+        LongRedBlackTree pooled = new LongRedBlackTree(size);
+        for (long k : keys) {
+            treeMap.put(k, k);
+            boxed.put(k, k);
+            pooled.put(k, k);
+        }
+        //每一轮删除一个现有的键、插入一个新键，树的规模保持不变
+        churn("TreeMap<Long, Long>      ", churn, keys.clone(), (k, n) -> {
+            treeMap.remove(k);
+            treeMap.put(n, n);
+        });
+        churn("RedBlackTree<Long, Long> ", churn, keys.clone(), (k, n) -> {
+            boxed.remove(k);
+            boxed.put(n, n);
+        });
+        churn("LongRedBlackTree         ", churn, keys.clone(), (k, n) -> {
+            pooled.remove(k);
+            pooled.put(n, n);
+        });
+        Bench.done();
+    }
+
+    private interface Replace {
+        void replace(long oldKey, long newKey);
+    }
+
+    private static void churn(String name, int rounds, long[] live, Replace op) {
+        Random random = new Random(7);
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            int slot = random.nextInt(live.length);
+            long n = random.nextLong();
+            op.replace(live[slot], n);
+            live[slot] = n;
+        }
+        long elapsed = System.nanoTime() - start;
+        Bench.consume(live[0]);
+        System.out.printf("churn     %s : %7.1f ns/op, %4d GCs, %6d ms in GC%n", name,
+                elapsed / (double) rounds, gcCount() - gcCount, gcTime() - gcTime);
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            n += Math.max(0, gc.getCollectionCount());
+        }
+        return n;
+    }
+
+    private static long gcTime() {
+        long t = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            t += Math.max(0, gc.getCollectionTime());
+        }
+        return t;
+    }
+}
@@ -0,0 +1,872 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+
+/**
+ * 不可变（持久化）的红黑树。每个实例代表一个版本，修改操作不改变它，而是返回一个新版本。
+ *
+ * <p>{@link #put} 和 {@link #remove} 使用<em>路径复制</em>：只复制从根到被修改节点路径上的 O(log n) 个节点，
+ * 其余子树在新旧版本之间共享。节点的所有字段都是 final 的，所以任何线程拿到某个版本后都可以不加锁地读取和遍历，
+ * 不受之后写操作的影响；保留一个版本（快照）的代价是 O(1)，只是持有一个引用。
+ *
+ * <p>因为节点没有父指针，平衡算法采用函数式的写法：
+ * <ul>
+ * <li>插入参考 Okasaki，新节点为红色，沿查找路径返回时用 {@link #balance} 消除“红-红”冲突；</li>
+ * <li>删除参考 Kahrs，返回时用 {@link #balLeft}/{@link #balRight} 修复少了一个黑色节点的一侧，
+ * 删除的节点本身由 {@link #fuse} 把两棵子树合并来顶替。</li>
+ * </ul>
+ * 每个节点还记录子树大小和黑高，所以 {@link #size()} 是 O(1) 的，{@link #join} 也不需要遍历子树来比较黑高。
+ *
+ * <p>在此基础上提供基于 {@link #join} 的集合运算：{@link #split}、{@link #union}、{@link #intersection}、
+ * {@link #difference}，对大小为 m 和 n（m &le; n）的两棵树的代价是 O(m log(n/m + 1))，
+ * 两棵树的规模之和超过 {@link #PARALLEL_THRESHOLD} 时，递归的左右两半在 {@link ForkJoinPool#commonPool()} 中并行计算。
+ * 由于节点不可变，参与运算的树不受影响，结果与输入共享所有未改变的子树。
+ *
+ * <p>需要一次提交多个修改时使用 {@link #batch()}：{@link Batch} 在内部连续修改，{@link Batch#commit()}
+ * 只产生一个新版本，中间状态对其它线程不可见。需要一个可变的、供多个线程共享的入口时，参见
+ * {@link VersionedRedBlackTree}。
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @see RedBlackTree
+ * @see VersionedRedBlackTree
+ */
+public final class PersistentRedBlackTree<K, V> implements Iterable<Map.Entry<K, V>> {
+    /* 红黑颜色 */
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    /** 合法红黑树的高度上限，用作遍历栈的大小 */
+    private static final int MAX_HEIGHT = 64;
+
+    /* 不可变的节点，null 表示空树 */
+    static final class Node<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final boolean red;
+        /* 以此节点为根的子树中的节点个数 */
+        final int size;
+        /* 黑高：沿左脊到 NIL 的路径上黑色节点的个数（不含 NIL），节点不可变，所以构造时算好即可 */
+        final int blackHeight;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right, boolean red) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.red = red;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+            this.blackHeight = blackHeight(left) + (red ? 0 : 1);
+        }
+    }
+
+    /* 键比较器，为 null 时使用键的自然顺序 */
+    final Comparator<? super K> comparator;
+    /* 根节点 */
+    final Node<K, V> root;
+
+    /**
+     * 构造一棵空树，按键的自然顺序排序。
+     */
+    public PersistentRedBlackTree() {
+        this(null, null);
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     */
+    public PersistentRedBlackTree(Comparator<? super K> comparator) {
+        this(comparator, null);
+    }
+
+    PersistentRedBlackTree(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    /**
+     * 用按键严格升序给出的 <tt>size</tt> 个键值对在线性时间内构造一棵平衡的树，迭代器恰好被消费 <tt>size</tt> 次。
+     * 构造方法与 {@link RedBlackTree#RedBlackTree(Comparator, boolean, int, Iterator)} 相同，
+     * 因此可以用 <tt>new PersistentRedBlackTree&lt;&gt;(t.comparator(), t.size(), t.iterator())</tt> 从 {@link RedBlackTree} 转换。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     * @param size       键值对的个数
+     * @param entries    按键严格升序的键值对
+     * @throws IllegalArgumentException 如果键不是严格升序
+     * @throws NoSuchElementException   如果迭代器中的元素少于 <tt>size</tt> 个
+     */
+    public PersistentRedBlackTree(Comparator<? super K> comparator, int size,
+                                  Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        this.comparator = comparator;
+        this.root = buildFromSorted(0, 0, size - 1, computeRedLevel(size), entries);
+        checkAscending();
+    }
+
+    /**
+     * 按中序依次从迭代器读取，取中点作为子树的根；只有最底层（可能不满）的节点是红色的，见
+     * {@link RedBlackTree} 中的同名方法。节点不可变，所以要先构造左右子树再构造根。
+     */
+    private static <K, V> Node<K, V> buildFromSorted(int level, int lo, int hi, int redLevel,
+                                                     Iterator<? extends Map.Entry<? extends K, ? extends V>> it) {
+        if (hi < lo) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<K, V> left = buildFromSorted(level + 1, lo, mid - 1, redLevel, it);
+        Map.Entry<? extends K, ? extends V> entry = it.next();
+        K key = entry.getKey();
+        V value = entry.getValue();
+        Node<K, V> right = buildFromSorted(level + 1, mid + 1, hi, redLevel, it);
+        return new Node<>(key, value, left, right, level == redLevel);
+    }
+
+    private static int computeRedLevel(int size) {
+        int level = 0;
+        for (int m = size - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
+    private void checkAscending() {
+        Node<?, ?>[] stack = new Node<?, ?>[MAX_HEIGHT];
+        int top = 0;
+        Node<K, V> p = root;
+        Node<K, V> prev = null;
+        while (p != null || top > 0) {
+            while (p != null) {
+                stack[top++] = p;
+                p = p.left;
+            }
+            @SuppressWarnings("unchecked")
+            Node<K, V> e = (Node<K, V>) stack[--top];
+            if (prev == null ? compare(e.key, e.key) != 0 : compare(prev.key, e.key) >= 0) {
+                throw new IllegalArgumentException("keys not in strictly ascending order");
+            }
+            prev = e;
+            p = e.right;
+        }
+    }
+
+    /** 根不变时返回自身，否则返回共享比较器的新版本 */
+    private PersistentRedBlackTree<K, V> withRoot(Node<K, V> newRoot) {
+        return newRoot == root ? this : new PersistentRedBlackTree<>(comparator, newRoot);
+    }
+
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator == null ? ((Comparable<? super K>) k1).compareTo((K) k2)
+                : comparator.compare((K) k1, (K) k2);
+    }
+
+    /* 查询操作 */
+    /**返回节点个数*/
+    public int size() {
+        return sizeOf(root);
+    }
+    /**是否为空*/
+    public boolean isEmpty() {
+        return root == null;
+    }
+    /**返回排序使用的比较器，自然顺序时返回 null*/
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+    /**是否包含指定的键*/
+    public boolean containsKey(Object key) {
+        return getNode(key) != null;
+    }
+    /**返回键对应的值，不存在时返回 null*/
+    public V get(Object key) {
+        Node<K, V> p = getNode(key);
+        return (p == null ? null : p.value);
+    }
+    /**返回最小的键*/
+    public K firstKey() {
+        Node<K, V> p = root;
+        if (p == null) {
+            throw new NoSuchElementException();
+        }
+        while (p.left != null) {
+            p = p.left;
+        }
+        return p.key;
+    }
+    /**返回最大的键*/
+    public K lastKey() {
+        Node<K, V> p = root;
+        if (p == null) {
+            throw new NoSuchElementException();
+        }
+        while (p.right != null) {
+            p = p.right;
+        }
+        return p.key;
+    }
+
+    final Node<K, V> getNode(Object key) {
+        if (key == null && comparator == null) {
+            throw new NullPointerException();
+        }
+        Node<K, V> p = root;
+        while (p != null) {
+            int cmp = compare(key, p.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /* 修改操作，都返回新版本 */
+    /**
+     * 返回插入或替换了键值对的新版本，此版本不变。如果键已存在且值相同（<tt>==</tt>），返回此版本本身。
+     *
+     * @param key   键
+     * @param value 值
+     * @return 新版本
+     */
+    public PersistentRedBlackTree<K, V> put(K key, V value) {
+        Node<K, V> p = getNode(key);
+        if (p != null) {
+            //键已存在：只需沿路径复制并替换值，颜色和形状都不变
+            return p.value == value ? this : withRoot(replace(root, key, value));
+        }
+        //类型（以及可能的 null）检查
+        compare(key, key);
+        return withRoot(blacken(insert(root, key, value)));
+    }
+
+    /**
+     * 返回删除了键的新版本，此版本不变。如果键不存在，返回此版本本身。
+     *
+     * @param key 键
+     * @return 新版本
+     */
+    public PersistentRedBlackTree<K, V> remove(Object key) {
+        if (getNode(key) == null) {
+            return this;
+        }
+        Node<K, V> r = delete(root, key);
+        return withRoot(r == null ? null : blacken(r));
+    }
+
+    /**
+     * 返回空的新版本，比较器不变。
+     */
+    public PersistentRedBlackTree<K, V> clear() {
+        return withRoot(null);
+    }
+
+    /**
+     * 开始一批修改，基于此版本。
+     */
+    public Batch<K, V> batch() {
+        return new Batch<>(this);
+    }
+
+    /**
+     * 一批修改。修改在内部逐个应用，只有 {@link #commit()} 返回的最终版本是可见的；
+     * 之前取得的任何版本都不受影响。此类不是线程安全的，一批修改应由一个线程完成。
+     */
+    public static final class Batch<K, V> {
+        private PersistentRedBlackTree<K, V> current;
+        private boolean committed;
+
+        Batch(PersistentRedBlackTree<K, V> base) {
+            this.current = base;
+        }
+
+        /**插入或替换键值对*/
+        public Batch<K, V> put(K key, V value) {
+            ensureOpen();
+            current = current.put(key, value);
+            return this;
+        }
+        /**删除键*/
+        public Batch<K, V> remove(Object key) {
+            ensureOpen();
+            current = current.remove(key);
+            return this;
+        }
+        /**返回这批修改进行到当前为止的值，供批内的读改写使用*/
+        public V get(Object key) {
+            ensureOpen();
+            return current.get(key);
+        }
+        /**
+         * 结束这批修改并返回新版本。之后不能再使用这个 batch。
+         *
+         * @throws IllegalStateException 如果已经提交过
+         */
+        public PersistentRedBlackTree<K, V> commit() {
+            ensureOpen();
+            committed = true;
+            return current;
+        }
+
+        private void ensureOpen() {
+            if (committed) {
+                throw new IllegalStateException("batch already committed");
+            }
+        }
+    }
+
+    /* 基本操作方法 */
+    static int sizeOf(Node<?, ?> p) {
+        return (p == null ? 0 : p.size);
+    }
+    static boolean isRed(Node<?, ?> p) {
+        return p != null && p.red;
+    }
+    static boolean isBlack(Node<?, ?> p) {
+        return p != null && !p.red;
+    }
+    /** 用 x 的键值和给定的颜色、孩子构造新节点，相当于论文中的 T color l x r */
+    static <K, V> Node<K, V> node(boolean color, Node<K, V> l, Node<K, V> x, Node<K, V> r) {
+        return new Node<>(x.key, x.value, l, r, color);
+    }
+    static <K, V> Node<K, V> blacken(Node<K, V> p) {
+        return p.red ? node(BLACK, p.left, p, p.right) : p;
+    }
+    /** 把黑色节点染红（论文中的 sub1），使该子树的黑高减一 */
+    static <K, V> Node<K, V> redden(Node<K, V> p) {
+        if (!isBlack(p)) {
+            throw new IllegalStateException("red-black invariant violated");
+        }
+        return node(RED, p.left, p, p.right);
+    }
+
+    /**
+     * 以 x 为根、a 和 b 为孩子组合一个黑色节点，同时消除孩子和孙子之间的“红-红”冲突。
+     *
+     * <p>四种冲突的形状（红色节点在孩子的某一侧又有红孩子）都被改写为同一个形状：
+     * 中间的键成为红色的根，两边的键成为黑色的孩子。两个孩子都是红色时，直接把它们染黑、根染红。
+     *
+     * <pre>
+     *          z            z          x          x
+     *         /            /            \          \
+     *        y            x              z          y            y(R)
+     *       /              \            /            \    ==>   /    \
+     *      x                y          y              z       x(B)  z(B)
+     * </pre>
+     */
+    static <K, V> Node<K, V> balance(Node<K, V> a, Node<K, V> x, Node<K, V> b) {
+        if (isRed(a) && isRed(b)) {
+            return node(RED, blacken(a), x, blacken(b));
+        }
+        if (isRed(a)) {
+            if (isRed(a.left)) {
+                return node(RED, blacken(a.left), a, node(BLACK, a.right, x, b));
+            }
+            if (isRed(a.right)) {
+                return node(RED, node(BLACK, a.left, a, a.right.left), a.right, node(BLACK, a.right.right, x, b));
+            }
+        }
+        if (isRed(b)) {
+            if (isRed(b.right)) {
+                return node(RED, node(BLACK, a, x, b.left), b, blacken(b.right));
+            }
+            if (isRed(b.left)) {
+                return node(RED, node(BLACK, a, x, b.left.left), b.left, node(BLACK, b.left.right, b, b.right));
+            }
+        }
+        return node(BLACK, a, x, b);
+    }
+
+    /* 插入：调用前已确认键不存在 */
+    private Node<K, V> insert(Node<K, V> t, K key, V value) {
+        if (t == null) {
+            return new Node<>(key, value, null, null, RED);
+        }
+        int cmp = compare(key, t.key);
+        if (t.red) {
+            //红色节点不做平衡，冲突留给上面的黑色祖先处理
+            return cmp < 0 ? node(RED, insert(t.left, key, value), t, t.right)
+                    : node(RED, t.left, t, insert(t.right, key, value));
+        }
+        return cmp < 0 ? balance(insert(t.left, key, value), t, t.right)
+                : balance(t.left, t, insert(t.right, key, value));
+    }
+
+    /* 替换已存在的键的值：路径复制，形状和颜色不变 */
+    private Node<K, V> replace(Node<K, V> t, K key, V value) {
+        int cmp = compare(key, t.key);
+        if (cmp < 0) {
+            return node(t.red, replace(t.left, key, value), t, t.right);
+        } else if (cmp > 0) {
+            return node(t.red, t.left, t, replace(t.right, key, value));
+        }
+        return new Node<>(t.key, value, t.left, t.right, t.red);
+    }
+
+    /*
+     * 删除：调用前已确认键存在。
+     *
+     * 从黑色子树中删除会使该子树的黑高减一，这时用 balLeft/balRight 修复；从红色节点的子树删除时，
+     * 返回的节点是红色的，由上层修复。找到节点后用 fuse 合并它的两棵子树来顶替它。
+     */
+    private Node<K, V> delete(Node<K, V> t, Object key) {
+        int cmp = compare(key, t.key);
+        if (cmp < 0) {
+            return isBlack(t.left) ? balLeft(delete(t.left, key), t, t.right)
+                    : node(RED, delete(t.left, key), t, t.right);
+        } else if (cmp > 0) {
+            return isBlack(t.right) ? balRight(t.left, t, delete(t.right, key))
+                    : node(RED, t.left, t, delete(t.right, key));
+        }
+        return fuse(t.left, t.right);
+    }
+
+    /**
+     * 左子树 bl 的黑高比右子树 r 少一时，以 x 为根重新平衡：
+     * bl 是红色时直接染黑；否则把 r 一侧的黑高也减一（染红），再交给 {@link #balance} 消除可能出现的红-红冲突。
+     */
+    static <K, V> Node<K, V> balLeft(Node<K, V> bl, Node<K, V> x, Node<K, V> r) {
+        if (isRed(bl)) {
+            return node(RED, blacken(bl), x, r);
+        }
+        if (isBlack(r)) {
+            return balance(bl, x, redden(r));
+        }
+        if (isRed(r) && isBlack(r.left)) {
+            return node(RED, node(BLACK, bl, x, r.left.left), r.left, balance(r.left.right, r, redden(r.right)));
+        }
+        throw new IllegalStateException("red-black invariant violated");
+    }
+
+    /** {@link #balLeft} 的镜像：右子树 br 的黑高比左子树 l 少一 */
+    static <K, V> Node<K, V> balRight(Node<K, V> l, Node<K, V> x, Node<K, V> br) {
+        if (isRed(br)) {
+            return node(RED, l, x, blacken(br));
+        }
+        if (isBlack(l)) {
+            return balance(redden(l), x, br);
+        }
+        if (isRed(l) && isBlack(l.right)) {
+            return node(RED, balance(redden(l.left), l, l.right.left), l.right, node(BLACK, l.right.right, x, br));
+        }
+        throw new IllegalStateException("red-black invariant violated");
+    }
+
+    /**
+     * 合并黑高相同、且 a 中所有键都小于 b 中所有键的两棵树（论文中的 app），用来顶替被删除的节点。
+     * 结果的黑高与输入相同，或者（两者都是黑色时）少一，由调用者修复。
+     */
+    static <K, V> Node<K, V> fuse(Node<K, V> a, Node<K, V> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.red && b.red) {
+            Node<K, V> bc = fuse(a.right, b.left);
+            if (isRed(bc)) {
+                return node(RED, node(RED, a.left, a, bc.left), bc, node(RED, bc.right, b, b.right));
+            }
+            return node(RED, a.left, a, node(RED, bc, b, b.right));
+        }
+        if (!a.red && !b.red) {
+            Node<K, V> bc = fuse(a.right, b.left);
+            if (isRed(bc)) {
+                return node(RED, node(BLACK, a.left, a, bc.left), bc, node(BLACK, bc.right, b, b.right));
+            }
+            return balLeft(a.left, a, node(BLACK, bc, b, b.right));
+        }
+        if (b.red) {
+            return node(RED, fuse(a, b.left), b, b.right);
+        }
+        return node(RED, a.left, a, fuse(a.right, b));
+    }
+
+    /* 基于 join 的集合运算 */
+    /** 两棵树的节点数之和不小于此值时，递归的左右两半并行计算 */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /* 集合运算的种类 */
+    private static final int UNION = 0;
+    private static final int INTERSECTION = 1;
+    private static final int DIFFERENCE = 2;
+
+    /**
+     * {@link #split} 的结果：小于给定键的部分、等于给定键的键值对（不存在时为 null）、大于给定键的部分。
+     */
+    public static final class Split<K, V> {
+        private final PersistentRedBlackTree<K, V> left;
+        private final Map.Entry<K, V> entry;
+        private final PersistentRedBlackTree<K, V> right;
+
+        Split(PersistentRedBlackTree<K, V> left, Map.Entry<K, V> entry, PersistentRedBlackTree<K, V> right) {
+            this.left = left;
+            this.entry = entry;
+            this.right = right;
+        }
+
+        /**返回键小于给定键的部分*/
+        public PersistentRedBlackTree<K, V> left() {
+            return left;
+        }
+        /**返回给定键对应的键值对，不存在时返回 null*/
+        public Map.Entry<K, V> entry() {
+            return entry;
+        }
+        /**返回键大于给定键的部分*/
+        public PersistentRedBlackTree<K, V> right() {
+            return right;
+        }
+    }
+
+    /* 内部的拆分结果，middle 为 null 表示键不存在 */
+    private static final class Parts<K, V> {
+        final Node<K, V> left;
+        final Node<K, V> middle;
+        final Node<K, V> right;
+
+        Parts(Node<K, V> left, Node<K, V> middle, Node<K, V> right) {
+            this.left = left;
+            this.middle = middle;
+            this.right = right;
+        }
+    }
+
+    /**
+     * 把此树按 <tt>key</tt> 拆分为两棵树，O(log n)。此树不变。
+     *
+     * @param key 拆分的键
+     * @return 拆分的结果
+     */
+    public Split<K, V> split(K key) {
+        //类型（以及可能的 null）检查
+        compare(key, key);
+        Parts<K, V> parts = split(root, key);
+        Node<K, V> m = parts.middle;
+        return new Split<>(result(parts.left),
+                m == null ? null : new AbstractMap.SimpleImmutableEntry<>(m.key, m.value), result(parts.right));
+    }
+
+    /**
+     * 返回由 <tt>left</tt> 的所有键值对、<tt>(key, value)</tt> 以及 <tt>right</tt> 的所有键值对组成的树，O(log n)。
+     * 要求 <tt>left</tt> 中的键都小于 <tt>key</tt>，<tt>right</tt> 中的键都大于 <tt>key</tt>。
+     *
+     * @throws IllegalArgumentException 如果键的顺序不满足要求，或者两棵树使用不同的比较器
+     */
+    public static <K, V> PersistentRedBlackTree<K, V> join(PersistentRedBlackTree<K, V> left, K key, V value,
+                                                           PersistentRedBlackTree<K, V> right) {
+        checkComparable(left, right);
+        if ((!left.isEmpty() && left.compare(left.lastKey(), key) >= 0)
+                || (!right.isEmpty() && left.compare(key, right.firstKey()) >= 0)) {
+            throw new IllegalArgumentException("keys out of order");
+        }
+        left.compare(key, key);
+        return left.result(join(left.root, new Node<>(key, value, null, null, RED), right.root));
+    }
+
+    /**
+     * 返回包含两棵树所有键的树；两棵树都有的键取 <tt>other</tt> 中的值。
+     *
+     * @throws IllegalArgumentException 如果两棵树使用不同的比较器
+     */
+    public PersistentRedBlackTree<K, V> union(PersistentRedBlackTree<K, V> other) {
+        return setOperation(UNION, other);
+    }
+
+    /**
+     * 返回只包含两棵树共有的键的树，值取此树中的值。
+     *
+     * @throws IllegalArgumentException 如果两棵树使用不同的比较器
+     */
+    public PersistentRedBlackTree<K, V> intersection(PersistentRedBlackTree<K, V> other) {
+        return setOperation(INTERSECTION, other);
+    }
+
+    /**
+     * 返回只包含此树中有、<tt>other</tt> 中没有的键的树。
+     *
+     * @throws IllegalArgumentException 如果两棵树使用不同的比较器
+     */
+    public PersistentRedBlackTree<K, V> difference(PersistentRedBlackTree<K, V> other) {
+        return setOperation(DIFFERENCE, other);
+    }
+
+    private PersistentRedBlackTree<K, V> setOperation(int op, PersistentRedBlackTree<K, V> other) {
+        checkComparable(this, other);
+        Node<K, V> r;
+        if (size() + other.size() >= PARALLEL_THRESHOLD) {
+            r = ForkJoinPool.commonPool().invoke(new SetOperation(op, root, other.root));
+        } else {
+            r = apply(op, root, other.root);
+        }
+        //结果与某个输入相同时直接复用它
+        if (r == root) {
+            return this;
+        }
+        return r == other.root ? other : result(r);
+    }
+
+    private static void checkComparable(PersistentRedBlackTree<?, ?> a, PersistentRedBlackTree<?, ?> b) {
+        if (!Objects.equals(a.comparator, b.comparator)) {
+            throw new IllegalArgumentException("trees use different comparators");
+        }
+    }
+
+    /** 把运算结果包装为新版本，根染黑 */
+    private PersistentRedBlackTree<K, V> result(Node<K, V> r) {
+        return new PersistentRedBlackTree<>(comparator, r == null ? null : blacken(r));
+    }
+
+    /** 并行计算集合运算的一半 */
+    private final class SetOperation extends RecursiveTask<Node<K, V>> {
+        private static final long serialVersionUID = 1L;
+        private final int op;
+        private final Node<K, V> a;
+        private final Node<K, V> b;
+
+        SetOperation(int op, Node<K, V> a, Node<K, V> b) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected Node<K, V> compute() {
+            return apply(op, a, b);
+        }
+    }
+
+    /**
+     * 集合运算的递归主体：按一棵树的根把另一棵树拆分，对左右两半分别递归，再用 {@link #join} 或
+     * {@link #join2} 拼接。并集和交集按 a 的根拆分 b，差集按 b 的根拆分 a。
+     */
+    private Node<K, V> apply(int op, Node<K, V> a, Node<K, V> b) {
+        if (a == null) {
+            return op == UNION ? b : null;
+        }
+        if (b == null) {
+            return op == INTERSECTION ? null : a;
+        }
+        Node<K, V> la;
+        Node<K, V> lb;
+        Node<K, V> ra;
+        Node<K, V> rb;
+        Node<K, V> middle;
+        if (op == DIFFERENCE) {
+            Parts<K, V> s = split(a, b.key);
+            la = s.left;
+            ra = s.right;
+            lb = b.left;
+            rb = b.right;
+            middle = null;
+        } else {
+            Parts<K, V> s = split(b, a.key);
+            la = a.left;
+            ra = a.right;
+            lb = s.left;
+            rb = s.right;
+            //并集中两边都有的键取 b 的值；交集中只有两边都有时才保留，值取 a 的
+            middle = (op == UNION) ? (s.middle != null ? s.middle : a) : (s.middle != null ? a : null);
+        }
+        Node<K, V> l;
+        Node<K, V> r;
+        if (sizeOf(a) + sizeOf(b) >= PARALLEL_THRESHOLD) {
+            SetOperation left = new SetOperation(op, la, lb);
+            left.fork();
+            r = apply(op, ra, rb);
+            l = left.join();
+        } else {
+            l = apply(op, la, lb);
+            r = apply(op, ra, rb);
+        }
+        //两半都没有变化时复用原来的节点，避免无谓的复制
+        if (middle == a && l == a.left && r == a.right) {
+            return a;
+        }
+        return middle != null ? join(l, middle, r) : join2(l, r);
+    }
+
+    /**
+     * 按 key 把 t 拆分为三部分，沿查找路径把两侧的子树逐层 join 起来。每侧相邻两次 join 的黑高差之和是一个
+     * 伸缩和，不超过树高，所以总代价是 O(log n)。
+     */
+    private Parts<K, V> split(Node<K, V> t, Object key) {
+        if (t == null) {
+            return new Parts<>(null, null, null);
+        }
+        int cmp = compare(key, t.key);
+        if (cmp == 0) {
+            return new Parts<>(t.left, t, t.right);
+        }
+        if (cmp < 0) {
+            Parts<K, V> s = split(t.left, key);
+            return new Parts<>(s.left, s.middle, join(s.right, t, t.right));
+        }
+        Parts<K, V> s = split(t.right, key);
+        return new Parts<>(join(t.left, t, s.left), s.middle, s.right);
+    }
+
+    /** 拼接两棵树，l 中的键都小于 r 中的键：取出 l 的最大节点作为中间的键 */
+    private static <K, V> Node<K, V> join2(Node<K, V> l, Node<K, V> r) {
+        if (l == null) {
+            return r;
+        }
+        if (r == null) {
+            return l;
+        }
+        Parts<K, V> s = splitLast(l);
+        return join(s.left, s.middle, r);
+    }
+
+    /** 把 t 拆分为除最大节点以外的部分（left）和最大节点（middle） */
+    private static <K, V> Parts<K, V> splitLast(Node<K, V> t) {
+        if (t.right == null) {
+            return new Parts<>(t.left, t, null);
+        }
+        Parts<K, V> s = splitLast(t.right);
+        return new Parts<>(join(t.left, t, s.left), s.middle, null);
+    }
+
+    /** 黑高，O(1)：空树为 0 */
+    static int blackHeight(Node<?, ?> p) {
+        return p == null ? 0 : p.blackHeight;
+    }
+
+    /**
+     * 以 x 的键值为中间键拼接 l 和 r，l 中的键都小于 x，r 中的键都大于 x，O(|bh(l) - bh(r)| + 1)：
+     * 黑高保存在节点中，不需要遍历就能得到。
+     *
+     * <p>黑高相同时直接组合；否则沿较高一侧的内侧脊向下，找到与较矮一侧黑高相同的黑色子树，
+     * 在那里用红色的 x 把两者组合起来，返回时像插入一样消除“红-红”冲突。结果的根可能是红色的。
+     */
+    static <K, V> Node<K, V> join(Node<K, V> l, Node<K, V> x, Node<K, V> r) {
+        int lh = blackHeight(l);
+        int rh = blackHeight(r);
+        if (lh > rh) {
+            Node<K, V> t = joinRight(l, lh, x, r, rh);
+            return (t.red && isRed(t.right)) ? node(BLACK, t.left, t, t.right) : t;
+        }
+        if (lh < rh) {
+            Node<K, V> t = joinLeft(l, lh, x, r, rh);
+            return (t.red && isRed(t.left)) ? node(BLACK, t.left, t, t.right) : t;
+        }
+        return node(!isRed(l) && !isRed(r) ? RED : BLACK, l, x, r);
+    }
+
+    /** l 较高：沿 l 的右脊向下 */
+    private static <K, V> Node<K, V> joinRight(Node<K, V> l, int lh, Node<K, V> x, Node<K, V> r, int rh) {
+        if (!isRed(l) && lh == rh) {
+            return node(RED, l, x, r);
+        }
+        Node<K, V> t = node(l.red, l.left, l, joinRight(l.right, l.red ? lh : lh - 1, x, r, rh));
+        if (!l.red && isRed(t.right) && isRed(t.right.right)) {
+            //左旋 t，并把原来的 t.right.right 染黑
+            Node<K, V> y = t.right;
+            return node(RED, node(BLACK, t.left, t, y.left), y, blacken(y.right));
+        }
+        return t;
+    }
+
+    /** r 较高：沿 r 的左脊向下，{@link #joinRight} 的镜像 */
+    private static <K, V> Node<K, V> joinLeft(Node<K, V> l, int lh, Node<K, V> x, Node<K, V> r, int rh) {
+        if (!isRed(r) && lh == rh) {
+            return node(RED, l, x, r);
+        }
+        Node<K, V> t = node(r.red, joinLeft(l, lh, x, r.left, r.red ? rh : rh - 1), r, r.right);
+        if (!r.red && isRed(t.left) && isRed(t.left.left)) {
+            //右旋 t，并把原来的 t.left.left 染黑
+            Node<K, V> y = t.left;
+            return node(RED, blacken(y.left), y, node(BLACK, y.right, t, t.right));
+        }
+        return t;
+    }
+
+    /* 遍历 */
+    /**按键的升序遍历所有节点*/
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        Node<?, ?>[] stack = new Node<?, ?>[MAX_HEIGHT];
+        int top = 0;
+        Node<K, V> p = root;
+        while (p != null || top > 0) {
+            while (p != null) {
+                stack[top++] = p;
+                p = p.left;
+            }
+            @SuppressWarnings("unchecked")
+            Node<K, V> e = (Node<K, V>) stack[--top];
+            action.accept(e.key, e.value);
+            p = e.right;
+        }
+    }
+
+    /**
+     * 返回按键升序遍历的迭代器。节点没有父指针，迭代器用一个长度为树高的数组栈记录路径。
+     * 版本不可变，所以迭代器不需要快速失败检查，也不支持 remove。
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Node<?, ?>[] stack = new Node<?, ?>[MAX_HEIGHT];
+        private int top;
+
+        EntryIterator(Node<K, V> root) {
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node<K, V> p) {
+            while (p != null) {
+                stack[top++] = p;
+                p = p.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (top == 0) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> e = (Node<K, V>) stack[--top];
+            pushLeft(e.right);
+            return new AbstractMap.SimpleImmutableEntry<>(e.key, e.value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+}
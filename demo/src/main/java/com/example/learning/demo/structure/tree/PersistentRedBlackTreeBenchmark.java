@@ -0,0 +1,89 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntSupplier;
+
+/**
+ * 对比合并两个各有 n 个键（默认 100 万，约一半重叠）的有序索引的方式：
+ * <ul>
+ * <li>{@link PersistentRedBlackTree} 基于 join 的 {@link PersistentRedBlackTree#union union}，
+ * 以及 {@link PersistentRedBlackTree#intersection intersection}、{@link PersistentRedBlackTree#difference difference}；</li>
+ * <li>把第二个索引的键逐个 {@link RedBlackTree#put put} 进第一个索引的副本；</li>
+ * <li>复制第一个索引的 {@link TreeMap}，再 {@link TreeMap#putAll putAll} 第二个。</li>
+ * </ul>
+ *
+ * <p>与其它 <tt>*Benchmark</tt> 一样是简单的微基准：先预热再取多轮最好成绩。运行方式：直接执行 {@link #main(String[])}，
+ * 第一个参数可以指定 n。并行版本的加速比取决于 {@link java.util.concurrent.ForkJoinPool#commonPool()} 的并行度。
+ */
+public class PersistentRedBlackTreeBenchmark {
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] k1 = randomKeys(n, 1);
+        Integer[] k2 = randomKeys(n, 2);
+        PersistentRedBlackTree<Integer, Integer> p1 = persistent(k1);
+        PersistentRedBlackTree<Integer, Integer> p2 = persistent(k2);
+        TreeMap<Integer, Integer> m1 = treeMap(k1);
+        TreeMap<Integer, Integer> m2 = treeMap(k2);
+        System.out.printf("n = %,d, parallelism = %d%n", n,
+                java.util.concurrent.ForkJoinPool.commonPool().getParallelism());
+
+        measure("union         PersistentRedBlackTree ", () -> p1.union(p2).size());
+        measure("intersection  PersistentRedBlackTree ", () -> p1.intersection(p2).size());
+        measure("difference    PersistentRedBlackTree ", () -> p1.difference(p2).size());
+        measure("union         RedBlackTree put       ", () -> {
+            RedBlackTree<Integer, Integer> t = new RedBlackTree<>(null, false, k1, k1);
+            for (Integer k : k2) {
+                t.put(k, k);
+            }
+            return t.size();
+        });
+        measure("union         TreeMap putAll         ", () -> {
+            //复制有序 map 是线性的
+            TreeMap<Integer, Integer> t = new TreeMap<>(m1);
+            t.putAll(m2);
+            return t.size();
+        });
+        Bench.done();
+    }
+
+    /** 返回 n 个不重复的升序随机键，取值范围是 [0, 2n)，所以两组键大约一半重叠 */
+    private static Integer[] randomKeys(int n, long seed) {
+        Random random = new Random(seed);
+        int[] keys = new int[n];
+        boolean[] used = new boolean[2 * n];
+        for (int i = 0; i < n; ) {
+            int k = random.nextInt(2 * n);
+            if (!used[k]) {
+                used[k] = true;
+                keys[i++] = k;
+            }
+        }
+        Arrays.sort(keys);
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = keys[i];
+        }
+        return boxed;
+    }
+
+    private static PersistentRedBlackTree<Integer, Integer> persistent(Integer[] keys) {
+        return new PersistentRedBlackTree<>(null, keys.length, treeMap(keys).entrySet().iterator());
+    }
+
+    private static TreeMap<Integer, Integer> treeMap(Integer[] keys) {
+        TreeMap<Integer, Integer> m = new TreeMap<>();
+        for (Integer k : keys) {
+            m.put(k, k);
+        }
+        return m;
+    }
+
+    private static void measure(String name, IntSupplier op) {
+        System.out.printf("%s : %8.1f ms%n", name, Bench.bestNanos(WARMUP, ROUNDS, op) / 1_000_000.0);
+    }
+}
@@ -1,6 +1,13 @@
 package com.example.learning.demo.structure.tree;
 
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
 
 /**
  * 红黑树，具体参考openjdk的 {@link TreeMap} 中的实现。
@@ -15,20 +22,30 @@ import java.util.TreeMap;
  *
  * <p>4、从根节点到 NIL 节点的每条路径上的黑色节点数量相同
  *
+ * <p>键按自然顺序或构造时提供的 {@link Comparator} 排序，不允许 null 键（使用允许 null 的比较器时除外）。
+ * {@link #put}、{@link #get}、{@link #remove} 都是 O(log n)，遍历通过 {@link #successor}/{@link #predecessor}
+ * 沿父指针进行，不需要额外的栈。迭代器是快速失败的。<strong>注意，此实现不是同步的。</strong>
+ *
+ * <p>通过 {@link #RedBlackTree(Comparator, boolean)} 可以开启顺序统计：每个节点额外维护子树大小，
+ * 于是可以在 O(log n) 内求键的排名 {@link #rank}、第 i 小的键 {@link #select} 以及区间内的键数
+ * {@link #countInRange}，适合在滑动窗口上求分位数这类场景。
+ *
  * @author liyan
  */
-public class RedBlackTree<K, V> {
+public class RedBlackTree<K, V> implements Iterable<Map.Entry<K, V>> {
     /* 红黑颜色 */
     private static final boolean RED = false;
-    private static final boolean BLACK = false;
+    private static final boolean BLACK = true;
     /*  红黑树节点结构 */
-    static class Node<K, V> {
+    static final class Node<K, V> implements Map.Entry<K, V> {
         K key;
         V value;
         Node<K, V> left;
         Node<K, V> right;
         Node<K, V> parent;
         boolean color = BLACK;
+        /* 以此节点为根的子树中的节点个数，只在开启顺序统计时维护 */
+        int size = 1;
         Node(K key,V value, Node<K, V> parent) {
             this.key = key;
             this.value = value;
@@ -37,25 +54,527 @@ public class RedBlackTree<K, V> {
         public K getKey() {
             return key;
         }
-        public void setValue(V value) {
+        public V setValue(V value) {
+            V oldValue = this.value;
             this.value = value;
+            return oldValue;
         }
         public V getValue() {
             return value;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
         @Override
         public int hashCode() {
-            return key.hashCode();
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
         }
 
         @Override
         public String toString() {
-            return value.toString();
+            return key + "=" + value;
         }
     }
+    /* 键比较器，为 null 时使用键的自然顺序 */
+    private final Comparator<? super K> comparator;
     /* 根节点 */
     private transient Node<K, V> root;
+    /* 节点个数 */
+    private transient int size = 0;
+    /* 结构性修改次数，用于迭代器的快速失败检查 */
+    private transient int modCount = 0;
+    /* 是否在节点上维护子树大小，以支持 rank/select */
+    private final boolean orderStatistics;
+
+    /**
+     * 构造一棵空树，按键的自然顺序排序。插入的键必须实现 {@link Comparable}。
+     */
+    public RedBlackTree() {
+        comparator = null;
+        orderStatistics = false;
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     */
+    public RedBlackTree(Comparator<? super K> comparator) {
+        this(comparator, false);
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序，并可选地开启顺序统计。
+     *
+     * <p>开启后每个节点额外记录子树大小，在插入、删除和旋转时一并维护（仍是 O(log n)），
+     * 从而支持 O(log n) 的 {@link #rank}、{@link #select} 和 {@link #countInRange}。
+     *
+     * @param comparator      用来排序的比较器，为 null 时使用键的自然顺序
+     * @param orderStatistics 是否维护子树大小
+     */
+    public RedBlackTree(Comparator<? super K> comparator, boolean orderStatistics) {
+        this.comparator = comparator;
+        this.orderStatistics = orderStatistics;
+    }
+
+    /**
+     * 用严格升序的键数组在线性时间内构造一棵平衡的树，不需要逐个插入和旋转。
+     *
+     * @param comparator      用来排序的比较器，为 null 时使用键的自然顺序
+     * @param orderStatistics 是否维护子树大小
+     * @param keys            按 <tt>comparator</tt> 严格升序排列的键
+     * @param values          与键一一对应的值；为 null 时所有值都是 null
+     * @throws IllegalArgumentException 如果键不是严格升序，或者两个数组长度不同
+     */
+    public RedBlackTree(Comparator<? super K> comparator, boolean orderStatistics, K[] keys, V[] values) {
+        this(comparator, orderStatistics);
+        if (values != null && values.length != keys.length) {
+            throw new IllegalArgumentException("keys.length != values.length");
+        }
+        checkAscending(keys, 0, keys.length);
+        size = keys.length;
+        root = buildFromSorted(0, 0, size - 1, computeRedLevel(size), null, keys, values);
+    }
+
+    /**
+     * 用按键严格升序给出的 <tt>size</tt> 个键值对在线性时间内构造一棵平衡的树，迭代器恰好被消费 <tt>size</tt> 次。
+     *
+     * @param comparator      用来排序的比较器，为 null 时使用键的自然顺序
+     * @param orderStatistics 是否维护子树大小
+     * @param size            键值对的个数
+     * @param entries         按键严格升序的键值对
+     * @throws IllegalArgumentException 如果键不是严格升序
+     * @throws NoSuchElementException   如果迭代器中的元素少于 <tt>size</tt> 个
+     */
+    public RedBlackTree(Comparator<? super K> comparator, boolean orderStatistics, int size,
+                        Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        this(comparator, orderStatistics);
+        if (size < 0) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        this.size = size;
+        root = buildFromSorted(0, 0, size - 1, computeRedLevel(size), entries, null, null);
+        //迭代器的顺序只能在构造之后按中序检查一遍
+        Node<K, V> prev = getFirstNode();
+        if (prev != null) {
+            compare(prev.key, prev.key);
+        }
+        for (Node<K, V> e = successor(prev); e != null; prev = e, e = successor(e)) {
+            if (compare(prev.key, e.key) >= 0) {
+                throw new IllegalArgumentException("keys not in strictly ascending order");
+            }
+        }
+    }
+
+    /* 查询操作 */
+    /**返回节点个数*/
+    public int size() {
+        return size;
+    }
+    /**是否为空*/
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    /**返回排序使用的比较器，自然顺序时返回 null*/
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+    /**是否包含指定的键*/
+    public boolean containsKey(Object key) {
+        return getEntry(key) != null;
+    }
+    /**返回键对应的值，不存在时返回 null*/
+    public V get(Object key) {
+        Node<K, V> p = getEntry(key);
+        return (p == null ? null : p.value);
+    }
+    /**返回最小的键*/
+    public K firstKey() {
+        return key(getFirstNode());
+    }
+    /**返回最大的键*/
+    public K lastKey() {
+        return key(getLastNode());
+    }
+
+    private static <K> K key(Node<K, ?> e) {
+        if (e == null) {
+            throw new NoSuchElementException();
+        }
+        return e.key;
+    }
+
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator == null ? ((Comparable<? super K>) k1).compareTo((K) k2)
+                : comparator.compare((K) k1, (K) k2);
+    }
+
+    /**
+     * 按二叉搜索树的“左小右大”查找键对应的节点。
+     * 使用自然顺序时先把键转换为 Comparable，避免在循环中每次判断比较器。
+     */
+    final Node<K, V> getEntry(Object key) {
+        if (comparator != null) {
+            return getEntryUsingComparator(key);
+        }
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        @SuppressWarnings("unchecked")
+        Comparable<? super K> k = (Comparable<? super K>) key;
+        Node<K, V> p = root;
+        while (p != null) {
+            int cmp = k.compareTo(p.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    final Node<K, V> getEntryUsingComparator(Object key) {
+        @SuppressWarnings("unchecked")
+        K k = (K) key;
+        Comparator<? super K> cpr = comparator;
+        Node<K, V> p = root;
+        while (p != null) {
+            int cmp = cpr.compare(k, p.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /* 修改操作 */
+    /**
+     * 插入键值对。如果键已存在则替换它的值，结构不变；否则把新节点挂到查找路径的末端，再通过
+     * {@link #fixAfterInsertion} 恢复红黑性质。
+     *
+     * @return 键原来对应的值，不存在时返回 null
+     */
+    public V put(K key, V value) {
+        Node<K, V> t = root;
+        if (t == null) {
+            //类型（以及可能的 null）检查
+            compare(key, key);
+            root = new Node<>(key, value, null);
+            size = 1;
+            modCount++;
+            return null;
+        }
+        int cmp;
+        Node<K, V> parent;
+        Comparator<? super K> cpr = comparator;
+        if (cpr != null) {
+            do {
+                parent = t;
+                cmp = cpr.compare(key, t.key);
+                if (cmp < 0) {
+                    t = t.left;
+                } else if (cmp > 0) {
+                    t = t.right;
+                } else {
+                    return t.setValue(value);
+                }
+            } while (t != null);
+        } else {
+            if (key == null) {
+                throw new NullPointerException();
+            }
+            @SuppressWarnings("unchecked")
+            Comparable<? super K> k = (Comparable<? super K>) key;
+            do {
+                parent = t;
+                cmp = k.compareTo(t.key);
+                if (cmp < 0) {
+                    t = t.left;
+                } else if (cmp > 0) {
+                    t = t.right;
+                } else {
+                    return t.setValue(value);
+                }
+            } while (t != null);
+        }
+        Node<K, V> e = new Node<>(key, value, parent);
+        if (cmp < 0) {
+            parent.left = e;
+        } else {
+            parent.right = e;
+        }
+        if (orderStatistics) {
+            //新节点的所有祖先的子树都多了一个节点
+            for (Node<K, V> q = parent; q != null; q = q.parent) {
+                q.size++;
+            }
+        }
+        fixAfterInsertion(e);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * 删除键对应的节点。
+     *
+     * @return 键原来对应的值，不存在时返回 null
+     */
+    public V remove(Object key) {
+        Node<K, V> p = getEntry(key);
+        if (p == null) {
+            return null;
+        }
+        V oldValue = p.value;
+        deleteEntry(p);
+        return oldValue;
+    }
+
+    /**
+     * 把一批严格升序的键值对并入此树，已存在的键的值被替换。
+     *
+     * <p>批量较小时逐个插入，代价是 O(m log(n + m))；批量与树的规模相当时，把树的中序序列与这批键值对归并，
+     * 再用 {@link #buildFromSorted} 重建，代价是 O(n + m)。重建会替换所有节点，之前创建的迭代器随之失效。
+     *
+     * @param keys   按此树的顺序严格升序排列的键
+     * @param values 与键一一对应的值；为 null 时所有值都是 null
+     * @throws IllegalArgumentException 如果键不是严格升序，或者两个数组长度不同
+     */
+    public void putAllSorted(K[] keys, V[] values) {
+        int m = keys.length;
+        if (values != null && values.length != m) {
+            throw new IllegalArgumentException("keys.length != values.length");
+        }
+        checkAscending(keys, 0, m);
+        int n = size;
+        //m 次 O(log(n + m)) 的插入比 O(n + m) 的重建便宜时直接插入
+        if ((long) m * (32 - Integer.numberOfLeadingZeros(n + m)) < n + m) {
+            for (int i = 0; i < m; i++) {
+                put(keys[i], values == null ? null : values[i]);
+            }
+            return;
+        }
+        //归并树的中序序列与这批键值对，键相同时取新值
+        Object[] mk = new Object[n + m];
+        Object[] mv = new Object[n + m];
+        int count = 0;
+        int i = 0;
+        Node<K, V> e = getFirstNode();
+        while (e != null || i < m) {
+            int cmp = (e == null) ? 1 : (i == m) ? -1 : compare(e.key, keys[i]);
+            if (cmp < 0) {
+                mk[count] = e.key;
+                mv[count++] = e.value;
+                e = successor(e);
+            } else {
+                mk[count] = keys[i];
+                mv[count++] = (values == null ? null : values[i]);
+                i++;
+                if (cmp == 0) {
+                    e = successor(e);
+                }
+            }
+        }
+        modCount++;
+        size = count;
+        root = buildFromSorted(0, 0, count - 1, computeRedLevel(count), null, mk, mv);
+    }
+
+    private void checkAscending(Object[] keys, int from, int to) {
+        if (from < to) {
+            //类型（以及可能的 null）检查
+            compare(keys[from], keys[from]);
+        }
+        for (int i = from + 1; i < to; i++) {
+            if (compare(keys[i - 1], keys[i]) >= 0) {
+                throw new IllegalArgumentException("keys not in strictly ascending order at index " + i);
+            }
+        }
+    }
+
+    /**
+     * 根据有序数据线性时间构造平衡的树，具体参考 {@link TreeMap} 中的同名方法。
+     *
+     * <p>每次取中点作为子树的根，左右两半递归构造，得到的是一棵除最底层外都是满的二叉树。
+     * 把除最底层之外的节点都染成黑色、最底层（第 <tt>redLevel</tt> 层）的节点染成红色，
+     * 所有路径上的黑色节点数就相同，且红色节点没有孩子，因此不需要任何修正。
+     * 节点按中序依次创建，所以从迭代器读取时正好是升序。
+     *
+     * @param level    当前子树的根所在的层，根为第 0 层
+     * @param lo       子树中第一个元素的下标
+     * @param hi       子树中最后一个元素的下标
+     * @param redLevel 需要染红的层，见 {@link #computeRedLevel}
+     * @param it       数据来源是迭代器时非 null
+     * @param keys     数据来源是数组时的键
+     * @param values   数据来源是数组时的值，可以为 null
+     */
+    @SuppressWarnings("unchecked")
+    private Node<K, V> buildFromSorted(int level, int lo, int hi, int redLevel,
+                                       Iterator<? extends Map.Entry<? extends K, ? extends V>> it,
+                                       Object[] keys, Object[] values) {
+        if (hi < lo) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<K, V> left = null;
+        if (lo < mid) {
+            left = buildFromSorted(level + 1, lo, mid - 1, redLevel, it, keys, values);
+        }
+        K key;
+        V value;
+        if (it != null) {
+            Map.Entry<? extends K, ? extends V> entry = it.next();
+            key = entry.getKey();
+            value = entry.getValue();
+        } else {
+            key = (K) keys[mid];
+            value = (values == null ? null : (V) values[mid]);
+        }
+        Node<K, V> middle = new Node<>(key, value, null);
+        if (level == redLevel) {
+            middle.color = RED;
+        }
+        if (orderStatistics) {
+            middle.size = hi - lo + 1;
+        }
+        if (left != null) {
+            middle.left = left;
+            left.parent = middle;
+        }
+        if (mid < hi) {
+            Node<K, V> right = buildFromSorted(level + 1, mid + 1, hi, redLevel, it, keys, values);
+            middle.right = right;
+            right.parent = middle;
+        }
+        return middle;
+    }
+
+    /**
+     * 返回 {@link #buildFromSorted} 构造 <tt>size</tt> 个节点的树时需要染红的层，也就是最底层。
+     * 如果最底层是满的，就都染黑。
+     */
+    private static int computeRedLevel(int size) {
+        int level = 0;
+        for (int m = size - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
+    /**删除所有节点*/
+    public void clear() {
+        modCount++;
+        size = 0;
+        root = null;
+    }
+
+    /* 顺序统计，需要在构造时开启 */
+    /**
+     * 返回严格小于 <tt>key</tt> 的键的个数，也就是 <tt>key</tt> 在升序中的下标（如果存在的话）。O(log n)。
+     *
+     * @throws UnsupportedOperationException 如果构造时没有开启顺序统计
+     */
+    public int rank(K key) {
+        return rank(key, false);
+    }
+
+    /**
+     * 返回升序排在第 <tt>index</tt> 位（从 0 开始）的键。O(log n)。
+     *
+     * @throws IndexOutOfBoundsException     如果下标越界
+     * @throws UnsupportedOperationException 如果构造时没有开启顺序统计
+     */
+    public K select(int index) {
+        checkOrderStatistics();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Node<K, V> p = root;
+        while (true) {
+            int leftSize = sizeOf(p.left);
+            if (index < leftSize) {
+                p = p.left;
+            } else if (index > leftSize) {
+                //跳过左子树和p本身
+                index -= leftSize + 1;
+                p = p.right;
+            } else {
+                return p.key;
+            }
+        }
+    }
+
+    /**
+     * 返回位于 <tt>[lo, hi)</tt> 中的键的个数。O(log n)。
+     *
+     * @throws IllegalArgumentException      如果 <tt>lo</tt> 大于 <tt>hi</tt>
+     * @throws UnsupportedOperationException 如果构造时没有开启顺序统计
+     */
+    public int countInRange(K lo, K hi) {
+        return countInRange(lo, true, hi, false);
+    }
+
+    /**
+     * 返回位于 <tt>lo</tt> 与 <tt>hi</tt> 之间的键的个数，端点是否计入由对应的参数决定。O(log n)。
+     *
+     * @throws IllegalArgumentException      如果 <tt>lo</tt> 大于 <tt>hi</tt>
+     * @throws UnsupportedOperationException 如果构造时没有开启顺序统计
+     */
+    public int countInRange(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        if (compare(lo, hi) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        //小于（等于）hi 的个数减去小于（等于）lo 的个数；lo == hi 且只含一端时结果为 0
+        return Math.max(0, rank(hi, hiInclusive) - rank(lo, !loInclusive));
+    }
+
+    /**
+     * 从根向下查找，每次向右走时累加左子树和当前节点。
+     *
+     * @return 小于 key（<tt>inclusive</tt> 为 true 时为小于等于）的键的个数
+     */
+    private int rank(K key, boolean inclusive) {
+        checkOrderStatistics();
+        int r = 0;
+        Node<K, V> p = root;
+        while (p != null) {
+            int cmp = compare(key, p.key);
+            if (cmp < 0 || (cmp == 0 && !inclusive)) {
+                if (cmp == 0) {
+                    return r + sizeOf(p.left);
+                }
+                p = p.left;
+            } else {
+                r += sizeOf(p.left) + 1;
+                if (cmp == 0) {
+                    return r;
+                }
+                p = p.right;
+            }
+        }
+        return r;
+    }
+
+    private void checkOrderStatistics() {
+        if (!orderStatistics) {
+            throw new UnsupportedOperationException("order statistics not enabled");
+        }
+    }
 
     /* 基本操作方法 */
     private static <K, V> boolean colorOf(Node<K, V> p) {
@@ -75,7 +594,14 @@ public class RedBlackTree<K, V> {
     private static <K, V> Node<K, V> parentOf(Node<K, V> p) {
         return (p == null ? null : p.parent);
     }
+    private static <K, V> int sizeOf(Node<K, V> p) {
+        return (p == null ? 0 : p.size);
+    }
     /* 节点获取 */
+    /**获取根节点*/
+    final Node<K, V> getRoot() {
+        return root;
+    }
     /**获取有序的第一个节点*/
     final Node<K, V> getFirstNode() {
         Node<K, V> p = root;
@@ -177,6 +703,11 @@ public class RedBlackTree<K, V> {
             //p变成了r的左孩子
             r.left = p;
             p.parent = r;
+            //r接管了p原来的整棵子树，p的子树由新的两个孩子重新计算
+            if (orderStatistics) {
+                r.size = p.size;
+                p.size = sizeOf(p.left) + sizeOf(p.right) + 1;
+            }
         }
     }
     /**
@@ -189,7 +720,7 @@ public class RedBlackTree<K, V> {
             //p的左孩子l
             Node<K, V> l = p.left;
             //p的新左孩子是l的右孩子
-            p.right = l.right;
+            p.left = l.right;
             //更新l的右孩子的父亲
             if (l.right != null) {
                 l.right.parent = p;
@@ -209,6 +740,10 @@ public class RedBlackTree<K, V> {
             //p变成了l的右孩子
             l.right = p;
             p.parent = l;
+            if (orderStatistics) {
+                l.size = p.size;
+                p.size = sizeOf(p.left) + sizeOf(p.right) + 1;
+            }
         }
     }
 
@@ -314,7 +849,7 @@ public class RedBlackTree<K, V> {
             }
             //x的父节点是祖父节点的右孩子，或者x的父节点是根节点
             else {
-                //获取y是祖父节点的右孩子，x的叔节点
+                //获取y是祖父节点的左孩子，x的叔节点
                 Node<K,V> y = leftOf(parentOf(parentOf(x)));
                 if (colorOf(y) == RED) {
                     setColor(parentOf(x), BLACK);
@@ -332,11 +867,244 @@ public class RedBlackTree<K, V> {
                     setColor(parentOf(x), BLACK);
                     //x的祖父节点设为红色
                     setColor(parentOf(parentOf(x)), RED);
-                    //x的祖父节点进行右旋
+                    //x的祖父节点进行左旋
                     rotateLeft(parentOf(parentOf(x)));
                 }
             }
         }
         root.color = BLACK;
     }
+
+    /*
+     * 删除操作：先按普通 BST 的方式删除，再修正颜色。
+     *
+     * 1、如果待删除节点 p 有两个孩子，用它的后继节点 s（右子树的最左节点，至多有一个右孩子）的键值覆盖 p，
+     * 转而删除 s，于是问题归结为删除至多有一个孩子的节点。
+     * 2、如果 p 有一个孩子 r，用 r 顶替 p。p 是红色时各路径的黑色节点数不变；p 是黑色时经过 r 的路径少了一个黑色节点，
+     * 需要从 r 开始修正（若 r 是红色，直接染黑即可）。
+     * 3、如果 p 没有孩子，p 是黑色时先把 p 自己当作“双黑”的占位节点进行修正，修正完成后再把它从父节点上摘下。
+     */
+    private void deleteEntry(Node<K, V> p) {
+        modCount++;
+        size--;
+        //有两个孩子时，把后继的键值复制到p，转而删除后继节点
+        if (p.left != null && p.right != null) {
+            Node<K, V> s = successor(p);
+            p.key = s.key;
+            p.value = s.value;
+            p = s;
+        }
+        if (orderStatistics) {
+            //p的所有祖先的子树都少了一个节点；p没有孩子时还要参与修正，先把它自己的大小记为0，
+            //这样修正过程中的旋转重新计算祖先大小时不会把它算进去
+            for (Node<K, V> q = p.parent; q != null; q = q.parent) {
+                q.size--;
+            }
+            p.size = 0;
+        }
+        //此时p至多有一个孩子
+        Node<K, V> replacement = (p.left != null ? p.left : p.right);
+        if (replacement != null) {
+            //孩子顶替p
+            replacement.parent = p.parent;
+            if (p.parent == null) {
+                root = replacement;
+            } else if (p == p.parent.left) {
+                p.parent.left = replacement;
+            } else {
+                p.parent.right = replacement;
+            }
+            //断开p的链接，便于修正和回收
+            p.left = p.right = p.parent = null;
+            if (p.color == BLACK) {
+                fixAfterDeletion(replacement);
+            }
+        } else if (p.parent == null) {
+            //删除的是唯一的节点
+            root = null;
+        } else {
+            //没有孩子：把p当作占位节点修正后再摘除
+            if (p.color == BLACK) {
+                fixAfterDeletion(p);
+            }
+            if (p.parent != null) {
+                if (p == p.parent.left) {
+                    p.parent.left = null;
+                } else if (p == p.parent.right) {
+                    p.parent.right = null;
+                }
+                p.parent = null;
+            }
+        }
+    }
+
+    /*
+     * 删除后的平衡维护：x 所在的路径比兄弟路径少一个黑色节点（x 带有一重“额外的黑色”）。
+     * 以 x 是左孩子为例（右孩子是镜像），设兄弟节点为 S：
+     *
+     * case1：S 为红色。左旋父节点 P，并交换 P 与 S 的颜色，x 的新兄弟变为黑色，转入 case2/3/4。
+     *
+     * case2：S 为黑色且两个孩子都为黑色。把 S 染红，使 P 的两侧黑高相等，额外的黑色上移到 P 继续修正
+     * （若 P 为红色，循环结束后直接染黑即可）。
+     *
+     * case3：S 为黑色，S 的左孩子为红色、右孩子为黑色。右旋 S 并交换颜色，转为 case4。
+     *
+     * case4：S 为黑色且 S 的右孩子为红色。左旋 P，S 继承 P 的颜色，P 和 S 的右孩子染黑，
+     * x 一侧因此多了一个黑色节点，修正结束。
+     *
+     * case4 的旋转如下（[B] 为黑色，<R> 为红色，() 为任意颜色：S 继承 P 原来的颜色，L 的颜色不变）：
+     *
+     *          (P)                        (S)
+     *         /   \       rotate(P)      /   \
+     *      [xB]   [SB]    ========>   [PB]   [RB]
+     *             /  \               /   \
+     *           (L)  <RR>          [xB]   (L)
+     */
+    private void fixAfterDeletion(Node<K, V> x) {
+        while (x != root && colorOf(x) == BLACK) {
+            if (x == leftOf(parentOf(x))) {
+                Node<K, V> sib = rightOf(parentOf(x));
+                //case1：兄弟为红色
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(parentOf(x), RED);
+                    rotateLeft(parentOf(x));
+                    sib = rightOf(parentOf(x));
+                }
+                //case2：兄弟的两个孩子都为黑色
+                if (colorOf(leftOf(sib)) == BLACK && colorOf(rightOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    //case3：兄弟的右孩子为黑色，左孩子为红色
+                    if (colorOf(rightOf(sib)) == BLACK) {
+                        setColor(leftOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateRight(sib);
+                        sib = rightOf(parentOf(x));
+                    }
+                    //case4：兄弟的右孩子为红色
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(rightOf(sib), BLACK);
+                    rotateLeft(parentOf(x));
+                    x = root;
+                }
+            } else {
+                //镜像情况
+                Node<K, V> sib = leftOf(parentOf(x));
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(parentOf(x), RED);
+                    rotateRight(parentOf(x));
+                    sib = leftOf(parentOf(x));
+                }
+                if (colorOf(rightOf(sib)) == BLACK && colorOf(leftOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(leftOf(sib)) == BLACK) {
+                        setColor(rightOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateLeft(sib);
+                        sib = leftOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(leftOf(sib), BLACK);
+                    rotateRight(parentOf(x));
+                    x = root;
+                }
+            }
+        }
+        setColor(x, BLACK);
+    }
+
+    /* 遍历 */
+    /**按键的升序遍历所有节点*/
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Node<K, V> e = getFirstNode(); e != null; e = successor(e)) {
+            action.accept(e.key, e.value);
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**返回按键升序遍历的迭代器，支持 remove*/
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator(getFirstNode(), false);
+    }
+
+    /**返回按键降序遍历的迭代器，支持 remove*/
+    public Iterator<Map.Entry<K, V>> descendingIterator() {
+        return new EntryIterator(getLastNode(), true);
+    }
+
+    /**
+     * 基于 successor/predecessor 的迭代器。
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final boolean descending;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+        private int expectedModCount;
+
+        EntryIterator(Node<K, V> first, boolean descending) {
+            this.descending = descending;
+            this.next = first;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            next = descending ? predecessor(e) : successor(e);
+            lastReturned = e;
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            //升序时，有两个孩子的节点被删除后，它的位置上是后继的键值，下一个要返回的正是它
+            if (!descending && lastReturned.left != null && lastReturned.right != null) {
+                next = lastReturned;
+            }
+            deleteEntry(lastReturned);
+            expectedModCount = modCount;
+            lastReturned = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Node<K, V> e = getFirstNode(); e != null; e = successor(e)) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(e.key).append('=').append(e.value);
+        }
+        return sb.append('}').toString();
+    }
 }
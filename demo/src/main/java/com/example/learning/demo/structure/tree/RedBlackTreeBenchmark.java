@@ -0,0 +1,139 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntSupplier;
+
+/**
+ * 对比 {@link RedBlackTree} 与 {@link TreeMap} 在 1K～10M 个随机 <tt>Integer</tt> 键上的插入、查找、删除耗时（ns/op），
+ * 以及从有序数组逐个插入与批量构造（{@link RedBlackTree#RedBlackTree(java.util.Comparator, boolean, Object[], Object[])}）的耗时。
+ *
+ * <p>与其它 <tt>*Benchmark</tt> 一样是简单的微基准：每个规模先预热再取多轮最好成绩，轮数随规模减少。
+ * 键和探测序列预先装箱，避免把装箱开销计入结果。运行方式：直接执行 {@link #main(String[])}，
+ * 可以通过参数指定规模，例如 <tt>1000 100000</tt>；大规模时需要足够的堆（10M 约需 <tt>-Xmx2g</tt>）。
+ */
+public class RedBlackTreeBenchmark {
+    private static final int[] DEFAULT_SIZES = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+
+    /** 每个规模大约执行的操作总数，用来决定轮数 */
+    private static final long OPS_PER_SIZE = 20_000_000L;
+
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int size : sizes) {
+            run(size);
+        }
+        Bench.done();
+    }
+
+    private static void run(int size) {
+        Random random = new Random(42);
+        Integer[] keys = new Integer[size];
+        Integer[] probes = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt();
+        }
+        for (int i = 0; i < size; i++) {
+            //一半命中，一半未命中
+            probes[i] = random.nextBoolean() ? keys[random.nextInt(size)] : Integer.valueOf(random.nextInt());
+        }
+        int rounds = (int) Math.max(3, Math.min(50, OPS_PER_SIZE / size));
+        int warmup = Math.max(1, rounds / 2);
+        System.out.printf("size = %,d (warmup %d, rounds %d)%n", size, warmup, rounds);
+
+        RedBlackTree<Integer, Integer> rb = new RedBlackTree<>();
+        TreeMap<Integer, Integer> tm = new TreeMap<>();
+        measure("insert  RedBlackTree ", size, warmup, rounds, () -> {
+            rb.clear();
+            for (Integer k : keys) {
+                rb.put(k, k);
+            }
+            return rb.size();
+        });
+        measure("insert  TreeMap      ", size, warmup, rounds, () -> {
+            tm.clear();
+            for (Integer k : keys) {
+                tm.put(k, k);
+            }
+            return tm.size();
+        });
+        measure("lookup  RedBlackTree ", size, warmup, rounds, () -> {
+            int s = 0;
+            for (Integer k : probes) {
+                s += rb.get(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+        measure("lookup  TreeMap      ", size, warmup, rounds, () -> {
+            int s = 0;
+            for (Integer k : probes) {
+                s += tm.get(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+        //删除需要每轮重建，这里只计删除本身的耗时
+        measureRemove("remove  RedBlackTree ", size, warmup, rounds, () -> {
+            for (Integer k : keys) {
+                rb.put(k, k);
+            }
+        }, () -> {
+            int s = 0;
+            for (Integer k : keys) {
+                s += rb.remove(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+        measureRemove("remove  TreeMap      ", size, warmup, rounds, () -> {
+            for (Integer k : keys) {
+                tm.put(k, k);
+            }
+        }, () -> {
+            int s = 0;
+            for (Integer k : keys) {
+                s += tm.remove(k) == null ? 0 : 1;
+            }
+            return s;
+        });
+        rb.clear();
+        tm.clear();
+
+        Integer[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || !sorted[i].equals(sorted[distinct - 1])) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        Integer[] sortedKeys = Arrays.copyOf(sorted, distinct);
+        measure("sorted  put one by one ", size, warmup, rounds, () -> {
+            RedBlackTree<Integer, Integer> t = new RedBlackTree<>();
+            for (Integer k : sortedKeys) {
+                t.put(k, k);
+            }
+            return t.size();
+        });
+        measure("sorted  bulk build     ", size, warmup, rounds, () ->
+                new RedBlackTree<Integer, Integer>(null, false, sortedKeys, sortedKeys).size());
+    }
+
+    private static void measure(String name, int size, int warmup, int rounds, IntSupplier op) {
+        report(name, size, Bench.bestNanos(warmup, rounds, op));
+    }
+
+    private static void measureRemove(String name, int size, int warmup, int rounds,
+                                      Runnable fill, IntSupplier op) {
+        report(name, size, Bench.bestNanos(warmup, rounds, fill, op));
+    }
+
+    private static void report(String name, int size, long bestNanos) {
+        System.out.printf("  %s : %8.1f ns/op%n", name, bestNanos / (double) size);
+    }
+}
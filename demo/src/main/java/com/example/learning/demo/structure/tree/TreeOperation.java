@@ -1,8 +1,10 @@
 package com.example.learning.demo.structure.tree;
 
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -56,6 +58,34 @@ public abstract class TreeOperation {
         return node;
     }
 
+    /**
+     * 从数组构造一颗完全二叉树 - 迭代
+     * 与递归版本的结果相同，arr[i] 的左右孩子是 arr[2i+1]、arr[2i+2]，为 null 的位置及其子树不创建。
+     * 只用一个长度为 arr.length 的数组记录已创建的节点，不依赖调用栈。
+     *
+     * @param <T> 树节点泛型参数
+     * @param arr 数组
+     * @return 根节点，arr 为空或 arr[0] 为 null 时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TreeNode<T> createCompleteBinaryTree(T[] arr) {
+        TreeNode<T>[] nodes = (TreeNode<T>[]) new TreeNode<?>[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            //父节点不存在时整棵子树都不存在
+            if (arr[i] == null || (i > 0 && nodes[(i - 1) / 2] == null))
+                continue;
+            nodes[i] = new TreeNode<T>(arr[i]);
+            if (i > 0) {
+                TreeNode<T> parent = nodes[(i - 1) / 2];
+                if ((i & 1) == 1)
+                    parent.left = nodes[i];
+                else
+                    parent.right = nodes[i];
+            }
+        }
+        return arr.length == 0 ? null : nodes[0];
+    }
+
     /*------------------ 遍历（Traversal） ------------------*/
     /*
      * (1) 深度优先遍历(DFS)
@@ -94,6 +124,191 @@ public abstract class TreeOperation {
         visit(root.val);
     }
 
+    /*
+     * 递归版本的调用栈深度等于树高，退化成链表的树（例如由有序的流式输入构造）有几十万层时会 StackOverflowError，
+     * 并且 visit 每次都拼接字符串。下面的版本把待处理的节点放在堆上的 NodeStack 中，或者用 Morris 线索化完全不用栈，
+     * 值通过 visitor 回调，遍历过程中不会为每个节点分配对象。
+     */
+
+    /**
+     * 遍历用的节点栈：数组实现，容量不够时翻倍，遍历结束后可以交给下一次遍历重复使用，
+     * 扩容到树高之后不再分配。不是线程安全的，同一时刻只能被一次遍历使用。
+     */
+    public static final class NodeStack<T> {
+        private TreeNode<T>[] elements;
+        private int size;
+
+        public NodeStack() {
+            this(16);
+        }
+
+        @SuppressWarnings("unchecked")
+        public NodeStack(int initialCapacity) {
+            elements = (TreeNode<T>[]) new TreeNode<?>[Math.max(1, initialCapacity)];
+        }
+
+        void push(TreeNode<T> node) {
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, size << 1);
+            elements[size++] = node;
+        }
+
+        TreeNode<T> pop() {
+            TreeNode<T> node = elements[--size];
+            elements[size] = null;
+            return node;
+        }
+
+        TreeNode<T> peek() {
+            return elements[size - 1];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /** 清空栈，保留已分配的容量 */
+        public void clear() {
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+        }
+
+        /** 当前容量，即曾经需要的最大深度 */
+        public int capacity() {
+            return elements.length;
+        }
+    }
+
+    // 前序遍历 - 迭代
+    public static <T> void preorder(TreeNode<T> root, Consumer<? super T> visitor) {
+        preorder(root, new NodeStack<T>(), visitor);
+    }
+
+    /**
+     * 前序遍历 - 迭代，使用给定的栈
+     * 沿左孩子一路向下访问，把右孩子压栈，栈中最多是树高个节点。
+     */
+    public static <T> void preorder(TreeNode<T> root, NodeStack<T> stack, Consumer<? super T> visitor) {
+        stack.clear();
+        TreeNode<T> node = root;
+        while (node != null || !stack.isEmpty()) {
+            if (node == null)
+                node = stack.pop();
+            visitor.accept(node.val);
+            if (node.right != null)
+                stack.push(node.right);
+            node = node.left;
+        }
+    }
+
+    // 中序遍历 - 迭代
+    public static <T> void inorder(TreeNode<T> root, Consumer<? super T> visitor) {
+        inorder(root, new NodeStack<T>(), visitor);
+    }
+
+    /**
+     * 中序遍历 - 迭代，使用给定的栈
+     * 把左链上的节点依次压栈，弹出时访问，再转向右子树。
+     */
+    public static <T> void inorder(TreeNode<T> root, NodeStack<T> stack, Consumer<? super T> visitor) {
+        stack.clear();
+        TreeNode<T> node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            visitor.accept(node.val);
+            node = node.right;
+        }
+    }
+
+    // 后序遍历 - 迭代
+    public static <T> void postorder(TreeNode<T> root, Consumer<? super T> visitor) {
+        postorder(root, new NodeStack<T>(), visitor);
+    }
+
+    /**
+     * 后序遍历 - 迭代，使用给定的栈
+     * 栈顶节点的右子树为空或者刚访问完（last 是它的右孩子）时才访问它，否则先转向右子树。
+     */
+    public static <T> void postorder(TreeNode<T> root, NodeStack<T> stack, Consumer<? super T> visitor) {
+        stack.clear();
+        TreeNode<T> node = root;
+        TreeNode<T> last = null;
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.left;
+            } else {
+                TreeNode<T> top = stack.peek();
+                if (top.right != null && top.right != last) {
+                    node = top.right;
+                } else {
+                    visitor.accept(top.val);
+                    last = stack.pop();
+                }
+            }
+        }
+    }
+
+    /**
+     * 中序遍历 - Morris，O(1) 额外空间
+     * 把左子树中最右节点（前驱）的 right 临时指向当前节点，沿这条线索回到当前节点后再把 right 恢复为 null。
+     * 每条边最多走两次，时间仍是 O(n)。遍历期间会临时修改树，所以 visitor 不能修改树，也不能抛出异常，
+     * 否则线索无法恢复；同一棵树也不能被并发遍历。
+     */
+    public static <T> void inorderMorris(TreeNode<T> root, Consumer<? super T> visitor) {
+        TreeNode<T> cur = root;
+        while (cur != null) {
+            if (cur.left == null) {
+                visitor.accept(cur.val);
+                cur = cur.right;
+                continue;
+            }
+            TreeNode<T> pre = cur.left;
+            while (pre.right != null && pre.right != cur)
+                pre = pre.right;
+            if (pre.right == null) {
+                //第一次到达：建立线索，进入左子树
+                pre.right = cur;
+                cur = cur.left;
+            } else {
+                //第二次到达：左子树已访问完，拆除线索
+                pre.right = null;
+                visitor.accept(cur.val);
+                cur = cur.right;
+            }
+        }
+    }
+
+    /**
+     * 前序遍历 - Morris，O(1) 额外空间
+     * 与 {@link #inorderMorris} 相同，只是在第一次到达节点（建立线索）时访问它。限制也相同。
+     */
+    public static <T> void preorderMorris(TreeNode<T> root, Consumer<? super T> visitor) {
+        TreeNode<T> cur = root;
+        while (cur != null) {
+            if (cur.left == null) {
+                visitor.accept(cur.val);
+                cur = cur.right;
+                continue;
+            }
+            TreeNode<T> pre = cur.left;
+            while (pre.right != null && pre.right != cur)
+                pre = pre.right;
+            if (pre.right == null) {
+                visitor.accept(cur.val);
+                pre.right = cur;
+                cur = cur.left;
+            } else {
+                pre.right = null;
+                cur = cur.right;
+            }
+        }
+    }
+
     public static  <T> void visit(T val) {
         visit(val + " ", System.out::print);
     }
@@ -104,27 +319,71 @@ public abstract class TreeOperation {
 
     // 层序遍历
     public static <T> void levelOrder(TreeNode<T> root) {
-        //收集每层元素顺序入队到list里
-        Queue<TreeNode<T>> list = new LinkedList<>();
-        //每层都需要一个队列来处理
-        Queue<TreeNode<T>> queue = new LinkedList<>();
-        //第一层是根节点
+        levelOrder(root, Integer.MAX_VALUE, (depth, values) -> {
+            for (T val : values)
+                visit(val);
+            return true;
+        });
+    }
+
+    /**
+     * 按层访问的回调
+     */
+    @FunctionalInterface
+    public interface LevelVisitor<T> {
+        /**
+         * 访问一层的值
+         *
+         * @param depth  层号，根节点为第 0 层
+         * @param values 这一层从左到右的值；列表在各层之间复用，只在回调期间有效，需要保留时自行复制
+         * @return 是否继续访问下一层，返回 false 时遍历立即结束
+         */
+        boolean visit(int depth, List<? extends T> values);
+    }
+
+    /**
+     * 层序遍历 - 按层批量回调
+     * 边出队边访问，不会先把整棵树复制到另一个集合：第一层处理完就回调，之后每处理完一层回调一次。
+     * 队列是 ArrayDeque，只保存当前层和下一层的节点，入队不会为每个元素分配包装节点；
+     * 每层的值放在同一个复用的列表中。
+     *
+     * @param <T>      树节点泛型参数
+     * @param root     根节点
+     * @param maxDepth 最多访问的层数，最后一层的孩子不会入队
+     * @param visitor  每层回调一次，返回 false 时提前结束
+     * @return 实际访问的层数
+     * @throws IllegalArgumentException 如果 maxDepth 小于 0
+     */
+    public static <T> int levelOrder(TreeNode<T> root, int maxDepth, LevelVisitor<? super T> visitor) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Illegal maxDepth: " + maxDepth);
+        if (root == null || maxDepth == 0)
+            return 0;
+        Deque<TreeNode<T>> queue = new ArrayDeque<>();
+        List<T> values = new ArrayList<>();
         queue.offer(root);
+        int depth = 0;
         while (!queue.isEmpty()) {
-            //上一层顺序出队
-            TreeNode<T> node = queue.poll();
-            //添加到所有元素的list中
-            list.offer(node);
-            //添加上一层的左孩子到这一层的队里
-            if (node.left != null) {
-                queue.offer(node.left);
-            }
-            //层序遍历从左向右，右孩子后入队
-            if (node.right != null) {
-                queue.offer(node.right);
+            //队列中恰好是这一层的节点
+            int width = queue.size();
+            boolean last = depth + 1 >= maxDepth;
+            values.clear();
+            for (int i = 0; i < width; i++) {
+                TreeNode<T> node = queue.poll();
+                values.add(node.val);
+                if (last)
+                    continue;
+                //从左向右，右孩子后入队
+                if (node.left != null)
+                    queue.offer(node.left);
+                if (node.right != null)
+                    queue.offer(node.right);
             }
+            depth++;
+            if (!visitor.visit(depth - 1, values) || last)
+                break;
         }
-        list.forEach(v -> visit(v.val));
+        return depth;
     }
 
     /*------------------ 其他常见操作 ------------------*/
@@ -0,0 +1,111 @@
+package com.example.learning.demo.structure.tree;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 基于 {@link PersistentRedBlackTree} 的可变有序 map：始终指向最新的版本，读操作不加锁，
+ * 写操作之间互斥，每次写入发布一个新版本。
+ *
+ * <p>{@link #snapshot()} 是 O(1) 的，只返回当前版本的引用；快照之后的写入不会影响它，
+ * 分析线程可以在快照上进行任意长时间的遍历，既不阻塞写线程，也不会看到写到一半的状态。
+ * 当前版本保存在 volatile 字段中，所以读线程总能看到已发布版本的完整内容。
+ *
+ * <p>{@link #apply} 在一个 {@link PersistentRedBlackTree.Batch} 中执行一组写操作，整组只发布一个版本：
+ * 读线程要么看到这组写入全部生效，要么全部未生效。
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @see PersistentRedBlackTree
+ */
+public class VersionedRedBlackTree<K, V> {
+    /* 当前版本 */
+    private volatile PersistentRedBlackTree<K, V> current;
+
+    /**
+     * 构造一棵空树，按键的自然顺序排序。
+     */
+    public VersionedRedBlackTree() {
+        this(new PersistentRedBlackTree<>());
+    }
+
+    /**
+     * 构造一棵空树，按给定比较器排序。
+     *
+     * @param comparator 用来排序的比较器，为 null 时使用键的自然顺序
+     */
+    public VersionedRedBlackTree(Comparator<? super K> comparator) {
+        this(new PersistentRedBlackTree<>(comparator));
+    }
+
+    /**
+     * 以给定版本作为初始内容。
+     *
+     * @param initial 初始版本
+     */
+    public VersionedRedBlackTree(PersistentRedBlackTree<K, V> initial) {
+        this.current = Objects.requireNonNull(initial);
+    }
+
+    /**
+     * 返回当前版本，O(1)。返回的版本不可变，可以在任意线程中不加锁地使用。
+     */
+    public PersistentRedBlackTree<K, V> snapshot() {
+        return current;
+    }
+
+    /* 查询操作，都在当前版本上进行 */
+    /**返回节点个数*/
+    public int size() {
+        return current.size();
+    }
+    /**是否包含指定的键*/
+    public boolean containsKey(Object key) {
+        return current.containsKey(key);
+    }
+    /**返回键对应的值，不存在时返回 null*/
+    public V get(Object key) {
+        return current.get(key);
+    }
+
+    /* 修改操作，写线程之间互斥 */
+    /**插入或替换键值对，返回原来的值，不存在时返回 null*/
+    public synchronized V put(K key, V value) {
+        PersistentRedBlackTree<K, V> t = current;
+        V oldValue = t.get(key);
+        current = t.put(key, value);
+        return oldValue;
+    }
+    /**删除键，返回原来的值，不存在时返回 null*/
+    public synchronized V remove(Object key) {
+        PersistentRedBlackTree<K, V> t = current;
+        V oldValue = t.get(key);
+        current = t.remove(key);
+        return oldValue;
+    }
+    /**删除所有键值对*/
+    public synchronized void clear() {
+        current = current.clear();
+    }
+
+    /**
+     * 在一个 batch 中执行一组写操作，完成后只发布一个新版本。如果 <tt>writes</tt> 抛出异常，
+     * 什么也不发布，当前版本保持不变。
+     *
+     * @param writes 对 batch 执行的写操作
+     * @return 发布的新版本
+     */
+    public synchronized PersistentRedBlackTree<K, V> apply(Consumer<? super PersistentRedBlackTree.Batch<K, V>> writes) {
+        PersistentRedBlackTree.Batch<K, V> batch = current.batch();
+        writes.accept(batch);
+        PersistentRedBlackTree<K, V> t = batch.commit();
+        current = t;
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        return current.toString();
+    }
+}